@@ -0,0 +1,114 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for {@link LdapAttribute} with a synthetic group of 100,000 member values. Run with <code>-prof gc</code>
+ * and compare <code>gc.alloc.rate.norm</code> of {@link #addValues()} with {@link #addSetValues()} to see the memory
+ * needed to hold the values in an attribute compared to a {@link LinkedHashSet} of {@link ByteBuffer}.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class LdapAttributeBenchmark
+{
+
+  /** Number of values in the attribute. */
+  private static final int SIZE = 100_000;
+
+  /** Encoded member values. */
+  private byte[][] values;
+
+  /** Attribute containing all the values. */
+  private LdapAttribute attribute;
+
+  /** Value to search for. */
+  private byte[] lastValue;
+
+
+  /** Create the values. */
+  @Setup
+  public void setup()
+  {
+    values = new byte[SIZE][];
+    for (int i = 0; i < SIZE; i++) {
+      values[i] = LdapUtils.utf8Encode("uid=" + i + ",ou=people,dc=ldaptive,dc=org");
+    }
+    lastValue = values[SIZE - 1];
+    attribute = new LdapAttribute("member", values);
+  }
+
+
+  /**
+   * Benchmark creating an attribute with all the values.
+   *
+   * @return  attribute
+   */
+  @Benchmark
+  public LdapAttribute addValues()
+  {
+    return new LdapAttribute("member", values);
+  }
+
+
+  /**
+   * Benchmark creating a linked hash set of buffers with all the values.
+   *
+   * @return  set of values
+   */
+  @Benchmark
+  public Set<ByteBuffer> addSetValues()
+  {
+    final Set<ByteBuffer> set = new LinkedHashSet<>();
+    for (byte[] v : values) {
+      set.add(ByteBuffer.wrap(v.clone()));
+    }
+    return set;
+  }
+
+
+  /**
+   * Benchmark {@link LdapAttribute#getStringValues()}.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void getStringValues(final Blackhole blackhole)
+  {
+    blackhole.consume(attribute.getStringValues());
+  }
+
+
+  /**
+   * Benchmark {@link LdapAttribute#hasValue(byte[])}.
+   *
+   * @return  whether the value exists
+   */
+  @Benchmark
+  public boolean hasValue()
+  {
+    return attribute.hasValue(lastValue);
+  }
+}
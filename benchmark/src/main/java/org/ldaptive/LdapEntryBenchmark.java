@@ -0,0 +1,116 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.concurrent.TimeUnit;
+import org.ldaptive.asn1.ApplicationDERTag;
+import org.ldaptive.asn1.ConstructedDEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
+import org.ldaptive.asn1.IntegerType;
+import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for decoding {@link LdapEntry} with 1,000 entries under the same parent DN. Compare {@link #decode} with a
+ * build that parses the DN eagerly to see the cost that lazy parsing avoids for callers that only invoke {@link
+ * LdapEntry#getDn()}. {@link #decodeNormalize} and {@link #decodeNormalizeCached} compare normalizing the DN of each
+ * entry with and without the parent DN cache.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class LdapEntryBenchmark
+{
+
+  /** Number of entries. */
+  private static final int SIZE = 1_000;
+
+  /** Encoded search result entries. */
+  private byte[][] entries;
+
+
+  /** Create the encoded entries. */
+  @Setup
+  public void setup()
+  {
+    entries = new byte[SIZE][];
+    for (int i = 0; i < SIZE; i++) {
+      entries[i] = new ConstructedDEREncoder(
+        UniversalDERTag.SEQ,
+        new IntegerType(1),
+        new ConstructedDEREncoder(
+          new ApplicationDERTag(LdapEntry.PROTOCOL_OP, true),
+          new OctetStringType("uid=" + i + ",ou=People,dc=ldaptive,dc=org"),
+          new ConstructedDEREncoder(
+            UniversalDERTag.SEQ,
+            new ConstructedDEREncoder(
+              UniversalDERTag.SEQ,
+              new OctetStringType("uid"),
+              new ConstructedDEREncoder(UniversalDERTag.SET, new OctetStringType(String.valueOf(i)))),
+            new ConstructedDEREncoder(
+              UniversalDERTag.SEQ,
+              new OctetStringType("mail"),
+              new ConstructedDEREncoder(UniversalDERTag.SET, new OctetStringType(i + "@ldaptive.org")))))).encode();
+    }
+  }
+
+
+  /**
+   * Benchmark decoding entries and reading the DN.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void decode(final Blackhole blackhole)
+  {
+    for (byte[] entry : entries) {
+      blackhole.consume(new LdapEntry(new DefaultDERBuffer(entry)).getDn());
+    }
+  }
+
+
+  /**
+   * Benchmark decoding entries and normalizing the DN.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void decodeNormalize(final Blackhole blackhole)
+  {
+    for (byte[] entry : entries) {
+      blackhole.consume(new LdapEntry(new DefaultDERBuffer(entry)).getNormalizedDn());
+    }
+  }
+
+
+  /**
+   * Benchmark decoding entries and normalizing the DN with the parent DN cache.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  @Fork(value = 1, jvmArgsAppend = "-Dorg.ldaptive.entry.parentDnCacheSize=1024")
+  public void decodeNormalizeCached(final Blackhole blackhole)
+  {
+    for (byte[] entry : entries) {
+      blackhole.consume(new LdapEntry(new DefaultDERBuffer(entry)).getNormalizedDn());
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.concurrent.TimeUnit;
+import org.ldaptive.asn1.DEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for encoding a {@link SearchRequest} compared to a {@link PreparedSearchRequest}. Each invocation encodes
+ * the request into a buffer the way the transport does.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class SearchRequestBenchmark
+{
+
+  /** Search request to encode. */
+  private static final SearchRequest SEARCH_REQUEST = SearchRequest.builder()
+    .dn("ou=people,dc=ldaptive,dc=org")
+    .filter("(&(objectClass=inetOrgPerson)(uid=dfisher))")
+    .returnAttributes("uid", "mail", "cn", "sn", "givenName")
+    .build();
+
+  /** Prepared search request to encode. */
+  private static final SearchRequest PREPARED_REQUEST = new PreparedSearchRequest(SEARCH_REQUEST);
+
+  /** Message ID of the next request. */
+  private int messageID;
+
+
+  /**
+   * Benchmark {@link SearchRequest#getEncoder(int)}.
+   *
+   * @return  encoded request
+   */
+  @Benchmark
+  public DefaultDERBuffer encode()
+  {
+    return encode(SEARCH_REQUEST);
+  }
+
+
+  /**
+   * Benchmark {@link PreparedSearchRequest#getEncoder(int)}.
+   *
+   * @return  encoded request
+   */
+  @Benchmark
+  public DefaultDERBuffer encodePrepared()
+  {
+    return encode(PREPARED_REQUEST);
+  }
+
+
+  /**
+   * Encodes the supplied request with the next message ID.
+   *
+   * @param  request  to encode
+   *
+   * @return  buffer containing the encoded request
+   */
+  private DefaultDERBuffer encode(final SearchRequest request)
+  {
+    final DEREncoder encoder = request.getEncoder(++messageID & Integer.MAX_VALUE);
+    final DefaultDERBuffer buffer = new DefaultDERBuffer(encoder.encodedLength());
+    encoder.encode(buffer);
+    return buffer;
+  }
+}
@@ -2,6 +2,7 @@
 package org.ldaptive.filter;
 
 import java.util.concurrent.TimeUnit;
+import org.ldaptive.FilterTemplate;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
 import org.openjdk.jmh.annotations.Fork;
@@ -15,7 +16,8 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
- * Benchmark for {@link DefaultFilterFunction}.
+ * Benchmark for {@link DefaultFilterFunction}. The template benchmarks compare formatting and parsing a parameterized
+ * filter template with producing the filter from a {@link CompiledFilterTemplate}, both including the DER encoding.
  *
  * @author  Middleware Services
  */
@@ -33,6 +35,9 @@ public class DefaultFilterFunctionBenchmark
   /** Filter to parse. */
   private static final String FILTER  = "(cn=daniel*fisher)";
 
+  /** Filter template to format. */
+  private static final String TEMPLATE = "(&(objectClass=inetOrgPerson)(|(uid={0})(mail={0}@ldaptive.org))(cn={1}*))";
+
   /** Filter function to benchmark. */
   private FilterFunction filterFunction;
 
@@ -62,4 +67,38 @@ public class DefaultFilterFunctionBenchmark
       throw new IllegalStateException("Could not parse filter: " + FILTER, e);
     }
   }
+
+
+  /**
+   * Benchmark {@link FilterTemplate#format()} and {@link DefaultFilterFunction#parse(String)}.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void parseTemplate(final Blackhole blackhole)
+  {
+    final FilterTemplate template = new FilterTemplate(TEMPLATE, new Object[] {"dfisher", "Daniel*"});
+    try {
+      blackhole.consume(filterFunction.parse(template.format()).getEncoder().encode());
+    } catch (FilterParseException e) {
+      throw new IllegalStateException("Could not parse filter: " + template, e);
+    }
+  }
+
+
+  /**
+   * Benchmark {@link FilterTemplate#toFilter()}.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void compileTemplate(final Blackhole blackhole)
+  {
+    final FilterTemplate template = new FilterTemplate(TEMPLATE, new Object[] {"dfisher", "Daniel*"});
+    try {
+      blackhole.consume(template.toFilter().getEncoder().encode());
+    } catch (FilterParseException e) {
+      throw new IllegalStateException("Could not parse filter: " + template, e);
+    }
+  }
 }
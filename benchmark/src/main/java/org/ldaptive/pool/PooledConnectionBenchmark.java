@@ -0,0 +1,314 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import org.ldaptive.AbandonRequest;
+import org.ldaptive.AddRequest;
+import org.ldaptive.AddResponse;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
+import org.ldaptive.CompareOperationHandle;
+import org.ldaptive.CompareRequest;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.DeleteRequest;
+import org.ldaptive.DeleteResponse;
+import org.ldaptive.FilterTemplate;
+import org.ldaptive.LdapURL;
+import org.ldaptive.ModifyDnRequest;
+import org.ldaptive.ModifyDnResponse;
+import org.ldaptive.ModifyRequest;
+import org.ldaptive.ModifyResponse;
+import org.ldaptive.OperationHandle;
+import org.ldaptive.SearchOperationHandle;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.extended.ExtendedOperationHandle;
+import org.ldaptive.extended.ExtendedRequest;
+import org.ldaptive.sasl.DefaultSaslClientRequest;
+import org.ldaptive.sasl.SaslClientRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmark for {@link PooledConnection} compared to a {@link Proxy} backed pooled connection. Connections returned by
+ * both pools delegate to an in memory connection so that only the cost of the pooled connection is measured.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class PooledConnectionBenchmark
+{
+
+  /** Number of searches to execute per connection check out. */
+  private static final int SEARCHES_PER_CHECK_OUT = 10;
+
+  /** Search request to execute. */
+  private static final SearchRequest SEARCH_REQUEST = SearchRequest.builder()
+    .dn("ou=people,dc=ldaptive,dc=org")
+    .filter(new FilterTemplate("(uid={0})", new Object[] {"1"}))
+    .returnAttributes("cn", "mail")
+    .build();
+
+  /** Pool that uses {@link PooledConnection}. */
+  private BlockingConnectionPool directPool;
+
+  /** Pool that uses {@link Proxy}. */
+  private BlockingConnectionPool reflectPool;
+
+
+  /** Initialize the pools. */
+  @Setup
+  public void setup()
+  {
+    directPool = new BlockingConnectionPool(createConnectionFactory());
+    directPool.setMinPoolSize(1);
+    directPool.setMaxPoolSize(1);
+    directPool.initialize();
+    reflectPool = new ReflectConnectionPool(createConnectionFactory());
+    reflectPool.setMinPoolSize(1);
+    reflectPool.setMaxPoolSize(1);
+    reflectPool.initialize();
+  }
+
+
+  /** Close the pools. */
+  @TearDown
+  public void tearDown()
+  {
+    directPool.close();
+    reflectPool.close();
+  }
+
+
+  /**
+   * Benchmark searches on a {@link PooledConnection}.
+   *
+   * @param  blackhole  to consume objects
+   *
+   * @throws  Exception  if a connection cannot be checked out
+   */
+  @Benchmark
+  public void direct(final Blackhole blackhole)
+    throws Exception
+  {
+    search(directPool, blackhole);
+  }
+
+
+  /**
+   * Benchmark searches on a {@link Proxy} backed connection.
+   *
+   * @param  blackhole  to consume objects
+   *
+   * @throws  Exception  if a connection cannot be checked out
+   */
+  @Benchmark
+  public void reflect(final Blackhole blackhole)
+    throws Exception
+  {
+    search(reflectPool, blackhole);
+  }
+
+
+  /**
+   * Checks out a connection from the supplied pool, executes searches and returns the connection.
+   *
+   * @param  pool  to check out a connection from
+   * @param  blackhole  to consume objects
+   *
+   * @throws  Exception  if a connection cannot be checked out
+   */
+  private static void search(final ConnectionPool pool, final Blackhole blackhole)
+    throws Exception
+  {
+    try (Connection conn = pool.getConnection()) {
+      for (int i = 0; i < SEARCHES_PER_CHECK_OUT; i++) {
+        if (conn.isOpen()) {
+          blackhole.consume(conn.operation(SEARCH_REQUEST));
+        }
+      }
+    }
+  }
+
+
+  /**
+   * Creates a connection factory that produces {@link InMemoryConnection}.
+   *
+   * @return  connection factory
+   */
+  private static DefaultConnectionFactory createConnectionFactory()
+  {
+    return new DefaultConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org"),
+      InMemoryConnection::new);
+  }
+
+
+  /** Connection pool that creates connection proxies with {@link Proxy}. */
+  private static class ReflectConnectionPool extends BlockingConnectionPool
+  {
+
+
+    /**
+     * Creates a new reflect connection pool.
+     *
+     * @param  cf  connection factory
+     */
+    ReflectConnectionPool(final DefaultConnectionFactory cf)
+    {
+      super(cf);
+    }
+
+
+    @Override
+    protected Connection createConnectionProxy(final PooledConnectionProxy pc)
+    {
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[] {Connection.class}, pc);
+    }
+  }
+
+
+  /** Connection that does not perform any I/O. */
+  private static class InMemoryConnection implements Connection
+  {
+
+    /** LDAP URL. */
+    private final LdapURL ldapURL;
+
+    /** Whether this connection is open. */
+    private boolean open;
+
+
+    /**
+     * Creates a new in memory connection.
+     *
+     * @param  cc  connection config
+     */
+    InMemoryConnection(final ConnectionConfig cc)
+    {
+      ldapURL = new LdapURL(cc.getLdapUrl());
+    }
+
+
+    @Override
+    public void operation(final AbandonRequest request) {}
+
+
+    @Override
+    public OperationHandle<AddRequest, AddResponse> operation(final AddRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public OperationHandle<BindRequest, BindResponse> operation(final BindRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public CompareOperationHandle operation(final CompareRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public OperationHandle<DeleteRequest, DeleteResponse> operation(final DeleteRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public ExtendedOperationHandle operation(final ExtendedRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public OperationHandle<ModifyRequest, ModifyResponse> operation(final ModifyRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public OperationHandle<ModifyDnRequest, ModifyDnResponse> operation(final ModifyDnRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public SearchOperationHandle operation(final SearchRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public BindResponse operation(final SaslClientRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public BindResponse operation(final DefaultSaslClientRequest request)
+    {
+      return null;
+    }
+
+
+    @Override
+    public LdapURL getLdapURL()
+    {
+      return ldapURL;
+    }
+
+
+    @Override
+    public boolean isOpen()
+    {
+      return open;
+    }
+
+
+    @Override
+    public void open()
+    {
+      open = true;
+    }
+
+
+    @Override
+    public void close(final RequestControl... controls)
+    {
+      open = false;
+    }
+  }
+}
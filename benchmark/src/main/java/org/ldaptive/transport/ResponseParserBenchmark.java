@@ -18,7 +18,8 @@ import org.openjdk.jmh.annotations.Warmup;
 import org.openjdk.jmh.infra.Blackhole;
 
 /**
- * Benchmark for {@link ResponseParser}.
+ * Benchmark for {@link ResponseParser}. Run with <code>-prof gc</code> to compare the allocation rate of creating a
+ * parser per message with reusing a single parser, as is done for each channel.
  *
  * @author  Middleware Services
  */
@@ -56,6 +57,9 @@ public class ResponseParserBenchmark
     0x61, 0x6c, 0x41, 0x64, 0x64, 0x72, 0x65, 0x73, 0x73, 0x04, 0x0a, 0x6c, 0x6f, 0x63, 0x61, 0x6c, 0x50, 0x68,
     0x6f, 0x6e, 0x65};
 
+  /** Parser reused across invocations. */
+  private final ResponseParser reusedParser = new ResponseParser();
+
 
   /**
    * Benchmark {@link ResponseParser#parse(DERBuffer)}.
@@ -69,4 +73,17 @@ public class ResponseParserBenchmark
     final Optional<Message> message = parser.parse(new DefaultDERBuffer(SEARCH_RESULT));
     blackhole.consume(message.get());
   }
+
+
+  /**
+   * Benchmark {@link ResponseParser#parse(DERBuffer)} with a single parser instance.
+   *
+   * @param  blackhole  to consume objects
+   */
+  @Benchmark
+  public void parseReuse(final Blackhole blackhole)
+  {
+    final Optional<Message> message = reusedParser.parse(new DefaultDERBuffer(SEARCH_RESULT));
+    blackhole.consume(message.get());
+  }
 }
@@ -0,0 +1,183 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.jfr.BindEvent;
+import org.ldaptive.jfr.ConnectionCloseEvent;
+import org.ldaptive.jfr.ConnectionOpenEvent;
+import org.ldaptive.jfr.ConnectionReconnectEvent;
+import org.ldaptive.jfr.JfrOperationListener;
+import org.ldaptive.jfr.OperationEvent;
+import org.ldaptive.jfr.PoolCheckInEvent;
+import org.ldaptive.jfr.PoolCheckOutEvent;
+import org.ldaptive.jfr.PoolValidationFailureEvent;
+import org.ldaptive.transport.DefaultOperationListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for the cost of flight recorder events and operation listeners on the search path. Searches are answered
+ * by the in process server of {@link TransportBenchmark} over the NIO transport. The modes are:
+ *
+ * <ul>
+ *   <li>none - no recording and no operation listener, the cost of the disabled instrumentation</li>
+ *   <li>recording - a recording with the default settings, which leave the frequent ldaptive events disabled</li>
+ *   <li>events - a recording with every ldaptive event enabled and the flight recorder operation listener</li>
+ *   <li>listener - no recording and the aggregating operation listener</li>
+ * </ul>
+ *
+ * Comparing none and recording with a build that predates the instrumentation shows the disabled cost, which is
+ * expected to be within the measurement error.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class InstrumentationBenchmark
+{
+
+  /** Search request to execute. */
+  private static final SearchRequest SEARCH_REQUEST = SearchRequest.builder()
+    .dn("ou=people,dc=ldaptive,dc=org")
+    .filter("(uid=1)")
+    .returnAttributes("cn", "mail")
+    .build();
+
+  /** Instrumentation to benchmark. */
+  @Param({"none", "recording", "events", "listener"})
+  private String mode;
+
+  /** Event loop group of the server. */
+  private EventLoopGroup serverGroup;
+
+  /** Server channel. */
+  private Channel serverChannel;
+
+  /** Connection factory for the client transport. */
+  private DefaultConnectionFactory connectionFactory;
+
+  /** Connection to search on. */
+  private Connection connection;
+
+  /** Flight recording, null if the mode does not record. */
+  private Recording recording;
+
+
+  /**
+   * Starts the server, the recording and opens a connection.
+   *
+   * @throws  Exception  if the server cannot be started or the connection cannot be opened
+   */
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    serverGroup = new NioEventLoopGroup(1);
+    serverChannel = new ServerBootstrap()
+      .group(serverGroup)
+      .channel(NioServerSocketChannel.class)
+      .childHandler(
+        new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(final SocketChannel ch)
+          {
+            ch.pipeline().addLast(new MessageFrameDecoder(), new TransportBenchmark.SearchHandler());
+          }
+        })
+      .bind("127.0.0.1", 0).sync().channel();
+    final int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    final ConnectionConfig config = new ConnectionConfig("ldap://127.0.0.1:" + port);
+    switch (mode) {
+    case "none":
+      break;
+    case "recording":
+      recording = new Recording(Configuration.getConfiguration("default"));
+      recording.start();
+      break;
+    case "events":
+      recording = new Recording(Configuration.getConfiguration("default"));
+      recording.enable(OperationEvent.class);
+      recording.enable(BindEvent.class);
+      recording.enable(ConnectionOpenEvent.class);
+      recording.enable(ConnectionReconnectEvent.class);
+      recording.enable(ConnectionCloseEvent.class);
+      recording.enable(PoolCheckOutEvent.class);
+      recording.enable(PoolCheckInEvent.class);
+      recording.enable(PoolValidationFailureEvent.class);
+      recording.start();
+      config.setOperationListener(new JfrOperationListener());
+      break;
+    case "listener":
+      config.setOperationListener(new DefaultOperationListener());
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown mode " + mode);
+    }
+    connectionFactory = new DefaultConnectionFactory(
+      config,
+      new NettyConnectionFactoryTransport(NioSocketChannel.class, new NioEventLoopGroup(1)));
+    connection = connectionFactory.getConnection();
+    connection.open();
+  }
+
+
+  /** Closes the connection, stops the recording and stops the server. */
+  @TearDown
+  public void tearDown()
+  {
+    connection.close();
+    connectionFactory.close();
+    if (recording != null) {
+      recording.close();
+    }
+    serverChannel.close().syncUninterruptibly();
+    NettyUtils.shutdownGracefully(serverGroup);
+  }
+
+
+  /**
+   * Benchmark a search.
+   *
+   * @return  search response
+   *
+   * @throws  Exception  if the search fails
+   */
+  @Benchmark
+  public SearchResponse search()
+    throws Exception
+  {
+    return connection.operation(SEARCH_REQUEST).execute();
+  }
+}
@@ -0,0 +1,159 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.MultiplexedConnectionFactory;
+import org.ldaptive.PooledConnectionFactory;
+import org.ldaptive.SearchOperation;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for concurrent searches through a pool of exclusively checked out connections compared to a few
+ * multiplexed connections. Searches are answered by the in process server of {@link TransportBenchmark} over the NIO
+ * transport. The factories are:
+ *
+ * <ul>
+ *   <li>pooled - a {@link PooledConnectionFactory} with 100 connections</li>
+ *   <li>multiplexed - a {@link MultiplexedConnectionFactory} with {@link #connections} connections</li>
+ * </ul>
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(64)
+// CheckStyle:MagicNumber ON
+public class MultiplexedConnectionBenchmark
+{
+
+  /** Search request to execute. */
+  private static final SearchRequest SEARCH_REQUEST = SearchRequest.builder()
+    .dn("ou=people,dc=ldaptive,dc=org")
+    .filter("(uid=1)")
+    .returnAttributes("cn", "mail")
+    .build();
+
+  /** Connection factory to benchmark. */
+  @Param({"pooled", "multiplexed"})
+  private String factory;
+
+  /** Number of multiplexed connections, ignored by the pooled factory. */
+  @Param({"4", "8"})
+  private int connections;
+
+  /** Event loop group of the server. */
+  private EventLoopGroup serverGroup;
+
+  /** Server channel. */
+  private Channel serverChannel;
+
+  /** Connection factory to search with. */
+  private ConnectionFactory connectionFactory;
+
+  /** Search operation to execute. */
+  private SearchOperation operation;
+
+
+  /**
+   * Starts the server and initializes the connection factory.
+   *
+   * @throws  Exception  if the server cannot be started or the connection factory cannot be initialized
+   */
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    serverGroup = new NioEventLoopGroup(2);
+    serverChannel = new ServerBootstrap()
+      .group(serverGroup)
+      .channel(NioServerSocketChannel.class)
+      .childHandler(
+        new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(final SocketChannel ch)
+          {
+            ch.pipeline().addLast(new MessageFrameDecoder(), new TransportBenchmark.SearchHandler());
+          }
+        })
+      .bind("127.0.0.1", 0).sync().channel();
+    final int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    final ConnectionConfig config = new ConnectionConfig("ldap://127.0.0.1:" + port);
+    switch (factory) {
+    case "pooled":
+      final PooledConnectionFactory pooled = new PooledConnectionFactory(
+        config,
+        new NettyConnectionFactoryTransport(NioSocketChannel.class, new NioEventLoopGroup(2)));
+      pooled.setMinPoolSize(100);
+      pooled.setMaxPoolSize(100);
+      pooled.initialize();
+      connectionFactory = pooled;
+      break;
+    case "multiplexed":
+      final MultiplexedConnectionFactory multiplexed = new MultiplexedConnectionFactory(
+        config,
+        new NettyConnectionFactoryTransport(NioSocketChannel.class, new NioEventLoopGroup(2)));
+      multiplexed.setConnectionCount(connections);
+      multiplexed.initialize();
+      connectionFactory = multiplexed;
+      break;
+    default:
+      throw new IllegalArgumentException("Unknown factory " + factory);
+    }
+    operation = new SearchOperation(connectionFactory);
+  }
+
+
+  /** Closes the connection factory and stops the server. */
+  @TearDown
+  public void tearDown()
+  {
+    connectionFactory.close();
+    serverChannel.close().syncUninterruptibly();
+    NettyUtils.shutdownGracefully(serverGroup);
+  }
+
+
+  /**
+   * Benchmark a search.
+   *
+   * @return  search response
+   *
+   * @throws  Exception  if the search fails
+   */
+  @Benchmark
+  public SearchResponse search()
+    throws Exception
+  {
+    return operation.execute(SEARCH_REQUEST);
+  }
+}
@@ -0,0 +1,245 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.asn1.ApplicationDERTag;
+import org.ldaptive.asn1.ConstructedDEREncoder;
+import org.ldaptive.asn1.IntegerType;
+import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for search throughput of the NIO, epoll and io_uring transports over loopback. Searches are answered by an
+ * in process NIO server that returns a single entry for every search request, so the server side cost is the same for
+ * each transport. Transports that are not available on the host fail during setup.
+ *
+ * @author  Middleware Services
+ */
+// CheckStyle:MagicNumber OFF
+@Fork(1)
+@Warmup(iterations = 2, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+// CheckStyle:MagicNumber ON
+public class TransportBenchmark
+{
+
+  /** Search request to execute. */
+  private static final SearchRequest SEARCH_REQUEST = SearchRequest.builder()
+    .dn("ou=people,dc=ldaptive,dc=org")
+    .filter("(uid=1)")
+    .returnAttributes("cn", "mail")
+    .build();
+
+  /** Tag of a search request protocol op. */
+  private static final int SEARCH_REQUEST_TAG = new ApplicationDERTag(SearchRequest.PROTOCOL_OP, true).getTagByte();
+
+  /** Client transport to benchmark. */
+  @Param({"nio", "epoll", "io_uring"})
+  private String transport;
+
+  /** Event loop group of the server. */
+  private EventLoopGroup serverGroup;
+
+  /** Server channel. */
+  private Channel serverChannel;
+
+  /** Connection factory for the client transport. */
+  private DefaultConnectionFactory connectionFactory;
+
+  /** Connection to search on. */
+  private Connection connection;
+
+
+  /**
+   * Starts the server and opens a connection with the client transport.
+   *
+   * @throws  Exception  if the server cannot be started or the connection cannot be opened
+   */
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    serverGroup = new NioEventLoopGroup(1);
+    serverChannel = new ServerBootstrap()
+      .group(serverGroup)
+      .channel(NioServerSocketChannel.class)
+      .childHandler(
+        new ChannelInitializer<SocketChannel>() {
+          @Override
+          protected void initChannel(final SocketChannel ch)
+          {
+            ch.pipeline().addLast(new MessageFrameDecoder(), new SearchHandler());
+          }
+        })
+      .bind("127.0.0.1", 0).sync().channel();
+    final int port = ((InetSocketAddress) serverChannel.localAddress()).getPort();
+    connectionFactory = new DefaultConnectionFactory(
+      new ConnectionConfig("ldap://127.0.0.1:" + port),
+      createTransport(transport));
+    connection = connectionFactory.getConnection();
+    connection.open();
+  }
+
+
+  /** Closes the connection and stops the server. */
+  @TearDown
+  public void tearDown()
+  {
+    connection.close();
+    connectionFactory.close();
+    serverChannel.close().syncUninterruptibly();
+    NettyUtils.shutdownGracefully(serverGroup);
+  }
+
+
+  /**
+   * Benchmark a search on the client transport.
+   *
+   * @return  search response
+   *
+   * @throws  Exception  if the search fails
+   */
+  @Benchmark
+  public SearchResponse search()
+    throws Exception
+  {
+    return connection.operation(SEARCH_REQUEST).execute();
+  }
+
+
+  /**
+   * Creates a client transport with a single I/O thread.
+   *
+   * @param  type  of transport
+   *
+   * @return  netty connection factory transport
+   */
+  private static NettyConnectionFactoryTransport createTransport(final String type)
+  {
+    switch (type) {
+    case "nio":
+      return new NettyConnectionFactoryTransport(NioSocketChannel.class, new NioEventLoopGroup(1));
+    case "epoll":
+      if (!Epoll.isAvailable()) {
+        throw new IllegalStateException("Epoll transport is not available", Epoll.unavailabilityCause());
+      }
+      return new NettyConnectionFactoryTransport(EpollSocketChannel.class, new EpollEventLoopGroup(1));
+    case "io_uring":
+      return new IOUringConnectionFactoryTransport(1);
+    default:
+      throw new IllegalArgumentException("Unknown transport " + type);
+    }
+  }
+
+
+  /** Answers every search request with a single entry and a successful result. */
+  static class SearchHandler extends SimpleChannelInboundHandler<ByteBuf>
+  {
+
+
+    @Override
+    protected void channelRead0(final ChannelHandlerContext ctx, final ByteBuf msg)
+    {
+      // SEQ tag, length, INT tag, length, message ID, protocol op tag
+      msg.skipBytes(1);
+      final int seqLength = msg.readUnsignedByte();
+      if ((seqLength & 0x80) != 0) {
+        msg.skipBytes(seqLength & 0x7F);
+      }
+      msg.skipBytes(1);
+      final int idLength = msg.readUnsignedByte();
+      int messageID = 0;
+      for (int i = 0; i < idLength; i++) {
+        messageID = (messageID << 8) | msg.readUnsignedByte();
+      }
+      if (msg.readUnsignedByte() == SEARCH_REQUEST_TAG) {
+        ctx.write(ctx.alloc().buffer().writeBytes(encodeEntry(messageID)));
+        ctx.writeAndFlush(ctx.alloc().buffer().writeBytes(encodeDone(messageID)));
+      }
+    }
+
+
+    /**
+     * Encodes a search result entry.
+     *
+     * @param  messageID  of the search request
+     *
+     * @return  encoded search result entry
+     */
+    private static byte[] encodeEntry(final int messageID)
+    {
+      return new ConstructedDEREncoder(
+        UniversalDERTag.SEQ,
+        new IntegerType(messageID),
+        new ConstructedDEREncoder(
+          new ApplicationDERTag(LdapEntry.PROTOCOL_OP, true),
+          new OctetStringType("uid=1,ou=people,dc=ldaptive,dc=org"),
+          new ConstructedDEREncoder(
+            UniversalDERTag.SEQ,
+            new ConstructedDEREncoder(
+              UniversalDERTag.SEQ,
+              new OctetStringType("cn"),
+              new ConstructedDEREncoder(UniversalDERTag.SET, new OctetStringType("John Quincy Adams"))),
+            new ConstructedDEREncoder(
+              UniversalDERTag.SEQ,
+              new OctetStringType("mail"),
+              new ConstructedDEREncoder(UniversalDERTag.SET, new OctetStringType("jqadams@ldaptive.org")))))).encode();
+    }
+
+
+    /**
+     * Encodes a successful search result done.
+     *
+     * @param  messageID  of the search request
+     *
+     * @return  encoded search result done
+     */
+    private static byte[] encodeDone(final int messageID)
+    {
+      return new ConstructedDEREncoder(
+        UniversalDERTag.SEQ,
+        new IntegerType(messageID),
+        new ConstructedDEREncoder(
+          new ApplicationDERTag(SearchResponse.PROTOCOL_OP, true),
+          new IntegerType(UniversalDERTag.ENUM, 0),
+          new OctetStringType(""),
+          new OctetStringType(""))).encode();
+    }
+  }
+}
@@ -5,13 +5,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.ldaptive.asn1.AbstractParseHandler;
+import org.ldaptive.asn1.ApplicationDERTag;
 import org.ldaptive.asn1.BooleanType;
+import org.ldaptive.asn1.ContextDERTag;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
 import org.ldaptive.asn1.DERPath;
 import org.ldaptive.asn1.IntegerType;
 import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
 import org.ldaptive.control.ControlFactory;
 import org.ldaptive.control.ResponseControl;
 
@@ -36,6 +40,24 @@ import org.ldaptive.control.ResponseControl;
 public abstract class AbstractMessage implements Message
 {
 
+  /** Parser used to read DER lengths. Reading a length does not use any parser state, so one instance is shared. */
+  static final DERParser LENGTH_PARSER = new DERParser();
+
+  /** Mask for an unsigned byte. */
+  static final int BYTE_MASK = 0xFF;
+
+  /** Universal SEQUENCE tag byte of the LDAP message envelope. */
+  private static final int SEQUENCE_TAG = UniversalDERTag.SEQ.getTagByte();
+
+  /** Universal INTEGER tag byte of the message ID. */
+  private static final int MESSAGE_ID_TAG = UniversalDERTag.INT.getTagByte();
+
+  /** Context specific tag byte of the message controls. */
+  private static final int CONTROLS_TAG = new ContextDERTag(0, true).getTagByte();
+
+  /** Mask for the tag class bits. */
+  private static final int TAG_CLASS_MASK = 0xC0;
+
   /** Protocol message ID. */
   private int messageID;
 
@@ -87,6 +109,59 @@ public abstract class AbstractMessage implements Message
   }
 
 
+  /**
+   * Decodes the LDAP message envelope in the supplied buffer by reading its elements in order. The message ID and any
+   * controls are set on this message, the protocol operation is passed to the supplied decoder with the buffer limited
+   * to its content. Unlike decoding with a {@link DERParser}, no parser or parse handlers are created for each message.
+   *
+   * @param  buffer  containing an LDAP message
+   * @param  protocolOp  decodes the content of the protocol operation
+   */
+  protected void decodeMessage(final DERBuffer buffer, final Consumer<DERBuffer> protocolOp)
+  {
+    if (!buffer.hasRemaining() || (buffer.get() & BYTE_MASK) != SEQUENCE_TAG) {
+      return;
+    }
+    final int limit = buffer.limit();
+    final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+    while (buffer.position() < end) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int next = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      buffer.limit(next);
+      if (tag == MESSAGE_ID_TAG) {
+        setMessageID(IntegerType.decodeUnsignedPrimitive(buffer));
+      } else if (tag == CONTROLS_TAG) {
+        decodeControls(buffer);
+      } else if ((tag & TAG_CLASS_MASK) == ApplicationDERTag.TAG_CLASS) {
+        protocolOp.accept(buffer);
+      }
+      buffer.limit(limit).position(next);
+    }
+  }
+
+
+  /**
+   * Decodes the supplied sequence of controls and adds them to this message.
+   *
+   * @param  buffer  containing the controls
+   */
+  private void decodeControls(final DERBuffer buffer)
+  {
+    final int limit = buffer.limit();
+    final ControlParser p = new ControlParser();
+    while (buffer.hasRemaining()) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      if (tag == SEQUENCE_TAG) {
+        buffer.limit(end);
+        p.parse(buffer);
+        addControls(p.createControl());
+      }
+      buffer.limit(limit).position(end);
+    }
+  }
+
+
   // CheckStyle:EqualsHashCode OFF
   @Override
   public boolean equals(final Object o)
@@ -154,6 +229,9 @@ public abstract class AbstractMessage implements Message
     /** DER path to controls. */
     public static final DERPath PATH = new DERPath("/SEQ/CTX(0)/SEQ");
 
+    /** Parser reused for every control in the message. */
+    private ControlParser controlParser;
+
 
     /**
      * Creates a new controls handler.
@@ -169,37 +247,36 @@ public abstract class AbstractMessage implements Message
     @Override
     public void handle(final DERParser parser, final DERBuffer encoded)
     {
-      final ControlParser p = new ControlParser();
-      p.parse(encoded);
-      getObject().addControls(
-        ControlFactory.createResponseControl(
-          p.getOid().isPresent() ? p.getOid().get() : null,
-          p.getCritical().isPresent() ? p.getCritical().get() : false,
-          p.getValue().isPresent() ? p.getValue().get() : null));
+      if (controlParser == null) {
+        controlParser = new ControlParser();
+      }
+      controlParser.parse(encoded);
+      getObject().addControls(controlParser.createControl());
     }
   }
 
 
   /**
-   * Parses a buffer containing an LDAP control.
+   * Parses a buffer containing an LDAP control. The control is decoded by walking its elements in order, so a single
+   * instance can be reused to parse multiple controls.
    */
   protected static class ControlParser
   {
 
-    /** DER path to criticality. */
-    private static final DERPath CRITICAL_PATH = new DERPath("/BOOL[1]");
+    /** Tag byte for criticality. */
+    private static final int CRITICAL_TAG = UniversalDERTag.BOOL.getTagByte();
 
-    /** DER path to OID. */
-    private static final DERPath OID_PATH = new DERPath("/OCTSTR[0]");
+    /** Tag byte for OID and value. */
+    private static final int OCTSTR_TAG = UniversalDERTag.OCTSTR.getTagByte();
 
-    /** DER path to value. */
-    private static final DERPath VALUE_PATH = new DERPath("/OCTSTR[1]");
+    /** Index of the OID element. */
+    private static final int OID_INDEX = 0;
 
-    /** DER path to alternate value. */
-    private static final DERPath ALT_VALUE_PATH = new DERPath("/OCTSTR[2]");
+    /** Index of the criticality or value element. */
+    private static final int VALUE_INDEX = 1;
 
-    /** Parser for decoding LDAP controls. */
-    private final DERParser parser = new DERParser();
+    /** Index of the value element when criticality is present. */
+    private static final int ALT_VALUE_INDEX = 2;
 
     /** Control criticality. */
     private Boolean critical;
@@ -214,27 +291,49 @@ public abstract class AbstractMessage implements Message
     /**
      * Creates a new control parser.
      */
-    public ControlParser()
+    public ControlParser() {}
+
+
+    /**
+     * Examines the supplied buffer and parses an LDAP control if one is found. Any state from a previous parse is
+     * discarded.
+     *
+     * @param  buffer  to parse
+     */
+    public void parse(final DERBuffer buffer)
     {
-      parser.registerHandler(CRITICAL_PATH, (p, e) -> critical = BooleanType.decode(e));
-      parser.registerHandler(OID_PATH, (p, e) -> oid = OctetStringType.decode(e));
-      parser.registerHandler(VALUE_PATH, (p, e) -> value = e.slice());
-      parser.registerHandler(ALT_VALUE_PATH, (p, e) -> {
-        if (value == null) {
-          value = e.slice();
+      critical = null;
+      oid = null;
+      value = null;
+      int index = 0;
+      while (buffer.hasRemaining()) {
+        final int tag = buffer.get() & BYTE_MASK;
+        final int limit = buffer.limit();
+        final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+        buffer.limit(end);
+        if (tag == OCTSTR_TAG) {
+          if (index == OID_INDEX) {
+            oid = OctetStringType.decode(buffer);
+          } else if (index == VALUE_INDEX || index == ALT_VALUE_INDEX && value == null) {
+            value = buffer.slice();
+          }
+        } else if (tag == CRITICAL_TAG && index == VALUE_INDEX) {
+          critical = BooleanType.decode(buffer);
         }
-      });
+        buffer.limit(limit).position(end);
+        index++;
+      }
     }
 
 
     /**
-     * Examines the supplied buffer and parses an LDAP control if one is found.
+     * Creates a response control from the last parse.
      *
-     * @param  buffer  to parse
+     * @return  response control
      */
-    public void parse(final DERBuffer buffer)
+    ResponseControl createControl()
     {
-      parser.parse(buffer);
+      return ControlFactory.createResponseControl(oid, critical != null ? critical : false, value);
     }
 
 
@@ -5,10 +5,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import org.ldaptive.asn1.AbstractParseHandler;
+import org.ldaptive.asn1.ContextDERTag;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
 import org.ldaptive.asn1.IntegerType;
 import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
 
 /**
  * LDAP result message defined as:
@@ -32,6 +34,24 @@ import org.ldaptive.asn1.OctetStringType;
 public abstract class AbstractResult extends AbstractMessage implements Result
 {
 
+  /** Tag byte for the result code. */
+  private static final int RESULT_CODE_TAG = UniversalDERTag.ENUM.getTagByte();
+
+  /** Tag byte for the matched DN, diagnostic message and referral URLs. */
+  private static final int OCTSTR_TAG = UniversalDERTag.OCTSTR.getTagByte();
+
+  /** Tag number of the referral. */
+  private static final int REFERRAL_TAG_NO = 3;
+
+  /** Tag byte for the referral. */
+  private static final int REFERRAL_TAG = new ContextDERTag(REFERRAL_TAG_NO, true).getTagByte();
+
+  /** Index of the matched DN. */
+  private static final int MATCHED_DN_INDEX = 1;
+
+  /** Index of the diagnostic message. */
+  private static final int DIAGNOSTIC_MESSAGE_INDEX = 2;
+
   /** Result code. */
   private ResultCode resultCode;
 
@@ -114,6 +134,50 @@ public abstract class AbstractResult extends AbstractMessage implements Result
   }
 
 
+  /**
+   * Decodes the content of an LDAPResult protocol operation by reading its elements in order. Only the first referral
+   * URL is decoded, as with {@link ReferralHandler}.
+   *
+   * @param  buffer  positioned at the result code and limited to the end of the protocol operation
+   */
+  protected void decodeResult(final DERBuffer buffer)
+  {
+    final int limit = buffer.limit();
+    int index = 0;
+    while (buffer.hasRemaining()) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      buffer.limit(end);
+      if (index == 0 && tag == RESULT_CODE_TAG) {
+        setResultCode(ResultCode.valueOf(IntegerType.decodeUnsignedPrimitive(buffer)));
+      } else if (index == MATCHED_DN_INDEX && tag == OCTSTR_TAG) {
+        setMatchedDN(OctetStringType.decode(buffer));
+      } else if (index == DIAGNOSTIC_MESSAGE_INDEX && tag == OCTSTR_TAG) {
+        setDiagnosticMessage(OctetStringType.decode(buffer));
+      } else if (tag == REFERRAL_TAG) {
+        if (buffer.hasRemaining() && (buffer.get() & BYTE_MASK) == OCTSTR_TAG) {
+          buffer.limit(LENGTH_PARSER.readLength(buffer) + buffer.position());
+          addReferralURLs(OctetStringType.decode(buffer));
+        }
+      } else if (index > DIAGNOSTIC_MESSAGE_INDEX) {
+        decodeResponseElement(tag, buffer);
+      }
+      buffer.limit(limit).position(end);
+      index++;
+    }
+  }
+
+
+  /**
+   * Decodes an element of the protocol operation that follows the LDAPResult, such as the server SASL credentials of a
+   * bind response. This implementation ignores the element.
+   *
+   * @param  tag  byte of the element
+   * @param  buffer  limited to the content of the element
+   */
+  protected void decodeResponseElement(final int tag, final DERBuffer buffer) {}
+
+
   // CheckStyle:EqualsHashCode OFF
   @Override
   public boolean equals(final Object o)
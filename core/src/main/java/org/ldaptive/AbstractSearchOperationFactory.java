@@ -34,6 +34,9 @@ public abstract class AbstractSearchOperationFactory implements ConnectionFactor
   /** Functions to handle search response results. */
   private SearchResultHandler[] searchResultHandlers;
 
+  /** Coalesces identical searches that are executed concurrently. */
+  private SearchRequestCoalescer requestCoalescer;
+
 
   /**
    * Returns the connection factory.
@@ -145,6 +148,28 @@ public abstract class AbstractSearchOperationFactory implements ConnectionFactor
   }
 
 
+  /**
+   * Returns the request coalescer.
+   *
+   * @return  request coalescer
+   */
+  public SearchRequestCoalescer getRequestCoalescer()
+  {
+    return requestCoalescer;
+  }
+
+
+  /**
+   * Sets the request coalescer. Identical searches executed concurrently by this factory share a single search.
+   *
+   * @param  coalescer  request coalescer
+   */
+  public void setRequestCoalescer(final SearchRequestCoalescer coalescer)
+  {
+    requestCoalescer = coalescer;
+  }
+
+
   /**
    * Creates a new search operation configured with the properties on this factory.
    *
@@ -178,6 +203,9 @@ public abstract class AbstractSearchOperationFactory implements ConnectionFactor
     if (searchResultHandlers != null) {
       op.setSearchResultHandlers(searchResultHandlers);
     }
+    if (requestCoalescer != null) {
+      op.setRequestCoalescer(requestCoalescer);
+    }
     return op;
   }
 }
@@ -0,0 +1,581 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.ldaptive.asn1.DERBuffer;
+
+/**
+ * Ordered set of attribute values stored in a single byte array. The bounds of each value are recorded in an offsets
+ * array, so a value costs four bytes of overhead rather than a set entry, a buffer and an array. Duplicate values are
+ * detected with a linear scan for small attributes and with an open addressing hash index that is built on demand for
+ * larger attributes. Decoded string values are cached until the values are modified. Storage shrinks when removals
+ * leave it mostly unused. Instances are not thread safe for modification, concurrent reads are permitted.
+ *
+ * @author  Middleware Services
+ */
+final class AttributeValues
+{
+
+  /** Number of values above which a hash index is used to find values. */
+  private static final int INDEX_THRESHOLD = 8;
+
+  /** Initial number of values. */
+  private static final int DEFAULT_SIZE = 4;
+
+  /** Storage is trimmed after a removal once no more than one part in this many is used. */
+  private static final int TRIM_RATIO = 4;
+
+  /** Empty byte array. */
+  private static final byte[] EMPTY_DATA = new byte[0];
+
+  /** Concatenated value bytes. */
+  private byte[] data;
+
+  /** Start of each value in {@link #data}, followed by the end of the last value. */
+  private int[] offsets;
+
+  /** Number of values. */
+  private int size;
+
+  /** Hash index of value positions plus one or null if it has not been built. */
+  private volatile int[] index;
+
+  /** Cached UTF-8 decoded values. */
+  private volatile List<String> utf8Values;
+
+  /** Cached base64 encoded values. */
+  private volatile List<String> base64Values;
+
+
+  /** Creates new empty attribute values. */
+  AttributeValues()
+  {
+    this(0);
+  }
+
+
+  /**
+   * Creates new empty attribute values.
+   *
+   * @param  capacity  initial number of value bytes
+   */
+  AttributeValues(final int capacity)
+  {
+    data = capacity > 0 ? new byte[capacity] : EMPTY_DATA;
+    offsets = new int[DEFAULT_SIZE + 1];
+  }
+
+
+  /**
+   * Returns the number of values.
+   *
+   * @return  number of values
+   */
+  int size()
+  {
+    return size;
+  }
+
+
+  /**
+   * Returns whether there are no values.
+   *
+   * @return  whether there are no values
+   */
+  boolean isEmpty()
+  {
+    return size == 0;
+  }
+
+
+  /**
+   * Returns the number of value bytes that can be stored without growing.
+   *
+   * @return  capacity in bytes
+   */
+  int capacity()
+  {
+    return data.length;
+  }
+
+
+  /**
+   * Returns a copy of the value at the supplied position.
+   *
+   * @param  i  position of the value
+   *
+   * @return  value bytes
+   */
+  byte[] get(final int i)
+  {
+    checkIndex(i);
+    return Arrays.copyOfRange(data, offsets[i], offsets[i + 1]);
+  }
+
+
+  /**
+   * Returns a copy of every value.
+   *
+   * @return  unmodifiable list of value bytes
+   */
+  List<byte[]> getAll()
+  {
+    final byte[][] values = new byte[size][];
+    for (int i = 0; i < size; i++) {
+      values[i] = Arrays.copyOfRange(data, offsets[i], offsets[i + 1]);
+    }
+    return Collections.unmodifiableList(Arrays.asList(values));
+  }
+
+
+  /**
+   * Returns the value at the supplied position as a string.
+   *
+   * @param  i  position of the value
+   * @param  binary  whether to base64 encode the value, otherwise it is UTF-8 decoded
+   *
+   * @return  string value
+   */
+  String getString(final int i, final boolean binary)
+  {
+    checkIndex(i);
+    final List<String> cached = binary ? base64Values : utf8Values;
+    if (cached != null) {
+      return cached.get(i);
+    }
+    return toString(i, binary);
+  }
+
+
+  /**
+   * Returns every value as a string. The result is cached until these values are modified.
+   *
+   * @param  binary  whether to base64 encode values, otherwise they are UTF-8 decoded
+   *
+   * @return  unmodifiable list of string values
+   */
+  List<String> getAllStrings(final boolean binary)
+  {
+    List<String> cached = binary ? base64Values : utf8Values;
+    if (cached == null) {
+      final String[] values = new String[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = toString(i, binary);
+      }
+      cached = Collections.unmodifiableList(Arrays.asList(values));
+      if (binary) {
+        base64Values = cached;
+      } else {
+        utf8Values = cached;
+      }
+    }
+    return cached;
+  }
+
+
+  /**
+   * Adds the supplied value if it does not already exist.
+   *
+   * @param  value  to add
+   *
+   * @return  whether the value was added
+   */
+  boolean add(final byte[] value)
+  {
+    ensureCapacity(value.length);
+    System.arraycopy(value, 0, data, offsets[size], value.length);
+    return commit(value.length);
+  }
+
+
+  /**
+   * Adds the remaining bytes of the supplied buffer if they do not already exist. The buffer position is not modified.
+   *
+   * @param  value  to add
+   *
+   * @return  whether the value was added
+   */
+  boolean add(final ByteBuffer value)
+  {
+    final int length = value.remaining();
+    ensureCapacity(length);
+    value.duplicate().get(data, offsets[size], length);
+    return commit(length);
+  }
+
+
+  /**
+   * Adds the remaining bytes of the supplied buffer if they do not already exist. The buffer is read to its limit.
+   *
+   * @param  value  to add
+   *
+   * @return  whether the value was added
+   */
+  boolean add(final DERBuffer value)
+  {
+    final int length = value.remaining();
+    ensureCapacity(length);
+    final int start = offsets[size];
+    for (int i = 0; i < length; i++) {
+      data[start + i] = value.get();
+    }
+    return commit(length);
+  }
+
+
+  /**
+   * Removes the supplied value.
+   *
+   * @param  value  to remove
+   *
+   * @return  whether the value was removed
+   */
+  boolean remove(final byte[] value)
+  {
+    final int i = find(value, 0, value.length);
+    if (i < 0) {
+      return false;
+    }
+    final int start = offsets[i];
+    final int end = offsets[i + 1];
+    System.arraycopy(data, end, data, start, offsets[size] - end);
+    for (int j = i + 1; j <= size; j++) {
+      offsets[j - 1] = offsets[j] - (end - start);
+    }
+    size--;
+    modified();
+    index = null;
+    trim();
+    return true;
+  }
+
+
+  /**
+   * Removes the remaining bytes of the supplied buffer.
+   *
+   * @param  value  to remove
+   *
+   * @return  whether the value was removed
+   */
+  boolean remove(final ByteBuffer value)
+  {
+    final byte[] b = new byte[value.remaining()];
+    value.duplicate().get(b);
+    return remove(b);
+  }
+
+
+  /**
+   * Returns whether the supplied value exists.
+   *
+   * @param  value  to find
+   *
+   * @return  whether the value exists
+   */
+  boolean contains(final byte[] value)
+  {
+    return value != null && find(value, 0, value.length) >= 0;
+  }
+
+
+  /** Removes all values. */
+  void clear()
+  {
+    data = EMPTY_DATA;
+    offsets = new int[DEFAULT_SIZE + 1];
+    size = 0;
+    modified();
+    index = null;
+  }
+
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof AttributeValues) {
+      final AttributeValues v = (AttributeValues) o;
+      if (size != v.size) {
+        return false;
+      }
+      for (int i = 0; i < size; i++) {
+        if (v.find(data, offsets[i], offsets[i + 1] - offsets[i]) < 0) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return false;
+  }
+
+
+  /**
+   * Returns the sum of the value hash codes, which is independent of the order of the values.
+   *
+   * @return  hash code
+   */
+  @Override
+  public int hashCode()
+  {
+    int hc = 0;
+    for (int i = 0; i < size; i++) {
+      hc += hash(data, offsets[i], offsets[i + 1] - offsets[i]);
+    }
+    return hc;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return getClass().getName() + "@" + hashCode() + "::" +
+      "size=" + size + ", " +
+      "bytes=" + offsets[size];
+  }
+
+
+  /**
+   * Decodes the value at the supplied position.
+   *
+   * @param  i  position of the value
+   * @param  binary  whether to base64 encode the value, otherwise it is UTF-8 decoded
+   *
+   * @return  string value
+   */
+  private String toString(final int i, final boolean binary)
+  {
+    if (binary) {
+      return LdapUtils.base64Encode(Arrays.copyOfRange(data, offsets[i], offsets[i + 1]));
+    }
+    return new String(data, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8);
+  }
+
+
+  /**
+   * Ensures there is room for another value of the supplied length.
+   *
+   * @param  length  of the value to add
+   */
+  private void ensureCapacity(final int length)
+  {
+    final int end = offsets[size];
+    if (end + length > data.length) {
+      data = Arrays.copyOf(data, Math.max(end + length, data.length * 2));
+    }
+    if (size + 2 > offsets.length) {
+      offsets = Arrays.copyOf(offsets, offsets.length * 2);
+    }
+  }
+
+
+  /**
+   * Appends the value of the supplied length that has been written to the end of {@link #data}, unless it duplicates
+   * an existing value.
+   *
+   * @param  length  of the value
+   *
+   * @return  whether the value was appended
+   */
+  private boolean commit(final int length)
+  {
+    final int start = offsets[size];
+    if (find(data, start, length) >= 0) {
+      return false;
+    }
+    offsets[++size] = start + length;
+    modified();
+    final int[] idx = index;
+    if (idx != null) {
+      if (size * 2 > idx.length) {
+        index = null;
+      } else {
+        insert(idx, size - 1);
+      }
+    }
+    return true;
+  }
+
+
+  /**
+   * Returns the position of the supplied value.
+   *
+   * @param  value  containing the value to find
+   * @param  offset  of the value
+   * @param  length  of the value
+   *
+   * @return  position of the value or -1 if it does not exist
+   */
+  private int find(final byte[] value, final int offset, final int length)
+  {
+    if (size <= INDEX_THRESHOLD) {
+      return scan(value, offset, length);
+    }
+    int[] idx = index;
+    if (idx == null) {
+      idx = buildIndex();
+      index = idx;
+    }
+    final int mask = idx.length - 1;
+    int slot = spread(hash(value, offset, length)) & mask;
+    int found = -1;
+    while (found < 0 && idx[slot] != 0) {
+      if (matches(idx[slot] - 1, value, offset, length)) {
+        found = idx[slot] - 1;
+      } else {
+        slot = (slot + 1) & mask;
+      }
+    }
+    return found;
+  }
+
+
+  /**
+   * Returns the position of the supplied value by comparing it to each value in order.
+   *
+   * @param  value  containing the value to find
+   * @param  offset  of the value
+   * @param  length  of the value
+   *
+   * @return  position of the value or -1 if it does not exist
+   */
+  private int scan(final byte[] value, final int offset, final int length)
+  {
+    for (int i = 0; i < size; i++) {
+      if (matches(i, value, offset, length)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+
+  /**
+   * Returns whether the value at the supplied position is equal to the supplied value.
+   *
+   * @param  i  position of the value
+   * @param  value  containing the value to compare
+   * @param  offset  of the value
+   * @param  length  of the value
+   *
+   * @return  whether the values are equal
+   */
+  private boolean matches(final int i, final byte[] value, final int offset, final int length)
+  {
+    return Arrays.equals(data, offsets[i], offsets[i + 1], value, offset, offset + length);
+  }
+
+
+  /**
+   * Creates a hash index of the current values.
+   *
+   * @return  hash index
+   */
+  private int[] buildIndex()
+  {
+    // CheckStyle:MagicNumber OFF
+    final int[] idx = new int[Integer.highestOneBit(size * 4 - 1)];
+    for (int i = 0; i < size; i++) {
+      insert(idx, i);
+    }
+    return idx;
+    // CheckStyle:MagicNumber ON
+  }
+
+
+  /**
+   * Inserts the value at the supplied position into the supplied hash index.
+   *
+   * @param  idx  hash index
+   * @param  i  position of the value
+   */
+  private void insert(final int[] idx, final int i)
+  {
+    final int mask = idx.length - 1;
+    int slot = spread(hash(data, offsets[i], offsets[i + 1] - offsets[i])) & mask;
+    while (idx[slot] != 0) {
+      slot = (slot + 1) & mask;
+    }
+    idx[slot] = i + 1;
+  }
+
+
+  /**
+   * Shrinks {@link #data} and {@link #offsets} to twice their used length if no more than a quarter of either is used.
+   * Halving rather than trimming exactly leaves room to add values without growing again immediately.
+   */
+  private void trim()
+  {
+    final int used = offsets[size];
+    if (used == 0) {
+      data = EMPTY_DATA;
+    } else if (used <= data.length / TRIM_RATIO) {
+      data = Arrays.copyOf(data, used * 2);
+    }
+    if (offsets.length > DEFAULT_SIZE + 1 && size + 1 <= offsets.length / TRIM_RATIO) {
+      offsets = Arrays.copyOf(offsets, Math.max(DEFAULT_SIZE + 1, (size + 1) * 2));
+    }
+  }
+
+
+  /** Discards cached string values. */
+  private void modified()
+  {
+    utf8Values = null;
+    base64Values = null;
+  }
+
+
+  /**
+   * Throws if the supplied position is not a value.
+   *
+   * @param  i  position to check
+   */
+  private void checkIndex(final int i)
+  {
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Index " + i + " out of bounds for size " + size);
+    }
+  }
+
+
+  /**
+   * Computes the hash code of a value, see {@link Arrays#hashCode(byte[])}.
+   *
+   * @param  value  containing the value
+   * @param  offset  of the value
+   * @param  length  of the value
+   *
+   * @return  hash code
+   */
+  private static int hash(final byte[] value, final int offset, final int length)
+  {
+    // CheckStyle:MagicNumber OFF
+    int hc = 1;
+    for (int i = offset; i < offset + length; i++) {
+      hc = 31 * hc + value[i];
+    }
+    return hc;
+    // CheckStyle:MagicNumber ON
+  }
+
+
+  /**
+   * Spreads the high bits of a hash code into the low bits used to select a slot.
+   *
+   * @param  hc  hash code
+   *
+   * @return  spread hash code
+   */
+  private static int spread(final int hc)
+  {
+    // CheckStyle:MagicNumber OFF
+    return hc ^ (hc >>> 16);
+    // CheckStyle:MagicNumber ON
+  }
+}
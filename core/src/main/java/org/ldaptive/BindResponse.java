@@ -2,9 +2,9 @@
 package org.ldaptive;
 
 import org.ldaptive.asn1.AbstractParseHandler;
+import org.ldaptive.asn1.ContextDERTag;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
 
 /**
  * LDAP bind response defined as:
@@ -26,20 +26,11 @@ public class BindResponse extends AbstractResult
   /** hash code seed. */
   private static final int HASH_CODE_SEED = 10243;
 
-  /** DER path to result code. */
-  private static final DERPath RESULT_CODE_PATH = new DERPath("/SEQ/APP(1)/ENUM[0]");
+  /** Tag number of the server SASL credentials. */
+  private static final int SASL_CREDENTIALS_TAG_NO = 7;
 
-  /** DER path to matched DN. */
-  private static final DERPath MATCHED_DN_PATH = new DERPath("/SEQ/APP(1)/OCTSTR[1]");
-
-  /** DER path to diagnostic message. */
-  private static final DERPath DIAGNOSTIC_MESSAGE_PATH = new DERPath("/SEQ/APP(1)/OCTSTR[2]");
-
-  /** DER path to referral. */
-  private static final DERPath REFERRAL_PATH = new DERPath("/SEQ/APP(1)/CTX(3)/OCTSTR[0]");
-
-  /** DER path to SASL credentials. */
-  private static final DERPath SASL_CREDENTIALS_PATH = new DERPath("/SEQ/APP(1)/CTX(7)");
+  /** Tag byte for the server SASL credentials. */
+  private static final int SASL_CREDENTIALS_TAG = new ContextDERTag(SASL_CREDENTIALS_TAG_NO, false).getTagByte();
 
   /** Server SASL credentials. */
   private byte[] serverSaslCreds;
@@ -58,15 +49,7 @@ public class BindResponse extends AbstractResult
    */
   public BindResponse(final DERBuffer buffer)
   {
-    final DERParser parser = new DERParser();
-    parser.registerHandler(MessageIDHandler.PATH, new MessageIDHandler(this));
-    parser.registerHandler(RESULT_CODE_PATH, new ResultCodeHandler(this));
-    parser.registerHandler(MATCHED_DN_PATH, new MatchedDNHandler(this));
-    parser.registerHandler(DIAGNOSTIC_MESSAGE_PATH, new DiagnosticMessageHandler(this));
-    parser.registerHandler(REFERRAL_PATH, new ReferralHandler(this));
-    parser.registerHandler(SASL_CREDENTIALS_PATH, new SASLCredsHandler(this));
-    parser.registerHandler(ControlsHandler.PATH, new ControlsHandler(this));
-    parser.parse(buffer);
+    decodeMessage(buffer, this::decodeResult);
   }
 
 
@@ -82,6 +65,15 @@ public class BindResponse extends AbstractResult
   }
 
 
+  @Override
+  protected void decodeResponseElement(final int tag, final DERBuffer buffer)
+  {
+    if (tag == SASL_CREDENTIALS_TAG && buffer.hasRemaining()) {
+      setServerSaslCreds(buffer.getRemainingBytes());
+    }
+  }
+
+
   @Override
   public boolean equals(final Object o)
   {
@@ -112,7 +104,12 @@ public class BindResponse extends AbstractResult
   }
 
 
-  /** Parse handler implementation for the server SASL creds. */
+  /**
+   * Parse handler implementation for the server SASL creds.
+   *
+   * @deprecated  bind responses are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class SASLCredsHandler extends AbstractParseHandler<BindResponse>
   {
 
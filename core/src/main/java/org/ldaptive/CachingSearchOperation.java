@@ -0,0 +1,556 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.ldaptive.concurrent.ConcurrentLruCache;
+import org.ldaptive.dn.Dn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Search operation that caches successful search results. Requests are identified by their encoding without the message
+ * ID, see {@link PreparedSearchRequest}, so the base DN, scope, filter, return attributes and controls must all match.
+ * The cache is bounded both by the number of cached results and by their total weight, where the weight of a result is
+ * its number of entries and references. Results are evicted in approximately least recently used order, see {@link
+ * ConcurrentLruCache}, and expire individually after {@link #getCacheTimeToLive()}. Lookups do not lock. Concurrent
+ * executions of an identical request that is not cached are coalesced into a single search whose result is shared by
+ * every caller.
+ *
+ * <p>Only execute methods that do not supply entry handlers are cached. Each caller receives its own copy of a cached
+ * result, see {@link SearchResponse#copy(SearchResponse)}. Requests with {@link SearchRequest#isLazyAttributes()} set
+ * are cheaper to copy, since attributes that have not been decoded are shared rather than copied, see {@link
+ * LdapEntry#copy(LdapEntry)}. Handlers configured on this operation are applied once, when the result is loaded, so the
+ * cache should be cleared if they are changed.</p>
+ *
+ * <p>Cached results can be invalidated when entries change, for example by a {@link
+ * org.ldaptive.control.util.PersistentSearchClient} or {@link org.ldaptive.control.util.SyncReplClient}:</p>
+ *
+ * <pre>
+   client.setOnEntry(cachingSearchOperation::invalidate);
+ * </pre>
+ *
+ * @author  Middleware Services
+ */
+public class CachingSearchOperation extends SearchOperation
+{
+
+  /** Default cache size. */
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  /** Default maximum weight of all cached results. */
+  public static final long DEFAULT_CACHE_MAX_WEIGHT = 100_000;
+
+  /** Default time to live of a cached result. */
+  public static final Duration DEFAULT_CACHE_TIME_TO_LIVE = Duration.ofMinutes(1);
+
+  /** Logger for this class. */
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Cached results. */
+  private volatile ConcurrentLruCache<SearchRequestKey, CacheEntry> cache = createCache(
+    DEFAULT_CACHE_SIZE,
+    DEFAULT_CACHE_MAX_WEIGHT);
+
+  /** Coalesces identical searches that load the cache. */
+  private final SearchRequestCoalescer loader = new SearchRequestCoalescer();
+
+  /** Incremented on every invalidation so that results loaded before the invalidation are not cached. */
+  private final AtomicLong generation = new AtomicLong();
+
+  /** Number of executions answered by the cache. */
+  private final LongAdder hitCount = new LongAdder();
+
+  /** Number of executions that were not answered by the cache. */
+  private final LongAdder missCount = new LongAdder();
+
+  /** Number of searches executed to load the cache. */
+  private final LongAdder loadCount = new LongAdder();
+
+  /** Total time spent in searches executed to load the cache. */
+  private final LongAdder loadTime = new LongAdder();
+
+  /** Number of entries removed because they expired. */
+  private final LongAdder expirationCount = new LongAdder();
+
+  /** Maximum number of cached results. */
+  private int cacheSize = DEFAULT_CACHE_SIZE;
+
+  /** Maximum weight of all cached results. */
+  private long cacheMaxWeight = DEFAULT_CACHE_MAX_WEIGHT;
+
+  /** Time to live of a cached result. */
+  private Duration cacheTimeToLive = DEFAULT_CACHE_TIME_TO_LIVE;
+
+
+  /** Default constructor. */
+  public CachingSearchOperation() {}
+
+
+  /**
+   * Creates a new caching search operation.
+   *
+   * @param  factory  connection factory
+   */
+  public CachingSearchOperation(final ConnectionFactory factory)
+  {
+    super(factory);
+  }
+
+
+  /**
+   * Creates a new caching search operation.
+   *
+   * @param  factory  connection factory
+   * @param  req  search request
+   */
+  public CachingSearchOperation(final ConnectionFactory factory, final SearchRequest req)
+  {
+    super(factory, req);
+  }
+
+
+  /**
+   * Returns the maximum number of cached results.
+   *
+   * @return  cache size
+   */
+  public int getCacheSize()
+  {
+    return cacheSize;
+  }
+
+
+  /**
+   * Sets the maximum number of cached results. Removes all cached results.
+   *
+   * @param  size  cache size
+   */
+  public void setCacheSize(final int size)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Cache size must be greater than zero");
+    }
+    logger.trace("setting cacheSize: {}", size);
+    cacheSize = size;
+    generation.incrementAndGet();
+    cache = createCache(cacheSize, cacheMaxWeight);
+  }
+
+
+  /**
+   * Returns the maximum weight of all cached results.
+   *
+   * @return  maximum cache weight
+   */
+  public long getCacheMaxWeight()
+  {
+    return cacheMaxWeight;
+  }
+
+
+  /**
+   * Sets the maximum weight of all cached results. The weight of a result is its number of entries and references, a
+   * result without entries or references has a weight of one. Results heavier than this value are not cached. Removes
+   * all cached results.
+   *
+   * @param  weight  maximum cache weight
+   */
+  public void setCacheMaxWeight(final long weight)
+  {
+    if (weight < 1) {
+      throw new IllegalArgumentException("Cache max weight must be greater than zero");
+    }
+    logger.trace("setting cacheMaxWeight: {}", weight);
+    cacheMaxWeight = weight;
+    generation.incrementAndGet();
+    cache = createCache(cacheSize, cacheMaxWeight);
+  }
+
+
+  /**
+   * Returns the time to live of a cached result.
+   *
+   * @return  time to live
+   */
+  public Duration getCacheTimeToLive()
+  {
+    return cacheTimeToLive;
+  }
+
+
+  /**
+   * Sets the time to live of a cached result.
+   *
+   * @param  ttl  time to live
+   */
+  public void setCacheTimeToLive(final Duration ttl)
+  {
+    if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Cache time to live must be greater than zero");
+    }
+    logger.trace("setting cacheTimeToLive: {}", ttl);
+    cacheTimeToLive = ttl;
+  }
+
+
+  /**
+   * Returns the number of executions answered by the cache.
+   *
+   * @return  hit count
+   */
+  public long getHitCount()
+  {
+    return hitCount.sum();
+  }
+
+
+  /**
+   * Returns the number of executions that were not answered by the cache, including those that were coalesced.
+   *
+   * @return  miss count
+   */
+  public long getMissCount()
+  {
+    return missCount.sum();
+  }
+
+
+  /**
+   * Returns the number of misses that waited for an identical search in progress rather than executing a search.
+   *
+   * @return  coalesced count
+   */
+  public long getCoalescedCount()
+  {
+    return loader.getCoalescedCount();
+  }
+
+
+  /**
+   * Returns the number of searches executed to load the cache.
+   *
+   * @return  load count
+   */
+  public long getLoadCount()
+  {
+    return loadCount.sum();
+  }
+
+
+  /**
+   * Returns the total time spent in searches executed to load the cache.
+   *
+   * @return  total load time
+   */
+  public Duration getTotalLoadTime()
+  {
+    return Duration.ofNanos(loadTime.sum());
+  }
+
+
+  /**
+   * Returns the average time spent in a search executed to load the cache.
+   *
+   * @return  average load time
+   */
+  public Duration getAverageLoadTime()
+  {
+    final long count = loadCount.sum();
+    return count > 0 ? Duration.ofNanos(loadTime.sum() / count) : Duration.ZERO;
+  }
+
+
+  /**
+   * Returns the number of results removed because they expired or the cache was full.
+   *
+   * @return  eviction count
+   */
+  public long getEvictionCount()
+  {
+    return expirationCount.sum() + cache.getEvictionCount();
+  }
+
+
+  /**
+   * Returns the number of cached results, including results that have expired but have not been evicted.
+   *
+   * @return  number of cached results
+   */
+  public int size()
+  {
+    return cache.size();
+  }
+
+
+  /**
+   * Returns the total weight of all cached results.
+   *
+   * @return  cache weight
+   */
+  public long weight()
+  {
+    return cache.getWeight();
+  }
+
+
+  /** Removes all cached results. */
+  public void clear()
+  {
+    generation.incrementAndGet();
+    cache.clear();
+  }
+
+
+  /**
+   * Removes the cached result for the supplied request. The request must be configured the same way as the executed
+   * request, see {@link #configureRequest(Request)}.
+   *
+   * @param  request  to remove
+   */
+  public void invalidate(final SearchRequest request)
+  {
+    final SearchRequestKey key = new SearchRequestKey(request);
+    generation.incrementAndGet();
+    cache.remove(key);
+  }
+
+
+  /**
+   * Removes every cached result whose search scope contains the supplied entry. See {@link #invalidate(String)}.
+   *
+   * @param  entry  that changed
+   */
+  public void invalidate(final LdapEntry entry)
+  {
+    invalidate(entry.getDn());
+  }
+
+
+  /**
+   * Removes every cached result whose search scope contains the supplied DN. Since an entry that changed may be added
+   * to or removed from a result, results are invalidated regardless of whether they contain the entry. If the DN cannot
+   * be parsed all results are removed.
+   *
+   * @param  dn  of the entry that changed
+   */
+  public void invalidate(final String dn)
+  {
+    final String normalized;
+    try {
+      normalized = new Dn(dn).format();
+    } catch (RuntimeException e) {
+      logger.debug("Could not parse DN {}, removing all cached results", dn, e);
+      clear();
+      return;
+    }
+    generation.incrementAndGet();
+    cache.removeIf(entry -> entry.inScope(normalized));
+  }
+
+
+  @Override
+  protected SearchResponse executeRequest(final SearchRequest req)
+    throws LdapException
+  {
+    final SearchRequestKey key = new SearchRequestKey(req);
+    final CacheEntry cached = get(key);
+    if (cached != null) {
+      return SearchResponse.copy(cached.response);
+    }
+    return loader.execute(this, key, () -> load(key, key.getRequest()));
+  }
+
+
+  /**
+   * Creates a cache bounded by the supplied size and weight.
+   *
+   * @param  size  maximum number of cached results
+   * @param  weight  maximum weight of all cached results
+   *
+   * @return  new cache
+   */
+  private static ConcurrentLruCache<SearchRequestKey, CacheEntry> createCache(final int size, final long weight)
+  {
+    return new ConcurrentLruCache<>(size, weight, entry -> entry.weight);
+  }
+
+
+  /**
+   * Executes the supplied request and caches its result if it succeeded. The cache keeps the result that was loaded,
+   * the caller receives a copy.
+   *
+   * @param  key  of the request
+   * @param  req  to execute
+   *
+   * @return  search result
+   *
+   * @throws  LdapException  if the search fails
+   */
+  private SearchResponse load(final SearchRequestKey key, final SearchRequest req)
+    throws LdapException
+  {
+    final long gen = generation.get();
+    final long start = System.nanoTime();
+    final SearchResponse response = super.executeRequest(req);
+    loadTime.add(System.nanoTime() - start);
+    loadCount.increment();
+    if (response.getResultCode() == ResultCode.SUCCESS && put(key, req, response, gen)) {
+      return SearchResponse.copy(response);
+    }
+    return response;
+  }
+
+
+  /**
+   * Returns the cached entry for the supplied key. Removes the entry if it has expired.
+   *
+   * @param  key  to lookup
+   *
+   * @return  cached entry or null
+   */
+  private CacheEntry get(final SearchRequestKey key)
+  {
+    final ConcurrentLruCache<SearchRequestKey, CacheEntry> c = cache;
+    CacheEntry entry = c.get(key);
+    if (entry != null && entry.isExpired()) {
+      if (c.remove(key, entry)) {
+        expirationCount.increment();
+      }
+      entry = null;
+    }
+    if (entry != null) {
+      hitCount.increment();
+      logger.trace("Cache hit for {}", key);
+    } else {
+      missCount.increment();
+      logger.trace("Cache miss for {}", key);
+    }
+    return entry;
+  }
+
+
+  /**
+   * Caches the supplied result, the cache evicts results until it is within its bounds. The result is not cached if
+   * the cache was invalidated after the result was requested. Invalidations increment the generation before removing
+   * results, so a result that is cached concurrently with an invalidation is removed by either the invalidation or by
+   * this method.
+   *
+   * @param  key  to cache
+   * @param  request  that produced the result
+   * @param  response  to cache
+   * @param  gen  generation when the result was requested
+   *
+   * @return  whether the result was cached
+   */
+  private boolean put(
+    final SearchRequestKey key,
+    final SearchRequest request,
+    final SearchResponse response,
+    final long gen)
+  {
+    final long weight = Math.max(1, response.entrySize() + response.getReferences().size());
+    if (weight > cacheMaxWeight || generation.get() != gen) {
+      return false;
+    }
+    final ConcurrentLruCache<SearchRequestKey, CacheEntry> c = cache;
+    final CacheEntry entry = new CacheEntry(request, response, weight, System.nanoTime() + cacheTimeToLive.toNanos());
+    c.put(key, entry);
+    if (generation.get() != gen) {
+      c.remove(key, entry);
+    }
+    return true;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return super.toString() + ", " +
+      "cacheSize=" + cacheSize + ", " +
+      "cacheMaxWeight=" + cacheMaxWeight + ", " +
+      "cacheTimeToLive=" + cacheTimeToLive + ", " +
+      "hitCount=" + getHitCount() + ", " +
+      "missCount=" + getMissCount() + ", " +
+      "coalescedCount=" + getCoalescedCount() + ", " +
+      "loadCount=" + getLoadCount() + ", " +
+      "evictionCount=" + getEvictionCount();
+  }
+
+
+  /** Cached search result with the scope of its request. */
+  private static final class CacheEntry
+  {
+
+    /** Normalized base DN of the request, null if it could not be parsed. */
+    private final String baseDn;
+
+    /** Search scope of the request. */
+    private final SearchScope scope;
+
+    /** Cached result. */
+    private final SearchResponse response;
+
+    /** Weight of the result. */
+    private final long weight;
+
+    /** Time in nanoseconds when this entry expires. */
+    private final long expiration;
+
+
+    /**
+     * Creates a new cache entry.
+     *
+     * @param  request  that produced the result
+     * @param  sr  cached result
+     * @param  w  weight of the result
+     * @param  exp  expiration time in nanoseconds
+     */
+    CacheEntry(final SearchRequest request, final SearchResponse sr, final long w, final long exp)
+    {
+      String dn;
+      try {
+        dn = new Dn(request.getBaseDn()).format();
+      } catch (RuntimeException e) {
+        dn = null;
+      }
+      baseDn = dn;
+      scope = request.getSearchScope();
+      response = sr;
+      weight = w;
+      expiration = exp;
+    }
+
+
+    /**
+     * Returns whether this entry has expired.
+     *
+     * @return  whether this entry has expired
+     */
+    boolean isExpired()
+    {
+      return System.nanoTime() - expiration >= 0;
+    }
+
+
+    /**
+     * Returns whether the supplied DN is within the scope of the request that produced this result.
+     *
+     * @param  dn  normalized DN
+     *
+     * @return  whether the DN may be in scope or the base DN of the request could not be parsed
+     */
+    boolean inScope(final String dn)
+    {
+      if (baseDn == null) {
+        return true;
+      }
+      if (scope == SearchScope.OBJECT) {
+        return dn.equals(baseDn);
+      }
+      // one level searches are treated as subtree searches, invalidating too much is harmless
+      return dn.equals(baseDn) || (baseDn.isEmpty() ? !dn.isEmpty() : dn.endsWith("," + baseDn));
+    }
+  }
+}
@@ -96,7 +96,10 @@ public interface Connection extends AutoCloseable
 
 
   /**
-   * Creates a handle for a search operation.
+   * Creates a handle for a search operation. The request is sent as is, a {@link PreparedSearchRequest} is sent with
+   * its cached encoding. Note that a prepared request cannot be modified, every setter throws {@link
+   * UnsupportedOperationException}, so it must not be supplied to code that changes the request between sends, such
+   * as {@link org.ldaptive.control.util.PagedResultsClient}.
    *
    * @param  request  search request
    *
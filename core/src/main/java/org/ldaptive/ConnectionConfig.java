@@ -7,6 +7,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Predicate;
 import org.ldaptive.ssl.SslConfig;
+import org.ldaptive.transport.OperationListener;
 
 /**
  * Contains all the configuration data needed to control connections.
@@ -97,6 +98,9 @@ public class ConnectionConfig extends AbstractConfig
   /** Connection validator. */
   private ConnectionValidator connectionValidator;
 
+  /** Listener notified as operations progress. */
+  private OperationListener operationListener;
+
   /** Transport options. */
   private final Map<String, Object> transportOptions = new HashMap<>();
 
@@ -442,6 +446,30 @@ public class ConnectionConfig extends AbstractConfig
   }
 
 
+  /**
+   * Returns the operation listener.
+   *
+   * @return  operation listener
+   */
+  public OperationListener getOperationListener()
+  {
+    return operationListener;
+  }
+
+
+  /**
+   * Sets the operation listener. Operations are only measured if a listener is configured.
+   *
+   * @param  listener  to notify as operations progress
+   */
+  public void setOperationListener(final OperationListener listener)
+  {
+    checkImmutable();
+    logger.trace("setting operationListener: {}", listener);
+    operationListener = listener;
+  }
+
+
   /**
    * Returns transport options.
    *
@@ -517,6 +545,7 @@ public class ConnectionConfig extends AbstractConfig
     cc.setConnectionStrategy(
       config.getConnectionStrategy() != null ? config.getConnectionStrategy().newInstance() : null);
     cc.setConnectionValidator(config.getConnectionValidator());
+    cc.setOperationListener(config.getOperationListener());
     cc.setTransportOptions(config.getTransportOptions());
     return cc;
   }
@@ -540,6 +569,7 @@ public class ConnectionConfig extends AbstractConfig
       "connectionInitializers=" + Arrays.toString(connectionInitializers) + ", " +
       "connectionStrategy=" + connectionStrategy + ", " +
       "connectionValidator=" + connectionValidator + ", " +
+      "operationListener=" + operationListener + ", " +
       "transportOptions=" + transportOptions + "]";
   }
 
@@ -656,6 +686,13 @@ public class ConnectionConfig extends AbstractConfig
     }
 
 
+    public Builder operationListener(final OperationListener listener)
+    {
+      object.setOperationListener(listener);
+      return this;
+    }
+
+
     public Builder transportOption(final String id, final Object value)
     {
       object.setTransportOption(id, value);
@@ -197,6 +197,12 @@ public class DefaultConnectionFactory implements ConnectionFactory
     }
 
 
+    protected Builder(final DefaultConnectionFactory factory)
+    {
+      object = factory;
+    }
+
+
     public Builder config(final ConnectionConfig cc)
     {
       object.setConnectionConfig(cc);
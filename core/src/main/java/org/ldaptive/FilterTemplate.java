@@ -4,6 +4,10 @@ package org.ldaptive;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import org.ldaptive.filter.CompiledFilterTemplate;
+import org.ldaptive.filter.Filter;
+import org.ldaptive.filter.FilterParseException;
+import org.ldaptive.filter.FilterParser;
 import org.ldaptive.filter.FilterUtils;
 
 /**
@@ -144,6 +148,28 @@ public class FilterTemplate
   }
 
 
+  /**
+   * Returns this filter with its parameters replaced as a search filter. The structure of the filter is compiled once
+   * and cached, see {@link CompiledFilterTemplate#compile(String)}. Templates that cannot be compiled are formatted and
+   * parsed, see {@link #format()} and {@link FilterParser#parse(String)}.
+   *
+   * @return  search filter
+   *
+   * @throws  FilterParseException  if the formatted filter is invalid
+   */
+  public Filter toFilter()
+    throws FilterParseException
+  {
+    if (searchFilter != null) {
+      final Filter filter = CompiledFilterTemplate.compile(searchFilter).apply(parameters);
+      if (filter != null) {
+        return filter;
+      }
+    }
+    return FilterParser.parse(format());
+  }
+
+
   /**
    * Hex encodes the supplied byte array for use in a search filter.
    *
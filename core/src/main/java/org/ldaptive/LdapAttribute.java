@@ -2,7 +2,6 @@
 package org.ldaptive;
 
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
@@ -56,7 +55,7 @@ public class LdapAttribute
   private String attributeName;
 
   /** Attribute values. */
-  private Set<ByteBuffer> attributeValues = new LinkedHashSet<>();
+  private AttributeValues attributeValues = new AttributeValues();
 
   /** Whether this attribute is binary and string representations should be base64 encoded. */
   private boolean binary;
@@ -109,6 +108,19 @@ public class LdapAttribute
   }
 
 
+  /**
+   * Creates a new attribute with the supplied values.
+   *
+   * @param  type  attribute description
+   * @param  values  attribute values
+   */
+  LdapAttribute(final String type, final AttributeValues values)
+  {
+    setName(type);
+    attributeValues = values;
+  }
+
+
   /**
    * Sets the name. This method has the side effect of setting this attribute as binary if the name has an option of
    * 'binary' or the name matches one of {@link #BINARY_ATTRIBUTES}.
@@ -220,7 +232,7 @@ public class LdapAttribute
    */
   public byte[] getBinaryValue()
   {
-    return attributeValues.isEmpty() ? null : attributeValues.iterator().next().array();
+    return attributeValues.isEmpty() ? null : attributeValues.get(0);
   }
 
 
@@ -234,7 +246,7 @@ public class LdapAttribute
     if (attributeValues.isEmpty()) {
       return Collections.emptySet();
     }
-    return attributeValues.stream().map(ByteBuffer::array).collect(Collectors.toUnmodifiableList());
+    return attributeValues.getAll();
   }
 
 
@@ -248,14 +260,13 @@ public class LdapAttribute
     if (attributeValues.isEmpty()) {
       return null;
     }
-    final ByteBuffer val = attributeValues.iterator().next();
-    return binary ? LdapUtils.base64Encode(val.array()) : LdapUtils.utf8Encode(val.array());
+    return attributeValues.getString(0, binary);
   }
 
 
   /**
    * Returns the values of this attribute as strings. Binary data is base64 encoded. The return collection cannot be
-   * modified.
+   * modified. Decoded values are cached until this attribute is modified.
    *
    * @return  collection of string attribute values
    */
@@ -264,12 +275,7 @@ public class LdapAttribute
     if (attributeValues.isEmpty()) {
       return Collections.emptySet();
     }
-    return attributeValues.stream().map(v -> {
-      if (binary) {
-        return LdapUtils.base64Encode(v.array());
-      }
-      return LdapUtils.utf8Encode(v.array(), false);
-    }).collect(Collectors.toUnmodifiableList());
+    return attributeValues.getAllStrings(binary);
   }
 
 
@@ -283,7 +289,7 @@ public class LdapAttribute
    */
   public <T> T getValue(final Function<byte[], T> func)
   {
-    return attributeValues.isEmpty() ? null : func.apply(attributeValues.iterator().next().array());
+    return attributeValues.isEmpty() ? null : func.apply(attributeValues.get(0));
   }
 
 
@@ -297,10 +303,7 @@ public class LdapAttribute
    */
   public <T> Collection<T> getValues(final Function<byte[] , T> func)
   {
-    return attributeValues.stream()
-      .filter(Objects::nonNull)
-      .map(ByteBuffer::array)
-      .map(func).collect(Collectors.toUnmodifiableList());
+    return attributeValues.getAll().stream().map(func).collect(Collectors.toUnmodifiableList());
   }
 
 
@@ -311,7 +314,7 @@ public class LdapAttribute
    */
   public void addBinaryValues(final byte[]... value)
   {
-    Stream.of(value).filter(Objects::nonNull).map(ByteBuffer::wrap).forEach(attributeValues::add);
+    Stream.of(value).filter(Objects::nonNull).forEach(attributeValues::add);
   }
 
 
@@ -322,7 +325,7 @@ public class LdapAttribute
    */
   public void addBinaryValues(final Collection<byte[]> values)
   {
-    values.stream().filter(Objects::nonNull).map(ByteBuffer::wrap).forEach(attributeValues::add);
+    values.stream().filter(Objects::nonNull).forEach(attributeValues::add);
   }
 
 
@@ -337,7 +340,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(s -> toByteArray(s, true))
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::add);
   }
 
@@ -353,7 +355,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(s -> toByteArray(s, true))
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::add);
   }
 
@@ -394,7 +395,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(func)
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::add);
   }
 
@@ -413,7 +413,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(func)
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::add);
   }
 
@@ -425,7 +424,7 @@ public class LdapAttribute
    */
   public void removeBinaryValues(final byte[]... value)
   {
-    Stream.of(value).filter(Objects::nonNull).map(ByteBuffer::wrap).forEach(attributeValues::remove);
+    Stream.of(value).filter(Objects::nonNull).forEach(attributeValues::remove);
   }
 
 
@@ -436,7 +435,7 @@ public class LdapAttribute
    */
   public void removeBinaryValues(final Collection<byte[]> values)
   {
-    values.stream().filter(Objects::nonNull).map(ByteBuffer::wrap).forEach(attributeValues::remove);
+    values.stream().filter(Objects::nonNull).forEach(attributeValues::remove);
   }
 
 
@@ -451,7 +450,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(s -> toByteArray(s, true))
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::remove);
   }
 
@@ -467,7 +465,6 @@ public class LdapAttribute
       .filter(Objects::nonNull)
       .map(s -> toByteArray(s, true))
       .filter(Objects::nonNull)
-      .map(ByteBuffer::wrap)
       .forEach(attributeValues::remove);
   }
 
@@ -503,7 +500,7 @@ public class LdapAttribute
    */
   public boolean hasValue(final byte[] value)
   {
-    return attributeValues.stream().anyMatch(bb -> Arrays.equals(bb.array(), value));
+    return attributeValues.contains(value);
   }
 
 
@@ -516,7 +513,7 @@ public class LdapAttribute
    */
   public boolean hasValue(final String value)
   {
-    return attributeValues.stream().anyMatch(bb -> Arrays.equals(bb.array(), toByteArray(value, false)));
+    return attributeValues.contains(toByteArray(value, false));
   }
 
 
@@ -531,7 +528,7 @@ public class LdapAttribute
    */
   public <T> boolean hasValue(final Function<T, byte[]> func, final T value)
   {
-    return attributeValues.stream().anyMatch(bb -> Arrays.equals(bb.array(), func.apply(value)));
+    return attributeValues.contains(func.apply(value));
   }
 
 
@@ -589,6 +586,22 @@ public class LdapAttribute
   }
 
 
+  /**
+   * Returns a new attribute with the same name and values as the supplied attribute.
+   *
+   * @param  la  attribute to copy
+   *
+   * @return  copy of the attribute
+   */
+  public static LdapAttribute copy(final LdapAttribute la)
+  {
+    final LdapAttribute copy = new LdapAttribute(la.getName());
+    copy.setBinary(la.isBinary());
+    copy.addBinaryValues(la.getBinaryValues());
+    return copy;
+  }
+
+
   /**
    * Returns a new attribute whose values are sorted. String values are sorted naturally. Binary values are sorted using
    * {@link ByteBuffer#compareTo(ByteBuffer)}.
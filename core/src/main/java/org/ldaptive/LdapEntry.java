@@ -5,6 +5,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -14,9 +15,11 @@ import java.util.stream.Collectors;
 import org.ldaptive.asn1.AbstractParseHandler;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
+import org.ldaptive.asn1.DefaultDERBuffer;
 import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
 import org.ldaptive.dn.Dn;
+import org.ldaptive.dn.ParentDnCache;
 
 /**
  * LDAP search result entry defined as:
@@ -45,24 +48,43 @@ public class LdapEntry extends AbstractMessage
   /** hash code seed. */
   private static final int HASH_CODE_SEED = 10303;
 
-  /** DER path to LDAP DN. */
-  private static final DERPath LDAP_DN_PATH = new DERPath("/SEQ/APP(4)/OCTSTR[0]");
+  /** Tag byte for the LDAP DN. */
+  private static final int LDAP_DN_TAG = UniversalDERTag.OCTSTR.getTagByte();
 
-  /** DER path to attributes. */
-  private static final DERPath ATTRIBUTES_PATH = new DERPath("/SEQ/APP(4)/SEQ/SEQ");
+  /** Tag byte for the attribute list and each attribute. */
+  private static final int ATTRIBUTES_TAG = UniversalDERTag.SEQ.getTagByte();
+
+  /** Parent DN cache size system property. */
+  private static final String PARENT_DN_CACHE_SIZE_PROPERTY = "org.ldaptive.entry.parentDnCacheSize";
+
+  /** Maximum number of parent DNs to cache when normalizing DNs, zero disables the cache. */
+  private static final int PARENT_DN_CACHE_SIZE = Integer.parseInt(
+    System.getProperty(PARENT_DN_CACHE_SIZE_PROPERTY, "0"));
+
+  /** Cache used to normalize DNs, null if {@link #PARENT_DN_CACHE_SIZE} is zero. */
+  private static final ParentDnCache PARENT_DN_CACHE =
+    PARENT_DN_CACHE_SIZE > 0 ? new ParentDnCache(PARENT_DN_CACHE_SIZE) : null;
 
   /** LDAP DN of the entry. */
   private String ldapDn;
 
-  /** Parsed LDAP DN. */
-  private Dn parsedDn;
+  /** Parsed LDAP DN, empty if the DN could not be parsed. Null until {@link #getParsedDn()} is first invoked. */
+  private volatile Optional<Dn> parsedDn;
 
-  /** Normalized LDAP DN. */
-  private String normalizedDn;
+  /**
+   * Normalized LDAP DN, empty if the DN could not be parsed. Null until {@link #getNormalizedDn()} is first invoked.
+   */
+  private volatile Optional<String> normalizedDn;
 
   /** LDAP attributes on the entry. */
   private Map<String, LdapAttribute> attributes = new LinkedHashMap<>();
 
+  /**
+   * Encoded attributes of a lazily decoded entry, null once all attributes are decoded. While this is set {@link
+   * #attributes} is empty. Not included in equals or hashCode, both decode all attributes first.
+   */
+  private volatile EncodedAttributes encodedAttributes;
+
 
   /**
    * Default constructor.
@@ -77,12 +99,20 @@ public class LdapEntry extends AbstractMessage
    */
   public LdapEntry(final DERBuffer buffer)
   {
-    final DERParser parser = new DERParser();
-    parser.registerHandler(MessageIDHandler.PATH, new MessageIDHandler(this));
-    parser.registerHandler(LDAP_DN_PATH, new LdapDnHandler(this));
-    parser.registerHandler(ATTRIBUTES_PATH, new AttributesHandler(this));
-    parser.registerHandler(ControlsHandler.PATH, new ControlsHandler(this));
-    parser.parse(buffer);
+    this(buffer, false);
+  }
+
+
+  /**
+   * Creates a new search result entry. If lazy is true, the encoded attribute list is retained and each attribute is
+   * only decoded when it is first requested.
+   *
+   * @param  buffer  to decode
+   * @param  lazy  whether to decode attributes on demand
+   */
+  public LdapEntry(final DERBuffer buffer, final boolean lazy)
+  {
+    decodeMessage(buffer, op -> decodeEntry(op, lazy));
   }
 
 
@@ -98,24 +128,37 @@ public class LdapEntry extends AbstractMessage
 
 
   /**
-   * Returns the parsed ldap DN. Parsing is performed using {@link org.ldaptive.dn.DefaultDnParser}.
+   * Returns the parsed ldap DN. Parsing is performed using {@link org.ldaptive.dn.DefaultDnParser} when this method is
+   * first invoked.
    *
    * @return  parsed ldap DN or null if {@link #ldapDn} is null or could not be parsed
    */
   public Dn getParsedDn()
   {
-    return parsedDn;
+    Optional<Dn> dn = parsedDn;
+    if (dn == null) {
+      dn = Optional.ofNullable(parseDn());
+      parsedDn = dn;
+    }
+    return dn.orElse(null);
   }
 
 
   /**
-   * Returns the normalized ldap DN. Normalization is performed using {@link org.ldaptive.dn.DefaultRDnNormalizer}.
+   * Returns the normalized ldap DN. Normalization is performed using {@link org.ldaptive.dn.DefaultRDnNormalizer} when
+   * this method is first invoked. If the org.ldaptive.entry.parentDnCacheSize system property is set, normalized parent
+   * DNs are cached by a {@link ParentDnCache} of that size which is shared by all entries.
    *
    * @return  normalized ldap DN or null if {@link #ldapDn} is null or could not be parsed
    */
   public String getNormalizedDn()
   {
-    return normalizedDn;
+    Optional<String> dn = normalizedDn;
+    if (dn == null) {
+      dn = Optional.ofNullable(normalizeDn());
+      normalizedDn = dn;
+    }
+    return dn.orElse(null);
   }
 
 
@@ -127,16 +170,48 @@ public class LdapEntry extends AbstractMessage
   public void setDn(final String dn)
   {
     ldapDn = dn;
-    if (ldapDn != null) {
+    parsedDn = null;
+    normalizedDn = null;
+  }
+
+
+  /**
+   * Parses {@link #ldapDn}.
+   *
+   * @return  parsed DN or null if {@link #ldapDn} is null or could not be parsed
+   */
+  private Dn parseDn()
+  {
+    if (ldapDn == null) {
+      return null;
+    }
+    try {
+      return new Dn(ldapDn);
+    } catch (Exception e) {
+      return null;
+    }
+  }
+
+
+  /**
+   * Normalizes {@link #ldapDn}, reusing the parsed DN if it is available.
+   *
+   * @return  normalized DN or null if {@link #ldapDn} is null or could not be parsed
+   */
+  private String normalizeDn()
+  {
+    final Optional<Dn> dn = parsedDn;
+    String normalized = null;
+    if (dn != null) {
+      normalized = dn.map(Dn::format).orElse(null);
+    } else if (ldapDn != null) {
       try {
-        parsedDn = new Dn(ldapDn);
+        normalized = PARENT_DN_CACHE != null ? PARENT_DN_CACHE.normalize(ldapDn) : new Dn(ldapDn).format();
       } catch (Exception e) {
-        parsedDn = null;
-      }
-      if (parsedDn != null) {
-        normalizedDn = parsedDn.format();
+        normalized = null;
       }
     }
+    return normalized;
   }
 
 
@@ -147,6 +222,7 @@ public class LdapEntry extends AbstractMessage
    */
   public Collection<LdapAttribute> getAttributes()
   {
+    decodeAttributes();
     return attributes.values();
   }
 
@@ -159,6 +235,10 @@ public class LdapEntry extends AbstractMessage
    */
   public LdapAttribute getAttribute()
   {
+    final EncodedAttributes encoded = encodedAttributes;
+    if (encoded != null) {
+      return encoded.getFirst();
+    }
     if (attributes.isEmpty()) {
       return null;
     }
@@ -176,7 +256,9 @@ public class LdapEntry extends AbstractMessage
   public LdapAttribute getAttribute(final String name)
   {
     if (name != null) {
-      return attributes.get(LdapUtils.toLowerCase(name));
+      final EncodedAttributes encoded = encodedAttributes;
+      return encoded != null ?
+        encoded.get(LdapUtils.toLowerCase(name)) : attributes.get(LdapUtils.toLowerCase(name));
     }
     return null;
   }
@@ -189,6 +271,10 @@ public class LdapEntry extends AbstractMessage
    */
   public String[] getAttributeNames()
   {
+    final EncodedAttributes encoded = encodedAttributes;
+    if (encoded != null) {
+      return encoded.getNames();
+    }
     return attributes.values().stream().map(LdapAttribute::getName).toArray(String[]::new);
   }
 
@@ -200,6 +286,7 @@ public class LdapEntry extends AbstractMessage
    */
   public void addAttributes(final LdapAttribute... attrs)
   {
+    decodeAttributes();
     for (LdapAttribute a : attrs) {
       attributes.put(LdapUtils.toLowerCase(a.getName()), a);
     }
@@ -213,6 +300,7 @@ public class LdapEntry extends AbstractMessage
    */
   public void addAttributes(final Collection<LdapAttribute> attrs)
   {
+    decodeAttributes();
     attrs.forEach(a -> attributes.put(LdapUtils.toLowerCase(a.getName()), a));
   }
 
@@ -224,7 +312,7 @@ public class LdapEntry extends AbstractMessage
    */
   public void removeAttribute(final String name)
   {
-    attributes.remove(LdapUtils.toLowerCase(name));
+    removeAttributeKey(LdapUtils.toLowerCase(name));
   }
 
 
@@ -236,7 +324,7 @@ public class LdapEntry extends AbstractMessage
   public void removeAttributes(final LdapAttribute... attrs)
   {
     for (LdapAttribute a : attrs) {
-      attributes.remove(LdapUtils.toLowerCase(a.getName()));
+      removeAttributeKey(LdapUtils.toLowerCase(a.getName()));
     }
   }
 
@@ -248,7 +336,19 @@ public class LdapEntry extends AbstractMessage
    */
   public void removeAttributes(final Collection<LdapAttribute> attrs)
   {
-    attrs.forEach(a -> attributes.remove(LdapUtils.toLowerCase(a.getName())));
+    attrs.forEach(a -> removeAttributeKey(LdapUtils.toLowerCase(a.getName())));
+  }
+
+
+  /**
+   * Removes the attribute with the supplied lower case name. Any encoded attributes are decoded first.
+   *
+   * @param  key  lower case attribute name
+   */
+  private void removeAttributeKey(final String key)
+  {
+    decodeAttributes();
+    attributes.remove(key);
   }
 
 
@@ -259,17 +359,137 @@ public class LdapEntry extends AbstractMessage
    */
   public int size()
   {
-    return attributes.size();
+    final EncodedAttributes encoded = encodedAttributes;
+    return encoded != null ? encoded.size() : attributes.size();
   }
 
 
   /** Removes all the attributes. */
   public void clear()
   {
+    encodedAttributes = null;
     attributes.clear();
   }
 
 
+  /**
+   * Invokes {@link LdapAttribute#configureBinary(String...)} for each decoded attribute in this entry. If this entry
+   * is lazily decoded, the names are also applied to attributes as they are decoded.
+   *
+   * @param  names  of binary attributes
+   */
+  void configureBinaryAttributes(final String... names)
+  {
+    final EncodedAttributes encoded = encodedAttributes;
+    if (encoded != null) {
+      encoded.configureBinary(names);
+    } else {
+      for (LdapAttribute a : attributes.values()) {
+        a.configureBinary(names);
+      }
+    }
+  }
+
+
+  /**
+   * Decodes the content of a SearchResultEntry protocol operation by reading its elements in order.
+   *
+   * @param  buffer  positioned at the object name and limited to the end of the protocol operation
+   * @param  lazy  whether to retain the attribute list and decode attributes on demand
+   */
+  private void decodeEntry(final DERBuffer buffer, final boolean lazy)
+  {
+    final int limit = buffer.limit();
+    int index = 0;
+    while (buffer.hasRemaining()) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      buffer.limit(end);
+      if (index == 0 && tag == LDAP_DN_TAG) {
+        setDn(OctetStringType.decode(buffer));
+      } else if (index == 1 && tag == ATTRIBUTES_TAG) {
+        if (lazy) {
+          encodedAttributes = new EncodedAttributes(buffer.getRemainingBytes());
+        } else {
+          parseAttributes(buffer);
+        }
+      }
+      buffer.limit(limit).position(end);
+      index++;
+    }
+  }
+
+
+  /**
+   * Decodes each attribute in the supplied attribute list and adds it to this entry. A single attribute parser is used
+   * for every attribute.
+   *
+   * @param  buffer  containing a PartialAttributeList
+   */
+  private void parseAttributes(final DERBuffer buffer)
+  {
+    final int limit = buffer.limit();
+    final AttributeParser p = new AttributeParser();
+    while (buffer.hasRemaining()) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      if (tag == ATTRIBUTES_TAG) {
+        buffer.limit(end);
+        p.parse(buffer);
+        addAttributes(createAttribute(p));
+      }
+      buffer.limit(limit).position(end);
+    }
+  }
+
+
+  /**
+   * Returns whether this entry contains attributes that have not been decoded.
+   *
+   * @return  whether this entry contains encoded attributes
+   */
+  boolean hasEncodedAttributes()
+  {
+    return encodedAttributes != null;
+  }
+
+
+  /**
+   * Decodes any attributes remaining in {@link #encodedAttributes} and releases the encoded data. Attributes retain the
+   * order in which they were received. Decoding happens once while holding the lock of the encoded attributes, the
+   * decoded map is published before {@link #encodedAttributes} is cleared.
+   */
+  private void decodeAttributes()
+  {
+    final EncodedAttributes encoded = encodedAttributes;
+    if (encoded == null) {
+      return;
+    }
+    synchronized (encoded) {
+      if (encodedAttributes == encoded) {
+        attributes = encoded.getAll();
+        encodedAttributes = null;
+      }
+    }
+  }
+
+
+  /**
+   * Creates an attribute from the supplied parser.
+   *
+   * @param  p  that has parsed an attribute
+   *
+   * @return  ldap attribute
+   */
+  private static LdapAttribute createAttribute(final AttributeParser p)
+  {
+    if (p.name == null) {
+      throw new IllegalArgumentException("Could not parse attribute");
+    }
+    return new LdapAttribute(p.name, p.values);
+  }
+
+
   @Override
   public boolean equals(final Object o)
   {
@@ -278,10 +498,12 @@ public class LdapEntry extends AbstractMessage
     }
     if (o instanceof LdapEntry && super.equals(o)) {
       final LdapEntry v = (LdapEntry) o;
+      decodeAttributes();
+      v.decodeAttributes();
       // compare normalizedDn if not null, else compare Dn
-      return LdapUtils.areEqual(
-        normalizedDn != null ? normalizedDn : ldapDn,
-        normalizedDn != null ? v.normalizedDn : v.normalizedDn != null ? v.normalizedDn : v.ldapDn) &&
+      final String dn = getNormalizedDn();
+      final String vDn = v.getNormalizedDn();
+      return LdapUtils.areEqual(dn != null ? dn : ldapDn, dn != null ? vDn : vDn != null ? vDn : v.ldapDn) &&
         LdapUtils.areEqual(attributes, v.attributes);
     }
     return false;
@@ -291,12 +513,14 @@ public class LdapEntry extends AbstractMessage
   @Override
   public int hashCode()
   {
+    decodeAttributes();
+    final String dn = getNormalizedDn();
     return
       LdapUtils.computeHashCode(
         HASH_CODE_SEED,
         getMessageID(),
         getControls(),
-        normalizedDn != null ? normalizedDn : ldapDn,
+        dn != null ? dn : ldapDn,
         attributes);
   }
 
@@ -304,12 +528,38 @@ public class LdapEntry extends AbstractMessage
   @Override
   public String toString()
   {
+    decodeAttributes();
     return super.toString() + ", " +
       "dn=" + ldapDn + ", " +
       "attributes=" + (attributes != null ? attributes.values() : null);
   }
 
 
+  /**
+   * Returns a new entry with the same DN, attributes and controls as the supplied entry. Attributes are copied so that
+   * modifying the new entry does not modify the supplied entry. If the supplied entry is lazily decoded, the attributes
+   * it has not decoded are not copied, the new entry shares their encoded form and decodes them on demand.
+   *
+   * @param  le  entry to copy
+   *
+   * @return  copy of the entry
+   */
+  public static LdapEntry copy(final LdapEntry le)
+  {
+    final LdapEntry copy = new LdapEntry();
+    copy.copyValues(le);
+    copy.setDn(le.getDn());
+    final EncodedAttributes encoded = le.encodedAttributes;
+    if (encoded != null) {
+      copy.encodedAttributes = encoded.copy();
+    } else {
+      copy.addAttributes(
+        le.getAttributes().stream().map(LdapAttribute::copy).collect(Collectors.toCollection(LinkedHashSet::new)));
+    }
+    return copy;
+  }
+
+
   /**
    * Returns a new entry whose attributes are sorted naturally by name without options.
    *
@@ -403,7 +653,223 @@ public class LdapEntry extends AbstractMessage
   }
 
 
-  /** Parse handler implementation for the LDAP DN. */
+  /**
+   * Attribute list of a lazily decoded entry. Attributes are indexed by name when the entry is received and decoded
+   * when first requested. The index is never modified, decoded attributes are guarded by this object so concurrent
+   * readers may decode attributes safely.
+   */
+  static final class EncodedAttributes
+  {
+
+    /** PartialAttributeList content. */
+    private final byte[] encoded;
+
+    /** Location of each attribute in {@link #encoded}, keyed by lower case name. */
+    private final Map<String, EncodedAttribute> index;
+
+    /** Attributes that have been decoded, keyed by lower case name. */
+    private final Map<String, LdapAttribute> decoded = new HashMap<>();
+
+    /** Binary attribute names to configure on attributes as they are decoded. */
+    private String[] binaryAttributeNames;
+
+    /** Parser used to decode attributes. */
+    private AttributeParser attributeParser;
+
+
+    /**
+     * Creates new encoded attributes and indexes the attributes the supplied list contains by name.
+     *
+     * @param  bytes  PartialAttributeList content
+     */
+    EncodedAttributes(final byte[] bytes)
+    {
+      encoded = bytes;
+      index = new LinkedHashMap<>();
+      final DERBuffer buffer = new DefaultDERBuffer(bytes);
+      while (buffer.hasRemaining()) {
+        if (buffer.get() != UniversalDERTag.SEQ.getTagByte()) {
+          throw new IllegalArgumentException("Could not parse attribute");
+        }
+        final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+        final int start = buffer.position();
+        if (!buffer.hasRemaining() || buffer.get() != UniversalDERTag.OCTSTR.getTagByte()) {
+          throw new IllegalArgumentException("Could not parse attribute");
+        }
+        buffer.limit(LENGTH_PARSER.readLength(buffer) + buffer.position());
+        final String name = OctetStringType.decode(buffer);
+        index.put(LdapUtils.toLowerCase(name), new EncodedAttribute(name, start, end));
+        buffer.limit(bytes.length).position(end);
+      }
+    }
+
+
+    /**
+     * Creates new encoded attributes that share the encoded attribute list and index of the supplied attributes.
+     *
+     * @param  attrs  to copy
+     */
+    private EncodedAttributes(final EncodedAttributes attrs)
+    {
+      encoded = attrs.encoded;
+      index = attrs.index;
+      binaryAttributeNames = attrs.binaryAttributeNames;
+      attrs.decoded.forEach((k, v) -> decoded.put(k, LdapAttribute.copy(v)));
+    }
+
+
+    /**
+     * Returns a copy of these attributes. The encoded attribute list and its index are never modified and are shared,
+     * attributes that have been decoded are copied.
+     *
+     * @return  copy of these attributes
+     */
+    synchronized EncodedAttributes copy()
+    {
+      return new EncodedAttributes(this);
+    }
+
+
+    /**
+     * Returns the number of attributes.
+     *
+     * @return  number of attributes
+     */
+    int size()
+    {
+      return index.size();
+    }
+
+
+    /**
+     * Returns the attribute names in the order they were received.
+     *
+     * @return  attribute names
+     */
+    String[] getNames()
+    {
+      return index.values().stream().map(a -> a.name).toArray(String[]::new);
+    }
+
+
+    /**
+     * Returns the first attribute, decoding it if necessary.
+     *
+     * @return  first attribute or null if there are no attributes
+     */
+    LdapAttribute getFirst()
+    {
+      return index.isEmpty() ? null : get(index.keySet().iterator().next());
+    }
+
+
+    /**
+     * Returns the attribute with the supplied name, decoding it if necessary.
+     *
+     * @param  key  lower case attribute name
+     *
+     * @return  attribute or null if no attribute with that name exists
+     */
+    synchronized LdapAttribute get(final String key)
+    {
+      LdapAttribute attr = decoded.get(key);
+      if (attr == null) {
+        final EncodedAttribute location = index.get(key);
+        if (location != null) {
+          attr = decode(location);
+          decoded.put(key, attr);
+        }
+      }
+      return attr;
+    }
+
+
+    /**
+     * Decodes every attribute that has not been decoded.
+     *
+     * @return  all attributes in the order they were received, keyed by lower case name
+     */
+    synchronized Map<String, LdapAttribute> getAll()
+    {
+      final Map<String, LdapAttribute> all = new LinkedHashMap<>();
+      index.keySet().forEach(k -> all.put(k, get(k)));
+      return all;
+    }
+
+
+    /**
+     * Invokes {@link LdapAttribute#configureBinary(String...)} on each decoded attribute and on every attribute that is
+     * decoded later.
+     *
+     * @param  names  of binary attributes
+     */
+    synchronized void configureBinary(final String... names)
+    {
+      binaryAttributeNames = names;
+      decoded.values().forEach(a -> a.configureBinary(names));
+    }
+
+
+    /**
+     * Decodes the attribute at the supplied location.
+     *
+     * @param  location  of the attribute
+     *
+     * @return  decoded attribute
+     */
+    private LdapAttribute decode(final EncodedAttribute location)
+    {
+      if (attributeParser == null) {
+        attributeParser = new AttributeParser();
+      }
+      final DERBuffer buffer = new DefaultDERBuffer(encoded);
+      buffer.limit(location.end).position(location.start);
+      attributeParser.parse(buffer);
+      final LdapAttribute attr = createAttribute(attributeParser);
+      if (binaryAttributeNames != null) {
+        attr.configureBinary(binaryAttributeNames);
+      }
+      return attr;
+    }
+  }
+
+
+  /** Location of an attribute within the encoded attribute list. */
+  private static final class EncodedAttribute
+  {
+
+    /** Attribute name. */
+    private final String name;
+
+    /** Start of the attribute content. */
+    private final int start;
+
+    /** End of the attribute content. */
+    private final int end;
+
+
+    /**
+     * Creates a new encoded attribute.
+     *
+     * @param  n  attribute name
+     * @param  s  start of the attribute content
+     * @param  e  end of the attribute content
+     */
+    EncodedAttribute(final String n, final int s, final int e)
+    {
+      name = n;
+      start = s;
+      end = e;
+    }
+  }
+
+
+  /**
+   * Parse handler implementation for the LDAP DN.
+   *
+   * @deprecated  entries are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class LdapDnHandler extends AbstractParseHandler<LdapEntry>
   {
 
@@ -427,7 +893,12 @@ public class LdapEntry extends AbstractMessage
   }
 
 
-  /** Parse handler implementation for the attributes. */
+  /**
+   * Parse handler implementation for the attributes.
+   *
+   * @deprecated  entries are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class AttributesHandler extends AbstractParseHandler<LdapEntry>
   {
 
@@ -448,60 +919,73 @@ public class LdapEntry extends AbstractMessage
     {
       final AttributeParser p = new AttributeParser();
       p.parse(encoded);
-
-      if (p.getName().isEmpty()) {
-        throw new IllegalArgumentException("Could not parse attribute");
-      }
-      if (p.getValues().isEmpty()) {
-        getObject().addAttributes(LdapAttribute.builder().name(p.getName().get()).build());
-      } else {
-        getObject().addAttributes(
-          LdapAttribute.builder().name(p.getName().get()).bufferValues(p.getValues().get()).build());
-      }
+      getObject().addAttributes(createAttribute(p));
     }
   }
 
 
   /**
-   * Parses a buffer containing an attribute name and its values.
+   * Parses a buffer containing an attribute name and its values. The attribute is decoded by walking its elements in
+   * order, so a single instance can be reused to parse multiple attributes.
    */
   protected static class AttributeParser
   {
 
-    /** DER path to name. */
-    private static final DERPath NAME_PATH = new DERPath("/OCTSTR");
-
-    /** DER path to values. */
-    private static final DERPath VALUES_PATH = new DERPath("/SET/OCTSTR");
+    /** Tag byte for the attribute name. */
+    private static final int NAME_TAG = UniversalDERTag.OCTSTR.getTagByte();
 
-    /** Parser for decoding LDAP attributes. */
-    private final DERParser parser = new DERParser();
+    /** Tag byte for the set of attribute values. */
+    private static final int VALUES_TAG = UniversalDERTag.SET.getTagByte();
 
     /** Attribute name. */
     private String name;
 
     /** Attribute values. */
-    private List<ByteBuffer> values = new ArrayList<>();
+    private AttributeValues values = new AttributeValues();
 
 
     /**
      * Creates a new attribute parser.
      */
-    public AttributeParser()
-    {
-      parser.registerHandler(NAME_PATH, (p, e) -> name = OctetStringType.decode(e));
-      parser.registerHandler(VALUES_PATH, (p, e) -> values.add(ByteBuffer.wrap(e.getRemainingBytes())));
-    }
+    public AttributeParser() {}
 
 
     /**
-     * Examines the supplied buffer and parses an LDAP attribute if one is found.
+     * Examines the supplied buffer and parses an LDAP attribute if one is found. Any state from a previous parse is
+     * discarded.
      *
      * @param  buffer  to parse
      */
     public void parse(final DERBuffer buffer)
     {
-      parser.parse(buffer);
+      name = null;
+      values = null;
+      while (buffer.hasRemaining()) {
+        final int tag = buffer.get() & BYTE_MASK;
+        final int limit = buffer.limit();
+        final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+        buffer.limit(end);
+        if (tag == NAME_TAG) {
+          name = OctetStringType.decode(buffer);
+        } else if (tag == VALUES_TAG) {
+          // value bytes are bounded by the length of the set
+          values = new AttributeValues(buffer.remaining());
+          while (buffer.hasRemaining()) {
+            final int valueTag = buffer.get() & BYTE_MASK;
+            final int valueEnd = LENGTH_PARSER.readLength(buffer) + buffer.position();
+            if (valueTag == NAME_TAG) {
+              buffer.limit(valueEnd);
+              values.add(buffer);
+              buffer.limit(end);
+            }
+            buffer.position(valueEnd);
+          }
+        }
+        buffer.limit(limit).position(end);
+      }
+      if (values == null) {
+        values = new AttributeValues();
+      }
     }
 
 
@@ -523,7 +1007,10 @@ public class LdapEntry extends AbstractMessage
      */
     public Optional<List<ByteBuffer>> getValues()
     {
-      return values.isEmpty() ? Optional.empty() : Optional.of(values);
+      if (values.isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(values.getAll().stream().map(ByteBuffer::wrap).collect(Collectors.toList()));
     }
   }
 
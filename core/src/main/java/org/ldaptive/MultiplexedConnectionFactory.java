@@ -0,0 +1,1289 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.extended.ExtendedOperationHandle;
+import org.ldaptive.extended.ExtendedRequest;
+import org.ldaptive.extended.ExtendedResponse;
+import org.ldaptive.handler.CompareValueHandler;
+import org.ldaptive.handler.CompleteHandler;
+import org.ldaptive.handler.ExceptionHandler;
+import org.ldaptive.handler.ExtendedValueHandler;
+import org.ldaptive.handler.IntermediateResponseHandler;
+import org.ldaptive.handler.LdapEntryHandler;
+import org.ldaptive.handler.ReferralHandler;
+import org.ldaptive.handler.ResponseControlHandler;
+import org.ldaptive.handler.ResultHandler;
+import org.ldaptive.handler.ResultPredicate;
+import org.ldaptive.handler.SearchReferenceHandler;
+import org.ldaptive.handler.SearchResultHandler;
+import org.ldaptive.handler.UnsolicitedNotificationHandler;
+import org.ldaptive.sasl.DefaultSaslClientRequest;
+import org.ldaptive.sasl.SaslClientRequest;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.DefaultSearchOperationHandle;
+import org.ldaptive.transport.Transport;
+import org.ldaptive.transport.TransportFactory;
+
+/**
+ * Creates a small, fixed number of connections and multiplexes the operations of every thread over them. LDAP permits
+ * any number of outstanding operations on a connection, so a few connections shared by many threads can serve the same
+ * load as a much larger pool of exclusively checked out connections. Each operation is assigned to the open connection
+ * with the fewest outstanding requests. The number of outstanding requests on each connection is limited by {@link
+ * #getMaxPendingRequests()}, sending a request on a connection at that limit blocks for up to {@link
+ * #getBlockWaitTime()}. Connections that are found closed are replaced on a background thread the next time an
+ * operation is assigned.
+ *
+ * <p>Bind operations change the authorization state of the connection for every thread sharing it and are therefore
+ * not supported. Connections should be authenticated with a {@link BindConnectionInitializer}. Abandon operations
+ * must be sent with {@link OperationHandle#abandon()}.</p>
+ *
+ * <p>Searches executed with {@link SearchOperation#stream(SearchRequest, int)} or {@link
+ * SearchOperation#publish(SearchRequest, int)} suspend reads on their connection while their consumer falls behind,
+ * which stalls the responses of every other operation assigned to that connection. Consumers of those searches should
+ * keep up with the search, or use a separate connection factory.</p>
+ *
+ * @author  Middleware Services
+ */
+public class MultiplexedConnectionFactory extends DefaultConnectionFactory
+{
+
+  /** Default number of connections. */
+  private static final int DEFAULT_CONNECTION_COUNT = 4;
+
+  /** Default maximum number of outstanding requests per connection. */
+  private static final int DEFAULT_MAX_PENDING_REQUESTS = 128;
+
+  /** Number of connections to multiplex operations over. */
+  private int connectionCount = DEFAULT_CONNECTION_COUNT;
+
+  /** Maximum number of outstanding requests per connection. */
+  private int maxPendingRequests = DEFAULT_MAX_PENDING_REQUESTS;
+
+  /** Duration to wait for a connection to fall below the maximum number of outstanding requests. */
+  private Duration blockWaitTime = Duration.ofMinutes(1);
+
+  /** Connections used by this factory. */
+  private ConnectionSlot[] slots;
+
+  /** Connection returned by {@link #getConnection()}. */
+  private MultiplexedConnection connection;
+
+  /** Whether {@link #initialize()} has been successfully invoked. */
+  private volatile boolean initialized;
+
+
+  /** Default constructor. */
+  public MultiplexedConnectionFactory()
+  {
+    super(TransportFactory.getTransport(MultiplexedConnectionFactory.class));
+  }
+
+
+  /**
+   * Creates a new multiplexed connection factory.
+   *
+   * @param  t  transport
+   */
+  public MultiplexedConnectionFactory(final Transport t)
+  {
+    super(t);
+  }
+
+
+  /**
+   * Creates a new multiplexed connection factory.
+   *
+   * @param  ldapUrl  to connect to
+   */
+  public MultiplexedConnectionFactory(final String ldapUrl)
+  {
+    super(ldapUrl, TransportFactory.getTransport(MultiplexedConnectionFactory.class));
+  }
+
+
+  /**
+   * Creates a new multiplexed connection factory.
+   *
+   * @param  ldapUrl  to connect to
+   * @param  t  transport
+   */
+  public MultiplexedConnectionFactory(final String ldapUrl, final Transport t)
+  {
+    super(ldapUrl, t);
+  }
+
+
+  /**
+   * Creates a new multiplexed connection factory.
+   *
+   * @param  cc  connection configuration
+   */
+  public MultiplexedConnectionFactory(final ConnectionConfig cc)
+  {
+    super(cc, TransportFactory.getTransport(MultiplexedConnectionFactory.class));
+  }
+
+
+  /**
+   * Creates a new multiplexed connection factory.
+   *
+   * @param  cc  connection configuration
+   * @param  t  transport
+   */
+  public MultiplexedConnectionFactory(final ConnectionConfig cc, final Transport t)
+  {
+    super(cc, t);
+  }
+
+
+  /**
+   * Returns the number of connections to multiplex operations over.
+   *
+   * @return  connection count
+   */
+  public int getConnectionCount()
+  {
+    return connectionCount;
+  }
+
+
+  /**
+   * Sets the number of connections to multiplex operations over. Default value is 4. Must be set before {@link
+   * #initialize()} is invoked.
+   *
+   * @param  count  connection count
+   */
+  public void setConnectionCount(final int count)
+  {
+    if (count <= 0) {
+      throw new IllegalArgumentException("Connection count must be greater than zero");
+    }
+    connectionCount = count;
+  }
+
+
+  /**
+   * Returns the maximum number of outstanding requests per connection.
+   *
+   * @return  maximum pending requests
+   */
+  public int getMaxPendingRequests()
+  {
+    return maxPendingRequests;
+  }
+
+
+  /**
+   * Sets the maximum number of outstanding requests per connection. Default value is 128. Must be set before {@link
+   * #initialize()} is invoked.
+   *
+   * @param  max  maximum pending requests
+   */
+  public void setMaxPendingRequests(final int max)
+  {
+    if (max <= 0) {
+      throw new IllegalArgumentException("Maximum pending requests must be greater than zero");
+    }
+    maxPendingRequests = max;
+  }
+
+
+  /**
+   * Returns the block wait time.
+   *
+   * @return  time to wait for a connection below the maximum number of outstanding requests
+   */
+  public Duration getBlockWaitTime()
+  {
+    return blockWaitTime;
+  }
+
+
+  /**
+   * Sets the block wait time. Default time is 1 minute. A duration of zero waits indefinitely.
+   *
+   * @param  time  to wait for a connection below the maximum number of outstanding requests
+   */
+  public void setBlockWaitTime(final Duration time)
+  {
+    if (time == null || time.isNegative()) {
+      throw new IllegalArgumentException("Block wait time cannot be null or negative");
+    }
+    blockWaitTime = time;
+  }
+
+
+  /**
+   * Returns whether this factory has been initialized.
+   *
+   * @return  whether this factory has been initialized
+   */
+  public boolean isInitialized()
+  {
+    return initialized;
+  }
+
+
+  /**
+   * Returns the number of outstanding requests over all connections.
+   *
+   * @return  pending request count
+   */
+  public int getPendingRequestCount()
+  {
+    final ConnectionSlot[] s = slots;
+    int count = 0;
+    if (s != null) {
+      for (ConnectionSlot slot : s) {
+        count += slot.getPendingCount();
+      }
+    }
+    return count;
+  }
+
+
+  /**
+   * Prepares this factory for use by opening every connection.
+   *
+   * @throws  LdapException  if a connection cannot be opened
+   */
+  public synchronized void initialize()
+    throws LdapException
+  {
+    if (initialized) {
+      throw new IllegalStateException("Connection factory is already initialized");
+    }
+    final ConnectionSlot[] s = new ConnectionSlot[connectionCount];
+    try {
+      for (int i = 0; i < s.length; i++) {
+        s[i] = new ConnectionSlot();
+        s[i].open();
+      }
+    } catch (LdapException e) {
+      for (ConnectionSlot slot : s) {
+        if (slot != null) {
+          slot.close();
+        }
+      }
+      throw e;
+    }
+    slots = s;
+    connection = new MultiplexedConnection();
+    initialized = true;
+    logger.info("Factory initialized {}", this);
+  }
+
+
+  /**
+   * Returns a connection that multiplexes operations over the connections of this factory. The same connection is
+   * returned to every caller, {@link Connection#open()} and {@link Connection#close()} have no effect on it.
+   *
+   * @return  multiplexed connection
+   */
+  @Override
+  public Connection getConnection()
+  {
+    if (!initialized) {
+      throw new IllegalStateException("Connection factory is not initialized");
+    }
+    return connection;
+  }
+
+
+  @Override
+  public synchronized void close()
+  {
+    initialized = false;
+    if (slots != null) {
+      for (ConnectionSlot slot : slots) {
+        slot.close();
+      }
+    }
+    super.close();
+  }
+
+
+  /**
+   * Returns the open connection with the fewest outstanding requests. A random starting point spreads ties between
+   * connections. Closed connections are replaced on a background thread as they are encountered, so the caller never
+   * waits for a connection to open. If no connection is open a closed connection is returned so that the operation
+   * fails when it is sent.
+   *
+   * @return  connection slot
+   */
+  private ConnectionSlot selectSlot()
+  {
+    final ConnectionSlot[] s = slots;
+    final int start = ThreadLocalRandom.current().nextInt(s.length);
+    ConnectionSlot selected = null;
+    int minPending = Integer.MAX_VALUE;
+    for (int i = 0; i < s.length; i++) {
+      final ConnectionSlot slot = s[(start + i) % s.length];
+      if (slot.isOpen()) {
+        final int pending = slot.getPendingCount();
+        if (pending < minPending) {
+          selected = slot;
+          minPending = pending;
+        }
+      } else {
+        slot.scheduleReplace();
+      }
+    }
+    if (selected == null) {
+      logger.debug("No open connections available for {}", this);
+      selected = s[start];
+    }
+    return selected;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "transport=" + getTransport() + ", " +
+      "config=" + getConnectionConfig() + ", " +
+      "connectionCount=" + connectionCount + ", " +
+      "maxPendingRequests=" + maxPendingRequests + ", " +
+      "blockWaitTime=" + blockWaitTime + ", " +
+      "initialized=" + initialized + "]";
+  }
+
+
+  /**
+   * Holds one of the connections of this factory and the permits for its outstanding requests.
+   */
+  private final class ConnectionSlot
+  {
+
+    /** Permits for outstanding requests. */
+    private final Semaphore permits = new Semaphore(maxPendingRequests);
+
+    /** Whether a replacement of the connection is scheduled or in progress. */
+    private final AtomicBoolean replacing = new AtomicBoolean();
+
+    /** Underlying connection. */
+    private volatile Connection conn;
+
+
+    /**
+     * Creates and opens the connection for this slot.
+     *
+     * @throws  LdapException  if the connection cannot be opened
+     */
+    void open()
+      throws LdapException
+    {
+      conn = MultiplexedConnectionFactory.super.getConnection();
+      conn.open();
+    }
+
+
+    /**
+     * Returns whether the connection in this slot is open.
+     *
+     * @return  whether the connection is open
+     */
+    boolean isOpen()
+    {
+      return conn.isOpen();
+    }
+
+
+    /**
+     * Schedules the replacement of the connection in this slot on a background thread. Does nothing if a replacement
+     * is already scheduled.
+     */
+    void scheduleReplace()
+    {
+      if (initialized && replacing.compareAndSet(false, true)) {
+        try {
+          ExecutorHolder.EXECUTOR.execute(this::replace);
+        } catch (RejectedExecutionException e) {
+          replacing.set(false);
+          logger.warn("Could not schedule replacement of closed connection {}", conn, e);
+        }
+      }
+    }
+
+
+    /** Replaces the connection in this slot with a new connection if it is closed. */
+    private void replace()
+    {
+      try {
+        if (initialized && !conn.isOpen()) {
+          final Connection closed = conn;
+          try {
+            open();
+            logger.debug("Replaced closed connection {} with {}", closed, conn);
+          } catch (LdapException e) {
+            logger.warn("Could not replace closed connection {}", closed, e);
+          } finally {
+            closed.close();
+          }
+          // the factory may have been closed while the connection was opening
+          if (!initialized) {
+            close();
+          }
+        }
+      } finally {
+        replacing.set(false);
+      }
+    }
+
+
+    /**
+     * Returns the number of outstanding requests on this slot.
+     *
+     * @return  pending request count
+     */
+    int getPendingCount()
+    {
+      return maxPendingRequests - permits.availablePermits();
+    }
+
+
+    /**
+     * Acquires a permit for an outstanding request.
+     *
+     * @return  whether a permit was acquired before the block wait time elapsed
+     *
+     * @throws  InterruptedException  if the thread is interrupted while waiting
+     */
+    boolean acquire()
+      throws InterruptedException
+    {
+      final boolean acquired;
+      if (permits.tryAcquire()) {
+        acquired = true;
+      } else if (Duration.ZERO.equals(blockWaitTime)) {
+        permits.acquire();
+        acquired = true;
+      } else {
+        acquired = permits.tryAcquire(blockWaitTime.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      return acquired;
+    }
+
+
+    /** Releases a permit for an outstanding request. */
+    void release()
+    {
+      permits.release();
+    }
+
+
+    /** Closes the connection in this slot. */
+    void close()
+    {
+      if (conn != null) {
+        conn.close();
+      }
+    }
+  }
+
+
+  /**
+   * Operation handle that acquires a permit from a connection slot when the request is sent and releases it when the
+   * operation completes. All other methods delegate to the handle created by the connection of the slot, the complete
+   * handler of that handle releases the permit before invoking {@link #onComplete}.
+   *
+   * @param  <Q>  type of request
+   * @param  <S>  type of result
+   */
+  private class MultiplexedOperationHandle<Q extends Request, S extends Result> implements OperationHandle<Q, S>
+  {
+
+    /** Slot the handle was created on. */
+    private final ConnectionSlot slot;
+
+    /** Underlying handle. */
+    private final DefaultOperationHandle<Q, S> handle;
+
+    /** Whether this handle holds a permit from its slot. */
+    private final AtomicBoolean acquired = new AtomicBoolean();
+
+    /** Function to run when the operation completes. */
+    private volatile CompleteHandler onComplete;
+
+
+    /**
+     * Creates a new multiplexed operation handle.
+     *
+     * @param  s  connection slot
+     * @param  h  operation handle created by the connection of the slot
+     */
+    MultiplexedOperationHandle(final ConnectionSlot s, final OperationHandle<Q, S> h)
+    {
+      if (!(h instanceof DefaultOperationHandle)) {
+        throw new IllegalStateException("Connection " + s.conn + " does not support multiplexing");
+      }
+      slot = s;
+      handle = (DefaultOperationHandle<Q, S>) h;
+      handle.onComplete(this::complete);
+    }
+
+
+    /**
+     * Acquires a permit and sends the request. The handle completes with an exception if no permit is available.
+     *
+     * @return  this handle
+     */
+    @Override
+    public MultiplexedOperationHandle<Q, S> send()
+    {
+      LdapException exception = null;
+      try {
+        if (slot.acquire()) {
+          acquired.set(true);
+        } else {
+          exception = new LdapException(
+            ResultCode.LOCAL_ERROR,
+            "Block time of " + blockWaitTime + " exceeded waiting for fewer than " + maxPendingRequests +
+              " pending requests on " + MultiplexedConnectionFactory.this);
+        }
+      } catch (InterruptedException e) {
+        exception = new LdapException(ResultCode.LOCAL_ERROR, e);
+      }
+      if (exception != null) {
+        handle.exception(exception);
+      } else {
+        try {
+          handle.send();
+        } catch (RuntimeException e) {
+          release();
+          throw e;
+        }
+      }
+      return this;
+    }
+
+
+    @Override
+    public S await()
+      throws LdapException
+    {
+      return handle.await();
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onResult(final ResultHandler... function)
+    {
+      handle.onResult(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onControl(final ResponseControlHandler... function)
+    {
+      handle.onControl(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onReferral(final ReferralHandler... function)
+    {
+      handle.onReferral(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onIntermediate(final IntermediateResponseHandler... function)
+    {
+      handle.onIntermediate(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onUnsolicitedNotification(final UnsolicitedNotificationHandler... function)
+    {
+      handle.onUnsolicitedNotification(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onException(final ExceptionHandler function)
+    {
+      handle.onException(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> onComplete(final CompleteHandler function)
+    {
+      onComplete = function;
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedOperationHandle<Q, S> throwIf(final ResultPredicate function)
+    {
+      handle.throwIf(function);
+      return this;
+    }
+
+
+    @Override
+    public void abandon()
+    {
+      handle.abandon();
+    }
+
+
+    @Override
+    public ExtendedOperationHandle cancel()
+    {
+      return handle.cancel();
+    }
+
+
+    @Override
+    public Instant getSentTime()
+    {
+      return handle.getSentTime();
+    }
+
+
+    @Override
+    public Instant getReceivedTime()
+    {
+      return handle.getReceivedTime();
+    }
+
+
+    /** Invokes {@link #onComplete} and releases the permit for this handle if it holds one. */
+    private void complete()
+    {
+      try {
+        if (onComplete != null) {
+          onComplete.execute();
+        }
+      } finally {
+        release();
+      }
+    }
+
+
+    /** Releases the permit for this handle. Only the first invocation after the permit is acquired has any effect. */
+    private void release()
+    {
+      if (acquired.compareAndSet(true, false)) {
+        slot.release();
+      }
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return "[" +
+        getClass().getName() + "@" + hashCode() + "::" +
+        "handle=" + handle + ", " +
+        "acquired=" + acquired + "]";
+    }
+  }
+
+
+  /**
+   * Multiplexed handle for compare operations.
+   */
+  private final class MultiplexedCompareOperationHandle
+    extends MultiplexedOperationHandle<CompareRequest, CompareResponse> implements CompareOperationHandle
+  {
+
+    /** Underlying handle. */
+    private final CompareOperationHandle compareHandle;
+
+
+    /**
+     * Creates a new multiplexed compare operation handle.
+     *
+     * @param  s  connection slot
+     * @param  h  operation handle created by the connection of the slot
+     */
+    MultiplexedCompareOperationHandle(final ConnectionSlot s, final CompareOperationHandle h)
+    {
+      super(s, h);
+      compareHandle = h;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle send()
+    {
+      super.send();
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onResult(final ResultHandler... function)
+    {
+      super.onResult(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onControl(final ResponseControlHandler... function)
+    {
+      super.onControl(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onReferral(final ReferralHandler... function)
+    {
+      super.onReferral(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onIntermediate(final IntermediateResponseHandler... function)
+    {
+      super.onIntermediate(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onUnsolicitedNotification(
+      final UnsolicitedNotificationHandler... function)
+    {
+      super.onUnsolicitedNotification(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onException(final ExceptionHandler function)
+    {
+      super.onException(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle throwIf(final ResultPredicate function)
+    {
+      super.throwIf(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onComplete(final CompleteHandler function)
+    {
+      super.onComplete(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedCompareOperationHandle onCompare(final CompareValueHandler... function)
+    {
+      compareHandle.onCompare(function);
+      return this;
+    }
+  }
+
+
+  /**
+   * Multiplexed handle for extended operations.
+   */
+  private final class MultiplexedExtendedOperationHandle
+    extends MultiplexedOperationHandle<ExtendedRequest, ExtendedResponse> implements ExtendedOperationHandle
+  {
+
+    /** Underlying handle. */
+    private final ExtendedOperationHandle extendedHandle;
+
+
+    /**
+     * Creates a new multiplexed extended operation handle.
+     *
+     * @param  s  connection slot
+     * @param  h  operation handle created by the connection of the slot
+     */
+    MultiplexedExtendedOperationHandle(final ConnectionSlot s, final ExtendedOperationHandle h)
+    {
+      super(s, h);
+      extendedHandle = h;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle send()
+    {
+      super.send();
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onResult(final ResultHandler... function)
+    {
+      super.onResult(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onControl(final ResponseControlHandler... function)
+    {
+      super.onControl(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onReferral(final ReferralHandler... function)
+    {
+      super.onReferral(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onIntermediate(final IntermediateResponseHandler... function)
+    {
+      super.onIntermediate(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onUnsolicitedNotification(
+      final UnsolicitedNotificationHandler... function)
+    {
+      super.onUnsolicitedNotification(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onException(final ExceptionHandler function)
+    {
+      super.onException(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle throwIf(final ResultPredicate function)
+    {
+      super.throwIf(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onComplete(final CompleteHandler function)
+    {
+      super.onComplete(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedExtendedOperationHandle onExtended(final ExtendedValueHandler... function)
+    {
+      extendedHandle.onExtended(function);
+      return this;
+    }
+  }
+
+
+  /**
+   * Multiplexed handle for search operations. Exposes the underlying handle so that entries can be published, see
+   * {@link SearchOperation#publish(SearchRequest, int)}.
+   */
+  final class MultiplexedSearchOperationHandle
+    extends MultiplexedOperationHandle<SearchRequest, SearchResponse> implements SearchOperationHandle
+  {
+
+    /** Underlying handle. */
+    private final SearchOperationHandle searchHandle;
+
+
+    /**
+     * Creates a new multiplexed search operation handle.
+     *
+     * @param  s  connection slot
+     * @param  h  operation handle created by the connection of the slot
+     */
+    MultiplexedSearchOperationHandle(final ConnectionSlot s, final SearchOperationHandle h)
+    {
+      super(s, h);
+      searchHandle = h;
+    }
+
+
+    /**
+     * Returns the handle created by the connection of the slot. Requests must still be sent with {@link #send()} so
+     * that a permit is acquired.
+     *
+     * @return  underlying search operation handle
+     */
+    DefaultSearchOperationHandle getSearchHandle()
+    {
+      return (DefaultSearchOperationHandle) searchHandle;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle send()
+    {
+      super.send();
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onResult(final ResultHandler... function)
+    {
+      super.onResult(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onControl(final ResponseControlHandler... function)
+    {
+      super.onControl(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onReferral(final ReferralHandler... function)
+    {
+      super.onReferral(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onIntermediate(final IntermediateResponseHandler... function)
+    {
+      super.onIntermediate(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onUnsolicitedNotification(
+      final UnsolicitedNotificationHandler... function)
+    {
+      super.onUnsolicitedNotification(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onException(final ExceptionHandler function)
+    {
+      super.onException(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onComplete(final CompleteHandler function)
+    {
+      super.onComplete(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle throwIf(final ResultPredicate function)
+    {
+      super.throwIf(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onEntry(final LdapEntryHandler... function)
+    {
+      searchHandle.onEntry(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onReference(final SearchReferenceHandler... function)
+    {
+      searchHandle.onReference(function);
+      return this;
+    }
+
+
+    @Override
+    public MultiplexedSearchOperationHandle onSearchResult(final SearchResultHandler... function)
+    {
+      searchHandle.onSearchResult(function);
+      return this;
+    }
+  }
+
+
+  /**
+   * Connection returned to callers that assigns each operation to one of the connections of this factory.
+   */
+  private final class MultiplexedConnection implements Connection
+  {
+
+    @Override
+    public void operation(final AbandonRequest request)
+    {
+      throw new UnsupportedOperationException("Abandon requests must be sent with OperationHandle#abandon()");
+    }
+
+
+    @Override
+    public OperationHandle<AddRequest, AddResponse> operation(final AddRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedOperationHandle<>(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public OperationHandle<BindRequest, BindResponse> operation(final BindRequest request)
+    {
+      throw new UnsupportedOperationException("Bind operations cannot be multiplexed");
+    }
+
+
+    @Override
+    public CompareOperationHandle operation(final CompareRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedCompareOperationHandle(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public OperationHandle<DeleteRequest, DeleteResponse> operation(final DeleteRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedOperationHandle<>(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public ExtendedOperationHandle operation(final ExtendedRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedExtendedOperationHandle(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public OperationHandle<ModifyRequest, ModifyResponse> operation(final ModifyRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedOperationHandle<>(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public OperationHandle<ModifyDnRequest, ModifyDnResponse> operation(final ModifyDnRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedOperationHandle<>(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public SearchOperationHandle operation(final SearchRequest request)
+    {
+      final ConnectionSlot slot = selectSlot();
+      return new MultiplexedSearchOperationHandle(slot, slot.conn.operation(request));
+    }
+
+
+    @Override
+    public BindResponse operation(final SaslClientRequest request)
+    {
+      throw new UnsupportedOperationException("Bind operations cannot be multiplexed");
+    }
+
+
+    @Override
+    public BindResponse operation(final DefaultSaslClientRequest request)
+    {
+      throw new UnsupportedOperationException("Bind operations cannot be multiplexed");
+    }
+
+
+    @Override
+    public LdapURL getLdapURL()
+    {
+      for (ConnectionSlot slot : slots) {
+        if (slot.isOpen()) {
+          return slot.conn.getLdapURL();
+        }
+      }
+      return null;
+    }
+
+
+    @Override
+    public boolean isOpen()
+    {
+      if (initialized) {
+        for (ConnectionSlot slot : slots) {
+          if (slot.isOpen()) {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+
+    @Override
+    public void open() {}
+
+
+    @Override
+    public void close(final RequestControl... controls) {}
+
+
+    @Override
+    public String toString()
+    {
+      return "[" +
+        getClass().getName() + "@" + hashCode() + "::" +
+        "factory=" + MultiplexedConnectionFactory.this + "]";
+    }
+  }
+
+
+  /** Lazily creates the executor on first use. */
+  private static final class ExecutorHolder
+  {
+
+    /** Executor that replaces closed connections for all factories. */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(
+      r -> {
+        final Thread t = new Thread(r, "ldaptive-multiplexed-replace");
+        t.setDaemon(true);
+        return t;
+      });
+
+
+    /** Default constructor. */
+    private ExecutorHolder() {}
+  }
+
+
+  /**
+   * Creates a builder for this class.
+   *
+   * @return  new builder
+   */
+  public static Builder builder()
+  {
+    return new Builder();
+  }
+
+
+  /**
+   * Creates a builder for this class.
+   *
+   * @param  t  transport
+   *
+   * @return  new builder
+   */
+  public static Builder builder(final Transport t)
+  {
+    return new Builder(t);
+  }
+
+
+  // CheckStyle:OFF
+  public static class Builder extends DefaultConnectionFactory.Builder
+  {
+
+    private final MultiplexedConnectionFactory object;
+
+
+    protected Builder()
+    {
+      this(new MultiplexedConnectionFactory());
+    }
+
+
+    protected Builder(final Transport transport)
+    {
+      this(new MultiplexedConnectionFactory(transport));
+    }
+
+
+    private Builder(final MultiplexedConnectionFactory factory)
+    {
+      super(factory);
+      object = factory;
+    }
+
+
+    public Builder config(final ConnectionConfig cc)
+    {
+      object.setConnectionConfig(cc);
+      return this;
+    }
+
+
+    public Builder connectionCount(final int count)
+    {
+      object.setConnectionCount(count);
+      return this;
+    }
+
+
+    public Builder maxPendingRequests(final int max)
+    {
+      object.setMaxPendingRequests(max);
+      return this;
+    }
+
+
+    public Builder blockWaitTime(final Duration time)
+    {
+      object.setBlockWaitTime(time);
+      return this;
+    }
+
+
+    public MultiplexedConnectionFactory build()
+    {
+      return object;
+    }
+  }
+  // CheckStyle:ON
+}
@@ -3,11 +3,15 @@ package org.ldaptive;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Set;
 import java.util.function.BiPredicate;
 import org.ldaptive.pool.BlockingConnectionPool;
+import org.ldaptive.pool.ConcurrentConnectionPool;
 import org.ldaptive.pool.ConnectionActivator;
 import org.ldaptive.pool.ConnectionPassivator;
 import org.ldaptive.pool.PoolException;
+import org.ldaptive.pool.PoolMetrics;
+import org.ldaptive.pool.PooledConnectionStatistics;
 import org.ldaptive.pool.PruneStrategy;
 import org.ldaptive.pool.ValidationException;
 import org.ldaptive.pool.ValidationExceptionHandler;
@@ -15,7 +19,11 @@ import org.ldaptive.transport.Transport;
 import org.ldaptive.transport.TransportFactory;
 
 /**
- * Creates connections for performing ldap operations and manages those connections as a pool.
+ * Creates connections for performing ldap operations and manages those connections as a pool. By default connections
+ * are managed by the {@link BlockingConnectionPool} implementation. If {@link #isConcurrentPool()} is true, check outs
+ * and check ins are serviced by a {@link ConcurrentConnectionPool}, which does not contend on a pool wide lock when
+ * many threads check out connections concurrently. That pool is configured from the properties of this factory when
+ * it is initialized.
  *
  * @author  Middleware Services
  */
@@ -25,6 +33,12 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
   /** Validation exception handler. Default implementation retries once. */
   private ValidationExceptionHandler validationExceptionHandler = new RetryValidationExceptionHandler();
 
+  /** Whether to pool connections with a {@link ConcurrentConnectionPool}. */
+  private boolean concurrentPool;
+
+  /** Pool that services check outs when {@link #concurrentPool} is true. */
+  private ConcurrentConnectionPool concurrentConnectionPool;
+
 
   /** Default constructor. */
   public PooledConnectionFactory()
@@ -134,6 +148,30 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
   }
 
 
+  /**
+   * Returns whether connections are pooled with a {@link ConcurrentConnectionPool}.
+   *
+   * @return  whether connections are pooled with a concurrent pool
+   */
+  public boolean isConcurrentPool()
+  {
+    return concurrentPool;
+  }
+
+
+  /**
+   * Sets whether connections are pooled with a {@link ConcurrentConnectionPool}. This property must be set before this
+   * factory is initialized.
+   *
+   * @param  b  whether connections are pooled with a concurrent pool
+   */
+  public void setConcurrentPool(final boolean b)
+  {
+    logger.trace("setting concurrentPool: {}", b);
+    concurrentPool = b;
+  }
+
+
   /**
    * Returns the ldap transport.
    *
@@ -145,12 +183,56 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
   }
 
 
+  @Override
+  public synchronized void initialize()
+  {
+    if (!concurrentPool) {
+      super.initialize();
+      return;
+    }
+    if (concurrentConnectionPool != null && concurrentConnectionPool.isInitialized()) {
+      throw new IllegalStateException("Pool " + getName() + " has already been initialized");
+    }
+    final ConcurrentConnectionPool pool = new ConcurrentConnectionPool(getDefaultConnectionFactory());
+    pool.setName(getName());
+    pool.setMinPoolSize(getMinPoolSize());
+    pool.setMaxPoolSize(getMaxPoolSize());
+    pool.setValidateOnCheckIn(isValidateOnCheckIn());
+    pool.setValidateOnCheckOut(isValidateOnCheckOut());
+    pool.setValidatePeriodically(isValidatePeriodically());
+    pool.setActivator(getActivator());
+    pool.setPassivator(getPassivator());
+    pool.setValidator(getValidator());
+    pool.setPruneStrategy(getPruneStrategy());
+    pool.setConnectOnCreate(getConnectOnCreate());
+    pool.setMaxConnectionLifetime(getMaxConnectionLifetime());
+    pool.setConnectionLifetimeJitter(getConnectionLifetimeJitter());
+    pool.setPrewarm(getPrewarm());
+    pool.setMaintenancePeriod(getMaintenancePeriod());
+    pool.setPoolMetrics(getPoolMetrics());
+    pool.setFailFastInitialize(getFailFastInitialize());
+    pool.setBlockWaitTime(getBlockWaitTime());
+    pool.initialize();
+    concurrentConnectionPool = pool;
+  }
+
+
+  @Override
+  public boolean isInitialized()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.isInitialized();
+    }
+    return super.isInitialized();
+  }
+
+
   @Override
   public Connection getConnection()
     throws PoolException
   {
     try {
-      return super.getConnection();
+      return checkOut();
     } catch (ValidationException e) {
       if (validationExceptionHandler != null) {
         logger.warn("Connection could not be validated, invoking handler {}", validationExceptionHandler, e);
@@ -166,10 +248,115 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
   }
 
 
+  /**
+   * Retrieves a connection from the underlying pool implementation.
+   *
+   * @return  connection
+   *
+   * @throws  PoolException  if this operation fails
+   */
+  private Connection checkOut()
+    throws PoolException
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.getConnection();
+    }
+    return super.getConnection();
+  }
+
+
+  @Override
+  public void putConnection(final Connection c)
+  {
+    if (concurrentConnectionPool != null) {
+      concurrentConnectionPool.putConnection(c);
+    } else {
+      super.putConnection(c);
+    }
+  }
+
+
+  @Override
+  public void prune()
+  {
+    if (concurrentConnectionPool != null) {
+      concurrentConnectionPool.prune();
+    } else {
+      super.prune();
+    }
+  }
+
+
+  @Override
+  public void validate()
+  {
+    if (concurrentConnectionPool != null) {
+      concurrentConnectionPool.validate();
+    } else {
+      super.validate();
+    }
+  }
+
+
+  @Override
+  public int availableCount()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.availableCount();
+    }
+    return super.availableCount();
+  }
+
+
+  @Override
+  public int activeCount()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.activeCount();
+    }
+    return super.activeCount();
+  }
+
+
+  @Override
+  public int waiterCount()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.waiterCount();
+    }
+    return super.waiterCount();
+  }
+
+
+  @Override
+  public long getCheckOutCount()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.getCheckOutCount();
+    }
+    return super.getCheckOutCount();
+  }
+
+
+  @Override
+  public Set<PooledConnectionStatistics> getPooledConnectionStatistics()
+  {
+    if (concurrentConnectionPool != null) {
+      return concurrentConnectionPool.getPooledConnectionStatistics();
+    }
+    return super.getPooledConnectionStatistics();
+  }
+
+
   @Override
   public void close()
   {
-    super.close();
+    if (concurrentConnectionPool != null) {
+      concurrentConnectionPool.close();
+      concurrentConnectionPool = null;
+    } else {
+      super.close();
+    }
     getDefaultConnectionFactory().close();
   }
 
@@ -177,7 +364,9 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
   @Override
   public String toString()
   {
-    return "[" + super.toString() + ", " + "validationExceptionHandler=" + validationExceptionHandler + "]";
+    return "[" + super.toString() + ", " +
+      "validationExceptionHandler=" + validationExceptionHandler + ", " +
+      "concurrentPool=" + concurrentPool + "]";
   }
 
 
@@ -273,6 +462,13 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
     }
 
 
+    public Builder concurrentPool(final boolean b)
+    {
+      object.setConcurrentPool(b);
+      return this;
+    }
+
+
     public Builder connectOnCreate(final boolean connect)
     {
       object.setConnectOnCreate(connect);
@@ -322,6 +518,41 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
     }
 
 
+    public Builder maxConnectionLifetime(final Duration time)
+    {
+      object.setMaxConnectionLifetime(time);
+      return this;
+    }
+
+
+    public Builder connectionLifetimeJitter(final Duration time)
+    {
+      object.setConnectionLifetimeJitter(time);
+      return this;
+    }
+
+
+    public Builder prewarm(final boolean b)
+    {
+      object.setPrewarm(b);
+      return this;
+    }
+
+
+    public Builder maintenancePeriod(final Duration period)
+    {
+      object.setMaintenancePeriod(period);
+      return this;
+    }
+
+
+    public Builder poolMetrics(final PoolMetrics metrics)
+    {
+      object.setPoolMetrics(metrics);
+      return this;
+    }
+
+
     public Builder name(final String name)
     {
       object.setName(name);
@@ -376,7 +607,7 @@ public class PooledConnectionFactory extends BlockingConnectionPool implements C
       final Instant time = Instant.now();
       while (continueCondition.test(count++, time)) {
         try {
-          return PooledConnectionFactory.super.getConnection();
+          return checkOut();
         } catch (ValidationException ex) {
           logger.warn("Validation exception handler failed on retry {}", count, ex);
         } catch (Exception ex) {
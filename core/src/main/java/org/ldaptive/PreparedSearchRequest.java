@@ -0,0 +1,279 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.time.Duration;
+import org.ldaptive.asn1.AbstractDERType;
+import org.ldaptive.asn1.DERBuffer;
+import org.ldaptive.asn1.DEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
+import org.ldaptive.asn1.UniversalDERTag;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.filter.Filter;
+
+/**
+ * Immutable search request that is encoded once when it is created. Each send only writes the outer sequence header
+ * and the message ID before the cached encoding of the search operation and its controls. Use this class for requests
+ * that are sent repeatedly without changes, such as connection validation and frequent lookups. All setters throw
+ * {@link UnsupportedOperationException}, use {@link SearchRequest#copy(SearchRequest)} to obtain a modifiable request.
+ * Note that changes to a filter or attribute array after this request is created are not reflected in its encoding.
+ *
+ * @author  Middleware Services
+ */
+public final class PreparedSearchRequest extends SearchRequest
+{
+
+  /** Encoded protocol operation and controls that follow the message ID. */
+  private final byte[] encodedBody;
+
+
+  /**
+   * Creates a new prepared search request.
+   *
+   * @param  request  to prepare
+   */
+  public PreparedSearchRequest(final SearchRequest request)
+  {
+    super.setBaseDn(request.getBaseDn());
+    super.setSearchScope(request.getSearchScope());
+    super.setDerefAliases(request.getDerefAliases());
+    super.setSizeLimit(request.getSizeLimit());
+    super.setTimeLimit(request.getTimeLimit());
+    super.setTypesOnly(request.isTypesOnly());
+    super.setFilter(request.getFilter());
+    super.setReturnAttributes(request.getReturnAttributes());
+    super.setBinaryAttributes(request.getBinaryAttributes());
+    super.setLazyAttributes(request.isLazyAttributes());
+    super.setControls(request.getControls());
+    encodedBody = readBody(super.getEncoder(0).encode());
+  }
+
+
+  /**
+   * Returns the encoded protocol operation and controls of the supplied request, which is the encoding of the request
+   * without its message ID. Requests with equal encoded bodies are sent as identical messages.
+   *
+   * @param  request  to encode
+   *
+   * @return  encoded protocol operation and controls
+   */
+  static byte[] encodeBody(final SearchRequest request)
+  {
+    if (request instanceof PreparedSearchRequest) {
+      return ((PreparedSearchRequest) request).encodedBody;
+    }
+    return readBody(request.getEncoder(0).encode());
+  }
+
+
+  /**
+   * Returns the bytes that follow the message ID in the supplied encoded message.
+   *
+   * @param  encoded  LDAP message
+   *
+   * @return  encoded protocol operation and controls
+   */
+  private static byte[] readBody(final byte[] encoded)
+  {
+    final DERBuffer buffer = new DefaultDERBuffer(encoded);
+    // skip the sequence tag and length
+    buffer.get();
+    final int seqLength = buffer.get();
+    if (seqLength < 0) {
+      // CheckStyle:MagicNumber OFF
+      buffer.position(buffer.position() + (seqLength & 0x7F));
+      // CheckStyle:MagicNumber ON
+    }
+    // skip the message ID, its length is always in short form
+    buffer.get();
+    final int idLength = buffer.get();
+    buffer.position(buffer.position() + idLength);
+    return buffer.getRemainingBytes();
+  }
+
+
+  @Override
+  public byte[] encode(final int id)
+  {
+    return getEncoder(id).encode();
+  }
+
+
+  @Override
+  public DEREncoder getEncoder(final int id)
+  {
+    return new MessageEncoder(id, encodedBody);
+  }
+
+
+  @Override
+  public void setBaseDn(final String dn)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setSearchScope(final SearchScope scope)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setDerefAliases(final DerefAliases aliases)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setSizeLimit(final int limit)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setTimeLimit(final Duration limit)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setTypesOnly(final boolean types)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setFilter(final Filter filter)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setFilter(final String filter)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setFilter(final FilterTemplate template)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setReturnAttributes(final String... attributes)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setBinaryAttributes(final String... attrs)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setLazyAttributes(final boolean b)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  @Override
+  public void setControls(final RequestControl... cntrls)
+  {
+    throw new UnsupportedOperationException("Prepared request cannot be modified");
+  }
+
+
+  /** Encodes an LDAP message from a message ID and a pre-encoded body. */
+  private static final class MessageEncoder extends AbstractDERType implements DEREncoder
+  {
+
+    /** Message ID. */
+    private final int messageID;
+
+    /** Encoded protocol operation and controls. */
+    private final byte[] body;
+
+    /** Number of bytes in the message ID integer. */
+    private final int idLength;
+
+
+    /**
+     * Creates a new message encoder.
+     *
+     * @param  id  message ID
+     * @param  bytes  encoded protocol operation and controls
+     */
+    MessageEncoder(final int id, final byte[] bytes)
+    {
+      super(UniversalDERTag.SEQ);
+      messageID = id;
+      body = bytes;
+      // CheckStyle:MagicNumber OFF
+      if (id >= 0 && id < 0x80) {
+        idLength = 1;
+      } else if (id >= 0 && id < 0x8000) {
+        idLength = 2;
+      } else if (id >= 0 && id < 0x800000) {
+        idLength = 3;
+      } else {
+        idLength = 4;
+      }
+      // CheckStyle:MagicNumber ON
+    }
+
+
+    /**
+     * Returns the length of the sequence contents.
+     *
+     * @return  length of the message ID and body
+     */
+    private int getItemLength()
+    {
+      return 2 + idLength + body.length;
+    }
+
+
+    @Override
+    public byte[] encode()
+    {
+      final byte[] encoded = new byte[encodedLength()];
+      encode(new DefaultDERBuffer(encoded));
+      return encoded;
+    }
+
+
+    @Override
+    public int encodedLength()
+    {
+      return encodedLength(getItemLength());
+    }
+
+
+    @Override
+    public void encode(final DERBuffer buffer)
+    {
+      encodeHeader(buffer, getItemLength());
+      buffer.put((byte) UniversalDERTag.INT.getTagByte());
+      buffer.put((byte) idLength);
+      // CheckStyle:MagicNumber OFF
+      for (int i = idLength - 1; i >= 0; i--) {
+        buffer.put((byte) (messageID >>> (i * 8)));
+      }
+      // CheckStyle:MagicNumber ON
+      buffer.put(body);
+    }
+  }
+}
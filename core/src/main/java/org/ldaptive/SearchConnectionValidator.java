@@ -13,7 +13,7 @@ import java.util.function.Consumer;
 public class SearchConnectionValidator extends AbstractConnectionValidator
 {
 
-  /** Search request to perform validation with. */
+  /** Prepared search request to perform validation with. */
   private SearchRequest searchRequest;
 
 
@@ -51,7 +51,8 @@ public class SearchConnectionValidator extends AbstractConnectionValidator
 
 
   /**
-   * Returns the search request.
+   * Returns the search request. The returned request is the {@link PreparedSearchRequest} that is sent on each
+   * validation and cannot be modified, set a new request to change the search.
    *
    * @return  search request
    */
@@ -62,13 +63,14 @@ public class SearchConnectionValidator extends AbstractConnectionValidator
 
 
   /**
-   * Sets the search request.
+   * Sets the search request. The request is encoded once by this method, see {@link PreparedSearchRequest}, so changes
+   * to the supplied request after it is set are not sent.
    *
    * @param  sr  search request
    */
   public void setSearchRequest(final SearchRequest sr)
   {
-    searchRequest = sr;
+    searchRequest = sr == null || sr instanceof PreparedSearchRequest ? sr : new PreparedSearchRequest(sr);
   }
 
 
@@ -2,14 +2,30 @@
 package org.ldaptive;
 
 import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.ldaptive.filter.Filter;
 import org.ldaptive.filter.FilterParser;
 import org.ldaptive.handler.LdapEntryHandler;
+import org.ldaptive.handler.SearchEntryQueue;
 import org.ldaptive.handler.SearchReferenceHandler;
 import org.ldaptive.handler.SearchResultHandler;
+import org.ldaptive.transport.DefaultSearchOperationHandle;
+import org.ldaptive.transport.ResponseTimeoutScheduler;
+import org.ldaptive.transport.SearchEntryPublisher;
 
 /**
- * Executes an ldap search operation.
+ * Executes an ldap search operation. Requests supplied to {@link #send(SearchRequest)} and {@link
+ * #execute(SearchRequest)} are sent as is, so a {@link PreparedSearchRequest} is sent with its cached encoding. Methods
+ * that take a base DN, filter or return attributes copy the request of this operation before applying them. Note that
+ * a prepared request cannot be modified, every setter throws {@link UnsupportedOperationException}, so it must not be
+ * supplied to request handlers or clients that change the request, such as {@link
+ * org.ldaptive.control.util.PagedResultsClient}.
  *
  * @author  Middleware Services
  */
@@ -31,6 +47,9 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   /** Functions to handle response results. */
   private SearchResultHandler[] searchResultHandlers;
 
+  /** Coalesces identical searches that are executed concurrently. */
+  private SearchRequestCoalescer requestCoalescer;
+
 
   /**
    * Default constructor.
@@ -139,6 +158,29 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   }
 
 
+  /**
+   * Returns the request coalescer.
+   *
+   * @return  request coalescer or null if searches are not coalesced
+   */
+  public SearchRequestCoalescer getRequestCoalescer()
+  {
+    return requestCoalescer;
+  }
+
+
+  /**
+   * Sets the request coalescer. When set, execute methods that do not supply entry handlers wait for an identical
+   * search that is in progress rather than executing a duplicate search.
+   *
+   * @param  coalescer  request coalescer
+   */
+  public void setRequestCoalescer(final SearchRequestCoalescer coalescer)
+  {
+    requestCoalescer = coalescer;
+  }
+
+
   /**
    * Sends a search request. See {@link SearchOperationHandle#send()}.
    *
@@ -169,7 +211,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   public SearchOperationHandle send(final FilterTemplate template)
     throws LdapException
   {
-    return send(null, FilterParser.parse(template.format()), null, (LdapEntryHandler[]) null);
+    return send(null, template.toFilter(), null, (LdapEntryHandler[]) null);
   }
 
 
@@ -221,7 +263,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   public SearchOperationHandle send(final FilterTemplate template, final String... returnAttributes)
     throws LdapException
   {
-    return send(null, FilterParser.parse(template.format()), returnAttributes, (LdapEntryHandler[]) null);
+    return send(null, template.toFilter(), returnAttributes, (LdapEntryHandler[]) null);
   }
 
 
@@ -282,7 +324,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     final LdapEntryHandler... handlers)
     throws LdapException
   {
-    return send(null, FilterParser.parse(template.format()), returnAttributes, handlers);
+    return send(null, template.toFilter(), returnAttributes, handlers);
   }
 
 
@@ -351,7 +393,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     final LdapEntryHandler... handlers)
     throws LdapException
   {
-    return send(baseDN, FilterParser.parse(template.format()), returnAttributes, handlers);
+    return send(baseDN, template.toFilter(), returnAttributes, handlers);
   }
 
 
@@ -490,7 +532,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   public SearchResponse execute(final FilterTemplate template)
     throws LdapException
   {
-    return execute(FilterParser.parse(template.format()), null, (LdapEntryHandler[]) null);
+    return execute(template.toFilter(), null, (LdapEntryHandler[]) null);
   }
 
 
@@ -542,7 +584,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   public SearchResponse execute(final FilterTemplate template, final String... returnAttributes)
     throws LdapException
   {
-    return execute(FilterParser.parse(template.format()), returnAttributes, (LdapEntryHandler[]) null);
+    return execute(template.toFilter(), returnAttributes, (LdapEntryHandler[]) null);
   }
 
 
@@ -603,7 +645,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     final LdapEntryHandler... handlers)
     throws LdapException
   {
-    return execute(FilterParser.parse(template.format()), returnAttributes, handlers);
+    return execute(template.toFilter(), returnAttributes, handlers);
   }
 
 
@@ -672,7 +714,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     final LdapEntryHandler... handlers)
     throws LdapException
   {
-    return execute(baseDN, FilterParser.parse(template.format()), returnAttributes, handlers);
+    return execute(baseDN, template.toFilter(), returnAttributes, handlers);
   }
 
 
@@ -695,14 +737,13 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     final LdapEntryHandler... handlers)
     throws LdapException
   {
+    if (handlers == null) {
+      return executeRequest(configureRequest(baseDN, filter, returnAttributes));
+    }
     try (Connection conn = getConnectionFactory().getConnection()) {
       conn.open();
       final SearchRequest req = configureRequest(baseDN, filter, returnAttributes);
-      if (handlers != null) {
-        return configureHandle(conn.operation(req)).onEntry(handlers).execute();
-      } else {
-        return configureHandle(conn.operation(req)).execute();
-      }
+      return configureHandle(conn.operation(req)).onEntry(handlers).execute();
     }
   }
 
@@ -711,10 +752,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   public SearchResponse execute(final SearchRequest req)
     throws LdapException
   {
-    try (Connection conn = getConnectionFactory().getConnection()) {
-      conn.open();
-      return configureHandle(conn.operation(configureRequest(req))).execute();
-    }
+    return executeRequest(configureRequest(req));
   }
 
 
@@ -727,10 +765,46 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
    */
   public SearchResponse execute()
     throws LdapException
+  {
+    return executeRequest(configureRequest(null, null, null));
+  }
+
+
+  /**
+   * Executes a search request that has already been configured by the request handlers of this operation. All execute
+   * methods that do not supply entry handlers invoke this method.
+   *
+   * @param  req  configured search request
+   *
+   * @return  search result
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  protected SearchResponse executeRequest(final SearchRequest req)
+    throws LdapException
+  {
+    if (requestCoalescer != null) {
+      final SearchRequestKey key = new SearchRequestKey(req);
+      return requestCoalescer.execute(this, key, () -> executeSearch(key.getRequest()));
+    }
+    return executeSearch(req);
+  }
+
+
+  /**
+   * Opens a connection and executes the supplied search request on it.
+   *
+   * @param  req  configured search request
+   *
+   * @return  search result
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  private SearchResponse executeSearch(final SearchRequest req)
+    throws LdapException
   {
     try (Connection conn = getConnectionFactory().getConnection()) {
       conn.open();
-      final SearchRequest req = configureRequest(null, null, null);
       return configureHandle(conn.operation(req)).execute();
     }
   }
@@ -756,6 +830,182 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
   }
 
 
+  /**
+   * Executes a search request and returns a stream of the entries as they are received. See {@link
+   * #stream(SearchRequest, int)}.
+   *
+   * @param  req  search request
+   *
+   * @return  stream of entries
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  public Stream<LdapEntry> stream(final SearchRequest req)
+    throws LdapException
+  {
+    return stream(req, SearchEntryQueue.DEFAULT_CAPACITY);
+  }
+
+
+  /**
+   * Executes a search request and returns a stream of the entries as they are received. Entries are handed to the
+   * stream through a {@link SearchEntryQueue} and are not retained in a search response. Reads on the connection are
+   * suspended while the supplied capacity of entries is buffered, so the number of entries held in memory is bounded by
+   * the consumer rather than the size of the result set. The stream throws {@link IllegalStateException} if the search
+   * does not complete successfully. Closing the stream before all entries have been read abandons the search. Streams
+   * should be used in a try-with-resources statement. Reads are suspended for the whole connection, so a slow consumer
+   * also delays other operations on a connection shared through a {@link MultiplexedConnectionFactory}.
+   *
+   * @param  req  search request
+   * @param  capacity  number of entries to buffer before reads are suspended
+   *
+   * @return  stream of entries
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  public Stream<LdapEntry> stream(final SearchRequest req, final int capacity)
+    throws LdapException
+  {
+    final SearchEntryQueue queue = new SearchEntryQueue(capacity);
+    final Connection conn = getConnectionFactory().getConnection();
+    try {
+      conn.open();
+    } catch (Exception e) {
+      conn.close();
+      throw e;
+    }
+    final SearchOperationHandle handle = configureHandle(conn.operation(configureRequest(req)));
+    final LdapEntryHandler[] handlers = getEntryHandlers() != null ?
+      LdapUtils.concatArrays(getEntryHandlers(), new LdapEntryHandler[] {queue}) : new LdapEntryHandler[] {queue};
+    handle.onEntry(handlers).onComplete(() -> {
+      queue.complete();
+      conn.close();
+    });
+    try {
+      handle.send();
+    } catch (RuntimeException e) {
+      conn.close();
+      throw e;
+    }
+    return StreamSupport.stream(new EntrySpliterator(handle, queue), false).onClose(() -> {
+      final boolean done = queue.isDone();
+      // close the queue first so that entries received before the abandon are dropped and reads are resumed
+      queue.close();
+      if (!done && handle.getReceivedTime() == null) {
+        handle.abandon();
+      }
+    });
+  }
+
+
+  /**
+   * Executes a search request and returns a publisher of the entries. See {@link #publish(SearchRequest, int)}.
+   *
+   * @param  req  search request
+   *
+   * @return  publisher of entries
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  public Flow.Publisher<LdapEntry> publish(final SearchRequest req)
+    throws LdapException
+  {
+    return publish(req, SearchEntryPublisher.DEFAULT_BUFFER_SIZE);
+  }
+
+
+  /**
+   * Executes a search request and returns a publisher of the entries. The request is sent when the subscriber first
+   * requests entries and reads on the connection are suspended while the subscriber has no demand, see {@link
+   * SearchEntryPublisher}. The connection is closed when the search completes or the subscription is cancelled. The
+   * returned publisher must be subscribed to, otherwise the connection is not closed. Reads are suspended for the whole
+   * connection, so a slow subscriber also delays other operations on a connection shared through a {@link
+   * MultiplexedConnectionFactory}.
+   *
+   * @param  req  search request
+   * @param  bufferSize  number of entries to buffer before reads are suspended
+   *
+   * @return  publisher of entries
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  public Flow.Publisher<LdapEntry> publish(final SearchRequest req, final int bufferSize)
+    throws LdapException
+  {
+    final Connection conn = getConnectionFactory().getConnection();
+    try {
+      conn.open();
+    } catch (Exception e) {
+      conn.close();
+      throw e;
+    }
+    final SearchOperationHandle handle = configureHandle(conn.operation(configureRequest(req)));
+    final DefaultSearchOperationHandle searchHandle;
+    if (handle instanceof DefaultSearchOperationHandle) {
+      searchHandle = (DefaultSearchOperationHandle) handle;
+    } else if (handle instanceof MultiplexedConnectionFactory.MultiplexedSearchOperationHandle) {
+      searchHandle = ((MultiplexedConnectionFactory.MultiplexedSearchOperationHandle) handle).getSearchHandle();
+    } else {
+      conn.close();
+      throw new UnsupportedOperationException("Connection " + conn + " does not support publishing entries");
+    }
+    handle.onComplete(conn::close);
+    return new SearchEntryPublisher(handle, searchHandle, bufferSize);
+  }
+
+
+  /**
+   * Executes the supplied search request without waiting for the response. The connection is opened on the calling
+   * thread and closed when the operation completes. The returned future is completed by the thread that processes the
+   * response, dependent stages that block should use an executor. Cancelling the returned future abandons the search.
+   * If no response is received within the response timeout of the connection config, the returned future completes
+   * exceptionally with {@link ResultCode#LDAP_TIMEOUT} and the search is abandoned.
+   *
+   * @param  req  search request to execute
+   *
+   * @return  future search result
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  public CompletableFuture<SearchResponse> executeAsync(final SearchRequest req)
+    throws LdapException
+  {
+    final Connection conn = getConnectionFactory().getConnection();
+    try {
+      conn.open();
+    } catch (Exception e) {
+      conn.close();
+      throw e;
+    }
+    final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+    final SearchOperationHandle handle = configureHandle(conn.operation(configureRequest(req)));
+    handle.onComplete(() -> {
+      conn.close();
+      // the handle is complete, await returns without blocking
+      try {
+        future.complete(handle.await());
+      } catch (Exception e) {
+        future.completeExceptionally(e);
+      }
+    });
+    try {
+      handle.send();
+    } catch (RuntimeException e) {
+      conn.close();
+      throw e;
+    }
+    future.whenComplete((r, e) -> {
+      if (future.isCancelled()) {
+        handle.abandon();
+      }
+    });
+    // abandoning completes the handle, which closes the connection
+    ResponseTimeoutScheduler.schedule(
+      future, getConnectionFactory().getConnectionConfig().getResponseTimeout(), handle, handle::abandon);
+    return future;
+  }
+
+
   /**
    * Creates a new request from {@link #getRequest()} and applies any non-null supplied properties.
    *
@@ -831,6 +1081,7 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
     op.setEntryHandlers(operation.getEntryHandlers());
     op.setReferenceHandlers(operation.getReferenceHandlers());
     op.setSearchResultHandlers(operation.getSearchResultHandlers());
+    op.setRequestCoalescer(operation.getRequestCoalescer());
     op.setRequest(operation.getRequest());
     op.setTemplate(operation.getTemplate());
     return op;
@@ -845,7 +1096,59 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
       "template=" + filterTemplate + ", " +
       "entryHandlers=" + Arrays.toString(entryHandlers) + ", " +
       "referenceHandlers=" + Arrays.toString(referenceHandlers) + ", " +
-      "searchResultHandlers=" + Arrays.toString(searchResultHandlers);
+      "searchResultHandlers=" + Arrays.toString(searchResultHandlers) + ", " +
+      "requestCoalescer=" + requestCoalescer;
+  }
+
+
+  /** Spliterator that takes entries from a search entry queue. */
+  private static class EntrySpliterator extends Spliterators.AbstractSpliterator<LdapEntry>
+  {
+
+    /** Handle of the search producing entries. */
+    private final SearchOperationHandle handle;
+
+    /** Queue to take entries from. */
+    private final SearchEntryQueue queue;
+
+
+    /**
+     * Creates a new entry spliterator.
+     *
+     * @param  h  handle of the search
+     * @param  q  queue to take entries from
+     */
+    EntrySpliterator(final SearchOperationHandle h, final SearchEntryQueue q)
+    {
+      super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+      handle = h;
+      queue = q;
+    }
+
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super LdapEntry> action)
+    {
+      final LdapEntry entry;
+      try {
+        entry = queue.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted waiting for search entry", e);
+      }
+      if (entry != null) {
+        action.accept(entry);
+        return true;
+      }
+      if (queue.isDone()) {
+        try {
+          handle.await();
+        } catch (LdapException e) {
+          throw new IllegalStateException("Search operation failed", e);
+        }
+      }
+      return false;
+    }
   }
 
 
@@ -949,5 +1252,19 @@ public class SearchOperation extends AbstractOperation<SearchRequest, SearchResp
       object.setSearchResultHandlers(handlers);
       return self();
     }
+
+
+    /**
+     * Sets the request coalescer.
+     *
+     * @param  coalescer  to coalesce identical searches with
+     *
+     * @return  this builder
+     */
+    public Builder coalescer(final SearchRequestCoalescer coalescer)
+    {
+      object.setRequestCoalescer(coalescer);
+      return self();
+    }
   }
 }
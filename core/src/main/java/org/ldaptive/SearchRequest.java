@@ -81,6 +81,12 @@ public class SearchRequest extends AbstractRequestMessage
    */
   private String[] binaryAttributes;
 
+  /**
+   * Whether attributes of entries received for this request are decoded on demand. This property is not part of the
+   * request specification. See {@link LdapEntry#LdapEntry(org.ldaptive.asn1.DERBuffer, boolean)}.
+   */
+  private boolean lazyAttributes;
+
 
   /**
    * Default constructor.
@@ -399,7 +405,7 @@ public class SearchRequest extends AbstractRequestMessage
 
 
   /**
-   * Sets the search filter. See {@link FilterTemplate} and {@link FilterParser#parse(String)}.
+   * Sets the search filter. See {@link FilterTemplate#toFilter()}.
    *
    * @param  template  filter template
    *
@@ -409,7 +415,7 @@ public class SearchRequest extends AbstractRequestMessage
   {
     logger.trace("setting filter: {}", template);
     try {
-      searchFilter = FilterParser.parse(template.format());
+      searchFilter = template.toFilter();
     } catch (FilterParseException e) {
       throw new IllegalArgumentException(e);
     }
@@ -462,18 +468,41 @@ public class SearchRequest extends AbstractRequestMessage
   }
 
 
+  /**
+   * Returns whether attributes of entries received for this request are decoded on demand.
+   *
+   * @return  whether attributes are decoded lazily
+   */
+  public boolean isLazyAttributes()
+  {
+    return lazyAttributes;
+  }
+
+
+  /**
+   * Sets whether attributes of entries received for this request are decoded on demand. Lazy decoding retains the
+   * encoded attributes of each entry and only decodes an attribute when it is requested by name, which reduces
+   * allocation when only a few attributes of a wide entry are read.
+   *
+   * @param  b  whether attributes are decoded lazily
+   */
+  public void setLazyAttributes(final boolean b)
+  {
+    logger.trace("setting lazyAttributes: {}", b);
+    lazyAttributes = b;
+  }
+
+
   /**
    * Invokes {@link LdapAttribute#configureBinary(String...)} for each attribute in the supplied entry using {@link
-   * #binaryAttributes}.
+   * #binaryAttributes}. Attributes of a lazily decoded entry are configured as they are decoded.
    *
    * @param  entry  to configure binary attributes for
    */
   public void configureBinaryAttributes(final LdapEntry entry)
   {
     if (binaryAttributes != null && binaryAttributes.length > 0) {
-      for (LdapAttribute a : entry.getAttributes()) {
-        a.configureBinary(binaryAttributes);
-      }
+      entry.configureBinaryAttributes(binaryAttributes);
     }
   }
 
@@ -522,6 +551,7 @@ public class SearchRequest extends AbstractRequestMessage
         LdapUtils.areEqual(searchFilter, v.searchFilter) &&
         LdapUtils.areEqual(returnAttributes, v.returnAttributes) &&
         LdapUtils.areEqual(binaryAttributes, v.binaryAttributes) &&
+        LdapUtils.areEqual(lazyAttributes, v.lazyAttributes) &&
         LdapUtils.areEqual(getControls(), v.getControls());
     }
     return false;
@@ -543,6 +573,7 @@ public class SearchRequest extends AbstractRequestMessage
         searchFilter,
         returnAttributes,
         binaryAttributes,
+        lazyAttributes,
         getControls());
   }
 
@@ -559,7 +590,8 @@ public class SearchRequest extends AbstractRequestMessage
       "typesOnly=" + typesOnly + ", " +
       "filter=" + searchFilter + ", " +
       "returnAttributes=" + Arrays.toString(returnAttributes) + ", " +
-      "binaryAttributes=" + Arrays.toString(binaryAttributes);
+      "binaryAttributes=" + Arrays.toString(binaryAttributes) + ", " +
+      "lazyAttributes=" + lazyAttributes;
   }
 
 
@@ -631,7 +663,7 @@ public class SearchRequest extends AbstractRequestMessage
     final FilterTemplate template)
   {
     try {
-      return objectScopeSearchRequest(dn, attrs, FilterParser.parse(template.format()));
+      return objectScopeSearchRequest(dn, attrs, template.toFilter());
     } catch (FilterParseException e) {
       throw new IllegalArgumentException(e);
     }
@@ -680,6 +712,7 @@ public class SearchRequest extends AbstractRequestMessage
     sr.setFilter(request.getFilter());
     sr.setReturnAttributes(request.getReturnAttributes());
     sr.setBinaryAttributes(request.getBinaryAttributes());
+    sr.setLazyAttributes(request.isLazyAttributes());
     sr.setControls(request.getControls());
     return sr;
   }
@@ -921,5 +954,19 @@ public class SearchRequest extends AbstractRequestMessage
       object.setBinaryAttributes(attributes.toArray(String[]::new));
       return self();
     }
+
+
+    /**
+     * Sets whether attributes are decoded lazily.
+     *
+     * @param  b  whether attributes are decoded lazily
+     *
+     * @return  this builder
+     */
+    public Builder lazyAttributes(final boolean b)
+    {
+      object.setLazyAttributes(b);
+      return self();
+    }
   }
 }
@@ -0,0 +1,347 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces concurrent executions of identical search requests into a single search. Requests are identical if they
+ * are encoded identically without their message ID, see {@link PreparedSearchRequest}, and are executed by operations
+ * with the same connection factory, the same handlers and the same throw condition. The first caller executes the
+ * search and receives its result, later callers wait for it to complete and each receive their own copy of the result,
+ * see {@link SearchResponse#copy(SearchResponse)}. A search that no caller waited for is never copied. Handlers are
+ * invoked once for the executing caller, so a caller that modifies its result never modifies the result of another.
+ * Share a single instance between the operations that should be coalesced, see {@link
+ * SearchOperation#setRequestCoalescer(SearchRequestCoalescer)}.
+ *
+ * @author  Middleware Services
+ */
+public final class SearchRequestCoalescer
+{
+
+  /** Logger for this class. */
+  private final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Searches that are in progress. */
+  private final Map<Key, InFlightSearch> inFlight = new ConcurrentHashMap<>();
+
+  /** Number of executions. */
+  private final LongAdder requestCount = new LongAdder();
+
+  /** Number of executions that waited for an identical search in progress. */
+  private final LongAdder coalescedCount = new LongAdder();
+
+
+  /**
+   * Returns the number of executions, including those that were coalesced.
+   *
+   * @return  request count
+   */
+  public long getRequestCount()
+  {
+    return requestCount.sum();
+  }
+
+
+  /**
+   * Returns the number of executions that waited for an identical search in progress rather than executing a search.
+   *
+   * @return  coalesced count
+   */
+  public long getCoalescedCount()
+  {
+    return coalescedCount.sum();
+  }
+
+
+  /**
+   * Returns the number of searches that are in progress.
+   *
+   * @return  in flight count
+   */
+  public int getInFlightCount()
+  {
+    return inFlight.size();
+  }
+
+
+  /**
+   * Executes the supplied search unless an identical search is in progress, in which case the result of that search is
+   * returned.
+   *
+   * @param  operation  that executes the request
+   * @param  requestKey  of the configured search request
+   * @param  search  that executes the request
+   *
+   * @return  search result
+   *
+   * @throws  LdapException  if the search fails
+   */
+  SearchResponse execute(final SearchOperation operation, final SearchRequestKey requestKey, final Search search)
+    throws LdapException
+  {
+    requestCount.increment();
+    final Key key = new Key(operation, requestKey);
+    SearchResponse response = null;
+    while (response == null) {
+      final InFlightSearch inFlightSearch = new InFlightSearch();
+      final InFlightSearch existing = inFlight.putIfAbsent(key, inFlightSearch);
+      if (existing == null) {
+        response = execute(key, inFlightSearch, search);
+      } else if (existing.join()) {
+        coalescedCount.increment();
+        logger.trace("Waiting for search in progress for {}", requestKey);
+        response = await(existing.future).poll();
+      }
+      // otherwise the search completed before this caller could join it, try again
+    }
+    return response;
+  }
+
+
+  /**
+   * Executes the supplied search and publishes a copy of its result to each caller that joined it. Copies are made
+   * before the result is returned, so the executing caller may modify the result without affecting the copies.
+   *
+   * @param  key  of the search
+   * @param  inFlightSearch  that was registered for the key
+   * @param  search  that executes the request
+   *
+   * @return  search result
+   *
+   * @throws  LdapException  if the search fails
+   */
+  private SearchResponse execute(final Key key, final InFlightSearch inFlightSearch, final Search search)
+    throws LdapException
+  {
+    final SearchResponse response;
+    try {
+      response = search.execute();
+    } catch (LdapException | RuntimeException e) {
+      inFlight.remove(key, inFlightSearch);
+      inFlightSearch.close();
+      inFlightSearch.future.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(key, inFlightSearch);
+    final int waiters = inFlightSearch.close();
+    final Queue<SearchResponse> copies = new ConcurrentLinkedQueue<>();
+    for (int i = 0; i < waiters; i++) {
+      copies.add(SearchResponse.copy(response));
+    }
+    inFlightSearch.future.complete(copies);
+    return response;
+  }
+
+
+  /**
+   * Waits for the supplied search in progress to complete.
+   *
+   * @param  future  of the search in progress
+   *
+   * @return  copies of the search result
+   *
+   * @throws  LdapException  if the search failed or the wait was interrupted
+   */
+  private static Queue<SearchResponse> await(final CompletableFuture<Queue<SearchResponse>> future)
+    throws LdapException
+  {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LdapException(ResultCode.LOCAL_ERROR, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LdapException) {
+        throw (LdapException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new LdapException(e.getCause());
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "inFlight=" + inFlight.size() + ", " +
+      "requestCount=" + getRequestCount() + ", " +
+      "coalescedCount=" + getCoalescedCount() + "]";
+  }
+
+
+  /** Executes a search. */
+  @FunctionalInterface
+  interface Search
+  {
+
+
+    /**
+     * Executes a search.
+     *
+     * @return  search result
+     *
+     * @throws  LdapException  if the search fails
+     */
+    SearchResponse execute()
+      throws LdapException;
+  }
+
+
+  /** Search in progress and the callers waiting for it. */
+  private static final class InFlightSearch
+  {
+
+    /** Value of {@link #waiters} once the search has completed. */
+    private static final int CLOSED = -1;
+
+    /** Completes with a copy of the search result for each waiter. */
+    private final CompletableFuture<Queue<SearchResponse>> future = new CompletableFuture<>();
+
+    /** Number of callers waiting for the search. */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+
+    /**
+     * Adds a caller to the callers waiting for this search.
+     *
+     * @return  whether the caller was added, false if the search has completed
+     */
+    boolean join()
+    {
+      int n = waiters.get();
+      while (n != CLOSED && !waiters.compareAndSet(n, n + 1)) {
+        n = waiters.get();
+      }
+      return n != CLOSED;
+    }
+
+
+    /**
+     * Prevents any more callers from waiting for this search.
+     *
+     * @return  number of callers waiting for this search
+     */
+    int close()
+    {
+      return Math.max(0, waiters.getAndSet(CLOSED));
+    }
+  }
+
+
+  /** Identifies a search request and the operation properties that determine its result. */
+  private static final class Key
+  {
+
+    /** hash code seed. */
+    private static final int HASH_CODE_SEED = 10487;
+
+    /** Search request. */
+    private final SearchRequestKey request;
+
+    /** Connection factory of the operation. */
+    private final ConnectionFactory factory;
+
+    /** Entry handlers of the operation. */
+    private final Object[] entryHandlers;
+
+    /** Reference handlers of the operation. */
+    private final Object[] referenceHandlers;
+
+    /** Search result handlers of the operation. */
+    private final Object[] searchResultHandlers;
+
+    /** Result handlers of the operation. */
+    private final Object[] resultHandlers;
+
+    /** Control handlers of the operation. */
+    private final Object[] controlHandlers;
+
+    /** Referral handlers of the operation. */
+    private final Object[] referralHandlers;
+
+    /** Intermediate response handlers of the operation. */
+    private final Object[] intermediateResponseHandlers;
+
+    /** Unsolicited notification handlers of the operation. */
+    private final Object[] unsolicitedNotificationHandlers;
+
+    /** Exception handler of the operation. */
+    private final Object exceptionHandler;
+
+    /** Throw condition of the operation. */
+    private final Object throwCondition;
+
+    /** Cached hash code. */
+    private final int hashCode;
+
+
+    /**
+     * Creates a new key.
+     *
+     * @param  operation  that executes the request
+     * @param  key  of the search request
+     */
+    Key(final SearchOperation operation, final SearchRequestKey key)
+    {
+      request = key;
+      factory = operation.getConnectionFactory();
+      entryHandlers = operation.getEntryHandlers();
+      referenceHandlers = operation.getReferenceHandlers();
+      searchResultHandlers = operation.getSearchResultHandlers();
+      resultHandlers = operation.getResultHandlers();
+      controlHandlers = operation.getControlHandlers();
+      referralHandlers = operation.getReferralHandlers();
+      intermediateResponseHandlers = operation.getIntermediateResponseHandlers();
+      unsolicitedNotificationHandlers = operation.getUnsolicitedNotificationHandlers();
+      exceptionHandler = operation.getExceptionHandler();
+      throwCondition = operation.getThrowCondition();
+      hashCode = LdapUtils.computeHashCode(HASH_CODE_SEED, request, System.identityHashCode(factory));
+    }
+
+
+    @Override
+    public boolean equals(final Object o)
+    {
+      if (o == this) {
+        return true;
+      }
+      if (o instanceof Key) {
+        final Key v = (Key) o;
+        return factory == v.factory &&
+          request.equals(v.request) &&
+          Arrays.equals(entryHandlers, v.entryHandlers) &&
+          Arrays.equals(referenceHandlers, v.referenceHandlers) &&
+          Arrays.equals(searchResultHandlers, v.searchResultHandlers) &&
+          Arrays.equals(resultHandlers, v.resultHandlers) &&
+          Arrays.equals(controlHandlers, v.controlHandlers) &&
+          Arrays.equals(referralHandlers, v.referralHandlers) &&
+          Arrays.equals(intermediateResponseHandlers, v.intermediateResponseHandlers) &&
+          Arrays.equals(unsolicitedNotificationHandlers, v.unsolicitedNotificationHandlers) &&
+          Objects.equals(exceptionHandler, v.exceptionHandler) &&
+          Objects.equals(throwCondition, v.throwCondition);
+      }
+      return false;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+      return hashCode;
+    }
+  }
+}
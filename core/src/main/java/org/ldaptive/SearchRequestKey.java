@@ -0,0 +1,95 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.Arrays;
+
+/**
+ * Identifies search requests that are sent as identical messages and decoded identically. The key is composed of the
+ * encoded request without its message ID, see {@link PreparedSearchRequest}, and the properties that only affect how
+ * the response is decoded. The request is prepared when the key is created, so {@link #getRequest()} can be sent
+ * without encoding it again.
+ *
+ * @author  Middleware Services
+ */
+final class SearchRequestKey
+{
+
+  /** hash code seed. */
+  private static final int HASH_CODE_SEED = 10463;
+
+  /** Prepared request. */
+  private final PreparedSearchRequest preparedRequest;
+
+  /** Encoded protocol operation and controls. */
+  private final byte[] encodedBody;
+
+  /** Binary attributes of the request. */
+  private final String[] binaryAttributes;
+
+  /** Whether entries are decoded on demand. */
+  private final boolean lazyAttributes;
+
+  /** Cached hash code. */
+  private final int hashCode;
+
+
+  /**
+   * Creates a new search request key.
+   *
+   * @param  request  to create the key for
+   */
+  SearchRequestKey(final SearchRequest request)
+  {
+    preparedRequest = request instanceof PreparedSearchRequest ?
+      (PreparedSearchRequest) request : new PreparedSearchRequest(request);
+    encodedBody = PreparedSearchRequest.encodeBody(preparedRequest);
+    binaryAttributes = preparedRequest.getBinaryAttributes();
+    lazyAttributes = preparedRequest.isLazyAttributes();
+    hashCode = LdapUtils.computeHashCode(HASH_CODE_SEED, encodedBody, binaryAttributes, lazyAttributes);
+  }
+
+
+  /**
+   * Returns the prepared request, which reuses the encoding of this key when it is sent.
+   *
+   * @return  prepared search request
+   */
+  PreparedSearchRequest getRequest()
+  {
+    return preparedRequest;
+  }
+
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof SearchRequestKey) {
+      final SearchRequestKey v = (SearchRequestKey) o;
+      return Arrays.equals(encodedBody, v.encodedBody) &&
+        LdapUtils.areEqual(binaryAttributes, v.binaryAttributes) &&
+        lazyAttributes == v.lazyAttributes;
+    }
+    return false;
+  }
+
+
+  @Override
+  public int hashCode()
+  {
+    return hashCode;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "encodedBody=" + LdapUtils.base64Encode(encodedBody) + ", " +
+      "binaryAttributes=" + Arrays.toString(binaryAttributes) + ", " +
+      "lazyAttributes=" + lazyAttributes + "]";
+  }
+}
@@ -11,8 +11,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.ldaptive.asn1.DERBuffer;
-import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
 import org.ldaptive.dn.Dn;
 
 /**
@@ -34,18 +32,6 @@ public class SearchResponse extends AbstractResult
   /** hash code seed. */
   private static final int HASH_CODE_SEED = 10301;
 
-  /** DER path to result code. */
-  private static final DERPath RESULT_CODE_PATH = new DERPath("/SEQ/APP(5)/ENUM[0]");
-
-  /** DER path to matched DN. */
-  private static final DERPath MATCHED_DN_PATH = new DERPath("/SEQ/APP(5)/OCTSTR[1]");
-
-  /** DER path to diagnostic message. */
-  private static final DERPath DIAGNOSTIC_MESSAGE_PATH = new DERPath("/SEQ/APP(5)/OCTSTR[2]");
-
-  /** DER path to referral. */
-  private static final DERPath REFERRAL_PATH = new DERPath("/SEQ/APP(5)/CTX(3)/OCTSTR[0]");
-
   /** Entries contained in this result. */
   private final List<LdapEntry> resultEntries = new ArrayList<>();
 
@@ -66,14 +52,7 @@ public class SearchResponse extends AbstractResult
    */
   public SearchResponse(final DERBuffer buffer)
   {
-    final DERParser parser = new DERParser();
-    parser.registerHandler(MessageIDHandler.PATH, new MessageIDHandler(this));
-    parser.registerHandler(RESULT_CODE_PATH, new ResultCodeHandler(this));
-    parser.registerHandler(MATCHED_DN_PATH, new MatchedDNHandler(this));
-    parser.registerHandler(DIAGNOSTIC_MESSAGE_PATH, new DiagnosticMessageHandler(this));
-    parser.registerHandler(REFERRAL_PATH, new ReferralHandler(this));
-    parser.registerHandler(ControlsHandler.PATH, new ControlsHandler(this));
-    parser.parse(buffer);
+    decodeMessage(buffer, this::decodeResult);
   }
 
 
@@ -306,6 +285,28 @@ public class SearchResponse extends AbstractResult
   }
 
 
+  /**
+   * Returns a new response with copies of the entries and references of the supplied response. See {@link
+   * LdapEntry#copy(LdapEntry)} and {@link SearchResultReference#copy(SearchResultReference)}.
+   *
+   * @param  sr  response to copy
+   *
+   * @return  copy of the response
+   */
+  public static SearchResponse copy(final SearchResponse sr)
+  {
+    final SearchResponse copy = new SearchResponse();
+    copy.copyValues(sr);
+    copy.addEntries(sr.getEntries().stream()
+      .map(LdapEntry::copy)
+      .collect(Collectors.toCollection(LinkedHashSet::new)));
+    copy.addReferences(sr.getReferences().stream()
+      .map(SearchResultReference::copy)
+      .collect(Collectors.toCollection(LinkedHashSet::new)));
+    return copy;
+  }
+
+
   /**
    * Returns a new response whose entries are sorted naturally by DN. Each attribute and each attribute value are also
    * sorted. See {@link LdapEntry#sort(LdapEntry)} and {@link LdapAttribute#sort(LdapAttribute)}.
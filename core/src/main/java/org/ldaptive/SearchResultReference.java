@@ -10,8 +10,8 @@ import java.util.stream.Stream;
 import org.ldaptive.asn1.AbstractParseHandler;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
 import org.ldaptive.asn1.OctetStringType;
+import org.ldaptive.asn1.UniversalDERTag;
 
 /**
  * LDAP search result entry defined as:
@@ -31,8 +31,8 @@ public class SearchResultReference extends AbstractMessage
   /** hash code seed. */
   private static final int HASH_CODE_SEED = 10313;
 
-  /** DER path to referral URI. */
-  private static final DERPath REFERRAL_URI_PATH = new DERPath("/SEQ/APP(19)/OCTSTR");
+  /** Tag byte for a referral URI. */
+  private static final int REFERRAL_URI_TAG = UniversalDERTag.OCTSTR.getTagByte();
 
   /** List of references. */
   private List<String> references = new ArrayList<>();
@@ -51,11 +51,27 @@ public class SearchResultReference extends AbstractMessage
    */
   public SearchResultReference(final DERBuffer buffer)
   {
-    final DERParser parser = new DERParser();
-    parser.registerHandler(MessageIDHandler.PATH, new MessageIDHandler(this));
-    parser.registerHandler(REFERRAL_URI_PATH, new ReferralUriHandler(this));
-    parser.registerHandler(ControlsHandler.PATH, new ControlsHandler(this));
-    parser.parse(buffer);
+    decodeMessage(buffer, this::decodeReferences);
+  }
+
+
+  /**
+   * Decodes the URIs of a SearchResultReference protocol operation by reading its elements in order.
+   *
+   * @param  buffer  positioned at the first URI and limited to the end of the protocol operation
+   */
+  private void decodeReferences(final DERBuffer buffer)
+  {
+    final int limit = buffer.limit();
+    while (buffer.hasRemaining()) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int end = LENGTH_PARSER.readLength(buffer) + buffer.position();
+      if (tag == REFERRAL_URI_TAG) {
+        buffer.limit(end);
+        addUris(OctetStringType.decode(buffer));
+      }
+      buffer.limit(limit).position(end);
+    }
   }
 
 
@@ -120,6 +136,22 @@ public class SearchResultReference extends AbstractMessage
   }
 
 
+  /**
+   * Returns a new reference with the same URIs and controls as the supplied reference.
+   *
+   * @param  ref  reference to copy
+   *
+   * @return  copy of the reference
+   */
+  public static SearchResultReference copy(final SearchResultReference ref)
+  {
+    final SearchResultReference copy = new SearchResultReference();
+    copy.copyValues(ref);
+    copy.addUris(ref.getUris());
+    return copy;
+  }
+
+
   /**
    * Returns a new reference whose URIs are sorted naturally.
    *
@@ -136,7 +168,12 @@ public class SearchResultReference extends AbstractMessage
   }
 
 
-  /** Parse handler implementation for the referral URL. */
+  /**
+   * Parse handler implementation for the referral URL.
+   *
+   * @deprecated  search result references are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class ReferralUriHandler extends AbstractParseHandler<SearchResultReference>
   {
 
@@ -79,4 +79,60 @@ public abstract class AbstractDERType
     }
     return encodedItem.array();
   }
+
+
+  /**
+   * Returns the number of bytes needed to DER encode an item of the supplied length, including the tag and length.
+   *
+   * @param  itemLength  length of the item to encode
+   *
+   * @return  length of the DER encoded item
+   */
+  protected static int encodedLength(final int itemLength)
+  {
+    // add 1 for the type tag, 1 or 5 for the length
+    // CheckStyle:MagicNumber OFF
+    return itemLength + 1 + (itemLength <= SHORT_FORM_INT_LENGTH ? 1 : 5);
+    // CheckStyle:MagicNumber ON
+  }
+
+
+  /**
+   * Writes the tag associated with this type and the supplied length to the buffer. If the length is greater than 127
+   * bytes the long form is always expressed using 4 bytes.
+   *
+   * @param  buffer  to write to
+   * @param  itemLength  length of the item that follows
+   */
+  protected void encodeHeader(final DERBuffer buffer, final int itemLength)
+  {
+    buffer.put((byte) derTag);
+    if (itemLength <= SHORT_FORM_INT_LENGTH) {
+      buffer.put((byte) itemLength);
+    } else {
+      // use 4 bytes for all long form integers
+      // CheckStyle:MagicNumber OFF
+      buffer.put((byte) 0x84);
+      buffer.put((byte) (itemLength >>> 24));
+      buffer.put((byte) (itemLength >>> 16));
+      buffer.put((byte) (itemLength >>> 8));
+      buffer.put((byte) itemLength);
+      // CheckStyle:MagicNumber ON
+    }
+  }
+
+
+  /**
+   * DER encodes the supplied item with the tag associated with this type directly into the supplied buffer.
+   *
+   * @param  buffer  to write to
+   * @param  item  to encode, may be null
+   */
+  protected void encode(final DERBuffer buffer, final byte[] item)
+  {
+    encodeHeader(buffer, item != null ? item.length : 0);
+    if (item != null) {
+      buffer.put(item);
+    }
+  }
 }
@@ -56,6 +56,20 @@ public class BooleanType extends AbstractDERType implements DEREncoder
   }
 
 
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(derItem.length);
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encode(buffer, derItem);
+  }
+
+
   /**
    * Converts bytes in the buffer to a boolean by reading from the current position to the limit.
    *
@@ -1,11 +1,9 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.asn1;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-
 /**
- * Encodes constructed types to their DER format.
+ * Encodes constructed types to their DER format. The length of the contained encoders is computed once, after which
+ * the tag, length and contained encoders are written directly to a single buffer.
  *
  * @author  Middleware Services
  */
@@ -15,6 +13,12 @@ public class ConstructedDEREncoder extends AbstractDERType implements DEREncoder
   /** Encoders in this sequence. */
   private final DEREncoder[] derEncoders;
 
+  /** Bytes of encoders that are not {@link AbstractDERType}, encoded once when the length is computed. */
+  private byte[][] encodedItems;
+
+  /** Length of the encoded items, -1 until computed. */
+  private int itemLength = -1;
+
 
   /**
    * Creates a new sequence encoder.
@@ -38,16 +42,56 @@ public class ConstructedDEREncoder extends AbstractDERType implements DEREncoder
   @Override
   public byte[] encode()
   {
-    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
-    try {
-      try (bytes) {
-        for (DEREncoder encoder : derEncoders) {
-          bytes.write(encoder.encode());
+    final byte[] encoded = new byte[encodedLength()];
+    encode(new DefaultDERBuffer(encoded));
+    return encoded;
+  }
+
+
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(getItemLength());
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encodeHeader(buffer, getItemLength());
+    for (int i = 0; i < derEncoders.length; i++) {
+      if (encodedItems != null && encodedItems[i] != null) {
+        buffer.put(encodedItems[i]);
+      } else {
+        derEncoders[i].encode(buffer);
+      }
+    }
+  }
+
+
+  /**
+   * Returns the length of the encoded items in this sequence. Encoders that are not {@link AbstractDERType} are encoded
+   * at this time so that they are only invoked once.
+   *
+   * @return  length of the encoded items
+   */
+  private int getItemLength()
+  {
+    if (itemLength < 0) {
+      int length = 0;
+      for (int i = 0; i < derEncoders.length; i++) {
+        if (derEncoders[i] instanceof AbstractDERType) {
+          length += derEncoders[i].encodedLength();
+        } else {
+          if (encodedItems == null) {
+            encodedItems = new byte[derEncoders.length][];
+          }
+          encodedItems[i] = derEncoders[i].encode();
+          length += encodedItems[i].length;
         }
       }
-    } catch (IOException e) {
-      throw new IllegalStateException("Encode failed", e);
+      itemLength = length;
     }
-    return encode(bytes.toByteArray());
+    return itemLength;
   }
 }
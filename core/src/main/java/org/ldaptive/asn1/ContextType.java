@@ -69,4 +69,18 @@ public class ContextType extends AbstractDERType implements DEREncoder
   {
     return encode(derItem);
   }
+
+
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(derItem != null ? derItem.length : 0);
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encode(buffer, derItem);
+  }
 }
@@ -112,6 +112,38 @@ public interface DERBuffer
   DERBuffer get(byte[] dst);
 
 
+  /**
+   * Relative <i>put</i> method. Writes the byte at this buffer's current position and then increments the position.
+   * This implementation throws {@link UnsupportedOperationException}.
+   *
+   * @param  b  byte to write
+   *
+   * @return  This buffer
+   *
+   * @throws  UnsupportedOperationException  if this buffer cannot be written to
+   */
+  default DERBuffer put(final byte b)
+  {
+    throw new UnsupportedOperationException("Buffer is not writable");
+  }
+
+
+  /**
+   * Relative bulk <i>put</i> method. Writes the bytes starting at this buffer's current position and then increments
+   * the position by the number of bytes written. This implementation throws {@link UnsupportedOperationException}.
+   *
+   * @param  src  source array
+   *
+   * @return  This buffer
+   *
+   * @throws  UnsupportedOperationException  if this buffer cannot be written to
+   */
+  default DERBuffer put(final byte[] src)
+  {
+    throw new UnsupportedOperationException("Buffer is not writable");
+  }
+
+
   /**
    * Returns the bytes remaining in the buffer. Those bytes between {@link #position()} and {@link #limit()}.
    *
@@ -2,7 +2,9 @@
 package org.ldaptive.asn1;
 
 /**
- * Interface for encoding DER objects.
+ * Interface for encoding DER objects. Encoders may also be streamed: {@link #encodedLength()} computes the size of the
+ * encoding so that a sink of the correct size can be allocated, then {@link #encode(DERBuffer)} writes the encoding
+ * directly into that sink.
  *
  * @author  Middleware Services
  */
@@ -16,4 +18,26 @@ public interface DEREncoder
    * @return  DER encoded object
    */
   byte[] encode();
+
+
+  /**
+   * Returns the number of bytes produced by encoding this object, including its tag and length.
+   *
+   * @return  length of the DER encoded object
+   */
+  default int encodedLength()
+  {
+    return encode().length;
+  }
+
+
+  /**
+   * Encode this object into its DER type, writing to the supplied buffer at its current position.
+   *
+   * @param  buffer  to write the DER encoded object to
+   */
+  default void encode(final DERBuffer buffer)
+  {
+    buffer.put(encode());
+  }
 }
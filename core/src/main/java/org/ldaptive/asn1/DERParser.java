@@ -1,11 +1,7 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.asn1;
 
-import java.util.ArrayDeque;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Queue;
+import java.util.Arrays;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,20 +10,42 @@ import org.slf4j.LoggerFactory;
  * be registered to handlers via the {@link #registerHandler} methods. {@link DERPath} strings are used to map handlers
  * to elements of interest.
  *
+ * <p>Registered paths are compiled into a tree keyed by tag and child index. As tags are read the nodes matching the
+ * current position are tracked for each depth, so matching does not allocate per tag and constructed elements are only
+ * descended into when a registered path continues below them.</p>
+ *
  * @author  Middleware Services
  * @see  DERPath
  */
 public class DERParser
 {
 
+  /** Key used by the root path node. */
+  private static final int ROOT_KEY = -1;
+
+  /** Mask for the tag class bits. */
+  private static final int TAG_CLASS_MASK = 0xC0;
+
+  /** Mask for the tag number bits. */
+  private static final int TAG_NUMBER_MASK = 0x1F;
+
+  /** Mask for the constructed bit. */
+  private static final int CONSTRUCTED_MASK = 0x20;
+
+  /** Number of bits to shift the tag class when computing a key. */
+  private static final int TAG_CLASS_SHIFT = 8;
+
   /** Logger for this class. */
   protected final Logger logger = LoggerFactory.getLogger(getClass());
 
-  /** Handlers for DER paths. */
-  private final Map<DERPath, ParseHandler> handlerMap = new HashMap<>();
+  /** Root of the compiled handler paths. */
+  private final PathNode root = new PathNode(ROOT_KEY, -1);
 
-  /** Permutations of the current path. */
-  private final Queue<DERPath> permutations = new ArrayDeque<>();
+  /** Path nodes matching the current parse position, indexed by depth. */
+  private PathNode[][] matches = new PathNode[][] {new PathNode[] {root}};
+
+  /** Number of path nodes matching the current parse position, indexed by depth. */
+  private int[] matchCounts = new int[] {1};
 
 
   /**
@@ -38,7 +56,11 @@ public class DERParser
    */
   public void registerHandler(final DERPath path, final ParseHandler handler)
   {
-    handlerMap.put(path, handler);
+    PathNode node = root;
+    for (DERPath.Node n : path.getNodes()) {
+      node = node.addChild(toKey(n.getName()), n.getChildIndex());
+    }
+    node.handler = handler;
   }
 
 
@@ -50,7 +72,7 @@ public class DERParser
    */
   public void parse(final DERBuffer encoded)
   {
-    parseTags(encoded);
+    parseTags(encoded, 0);
   }
 
 
@@ -136,91 +158,174 @@ public class DERParser
    * Reads the supplied DER encoded bytes and invokes handlers as configured paths are encountered.
    *
    * @param  encoded  to parse
+   * @param  depth  of the parent of the tags being read
    */
-  private void parseTags(final DERBuffer encoded)
+  private void parseTags(final DERBuffer encoded, final int depth)
   {
     int index = 0;
-    while (encoded.position() < encoded.limit() && !handlerMap.isEmpty()) {
-      final DERTag tag = readTag(encoded);
-      if (tag != null) {
-        addTag(tag, index++);
-        parseTag(tag, encoded);
-        removeTag();
+    while (encoded.position() < encoded.limit() && root.children.length > 0) {
+      final byte b = encoded.get();
+      final int tagClass = b & TAG_CLASS_MASK;
+      final int tagNo = b & TAG_NUMBER_MASK;
+      if (tagClass == UniversalDERTag.TAG_CLASS) {
+        if (UniversalDERTag.fromTagNo(tagNo) == null) {
+          continue;
+        }
+      } else if (tagClass != ApplicationDERTag.TAG_CLASS && tagClass != ContextDERTag.TAG_CLASS) {
+        throw new IllegalArgumentException("Private classes not supported.");
       }
+      parseTag(tagClass << TAG_CLASS_SHIFT | tagNo, index++, (b & CONSTRUCTED_MASK) != 0, encoded, depth + 1);
     }
   }
 
 
   /**
-   * Invokes the parse handler for the current path and advances to the next position in the encoded bytes.
+   * Invokes the parse handlers for the current path and advances to the next position in the encoded bytes.
    *
-   * @param  tag  to inspect for internal tags
+   * @param  key  of the tag
+   * @param  index  of the tag relative to its parent
+   * @param  constructed  whether the tag is constructed
    * @param  encoded  to parse
+   * @param  depth  of the tag
    */
-  private void parseTag(final DERTag tag, final DERBuffer encoded)
+  private void parseTag(
+    final int key,
+    final int index,
+    final boolean constructed,
+    final DERBuffer encoded,
+    final int depth)
   {
     final int limit = encoded.limit();
     final int end = readLength(encoded) + encoded.position();
     final int start = encoded.position();
 
-    // Invoke handlers for all permutations of current path
-    ParseHandler handler;
-    for (DERPath p : permutations) {
-      handler = handlerMap.get(p);
-      if (handler != null) {
+    // Invoke handlers for all paths matching the current tag
+    final int count = match(key, index, depth);
+    boolean descend = false;
+    for (int i = 0; i < count; i++) {
+      final PathNode node = matches[depth][i];
+      if (node.handler != null) {
         encoded.limit(end).position(start);
-        handler.handle(this, encoded);
+        node.handler.handle(this, encoded);
+      }
+      if (node.children.length > 0) {
+        descend = true;
       }
     }
 
-    if (tag.isConstructed()) {
-      parseTags(encoded);
+    if (constructed && descend) {
+      encoded.limit(end);
+      parseTags(encoded, depth);
     }
     encoded.limit(limit).position(end);
   }
 
 
   /**
-   * Add the given tag at the specified index to all permutations of the current parser path and increases the number of
-   * permutations as necessary to satisfy the following relation:
-   *
-   * <pre>size = 2^n</pre>
+   * Computes the path nodes that match the supplied tag, given the path nodes that matched its parent.
    *
-   * <p>where n is the path length.</p>
+   * @param  key  of the tag
+   * @param  index  of the tag relative to its parent
+   * @param  depth  of the tag
    *
-   * @param  tag  to add to path.
-   * @param  index  of tag relative to parent.
+   * @return  number of matching path nodes stored in {@link #matches} at the supplied depth
    */
-  private void addTag(final DERTag tag, final int index)
+  private int match(final int key, final int index, final int depth)
   {
-    if (permutations.isEmpty()) {
-      permutations.add(new DERPath().pushNode(tag.name()));
-      permutations.add(new DERPath().pushNode(tag.name(), index));
-    } else {
-      final Collection<DERPath> generation = new ArrayDeque<>(permutations.size());
-      for (DERPath p : permutations) {
-        generation.add(new DERPath(p).pushNode(tag.name()));
-        p.pushNode(tag.name(), index);
+    if (matches.length <= depth) {
+      matches = Arrays.copyOf(matches, depth + 1);
+      matchCounts = Arrays.copyOf(matchCounts, depth + 1);
+    }
+    if (matches[depth] == null) {
+      matches[depth] = new PathNode[1];
+    }
+    int count = 0;
+    final PathNode[] parents = matches[depth - 1];
+    for (int i = 0; i < matchCounts[depth - 1]; i++) {
+      for (PathNode child : parents[i].children) {
+        if (child.key == key && (child.index < 0 || child.index == index)) {
+          if (count == matches[depth].length) {
+            matches[depth] = Arrays.copyOf(matches[depth], count * 2);
+          }
+          matches[depth][count++] = child;
+        }
       }
-      permutations.addAll(generation);
     }
+    matchCounts[depth] = count;
+    return count;
   }
 
 
   /**
-   * Removes the tag at the leaf position of all permutations of the current parser path, and reduces the number of
-   * permutations as necessary to satisfy the following relation:
+   * Converts the supplied path node name into the key used to match tags.
    *
-   * <pre>size = 2^n</pre>
+   * @param  name  of a path node, e.g. SEQ or APP(4)
    *
-   * <p>where n is the path length.</p>
+   * @return  key for the tag class and number
    */
-  private void removeTag()
+  private static int toKey(final String name)
   {
-    final int half = permutations.size() / 2;
-    while (permutations.size() > half) {
-      permutations.remove();
+    final int paren = name.indexOf('(');
+    if (paren < 0) {
+      return UniversalDERTag.TAG_CLASS << TAG_CLASS_SHIFT | UniversalDERTag.valueOf(name).getTagNo();
+    }
+    final int tagNo = Integer.parseInt(name.substring(paren + 1, name.length() - 1));
+    if (name.startsWith(ApplicationDERTag.TAG_NAME)) {
+      return ApplicationDERTag.TAG_CLASS << TAG_CLASS_SHIFT | tagNo;
+    }
+    return ContextDERTag.TAG_CLASS << TAG_CLASS_SHIFT | tagNo;
+  }
+
+
+  /** Node in the tree of registered paths. */
+  private static final class PathNode
+  {
+
+    /** Tag class and number of this node. */
+    private final int key;
+
+    /** Child index of this node or -1 for any index. */
+    private final int index;
+
+    /** Handler for the path ending at this node. */
+    private ParseHandler handler;
+
+    /** Child nodes. */
+    private PathNode[] children = new PathNode[0];
+
+
+    /**
+     * Creates a new path node.
+     *
+     * @param  k  tag class and number
+     * @param  i  child index
+     */
+    PathNode(final int k, final int i)
+    {
+      key = k;
+      index = i;
+    }
+
+
+    /**
+     * Returns the child with the supplied key and index, creating it if it does not exist.
+     *
+     * @param  k  tag class and number
+     * @param  i  child index
+     *
+     * @return  child node
+     */
+    PathNode addChild(final int k, final int i)
+    {
+      for (PathNode child : children) {
+        if (child.key == k && child.index == i) {
+          return child;
+        }
+      }
+      final PathNode child = new PathNode(k, i);
+      children = Arrays.copyOf(children, children.length + 1);
+      children[children.length - 1] = child;
+      return child;
     }
-    permutations.forEach(DERPath::popNode);
   }
 }
@@ -180,6 +180,17 @@ public class DERPath
   }
 
 
+  /**
+   * Returns the nodes in this path.
+   *
+   * @return  path nodes from first to last
+   */
+  Node[] getNodes()
+  {
+    return nodeStack.toArray(new Node[0]);
+  }
+
+
   /**
    * Determines whether the path contains any nodes.
    *
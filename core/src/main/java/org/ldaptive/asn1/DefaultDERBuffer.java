@@ -123,6 +123,22 @@ public class DefaultDERBuffer implements DERBuffer
   }
 
 
+  @Override
+  public DERBuffer put(final byte b)
+  {
+    buffer.put(b);
+    return this;
+  }
+
+
+  @Override
+  public DERBuffer put(final byte[] src)
+  {
+    buffer.put(src);
+    return this;
+  }
+
+
   @Override
   public DERBuffer slice()
   {
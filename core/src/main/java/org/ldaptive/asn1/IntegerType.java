@@ -82,6 +82,20 @@ public class IntegerType extends AbstractDERType implements DEREncoder
   }
 
 
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(derItem.length);
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encode(buffer, derItem);
+  }
+
+
   /**
    * Converts bytes in the buffer to an integer by reading from the current position to the limit, which assumes the
    * bytes of the integer are in big-endian order.
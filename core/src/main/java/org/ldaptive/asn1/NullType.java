@@ -26,4 +26,18 @@ public class NullType extends AbstractDERType implements DEREncoder
   {
     return encode((byte[]) null);
   }
+
+
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(0);
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encode(buffer, null);
+  }
 }
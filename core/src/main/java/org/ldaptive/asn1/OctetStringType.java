@@ -77,6 +77,20 @@ public class OctetStringType extends AbstractDERType implements DEREncoder
   }
 
 
+  @Override
+  public int encodedLength()
+  {
+    return encodedLength(derItem != null ? derItem.length : 0);
+  }
+
+
+  @Override
+  public void encode(final DERBuffer buffer)
+  {
+    encode(buffer, derItem);
+  }
+
+
   /**
    * Converts bytes in the buffer to a string by reading from the current position to the limit, which assumes the bytes
    * of the string are in big-endian order.
@@ -3,6 +3,8 @@ package org.ldaptive.auth;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.AbstractSearchOperationFactory;
 import org.ldaptive.DerefAliases;
 import org.ldaptive.FilterTemplate;
@@ -288,8 +290,66 @@ public abstract class AbstractSearchEntryResolver extends AbstractSearchOperatio
     throws LdapException
   {
     logger.trace("resolve criteria={}", criteria);
+    return resolveEntry(criteria, performLdapSearch(criteria, response));
+  }
+
+
+  /**
+   * Attempts to find the LDAP entry for the supplied authentication criteria without blocking the calling thread. The
+   * search response is processed by the thread that receives it.
+   *
+   * @param  criteria  authentication criteria used to perform the authentication
+   * @param  response  produced by the authentication handler
+   * @param  executor  to perform work that may block, such as opening a connection
+   *
+   * @return  future ldap entry
+   */
+  @Override
+  public CompletableFuture<LdapEntry> resolveAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    logger.trace("resolve criteria={}", criteria);
+    return performLdapSearchAsync(criteria, response, executor)
+      .thenCompose(result -> FutureUtils.supply(() -> resolveEntry(criteria, result)));
+  }
+
+
+  /**
+   * Executes an ldap search with the supplied authentication criteria without blocking the calling thread. The default
+   * implementation invokes {@link #performLdapSearch(AuthenticationCriteria, AuthenticationHandlerResponse)} on the
+   * supplied executor.
+   *
+   * @param  criteria  authentication criteria associated with the user
+   * @param  response  response from the authentication event
+   * @param  executor  to perform work that may block, such as opening a connection
+   *
+   * @return  future search result
+   */
+  protected CompletableFuture<SearchResponse> performLdapSearchAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    return FutureUtils.supplyAsync(() -> performLdapSearch(criteria, response), executor);
+  }
 
-    final SearchResponse result = performLdapSearch(criteria, response);
+
+  /**
+   * Returns the first entry in the supplied search result. If more than one entry matches the search, the result is
+   * controlled by {@link #setAllowMultipleEntries(boolean)}.
+   *
+   * @param  criteria  authentication criteria associated with the user
+   * @param  result  of the search
+   *
+   * @return  ldap entry or null if no entry was found
+   *
+   * @throws  LdapException  if the search was not successful or multiple entries are not allowed
+   */
+  protected LdapEntry resolveEntry(final AuthenticationCriteria criteria, final SearchResponse result)
+    throws LdapException
+  {
     logger.debug("Resolved result={} for criteria={}", result, criteria);
 
     if (!result.isSuccess()) {
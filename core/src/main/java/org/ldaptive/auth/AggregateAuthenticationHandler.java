@@ -4,6 +4,8 @@ package org.ldaptive.auth;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapException;
 import org.ldaptive.ResultCode;
 import org.slf4j.Logger;
@@ -92,6 +94,25 @@ public class AggregateAuthenticationHandler implements AuthenticationHandler
   }
 
 
+  @Override
+  public CompletableFuture<AuthenticationHandlerResponse> authenticateAsync(
+    final AuthenticationCriteria criteria,
+    final Executor executor)
+  {
+    final String[] labeledDn = criteria.getDn().split(":", 2);
+    final AuthenticationHandler ah = authenticationHandlers.get(labeledDn[0]);
+    if (ah == null) {
+      return CompletableFuture.failedFuture(
+        new LdapException(
+          ResultCode.PARAM_ERROR,
+          "Could not find authentication handler for label: " + labeledDn[0]));
+    }
+    return ah.authenticateAsync(
+      new AuthenticationCriteria(labeledDn[1], criteria.getAuthenticationRequest()),
+      executor);
+  }
+
+
   /**
    * Creates a builder for this class.
    *
@@ -1,22 +1,39 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
 import org.ldaptive.concurrent.CallableWorker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Looks up a user's DN using multiple DN resolvers. Each DN resolver is invoked on a separate thread. If multiple DNs
- * are allowed then the first one retrieved is returned.
+ * are allowed then the first one retrieved is returned. Unless parallel mode is enabled, resolution waits for every DN
+ * resolver to complete, including {@link #resolveAsync(User, Executor)}.
+ *
+ * <p>In parallel mode DN resolvers are dispatched with {@link DnResolver#resolveAsync(User, Executor)} and resolution
+ * completes as soon as the answer is known: when the first DN arrives if multiple DNs are allowed, when a second DN
+ * arrives if they are not, or when any resolver fails. The remaining resolvers are cancelled, which abandons their
+ * outstanding searches. Each resolver must answer within {@link #resolverTimeout}.</p>
  *
  * @author  Middleware Services
  */
@@ -35,6 +52,12 @@ public class AggregateDnResolver implements DnResolver
   /** Whether to throw an exception if multiple DNs are found. */
   private boolean allowMultipleDns;
 
+  /** Whether to dispatch DN resolvers asynchronously and complete as soon as the answer is known. */
+  private boolean parallel;
+
+  /** Amount of time to wait for each DN resolver in parallel mode. */
+  private Duration resolverTimeout;
+
 
   /** Default constructor. */
   public AggregateDnResolver()
@@ -128,6 +151,58 @@ public class AggregateDnResolver implements DnResolver
   }
 
 
+  /**
+   * Returns whether DN resolvers are dispatched asynchronously.
+   *
+   * @return  whether parallel mode is enabled
+   */
+  public boolean getParallel()
+  {
+    return parallel;
+  }
+
+
+  /**
+   * Sets whether DN resolvers are dispatched asynchronously. If true, {@link #resolve(User)} and {@link
+   * #resolveAsync(User, Executor)} complete as soon as the answer is known and cancel any outstanding resolvers.
+   * Otherwise, every resolver must complete.
+   *
+   * @param  b  whether parallel mode is enabled
+   */
+  public void setParallel(final boolean b)
+  {
+    logger.trace("setting parallel: {}", b);
+    parallel = b;
+  }
+
+
+  /**
+   * Returns the amount of time to wait for each DN resolver in parallel mode.
+   *
+   * @return  resolver timeout or null if resolvers are not timed
+   */
+  public Duration getResolverTimeout()
+  {
+    return resolverTimeout;
+  }
+
+
+  /**
+   * Sets the amount of time to wait for each DN resolver in parallel mode. A resolver that does not answer in time
+   * fails the resolution, since a DN it might have found could make the result ambiguous.
+   *
+   * @param  time  resolver timeout or null to wait indefinitely
+   */
+  public void setResolverTimeout(final Duration time)
+  {
+    if (time != null && (time.isNegative() || time.isZero())) {
+      throw new IllegalArgumentException("Resolver timeout must be greater than zero");
+    }
+    logger.trace("setting resolverTimeout: {}", time);
+    resolverTimeout = time;
+  }
+
+
   /**
    * Creates an aggregate entry resolver using the labels from the DN resolver and the supplied entry resolver.
    *
@@ -149,6 +224,9 @@ public class AggregateDnResolver implements DnResolver
   public String resolve(final User user)
     throws LdapException
   {
+    if (parallel) {
+      return resolveParallel(user);
+    }
     final List<Callable<String>> callables = new ArrayList<>();
     for (final Map.Entry<String, DnResolver> entry : dnResolvers.entrySet()) {
       callables.add(
@@ -188,6 +266,137 @@ public class AggregateDnResolver implements DnResolver
   }
 
 
+  /**
+   * Resolves the user with {@link #resolveAsync(User, Executor)} using the underlying executor service and waits for
+   * the result.
+   *
+   * @param  user  to find DN for
+   *
+   * @return  labeled user DN
+   *
+   * @throws  LdapException  if a DN resolver fails or multiple DNs are found
+   */
+  private String resolveParallel(final User user)
+    throws LdapException
+  {
+    final CompletableFuture<String> future = resolveAsync(user, callableWorker.getExecutorService());
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      future.cancel(false);
+      Thread.currentThread().interrupt();
+      throw new LdapException(ResultCode.LOCAL_ERROR, "Interrupted resolving DN for: " + user, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LdapException) {
+        throw (LdapException) e.getCause();
+      } else if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new LdapException(ResultCode.LOCAL_ERROR, e.getCause());
+    }
+  }
+
+
+  /**
+   * Dispatches every DN resolver concurrently. In parallel mode the returned future completes as soon as the answer is
+   * known and the outstanding resolvers are then cancelled. Otherwise it completes once every resolver has completed.
+   * See {@link #setParallel(boolean)}.
+   *
+   * @param  user  to find DN for
+   * @param  executor  supplied to each DN resolver
+   *
+   * @return  future labeled user DN
+   */
+  @Override
+  public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    if (dnResolvers.isEmpty()) {
+      return CompletableFuture.completedFuture(null);
+    }
+    if (!parallel) {
+      return resolveAllAsync(user, executor);
+    }
+    final CompletableFuture<String> result = new CompletableFuture<>();
+    final AtomicInteger remaining = new AtomicInteger(dnResolvers.size());
+    final AtomicReference<String> match = new AtomicReference<>();
+    final List<CompletableFuture<String>> futures = new ArrayList<>(dnResolvers.size());
+    for (final Map.Entry<String, DnResolver> entry : dnResolvers.entrySet()) {
+      if (result.isDone()) {
+        break;
+      }
+      logger.debug("Dispatching DN resolver {}", entry.getValue());
+      CompletableFuture<String> future = entry.getValue().resolveAsync(user, executor);
+      if (resolverTimeout != null) {
+        future = future.orTimeout(resolverTimeout.toMillis(), TimeUnit.MILLISECONDS);
+      }
+      futures.add(future);
+      future.whenComplete((dn, e) -> {
+        if (e != null) {
+          final Throwable t = FutureUtils.unwrap(e);
+          result.completeExceptionally(
+            t instanceof TimeoutException ?
+              new LdapException(
+                ResultCode.LDAP_TIMEOUT,
+                "DN resolver " + entry.getKey() + " timed out for: " + user) :
+              t);
+          return;
+        }
+        logger.debug("DN resolver {} resolved dn {} for user {}", entry.getValue(), dn, user);
+        if (dn != null && !dn.isEmpty()) {
+          final String labeledDn = String.format("%s:%s", entry.getKey(), dn);
+          if (allowMultipleDns) {
+            result.complete(labeledDn);
+          } else if (!match.compareAndSet(null, labeledDn)) {
+            result.completeExceptionally(new LdapException("Found more than (1) DN for: " + user));
+          }
+        }
+        if (remaining.decrementAndGet() == 0) {
+          result.complete(match.get());
+        }
+      });
+    }
+    // cancel any resolvers that have not answered
+    result.whenComplete((dn, e) -> {
+      logger.debug("Resolved aggregate DN {}", dn);
+      futures.forEach(f -> f.cancel(false));
+    });
+    return result;
+  }
+
+
+  /**
+   * Dispatches every DN resolver and completes once all of them have completed. Fails if any resolver fails or if
+   * multiple DNs are found and they are not allowed.
+   *
+   * @param  user  to find DN for
+   * @param  executor  supplied to each DN resolver
+   *
+   * @return  future labeled user DN
+   */
+  private CompletableFuture<String> resolveAllAsync(final User user, final Executor executor)
+  {
+    final Queue<String> results = new ConcurrentLinkedQueue<>();
+    final List<CompletableFuture<Void>> futures = new ArrayList<>(dnResolvers.size());
+    for (final Map.Entry<String, DnResolver> entry : dnResolvers.entrySet()) {
+      logger.debug("Dispatching DN resolver {}", entry.getValue());
+      futures.add(
+        entry.getValue().resolveAsync(user, executor).thenAccept(dn -> {
+          logger.debug("DN resolver {} resolved dn {} for user {}", entry.getValue(), dn, user);
+          if (dn != null && !dn.isEmpty()) {
+            results.add(String.format("%s:%s", entry.getKey(), dn));
+          }
+        }));
+    }
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+      if (results.size() > 1 && !allowMultipleDns) {
+        throw new CompletionException(new LdapException("Found more than (1) DN for: " + user));
+      }
+      logger.debug("Resolved aggregate DN {}", results);
+      return results.peek();
+    });
+  }
+
+
   /** Invokes {@link ExecutorService#shutdown()} on the underlying executor service. */
   public void shutdown()
   {
@@ -224,6 +433,27 @@ public class AggregateDnResolver implements DnResolver
     }
 
 
+    public Builder allowMultipleDns(final boolean b)
+    {
+      object.setAllowMultipleDns(b);
+      return this;
+    }
+
+
+    public Builder parallel(final boolean b)
+    {
+      object.setParallel(b);
+      return this;
+    }
+
+
+    public Builder resolverTimeout(final Duration time)
+    {
+      object.setResolverTimeout(time);
+      return this;
+    }
+
+
     public AggregateDnResolver build()
     {
       return object;
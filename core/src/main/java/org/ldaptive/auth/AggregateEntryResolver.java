@@ -4,6 +4,8 @@ package org.ldaptive.auth;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapEntry;
 import org.ldaptive.LdapException;
 import org.ldaptive.ResultCode;
@@ -91,6 +93,25 @@ public class AggregateEntryResolver implements EntryResolver
   }
 
 
+  @Override
+  public CompletableFuture<LdapEntry> resolveAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    final String[] labeledDn = criteria.getDn().split(":", 2);
+    final EntryResolver er = entryResolvers.get(labeledDn[0]);
+    if (er == null) {
+      return CompletableFuture.failedFuture(
+        new LdapException(ResultCode.PARAM_ERROR, "Could not find entry resolver for label: " + labeledDn[0]));
+    }
+    return er.resolveAsync(
+      new AuthenticationCriteria(labeledDn[1], criteria.getAuthenticationRequest()),
+      response,
+      executor);
+  }
+
+
   /**
    * Creates a builder for this class.
    *
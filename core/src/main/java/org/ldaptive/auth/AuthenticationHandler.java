@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapException;
 
 /**
@@ -23,4 +25,21 @@ public interface AuthenticationHandler
    */
   AuthenticationHandlerResponse authenticate(AuthenticationCriteria criteria)
     throws LdapException;
+
+
+  /**
+   * Perform an ldap authentication without blocking the calling thread. The default implementation invokes {@link
+   * #authenticate(AuthenticationCriteria)} on the supplied executor.
+   *
+   * @param  criteria  to perform the authentication with
+   * @param  executor  to perform work that may block, such as opening a connection
+   *
+   * @return  future authentication handler response
+   */
+  default CompletableFuture<AuthenticationHandlerResponse> authenticateAsync(
+    final AuthenticationCriteria criteria,
+    final Executor executor)
+  {
+    return FutureUtils.supplyAsync(() -> authenticate(criteria), executor);
+  }
 }
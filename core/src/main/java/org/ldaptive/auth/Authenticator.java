@@ -1,11 +1,15 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import org.ldaptive.ConnectionFactoryManager;
 import org.ldaptive.Credential;
 import org.ldaptive.LdapEntry;
@@ -258,8 +262,9 @@ public class Authenticator
   /**
    * Attempts to close any connection factories associated with this authenticator. Inspects the {@link #dnResolver},
    * {@link #authenticationHandler} and {@link #entryResolver} for type {@link ConnectionFactoryManager}. If found,
-   * those underlying connection factories are closed. {@link AggregateDnResolver}, {@link
-   * AggregateAuthenticationHandler} and {@link AggregateEntryResolver} are handled as well.
+   * their underlying connection factories are closed. A {@link PipelinedBindAuthenticationHandler} is closed before its
+   * connection factory. {@link CachingDnResolver}, {@link AggregateDnResolver}, {@link AggregateAuthenticationHandler}
+   * and {@link AggregateEntryResolver} are handled as well.
    *
    * Note that custom components that contain connection factories but do not implement {@link ConnectionFactoryManager}
    * <b>will not</b> be closed by this method.
@@ -267,10 +272,11 @@ public class Authenticator
   public void close()
   {
     final Set<ConnectionFactoryManager> managers = new HashSet<>();
-    if (dnResolver instanceof ConnectionFactoryManager) {
-      managers.add((ConnectionFactoryManager) dnResolver);
-    } else if (dnResolver instanceof AggregateDnResolver) {
-      final Map<String, DnResolver> resolvers = ((AggregateDnResolver) dnResolver).getDnResolvers();
+    final DnResolver resolver = getUncachedDnResolver();
+    if (resolver instanceof ConnectionFactoryManager) {
+      managers.add((ConnectionFactoryManager) resolver);
+    } else if (resolver instanceof AggregateDnResolver) {
+      final Map<String, DnResolver> resolvers = ((AggregateDnResolver) resolver).getDnResolvers();
       if (resolvers != null) {
         resolvers.values().stream()
           .filter(ConnectionFactoryManager.class::isInstance)
@@ -302,6 +308,10 @@ public class Authenticator
       }
     }
 
+    managers.stream()
+      .filter(PipelinedBindAuthenticationHandler.class::isInstance)
+      .map(PipelinedBindAuthenticationHandler.class::cast)
+      .forEach(PipelinedBindAuthenticationHandler::close);
     if (!managers.isEmpty()) {
       closeConnectionFactoryManagers(managers);
     }
@@ -369,6 +379,115 @@ public class Authenticator
       }
     }
 
+    return createAuthenticationResponse(dn, processedRequest, response, entry);
+  }
+
+
+  /**
+   * Authenticate the user in the supplied request without blocking the calling thread. Components that do not block
+   * the calling thread, such as {@link SearchDnResolver}, {@link SimpleBindAuthenticationHandler}, {@link
+   * PipelinedBindAuthenticationHandler} and {@link SearchEntryResolver}, complete their stage on the thread that
+   * processes the LDAP response; the next stage, including any request and response handlers, is executed on that
+   * thread. Work that may block, such as opening a connection or invoking a component without asynchronous support, is
+   * executed on {@link ForkJoinPool#commonPool()}.
+   *
+   * @param  request  authentication request
+   *
+   * @return  future response containing the ldap entry of the user authenticated
+   */
+  public CompletableFuture<AuthenticationResponse> authenticateAsync(final AuthenticationRequest request)
+  {
+    return authenticateAsync(request, null);
+  }
+
+
+  /**
+   * Authenticate the user in the supplied request without blocking the calling thread. Every stage after DN resolution,
+   * and any work that may block, is executed on the supplied executor. If executor is null, see {@link
+   * #authenticateAsync(AuthenticationRequest)}.
+   *
+   * @param  request  authentication request
+   * @param  executor  to execute stages on or null
+   *
+   * @return  future response containing the ldap entry of the user authenticated
+   */
+  public CompletableFuture<AuthenticationResponse> authenticateAsync(
+    final AuthenticationRequest request,
+    final Executor executor)
+  {
+    return FutureUtils.compose(
+      dnResolver.resolveAsync(request.getUser(), executor != null ? executor : ForkJoinPool.commonPool()),
+      dn -> authenticateAsync(dn, request, executor),
+      executor);
+  }
+
+
+  /**
+   * Validates input and performs authentication using an {@link AuthenticationHandler} without blocking the calling
+   * thread. Executes any configured {@link AuthenticationResponseHandler}.
+   *
+   * @param  dn  to authenticate as
+   * @param  request  containing authentication parameters
+   * @param  executor  to execute stages on or null
+   *
+   * @return  future response containing the ldap entry for the supplied DN
+   */
+  protected CompletableFuture<AuthenticationResponse> authenticateAsync(
+    final String dn,
+    final AuthenticationRequest request,
+    final Executor executor)
+  {
+    logger.trace("authenticate dn={} with request={}", dn, request);
+
+    final AuthenticationResponse invalidInput = validateInput(dn, request);
+    if (invalidInput != null) {
+      return CompletableFuture.completedFuture(invalidInput);
+    }
+
+    final Executor blockingExecutor = executor != null ? executor : ForkJoinPool.commonPool();
+    final AuthenticationRequest processedRequest;
+    try {
+      processedRequest = processRequest(dn, request);
+    } catch (LdapException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    final AuthenticationCriteria ac = new AuthenticationCriteria(dn, processedRequest);
+
+    // attempt to authenticate as this dn
+    return FutureUtils.compose(
+      getAuthenticationHandler().authenticateAsync(ac, blockingExecutor),
+      response -> FutureUtils.compose(
+        // resolve the entry
+        resolveEntryAsync(ac, response, blockingExecutor).whenComplete((entry, e) -> {
+          if (response.getConnection() != null) {
+            response.getConnection().close();
+          }
+        }),
+        entry -> FutureUtils.supply(() -> createAuthenticationResponse(dn, processedRequest, response, entry)),
+        executor),
+      executor);
+  }
+
+
+  /**
+   * Creates an authentication response and executes any configured {@link AuthenticationResponseHandler}.
+   *
+   * @param  dn  that was authenticated
+   * @param  request  containing authentication parameters
+   * @param  response  from the authentication handler
+   * @param  entry  resolved for the supplied DN
+   *
+   * @return  authentication response
+   *
+   * @throws  LdapException  if an error occurs with a response handler
+   */
+  protected AuthenticationResponse createAuthenticationResponse(
+    final String dn,
+    final AuthenticationRequest request,
+    final AuthenticationHandlerResponse response,
+    final LdapEntry entry)
+    throws LdapException
+  {
     logger.info("Authentication {} for dn: {}", response.isSuccess() ? "succeeded" : "failed", dn);
 
     final AuthenticationResponse authResponse = new AuthenticationResponse(response, dn, entry);
@@ -379,7 +498,7 @@ public class Authenticator
       }
     }
 
-    logger.debug("Authenticate response={} for dn={} with request={}", response, dn, processedRequest);
+    logger.debug("Authenticate response={} for dn={} with request={}", response, dn, request);
     return authResponse;
   }
 
@@ -489,19 +608,8 @@ public class Authenticator
     throws LdapException
   {
     LdapEntry entry = null;
-    final EntryResolver er;
-    if (resolveEntryOnFailure || response.isSuccess()) {
-      if (entryResolver != null) {
-        er = entryResolver;
-      } else if (!ReturnAttributes.NONE.equalsAttributes(criteria.getAuthenticationRequest().getReturnAttributes())) {
-        if (dnResolver instanceof AggregateDnResolver) {
-          er = ((AggregateDnResolver) dnResolver).createEntryResolver(new SearchEntryResolver());
-        } else {
-          er = new SearchEntryResolver();
-        }
-      } else {
-        er = NOOP_RESOLVER;
-      }
+    final EntryResolver er = selectEntryResolver(criteria, response);
+    if (er != null) {
       try {
         entry = er.resolve(criteria, response);
         logger.trace("resolved entry={} with resolver={}", entry, er);
@@ -517,6 +625,81 @@ public class Authenticator
   }
 
 
+  /**
+   * Attempts to find the ldap entry for the supplied DN without blocking the calling thread. See {@link
+   * #resolveEntry(AuthenticationCriteria, AuthenticationHandlerResponse)}.
+   *
+   * @param  criteria  needed by the entry resolver
+   * @param  response  from the authentication handler
+   * @param  executor  to perform work that may block
+   *
+   * @return  future ldap entry
+   */
+  protected CompletableFuture<LdapEntry> resolveEntryAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    final EntryResolver er = selectEntryResolver(criteria, response);
+    if (er == null) {
+      return NOOP_RESOLVER.resolveAsync(criteria, response, executor);
+    }
+    return er.resolveAsync(criteria, response, executor)
+      .handle((entry, e) -> {
+        if (e != null) {
+          logger.warn("entry resolution failed for resolver={}", er, FutureUtils.unwrap(e));
+          return null;
+        }
+        logger.trace("resolved entry={} with resolver={}", entry, er);
+        return entry;
+      })
+      .thenCompose(entry -> entry != null ?
+        CompletableFuture.completedFuture(entry) : NOOP_RESOLVER.resolveAsync(criteria, response, executor));
+  }
+
+
+  /**
+   * Returns the entry resolver to use for the supplied criteria and response. If an entry resolver has been configured
+   * it is used. A {@link SearchEntryResolver} is used if return attributes have been requested. Returns null if the
+   * entry should not be resolved.
+   *
+   * @param  criteria  needed by the entry resolver
+   * @param  response  from the authentication handler
+   *
+   * @return  entry resolver or null
+   */
+  private EntryResolver selectEntryResolver(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response)
+  {
+    EntryResolver er = null;
+    if (resolveEntryOnFailure || response.isSuccess()) {
+      if (entryResolver != null) {
+        er = entryResolver;
+      } else if (!ReturnAttributes.NONE.equalsAttributes(criteria.getAuthenticationRequest().getReturnAttributes())) {
+        final DnResolver resolver = getUncachedDnResolver();
+        if (resolver instanceof AggregateDnResolver) {
+          er = ((AggregateDnResolver) resolver).createEntryResolver(new SearchEntryResolver());
+        } else {
+          er = new SearchEntryResolver();
+        }
+      }
+    }
+    return er;
+  }
+
+
+  /**
+   * Returns the DN resolver decorated by {@link CachingDnResolver}, or the DN resolver if it is not cached.
+   *
+   * @return  DN resolver
+   */
+  private DnResolver getUncachedDnResolver()
+  {
+    return dnResolver instanceof CachingDnResolver ? ((CachingDnResolver) dnResolver).getDnResolver() : dnResolver;
+  }
+
+
   @Override
   public String toString()
   {
@@ -549,6 +732,9 @@ public class Authenticator
     /** Authenticator to build. */
     private final Authenticator object = new Authenticator();
 
+    /** Caching DN resolver to decorate the DN resolver with. */
+    private CachingDnResolver cachingDnResolver;
+
 
     /**
      * Default constructor.
@@ -640,6 +826,39 @@ public class Authenticator
     }
 
 
+    /**
+     * Caches the DNs produced by the DN resolver. See {@link CachingDnResolver}.
+     *
+     * @param  size  maximum number of cached DNs
+     * @param  ttl  time to live of a resolved DN
+     *
+     * @return  this builder
+     */
+    public Builder dnResolverCache(final int size, final Duration ttl)
+    {
+      return dnResolverCache(size, ttl, Duration.ZERO);
+    }
+
+
+    /**
+     * Caches the DNs produced by the DN resolver. See {@link CachingDnResolver}.
+     *
+     * @param  size  maximum number of cached DNs
+     * @param  ttl  time to live of a resolved DN
+     * @param  negativeTtl  time to live of a user that could not be resolved, zero disables negative caching
+     *
+     * @return  this builder
+     */
+    public Builder dnResolverCache(final int size, final Duration ttl, final Duration negativeTtl)
+    {
+      cachingDnResolver = new CachingDnResolver();
+      cachingDnResolver.setCacheSize(size);
+      cachingDnResolver.setCacheTimeToLive(ttl);
+      cachingDnResolver.setCacheNegativeTimeToLive(negativeTtl);
+      return this;
+    }
+
+
     /**
      * Returns the authenticator.
      *
@@ -647,6 +866,12 @@ public class Authenticator
      */
     public Authenticator build()
     {
+      if (cachingDnResolver != null && object.getDnResolver() != null &&
+        !(object.getDnResolver() instanceof CachingDnResolver))
+      {
+        cachingDnResolver.setDnResolver(object.getDnResolver());
+        object.setDnResolver(cachingDnResolver);
+      }
       return object;
     }
   }
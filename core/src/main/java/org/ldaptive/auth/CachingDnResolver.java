@@ -0,0 +1,500 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.ConnectionFactoryManager;
+import org.ldaptive.LdapException;
+import org.ldaptive.LdapUtils;
+import org.ldaptive.ResultCode;
+import org.ldaptive.concurrent.ConcurrentLruCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * DN resolver that caches the DNs produced by another DN resolver. Entries expire after {@link #cacheTimeToLive} and
+ * entries that have not been used recently are evicted once the cache holds {@link #getCacheSize()} entries, see
+ * {@link ConcurrentLruCache}. Users that could not be resolved are cached for {@link #cacheNegativeTimeToLive},
+ * negative caching is disabled by default. Exceptions produced by the underlying resolver are never cached. Concurrent
+ * resolutions of the same user that miss the cache are coalesced into a single resolution by the underlying
+ * resolver.
+ *
+ * @author  Middleware Services
+ */
+public class CachingDnResolver implements DnResolver, ConnectionFactoryManager
+{
+
+  /** Default cache size. */
+  public static final int DEFAULT_CACHE_SIZE = 1000;
+
+  /** Default time to live of a cached DN. */
+  public static final Duration DEFAULT_CACHE_TIME_TO_LIVE = Duration.ofMinutes(10);
+
+  /** Logger for this class. */
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Number of resolutions answered by the cache. */
+  private final LongAdder hitCount = new LongAdder();
+
+  /** Number of resolutions delegated to the DN resolver. */
+  private final LongAdder missCount = new LongAdder();
+
+  /** Number of entries removed because they expired. */
+  private final LongAdder expirationCount = new LongAdder();
+
+  /** Cached DNs, replaced when the cache size is set. */
+  private volatile ConcurrentLruCache<CacheKey, CacheEntry> cache = new ConcurrentLruCache<>(DEFAULT_CACHE_SIZE);
+
+  /** DN resolver to cache. */
+  private DnResolver dnResolver;
+
+  /** Time to live of a resolved DN. */
+  private Duration cacheTimeToLive = DEFAULT_CACHE_TIME_TO_LIVE;
+
+  /** Time to live of a user that could not be resolved. */
+  private Duration cacheNegativeTimeToLive = Duration.ZERO;
+
+
+  /** Default constructor. */
+  public CachingDnResolver() {}
+
+
+  /**
+   * Creates a new caching DN resolver.
+   *
+   * @param  resolver  DN resolver to cache
+   */
+  public CachingDnResolver(final DnResolver resolver)
+  {
+    setDnResolver(resolver);
+  }
+
+
+  /**
+   * Creates a new caching DN resolver.
+   *
+   * @param  resolver  DN resolver to cache
+   * @param  size  maximum number of cached entries
+   * @param  ttl  time to live of a resolved DN
+   */
+  public CachingDnResolver(final DnResolver resolver, final int size, final Duration ttl)
+  {
+    setDnResolver(resolver);
+    setCacheSize(size);
+    setCacheTimeToLive(ttl);
+  }
+
+
+  /**
+   * Returns the DN resolver to cache.
+   *
+   * @return  DN resolver
+   */
+  public DnResolver getDnResolver()
+  {
+    return dnResolver;
+  }
+
+
+  /**
+   * Sets the DN resolver to cache.
+   *
+   * @param  resolver  DN resolver
+   */
+  public void setDnResolver(final DnResolver resolver)
+  {
+    dnResolver = resolver;
+  }
+
+
+  /**
+   * Returns the maximum number of cached entries.
+   *
+   * @return  cache size
+   */
+  public int getCacheSize()
+  {
+    return cache.getMaxSize();
+  }
+
+
+  /**
+   * Sets the maximum number of cached entries. Any cached entries are discarded.
+   *
+   * @param  size  cache size
+   */
+  public void setCacheSize(final int size)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Cache size must be greater than zero");
+    }
+    logger.trace("setting cacheSize: {}", size);
+    cache = new ConcurrentLruCache<>(size);
+  }
+
+
+  /**
+   * Returns the time to live of a resolved DN.
+   *
+   * @return  time to live
+   */
+  public Duration getCacheTimeToLive()
+  {
+    return cacheTimeToLive;
+  }
+
+
+  /**
+   * Sets the time to live of a resolved DN.
+   *
+   * @param  ttl  time to live
+   */
+  public void setCacheTimeToLive(final Duration ttl)
+  {
+    if (ttl == null || ttl.isNegative() || ttl.isZero()) {
+      throw new IllegalArgumentException("Cache time to live must be greater than zero");
+    }
+    logger.trace("setting cacheTimeToLive: {}", ttl);
+    cacheTimeToLive = ttl;
+  }
+
+
+  /**
+   * Returns the time to live of a user that could not be resolved.
+   *
+   * @return  negative time to live
+   */
+  public Duration getCacheNegativeTimeToLive()
+  {
+    return cacheNegativeTimeToLive;
+  }
+
+
+  /**
+   * Sets the time to live of a user that could not be resolved. A value of zero disables negative caching.
+   *
+   * @param  ttl  negative time to live
+   */
+  public void setCacheNegativeTimeToLive(final Duration ttl)
+  {
+    if (ttl == null || ttl.isNegative()) {
+      throw new IllegalArgumentException("Cache negative time to live cannot be null or negative");
+    }
+    logger.trace("setting cacheNegativeTimeToLive: {}", ttl);
+    cacheNegativeTimeToLive = ttl;
+  }
+
+
+  /**
+   * Returns the number of resolutions answered by the cache.
+   *
+   * @return  hit count
+   */
+  public long getHitCount()
+  {
+    return hitCount.sum();
+  }
+
+
+  /**
+   * Returns the number of resolutions delegated to the DN resolver.
+   *
+   * @return  miss count
+   */
+  public long getMissCount()
+  {
+    return missCount.sum();
+  }
+
+
+  /**
+   * Returns the number of entries removed because they expired or the cache was full.
+   *
+   * @return  eviction count
+   */
+  public long getEvictionCount()
+  {
+    return expirationCount.sum() + cache.getEvictionCount();
+  }
+
+
+  /**
+   * Returns the number of cached entries, including entries that have expired but have not been evicted.
+   *
+   * @return  number of cached entries
+   */
+  public int size()
+  {
+    return cache.size();
+  }
+
+
+  /**
+   * Removes all cached entries.
+   */
+  public void clear()
+  {
+    cache.clear();
+  }
+
+
+  /**
+   * Removes the cached entry for the supplied user.
+   *
+   * @param  user  to remove
+   */
+  public void invalidate(final User user)
+  {
+    if (user != null) {
+      cache.remove(new CacheKey(user));
+    }
+  }
+
+
+  @Override
+  public ConnectionFactory getConnectionFactory()
+  {
+    return dnResolver instanceof ConnectionFactoryManager ?
+      ((ConnectionFactoryManager) dnResolver).getConnectionFactory() : null;
+  }
+
+
+  /**
+   * Sets the connection factory of the DN resolver. Ignored if the DN resolver does not use a connection factory.
+   *
+   * @param  cf  connection factory
+   */
+  @Override
+  public void setConnectionFactory(final ConnectionFactory cf)
+  {
+    if (dnResolver instanceof ConnectionFactoryManager) {
+      ((ConnectionFactoryManager) dnResolver).setConnectionFactory(cf);
+    }
+  }
+
+
+  @Override
+  public String resolve(final User user)
+    throws LdapException
+  {
+    if (user == null) {
+      return dnResolver.resolve(null);
+    }
+    final CacheKey key = new CacheKey(user);
+    final CacheEntry entry = new CacheEntry();
+    final CacheEntry cached = lookup(key, entry);
+    final String dn;
+    if (cached == entry) {
+      try {
+        dn = dnResolver.resolve(user);
+      } catch (LdapException | RuntimeException e) {
+        complete(key, entry, null, e);
+        throw e;
+      }
+      complete(key, entry, dn, null);
+    } else {
+      dn = await(cached);
+    }
+    return dn;
+  }
+
+
+  @Override
+  public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    if (user == null) {
+      return dnResolver.resolveAsync(null, executor);
+    }
+    final CacheKey key = new CacheKey(user);
+    final CacheEntry entry = new CacheEntry();
+    final CacheEntry cached = lookup(key, entry);
+    if (cached == entry) {
+      dnResolver.resolveAsync(user, executor).whenComplete((dn, e) -> complete(key, entry, dn, e));
+    }
+    // callers must not be able to complete the cached future
+    return cached.future.copy();
+  }
+
+
+  /**
+   * Returns the cached entry for the supplied key, removing it if it has expired. If no entry is cached the supplied
+   * entry is cached and returned, the caller must then resolve the DN and invoke {@link #complete(CacheKey,
+   * CacheEntry, String, Throwable)}. An entry whose DN is still being resolved is returned to every caller, so
+   * concurrent misses only resolve the DN once.
+   *
+   * @param  key  to lookup
+   * @param  entry  to cache if no entry is cached
+   *
+   * @return  cached entry or the supplied entry
+   */
+  private CacheEntry lookup(final CacheKey key, final CacheEntry entry)
+  {
+    CacheEntry cached = cache.get(key);
+    if (cached != null && cached.isExpired()) {
+      if (cache.remove(key, cached)) {
+        expirationCount.increment();
+      }
+      cached = null;
+    }
+    if (cached == null) {
+      cached = cache.putIfAbsent(key, entry);
+    }
+    if (cached != null) {
+      hitCount.increment();
+      logger.trace("Cache hit for {}", key);
+    } else {
+      cached = entry;
+      missCount.increment();
+      logger.trace("Cache miss for {}", key);
+    }
+    return cached;
+  }
+
+
+  /**
+   * Completes the supplied entry with the result of the DN resolver. The entry is removed from the cache if the
+   * resolution failed, or if the user could not be resolved and negative caching is disabled.
+   *
+   * @param  key  of the entry
+   * @param  entry  to complete
+   * @param  dn  resolved for the key
+   * @param  e  produced by the DN resolver or null
+   */
+  private void complete(final CacheKey key, final CacheEntry entry, final String dn, final Throwable e)
+  {
+    final Duration ttl = dn != null ? cacheTimeToLive : cacheNegativeTimeToLive;
+    if (e != null || ttl.isZero()) {
+      cache.remove(key, entry);
+    } else {
+      entry.expiration = System.nanoTime() + ttl.toNanos();
+    }
+    if (e != null) {
+      entry.future.completeExceptionally(FutureUtils.unwrap(e));
+    } else {
+      entry.future.complete(dn);
+    }
+  }
+
+
+  /**
+   * Waits for the DN of the supplied entry to be resolved by another thread.
+   *
+   * @param  entry  to wait for
+   *
+   * @return  resolved DN
+   *
+   * @throws  LdapException  if the DN resolver throws an exception or the thread is interrupted
+   */
+  private String await(final CacheEntry entry)
+    throws LdapException
+  {
+    try {
+      return entry.future.get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LdapException) {
+        throw (LdapException) e.getCause();
+      }
+      throw new LdapException(ResultCode.LOCAL_ERROR, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LdapException(ResultCode.LOCAL_ERROR, e);
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "dnResolver=" + dnResolver + ", " +
+      "cacheSize=" + getCacheSize() + ", " +
+      "cacheTimeToLive=" + cacheTimeToLive + ", " +
+      "cacheNegativeTimeToLive=" + cacheNegativeTimeToLive + ", " +
+      "hitCount=" + getHitCount() + ", " +
+      "missCount=" + getMissCount() + ", " +
+      "evictionCount=" + getEvictionCount() + "]";
+  }
+
+
+  /** Cache key composed of the user identifier and context. */
+  private static final class CacheKey
+  {
+
+    /** hash code seed. */
+    private static final int HASH_CODE_SEED = 10457;
+
+    /** User identifier. */
+    private final String identifier;
+
+    /** User context. */
+    private final Object context;
+
+
+    /**
+     * Creates a new cache key.
+     *
+     * @param  user  to create the key for
+     */
+    CacheKey(final User user)
+    {
+      identifier = user.getIdentifier();
+      context = user.getContext();
+    }
+
+
+    @Override
+    public boolean equals(final Object o)
+    {
+      if (o == this) {
+        return true;
+      }
+      if (o instanceof CacheKey) {
+        final CacheKey v = (CacheKey) o;
+        return LdapUtils.areEqual(identifier, v.identifier) && LdapUtils.areEqual(context, v.context);
+      }
+      return false;
+    }
+
+
+    @Override
+    public int hashCode()
+    {
+      return LdapUtils.computeHashCode(HASH_CODE_SEED, identifier, context);
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return "[identifier=" + identifier + ", context=" + context + "]";
+    }
+  }
+
+
+  /** Cached DN with its expiration. */
+  private static final class CacheEntry
+  {
+
+    /** Completed with the resolved DN, null if the user could not be resolved. */
+    private final CompletableFuture<String> future = new CompletableFuture<>();
+
+    /** Expiration in {@link System#nanoTime()} units, set before the future is completed. */
+    private volatile long expiration;
+
+
+    /**
+     * Returns whether this entry has expired. An entry whose DN is being resolved has not expired.
+     *
+     * @return  whether this entry has expired
+     */
+    boolean isExpired()
+    {
+      return future.isDone() && System.nanoTime() - expiration >= 0;
+    }
+  }
+}
@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapException;
 
 /**
@@ -23,4 +25,19 @@ public interface DnResolver
    */
   String resolve(User user)
     throws LdapException;
+
+
+  /**
+   * Attempts to find the LDAP DN for the supplied user without blocking the calling thread. The default implementation
+   * invokes {@link #resolve(User)} on the supplied executor.
+   *
+   * @param  user  to find DN for
+   * @param  executor  to perform work that may block, such as opening a connection
+   *
+   * @return  future user DN
+   */
+  default CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    return FutureUtils.supplyAsync(() -> resolve(user), executor);
+  }
 }
@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapEntry;
 import org.ldaptive.LdapException;
 
@@ -26,4 +28,24 @@ public interface EntryResolver
    */
   LdapEntry resolve(AuthenticationCriteria criteria, AuthenticationHandlerResponse response)
     throws LdapException;
+
+
+  /**
+   * Attempts to find the LDAP entry for the supplied authentication criteria and authentication handler response
+   * without blocking the calling thread. The default implementation invokes {@link #resolve(AuthenticationCriteria,
+   * AuthenticationHandlerResponse)} on the supplied executor.
+   *
+   * @param  criteria  authentication criteria used to perform the authentication
+   * @param  response  produced by the authentication handler
+   * @param  executor  to perform work that may block, such as opening a connection
+   *
+   * @return  future ldap entry
+   */
+  default CompletableFuture<LdapEntry> resolveAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    return FutureUtils.supplyAsync(() -> resolve(criteria, response), executor);
+  }
 }
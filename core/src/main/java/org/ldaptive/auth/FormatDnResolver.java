@@ -2,6 +2,8 @@
 package org.ldaptive.auth;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapException;
 import org.ldaptive.dn.AttributeValueEscaper;
 import org.ldaptive.dn.DefaultAttributeValueEscaper;
@@ -161,6 +163,21 @@ public class FormatDnResolver implements DnResolver
   }
 
 
+  /**
+   * Resolves the DN on the calling thread, no work is performed on the executor.
+   *
+   * @param  user  to find DN for
+   * @param  executor  ignored
+   *
+   * @return  completed future user DN
+   */
+  @Override
+  public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    return FutureUtils.supply(() -> resolve(user));
+  }
+
+
   @Override
   public String toString()
   {
@@ -0,0 +1,148 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import org.ldaptive.LdapException;
+
+/**
+ * Provides utility methods for composing asynchronous authentication stages.
+ *
+ * @author  Middleware Services
+ */
+final class FutureUtils
+{
+
+  /** Default constructor. */
+  private FutureUtils() {}
+
+
+  /**
+   * Returns a future that is completed with the result of the supplied supplier, invoked on the calling thread.
+   *
+   * @param  <T>  type of result
+   * @param  supplier  to invoke
+   *
+   * @return  completed future
+   */
+  static <T> CompletableFuture<T> supply(final LdapSupplier<T> supplier)
+  {
+    try {
+      return CompletableFuture.completedFuture(supplier.get());
+    } catch (Exception e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+
+  /**
+   * Returns a future that is completed with the result of the supplied supplier, invoked by the supplied executor.
+   *
+   * @param  <T>  type of result
+   * @param  supplier  to invoke
+   * @param  executor  to invoke the supplier on
+   *
+   * @return  future result
+   */
+  static <T> CompletableFuture<T> supplyAsync(final LdapSupplier<T> supplier, final Executor executor)
+  {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      executor.execute(
+        () -> {
+          try {
+            future.complete(supplier.get());
+          } catch (Exception e) {
+            future.completeExceptionally(e);
+          }
+        });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+    return future;
+  }
+
+
+  /**
+   * Returns a future that is completed with the future produced by the supplied supplier, invoked by the supplied
+   * executor. Cancelling the returned future cancels the produced future.
+   *
+   * @param  <T>  type of result
+   * @param  supplier  that produces a future
+   * @param  executor  to invoke the supplier on
+   *
+   * @return  future result
+   */
+  static <T> CompletableFuture<T> composeAsync(
+    final LdapSupplier<CompletableFuture<T>> supplier,
+    final Executor executor)
+  {
+    final CompletableFuture<CompletableFuture<T>> supplied = supplyAsync(supplier, executor);
+    final CompletableFuture<T> future = supplied.thenCompose(Function.identity());
+    future.whenComplete((r, e) -> {
+      if (future.isCancelled()) {
+        supplied.thenAccept(f -> f.cancel(false));
+      }
+    });
+    return future;
+  }
+
+
+  /**
+   * Composes the supplied function with the supplied stage. If executor is null the function is invoked by the thread
+   * that completes the stage.
+   *
+   * @param  <T>  type of stage result
+   * @param  <U>  type of function result
+   * @param  stage  to compose
+   * @param  function  to invoke with the stage result
+   * @param  executor  to invoke the function on or null
+   *
+   * @return  future result
+   */
+  static <T, U> CompletableFuture<U> compose(
+    final CompletableFuture<T> stage,
+    final Function<? super T, CompletableFuture<U>> function,
+    final Executor executor)
+  {
+    return executor != null ? stage.thenComposeAsync(function, executor) : stage.thenCompose(function);
+  }
+
+
+  /**
+   * Returns the cause of the supplied throwable if it is a {@link CompletionException}.
+   *
+   * @param  t  throwable to unwrap
+   *
+   * @return  cause of the completion exception or the supplied throwable
+   */
+  static Throwable unwrap(final Throwable t)
+  {
+    return t instanceof CompletionException && t.getCause() != null ? t.getCause() : t;
+  }
+
+
+  /**
+   * Supplies a result that may throw an {@link LdapException}.
+   *
+   * @param  <T>  type of result
+   */
+  @FunctionalInterface
+  interface LdapSupplier<T>
+  {
+
+
+    /**
+     * Returns a result.
+     *
+     * @return  result
+     *
+     * @throws  LdapException  if the result cannot be produced
+     */
+    T get()
+      throws LdapException;
+  }
+}
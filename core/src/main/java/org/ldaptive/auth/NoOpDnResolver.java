@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapException;
 
 /**
@@ -29,6 +31,21 @@ public class NoOpDnResolver implements DnResolver
   }
 
 
+  /**
+   * Resolves the DN on the calling thread, no work is performed on the executor.
+   *
+   * @param  user  to find DN for
+   * @param  executor  ignored
+   *
+   * @return  completed future user DN
+   */
+  @Override
+  public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    return FutureUtils.supply(() -> resolve(user));
+  }
+
+
   @Override
   public String toString()
   {
@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.LdapEntry;
 
 /**
@@ -19,6 +21,25 @@ public class NoOpEntryResolver implements EntryResolver
   }
 
 
+  /**
+   * Resolves the entry on the calling thread, no work is performed on the executor.
+   *
+   * @param  criteria  authentication criteria used to perform the authentication
+   * @param  response  produced by the authentication handler
+   * @param  executor  ignored
+   *
+   * @return  completed future ldap entry
+   */
+  @Override
+  public CompletableFuture<LdapEntry> resolveAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    return CompletableFuture.completedFuture(resolve(criteria, response));
+  }
+
+
   @Override
   public String toString()
   {
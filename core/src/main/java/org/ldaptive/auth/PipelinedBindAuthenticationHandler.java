@@ -0,0 +1,635 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.ldaptive.BindResponse;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionFactory;
+import org.ldaptive.ConnectionFactoryManager;
+import org.ldaptive.LdapException;
+import org.ldaptive.LdapUtils;
+import org.ldaptive.OperationHandle;
+import org.ldaptive.Result;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SimpleBindRequest;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides an LDAP authentication implementation that pipelines simple binds over a small set of connections dedicated
+ * to authentication. The connections are opened by {@link #initialize()} and remain open until {@link #close()}. Each
+ * connection has at most one outstanding bind, as required by RFC 4511; additional binds are queued on the least loaded
+ * connection and sent as soon as the previous bind on that connection completes. No thread waits for a bind response,
+ * see {@link #authenticateAsync(AuthenticationCriteria)}. RFC 4511 does not permit a bind to be abandoned, so a bind
+ * that receives no response within the response timeout completes exceptionally and its connection is replaced.
+ *
+ * <p>The connection factory should produce a new connection for every invocation of {@link
+ * ConnectionFactory#getConnection()}, e.g. {@link org.ldaptive.DefaultConnectionFactory}. The connections are never
+ * returned in the authentication handler response, so any entry resolver used with this handler must be configured
+ * with its own connection factory.</p>
+ *
+ * @author  Middleware Services
+ */
+public class PipelinedBindAuthenticationHandler
+  implements AuthenticationHandler, ConnectionFactoryManager, AutoCloseable
+{
+
+  /** Default number of bind connections. */
+  public static final int DEFAULT_CONNECTION_COUNT = 4;
+
+  /** Logger for this class. */
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Connection factory. */
+  private ConnectionFactory factory;
+
+  /** Number of bind connections. */
+  private int connectionCount = DEFAULT_CONNECTION_COUNT;
+
+  /** controls used by this handler. */
+  private RequestControl[] authenticationControls;
+
+  /** Bind connections, null until this handler is initialized. */
+  private volatile BindConnection[] bindConnections;
+
+  /** Executor that enforces the response timeout of bind operations. */
+  private volatile ScheduledExecutorService timeoutExecutor;
+
+  /** Executor that opens replacement bind connections, so a slow open does not delay response timeouts. */
+  private volatile ExecutorService replaceExecutor;
+
+
+  /** Default constructor. */
+  public PipelinedBindAuthenticationHandler() {}
+
+
+  /**
+   * Creates a new pipelined bind authentication handler.
+   *
+   * @param  cf  connection factory
+   */
+  public PipelinedBindAuthenticationHandler(final ConnectionFactory cf)
+  {
+    setConnectionFactory(cf);
+  }
+
+
+  /**
+   * Creates a new pipelined bind authentication handler.
+   *
+   * @param  cf  connection factory
+   * @param  count  number of bind connections
+   */
+  public PipelinedBindAuthenticationHandler(final ConnectionFactory cf, final int count)
+  {
+    setConnectionFactory(cf);
+    setConnectionCount(count);
+  }
+
+
+  @Override
+  public ConnectionFactory getConnectionFactory()
+  {
+    return factory;
+  }
+
+
+  @Override
+  public void setConnectionFactory(final ConnectionFactory cf)
+  {
+    assertNotInitialized();
+    factory = cf;
+  }
+
+
+  /**
+   * Returns the number of bind connections.
+   *
+   * @return  number of bind connections
+   */
+  public int getConnectionCount()
+  {
+    return connectionCount;
+  }
+
+
+  /**
+   * Sets the number of bind connections.
+   *
+   * @param  count  number of bind connections
+   */
+  public void setConnectionCount(final int count)
+  {
+    assertNotInitialized();
+    if (count < 1) {
+      throw new IllegalArgumentException("Connection count must be greater than zero");
+    }
+    connectionCount = count;
+  }
+
+
+  /**
+   * Returns the controls for this authentication handler.
+   *
+   * @return  controls
+   */
+  public RequestControl[] getAuthenticationControls()
+  {
+    return authenticationControls;
+  }
+
+
+  /**
+   * Sets the controls for this authentication handler.
+   *
+   * @param  cntrls  controls to set
+   */
+  public void setAuthenticationControls(final RequestControl... cntrls)
+  {
+    authenticationControls = cntrls;
+  }
+
+
+  /**
+   * Returns whether this handler has been initialized.
+   *
+   * @return  whether this handler has been initialized
+   */
+  public boolean isInitialized()
+  {
+    return bindConnections != null;
+  }
+
+
+  /**
+   * Opens the bind connections.
+   *
+   * @throws  LdapException  if a connection cannot be opened
+   */
+  public synchronized void initialize()
+    throws LdapException
+  {
+    if (bindConnections != null) {
+      throw new IllegalStateException("Authentication handler is already initialized");
+    }
+    if (factory == null) {
+      throw new IllegalStateException("Connection factory cannot be null");
+    }
+    final BindConnection[] conns = new BindConnection[connectionCount];
+    try {
+      for (int i = 0; i < conns.length; i++) {
+        final Connection conn = factory.getConnection();
+        conn.open();
+        conns[i] = new BindConnection(conn);
+      }
+    } catch (LdapException e) {
+      for (BindConnection conn : conns) {
+        if (conn != null) {
+          conn.connection.close();
+        }
+      }
+      throw e;
+    }
+    final ThreadFactory threadFactory = r -> {
+      final Thread t = new Thread(r, "ldaptive-" + getClass().getSimpleName() + "@" + hashCode());
+      t.setDaemon(true);
+      return t;
+    };
+    timeoutExecutor = Executors.newSingleThreadScheduledExecutor(threadFactory);
+    replaceExecutor = Executors.newCachedThreadPool(threadFactory);
+    bindConnections = conns;
+    logger.debug("Initialized {}", this);
+  }
+
+
+  /**
+   * Closes the bind connections. Binds that have not been sent complete exceptionally. The connection factory is not
+   * closed.
+   */
+  @Override
+  public synchronized void close()
+  {
+    final BindConnection[] conns = bindConnections;
+    if (conns == null) {
+      return;
+    }
+    bindConnections = null;
+    for (BindConnection conn : conns) {
+      conn.close();
+    }
+    timeoutExecutor.shutdown();
+    timeoutExecutor = null;
+    replaceExecutor.shutdown();
+    replaceExecutor = null;
+    logger.debug("Closed {}", this);
+  }
+
+
+  @Override
+  public AuthenticationHandlerResponse authenticate(final AuthenticationCriteria ac)
+    throws LdapException
+  {
+    try {
+      return authenticateAsync(ac).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof LdapException) {
+        throw (LdapException) e.getCause();
+      }
+      throw new LdapException(ResultCode.LOCAL_ERROR, e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new LdapException(ResultCode.LOCAL_ERROR, e);
+    }
+  }
+
+
+  /**
+   * Queues a simple bind for the supplied criteria on the least loaded bind connection. The returned future is
+   * completed by the thread that processes the bind response, dependent stages that block should use an executor.
+   *
+   * @param  ac  criteria to authenticate with
+   *
+   * @return  future authentication handler response
+   */
+  public CompletableFuture<AuthenticationHandlerResponse> authenticateAsync(final AuthenticationCriteria ac)
+  {
+    logger.trace("authenticate criteria={}", ac);
+
+    final BindConnection[] conns = bindConnections;
+    if (conns == null) {
+      return CompletableFuture.failedFuture(
+        new IllegalStateException("Authentication handler " + this + " is not initialized"));
+    }
+    final SimpleBindRequest request = new SimpleBindRequest(ac.getDn(), ac.getCredential().getString());
+    request.setControls(processRequestControls(ac));
+    BindConnection selected = conns[0];
+    for (int i = 1; i < conns.length && selected.pending.get() > 0; i++) {
+      if (conns[i].pending.get() < selected.pending.get()) {
+        selected = conns[i];
+      }
+    }
+    final CompletableFuture<AuthenticationHandlerResponse> future = selected.submit(request);
+    if (logger.isDebugEnabled()) {
+      future.whenComplete(
+        (response, e) -> logger.debug("Authenticate response={} for criteria={}", response, ac, e));
+    }
+    return future;
+  }
+
+
+  /**
+   * Queues a simple bind for the supplied criteria, see {@link #authenticateAsync(AuthenticationCriteria)}. No work is
+   * performed on the executor.
+   *
+   * @param  ac  criteria to authenticate with
+   * @param  executor  ignored
+   *
+   * @return  future authentication handler response
+   */
+  @Override
+  public CompletableFuture<AuthenticationHandlerResponse> authenticateAsync(
+    final AuthenticationCriteria ac,
+    final Executor executor)
+  {
+    return authenticateAsync(ac);
+  }
+
+
+  /**
+   * Combines request controls in the {@link AuthenticationRequest} with {@link #authenticationControls}.
+   *
+   * @param  criteria  containing request controls
+   *
+   * @return  combined request controls or null
+   */
+  protected RequestControl[] processRequestControls(final AuthenticationCriteria criteria)
+  {
+    final RequestControl[] ctls;
+    if (criteria.getAuthenticationRequest().getControls() != null) {
+      if (getAuthenticationControls() != null) {
+        ctls = LdapUtils.concatArrays(criteria.getAuthenticationRequest().getControls(), getAuthenticationControls());
+      } else {
+        ctls = criteria.getAuthenticationRequest().getControls();
+      }
+    } else {
+      ctls = getAuthenticationControls();
+    }
+    return ctls;
+  }
+
+
+  /**
+   * Throws an exception if this handler has been initialized.
+   *
+   * @throws  IllegalStateException  if this handler has been initialized
+   */
+  private void assertNotInitialized()
+  {
+    if (bindConnections != null) {
+      throw new IllegalStateException("Cannot modify an initialized authentication handler");
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "factory=" + factory + ", " +
+      "connectionCount=" + connectionCount + ", " +
+      "controls=" + Arrays.toString(authenticationControls) + ", " +
+      "initialized=" + isInitialized() + "]";
+  }
+
+
+  /** Bind that has been queued on a bind connection. */
+  private static final class PendingBind
+  {
+
+    /** Bind request. */
+    private final SimpleBindRequest request;
+
+    /** Completed when the bind completes. */
+    private final CompletableFuture<AuthenticationHandlerResponse> future = new CompletableFuture<>();
+
+    /** Result of the bind. */
+    private volatile Result result;
+
+    /** Exception produced by the bind. */
+    private volatile LdapException exception;
+
+
+    /**
+     * Creates a new pending bind.
+     *
+     * @param  req  bind request
+     */
+    PendingBind(final SimpleBindRequest req)
+    {
+      request = req;
+    }
+
+
+    /**
+     * Completes the future with the result or exception of the bind.
+     */
+    void complete()
+    {
+      if (exception != null) {
+        future.completeExceptionally(exception);
+      } else if (result != null) {
+        future.complete(
+          new AuthenticationHandlerResponse(
+            result,
+            result.isSuccess() ?
+              AuthenticationResultCode.AUTHENTICATION_HANDLER_SUCCESS :
+              AuthenticationResultCode.AUTHENTICATION_HANDLER_FAILURE,
+            null));
+      } else {
+        future.completeExceptionally(new LdapException(ResultCode.LOCAL_ERROR, "Bind completed without a result"));
+      }
+    }
+  }
+
+
+  /**
+   * Connection dedicated to binds. Queued binds are sent by a work in progress loop; whichever thread increments the
+   * counter from zero sends the next bind if none is outstanding. A bind that fails synchronously completes within the
+   * loop, so the loop continues with the next bind rather than recursing. A connection with a bind that timed out is
+   * replaced before the next bind is sent.
+   */
+  private final class BindConnection
+  {
+
+    /** Connection to bind on. */
+    private volatile Connection connection;
+
+    /** Whether a replacement connection is being opened. */
+    private final AtomicBoolean replacing = new AtomicBoolean();
+
+    /** Binds that have not been sent. */
+    private final Queue<PendingBind> queue = new ConcurrentLinkedQueue<>();
+
+    /** Number of binds queued or outstanding on this connection. */
+    private final AtomicInteger pending = new AtomicInteger();
+
+    /** Work in progress counter that serializes sends. */
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /** Whether a bind is outstanding on this connection. */
+    private volatile boolean inFlight;
+
+    /** Whether this connection has been closed. */
+    private volatile boolean closed;
+
+
+    /**
+     * Creates a new bind connection.
+     *
+     * @param  conn  open connection
+     */
+    BindConnection(final Connection conn)
+    {
+      connection = conn;
+    }
+
+
+    /**
+     * Queues a bind on this connection.
+     *
+     * @param  request  bind request
+     *
+     * @return  future authentication handler response
+     */
+    CompletableFuture<AuthenticationHandlerResponse> submit(final SimpleBindRequest request)
+    {
+      final PendingBind bind = new PendingBind(request);
+      pending.incrementAndGet();
+      queue.offer(bind);
+      drain();
+      return bind.future;
+    }
+
+
+    /**
+     * Closes the connection and fails any binds that have not been sent.
+     */
+    void close()
+    {
+      closed = true;
+      drain();
+      connection.close();
+    }
+
+
+    /**
+     * Opens a new connection to replace the supplied connection on the replacement executor. Does nothing if another
+     * replacement is in progress or the supplied connection has already been replaced. No bind is sent on this
+     * connection until the replacement completes. The supplied connection is not closed.
+     *
+     * @param  stale  connection to replace
+     */
+    private void replace(final Connection stale)
+    {
+      if (closed || connection != stale || !replacing.compareAndSet(false, true)) {
+        return;
+      }
+      final ExecutorService executor = replaceExecutor;
+      try {
+        if (executor == null) {
+          throw new IllegalStateException("Authentication handler is closed");
+        }
+        executor.execute(() -> {
+          try {
+            open(stale);
+          } finally {
+            replacing.set(false);
+            drain();
+          }
+        });
+      } catch (RuntimeException e) {
+        logger.debug("Could not schedule replacement of bind connection {}", stale, e);
+        replacing.set(false);
+      }
+    }
+
+
+    /**
+     * Opens a new connection and uses it in place of the supplied connection.
+     *
+     * @param  stale  connection to replace
+     */
+    private void open(final Connection stale)
+    {
+      try {
+        final Connection conn = factory.getConnection();
+        try {
+          conn.open();
+        } catch (LdapException e) {
+          conn.close();
+          throw e;
+        }
+        connection = conn;
+        if (closed) {
+          conn.close();
+        }
+      } catch (LdapException e) {
+        logger.warn("Could not open connection to replace bind connection {}", stale, e);
+      }
+    }
+
+
+    /**
+     * Sends the next queued bind if no bind is outstanding and no other thread is currently draining.
+     */
+    private void drain()
+    {
+      if (wip.getAndIncrement() != 0) {
+        return;
+      }
+      int missed = 1;
+      do {
+        if (closed) {
+          PendingBind bind = queue.poll();
+          while (bind != null) {
+            pending.decrementAndGet();
+            bind.future.completeExceptionally(
+              new LdapException(ResultCode.LOCAL_ERROR, "Authentication handler is closed"));
+            bind = queue.poll();
+          }
+        } else if (!inFlight && !replacing.get()) {
+          final PendingBind bind = queue.poll();
+          if (bind != null) {
+            inFlight = true;
+            send(bind);
+          }
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+
+    /**
+     * Sends the supplied bind. The next bind is drained when this bind completes.
+     *
+     * @param  bind  to send
+     */
+    private void send(final PendingBind bind)
+    {
+      final Connection conn = connection;
+      final ScheduledExecutorService executor = timeoutExecutor;
+      if (!conn.isOpen()) {
+        // a previous replacement failed, try again for the next bind
+        replace(conn);
+      }
+      final AtomicReference<ScheduledFuture<?>> timeout = new AtomicReference<>();
+      final OperationHandle<?, BindResponse> handle = conn.operation(bind.request)
+        .onResult(r -> bind.result = r)
+        .onException(e -> bind.exception = e)
+        .onComplete(() -> {
+          final ScheduledFuture<?> f = timeout.getAndSet(null);
+          if (f != null) {
+            f.cancel(false);
+          }
+          inFlight = false;
+          pending.decrementAndGet();
+          bind.complete();
+          drain();
+        });
+      try {
+        handle.send();
+      } catch (RuntimeException e) {
+        bind.exception = new LdapException(ResultCode.LOCAL_ERROR, e);
+        inFlight = false;
+        pending.decrementAndGet();
+        bind.complete();
+        drain();
+        return;
+      }
+      final Duration responseTimeout = factory.getConnectionConfig().getResponseTimeout();
+      if (handle instanceof DefaultOperationHandle &&
+        executor != null &&
+        responseTimeout != null &&
+        !Duration.ZERO.equals(responseTimeout) &&
+        !bind.future.isDone())
+      {
+        try {
+          timeout.set(executor.schedule(
+            () -> {
+              if (((DefaultOperationHandle<?, ?>) handle).getReceivedTime() == null) {
+                // the bind cannot be abandoned, so the next bind must not be sent on this connection
+                replace(conn);
+                ((DefaultOperationHandle<?, ?>) handle).exception(
+                  new LdapException(
+                    ResultCode.LDAP_TIMEOUT,
+                    "No response received in " + responseTimeout.toMillis() + "ms for bind " + handle));
+                conn.close();
+              }
+            },
+            responseTimeout.toMillis(),
+            TimeUnit.MILLISECONDS));
+        } catch (RuntimeException e) {
+          logger.debug("Could not schedule response timeout for bind {}", handle, e);
+        }
+      }
+    }
+  }
+}
@@ -3,6 +3,8 @@ package org.ldaptive.auth;
 
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.AbstractSearchOperationFactory;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.DerefAliases;
@@ -242,40 +244,108 @@ public class SearchDnResolver extends AbstractSearchOperationFactory implements
     logger.trace("resolve user={}", user);
 
     String dn = null;
-    if (user != null) {
-      // create the filter template
-      final FilterTemplate filter = createFilterTemplate(user);
+    final FilterTemplate filter = createUserFilter(user);
+    if (filter != null) {
+      dn = resolveDn(user, filter, performLdapSearch(filter));
+    }
+    logger.debug("Resolved dn={} for user={}", dn, user);
+    return dn;
+  }
 
-      if (filter != null && filter.getFilter() != null) {
-        final SearchResponse result = performLdapSearch(filter);
-        if (!result.isSuccess()) {
-          throw new LdapException(
-            "Error resolving DN for user " + user + " with filter " + filter +
-              ". Unsuccessful search response: " + result);
+
+  /**
+   * Attempts to find the DN for the supplied user without blocking the calling thread. The search connection is opened
+   * on the supplied executor, the search response is processed by the thread that receives it. Cancelling the returned
+   * future abandons the search.
+   *
+   * @param  user  to find DN for
+   * @param  executor  to open the search connection on
+   *
+   * @return  future user DN
+   */
+  @Override
+  public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+  {
+    logger.trace("resolve user={}", user);
+
+    final FilterTemplate filter = createUserFilter(user);
+    if (filter == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+    final CompletableFuture<SearchResponse> search = performLdapSearchAsync(filter, executor);
+    final CompletableFuture<String> future = search
+      .thenCompose(result -> FutureUtils.supply(() -> resolveDn(user, filter, result)))
+      .whenComplete((dn, e) -> {
+        if (e == null) {
+          logger.debug("Resolved dn={} for user={}", dn, user);
         }
+      });
+    // abandon the search if the future is cancelled or completed before a response arrives
+    future.whenComplete((dn, e) -> search.cancel(false));
+    return future;
+  }
 
-        final Iterator<LdapEntry> answer = result.getEntries().iterator();
-
-        // return first match, otherwise user doesn't exist
-        if (answer != null && answer.hasNext()) {
-          dn = resolveDn(answer.next());
-          if (answer.hasNext()) {
-            logger.debug("Multiple results found for user={} using filter={}", user, filter);
-            if (!allowMultipleDns) {
-              throw new LdapException(
-                "Found " + result.entrySize() + " DNs for " + user + " : " + result.getEntryDns());
-            }
-          }
-        } else {
-          logger.info("Search for user={} failed using filter={}", user, filter);
+
+  /**
+   * Returns a filter template for the supplied user or null if no search should be performed.
+   *
+   * @param  user  to find DN for
+   *
+   * @return  filter template or null
+   */
+  private FilterTemplate createUserFilter(final User user)
+  {
+    if (user == null) {
+      logger.warn("DN resolution cannot occur, user is null");
+      return null;
+    }
+    // create the filter template
+    final FilterTemplate filter = createFilterTemplate(user);
+    if (filter == null || filter.getFilter() == null) {
+      logger.error("DN filter template not found, no search performed");
+      return null;
+    }
+    return filter;
+  }
+
+
+  /**
+   * Returns the DN of the first entry in the supplied search result. If more than one entry matches the search, the
+   * result is controlled by {@link #setAllowMultipleDns(boolean)}.
+   *
+   * @param  user  to find DN for
+   * @param  filter  used to search for the user
+   * @param  result  of the search
+   *
+   * @return  user DN or null if no entry was found
+   *
+   * @throws  LdapException  if the search was not successful or multiple entries are not allowed
+   */
+  protected String resolveDn(final User user, final FilterTemplate filter, final SearchResponse result)
+    throws LdapException
+  {
+    if (!result.isSuccess()) {
+      throw new LdapException(
+        "Error resolving DN for user " + user + " with filter " + filter +
+          ". Unsuccessful search response: " + result);
+    }
+
+    String dn = null;
+    final Iterator<LdapEntry> answer = result.getEntries().iterator();
+
+    // return first match, otherwise user doesn't exist
+    if (answer != null && answer.hasNext()) {
+      dn = resolveDn(answer.next());
+      if (answer.hasNext()) {
+        logger.debug("Multiple results found for user={} using filter={}", user, filter);
+        if (!allowMultipleDns) {
+          throw new LdapException(
+            "Found " + result.entrySize() + " DNs for " + user + " : " + result.getEntryDns());
         }
-      } else {
-        logger.error("DN filter template not found, no search performed");
       }
     } else {
-      logger.warn("DN resolution cannot occur, user is null");
+      logger.info("Search for user={} failed using filter={}", user, filter);
     }
-    logger.debug("Resolved dn={} for user={}", dn, user);
     return dn;
   }
 
@@ -391,6 +461,24 @@ public class SearchDnResolver extends AbstractSearchOperationFactory implements
   }
 
 
+  /**
+   * Executes the ldap search operation with the supplied filter without blocking the calling thread.
+   *
+   * @param  template  to execute
+   * @param  executor  to open the search connection on
+   *
+   * @return  future ldap search result
+   */
+  protected CompletableFuture<SearchResponse> performLdapSearchAsync(
+    final FilterTemplate template,
+    final Executor executor)
+  {
+    final SearchRequest request = createSearchRequest(template);
+    final SearchOperation op = createSearchOperation();
+    return FutureUtils.composeAsync(() -> op.executeAsync(request), executor);
+  }
+
+
   @Override
   public String toString()
   {
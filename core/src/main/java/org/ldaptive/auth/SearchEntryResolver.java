@@ -2,11 +2,17 @@
 package org.ldaptive.auth;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.ConnectionFactoryManager;
 import org.ldaptive.LdapException;
 import org.ldaptive.SearchOperation;
+import org.ldaptive.SearchOperationHandle;
+import org.ldaptive.SearchRequest;
 import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.ResponseTimeoutScheduler;
 
 /**
  * Looks up the LDAP entry associated with a user. If a connection factory is configured it will be used to perform the
@@ -49,6 +55,43 @@ public class SearchEntryResolver extends AbstractSearchEntryResolver implements
   }
 
 
+  @Override
+  protected CompletableFuture<SearchResponse> performLdapSearchAsync(
+    final AuthenticationCriteria criteria,
+    final AuthenticationHandlerResponse response,
+    final Executor executor)
+  {
+    if (getConnectionFactory() == null) {
+      final CompletableFuture<SearchResponse> future = new CompletableFuture<>();
+      final SearchOperationHandle handle = response.getConnection().operation(createSearchRequest(criteria));
+      handle.onComplete(() -> {
+        // the handle is complete, await returns without blocking
+        try {
+          future.complete(handle.await());
+        } catch (Exception e) {
+          future.completeExceptionally(e);
+        }
+      });
+      try {
+        handle.send();
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+        return future;
+      }
+      // the connection belongs to the authentication response, the search is abandoned rather than closing it
+      if (handle instanceof DefaultOperationHandle) {
+        ResponseTimeoutScheduler.schedule(
+          future, ((DefaultOperationHandle<?, ?>) handle).getResponseTimeout(), handle, handle::abandon);
+      }
+      return future;
+    } else {
+      final SearchOperation op = createSearchOperation();
+      final SearchRequest request = createSearchRequest(criteria);
+      return FutureUtils.composeAsync(() -> op.executeAsync(request), executor);
+    }
+  }
+
+
   @Override
   public String toString()
   {
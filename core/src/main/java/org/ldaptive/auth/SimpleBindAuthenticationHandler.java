@@ -2,12 +2,18 @@
 package org.ldaptive.auth;
 
 import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
 import org.ldaptive.Connection;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.ConnectionFactoryManager;
 import org.ldaptive.LdapException;
+import org.ldaptive.OperationHandle;
 import org.ldaptive.Result;
 import org.ldaptive.SimpleBindRequest;
+import org.ldaptive.transport.ResponseTimeoutScheduler;
 
 /**
  * Provides an LDAP authentication implementation that leverages the LDAP bind operation.
@@ -51,6 +57,71 @@ public class SimpleBindAuthenticationHandler extends AbstractAuthenticationHandl
   }
 
 
+  /**
+   * Perform an ldap authentication without blocking the calling thread. The connection is opened on the supplied
+   * executor, the bind response is processed by the thread that receives it. If no response is received within the
+   * response timeout of the connection config, the returned future completes exceptionally with {@link
+   * org.ldaptive.ResultCode#LDAP_TIMEOUT} and the connection is closed.
+   *
+   * @param  criteria  to perform the authentication with
+   * @param  executor  to open the connection on
+   *
+   * @return  future authentication handler response
+   */
+  @Override
+  public CompletableFuture<AuthenticationHandlerResponse> authenticateAsync(
+    final AuthenticationCriteria criteria,
+    final Executor executor)
+  {
+    logger.trace("authenticate criteria={}", criteria);
+    return FutureUtils.composeAsync(
+      () -> {
+        final Connection conn = getConnectionFactory().getConnection();
+        try {
+          conn.open();
+        } catch (Exception e) {
+          conn.close();
+          throw e;
+        }
+        final SimpleBindRequest request = new SimpleBindRequest(criteria.getDn(), criteria.getCredential().getString());
+        request.setControls(processRequestControls(criteria));
+        final CompletableFuture<AuthenticationHandlerResponse> future = new CompletableFuture<>();
+        final OperationHandle<BindRequest, BindResponse> handle = conn.operation(request);
+        handle.onComplete(() -> {
+          // the handle is complete, await returns without blocking
+          try {
+            final BindResponse bindResult = handle.await();
+            final AuthenticationHandlerResponse response = new AuthenticationHandlerResponse(
+              bindResult,
+              bindResult.isSuccess() ?
+                AuthenticationResultCode.AUTHENTICATION_HANDLER_SUCCESS :
+                AuthenticationResultCode.AUTHENTICATION_HANDLER_FAILURE,
+              conn);
+            logger.debug("Authenticate response={} for criteria={}", response, criteria);
+            if (!future.complete(response)) {
+              // the future was cancelled or timed out, no caller will close the connection
+              conn.close();
+            }
+          } catch (Exception e) {
+            conn.close();
+            future.completeExceptionally(e);
+          }
+        });
+        try {
+          handle.send();
+        } catch (RuntimeException e) {
+          conn.close();
+          throw e;
+        }
+        // a bind cannot be abandoned, the connection is closed instead
+        ResponseTimeoutScheduler.schedule(
+          future, getConnectionFactory().getConnectionConfig().getResponseTimeout(), handle, conn::close);
+        return future;
+      },
+      executor);
+  }
+
+
   @Override
   public String toString()
   {
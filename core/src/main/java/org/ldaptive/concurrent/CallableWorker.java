@@ -121,6 +121,17 @@ public class CallableWorker<T>
   }
 
 
+  /**
+   * Returns the underlying executor service.
+   *
+   * @return  executor service
+   */
+  public ExecutorService getExecutorService()
+  {
+    return executorService;
+  }
+
+
   /**
    * Shutdown the underlying executor service.
    */
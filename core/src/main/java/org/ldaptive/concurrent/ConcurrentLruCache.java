@@ -0,0 +1,393 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.concurrent;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Cache that holds a bounded number of entries and may be used by multiple threads. Lookups never lock, they only mark
+ * the entry as recently used. Once the cache holds more than its maximum size, the thread that inserted the entry
+ * evicts entries that have not been used since the eviction scan last passed them. This is the CLOCK approximation of
+ * least recently used eviction, entries that are read are retained and entries that are only written are evicted in
+ * insertion order. The cache may also be bounded by the total weight of its values, in which case entries are evicted
+ * the same way once either bound is exceeded. Keys and values cannot be null.
+ *
+ * @param  <K>  type of key
+ * @param  <V>  type of value
+ *
+ * @author  Middleware Services
+ */
+public final class ConcurrentLruCache<K, V>
+{
+
+  /** Cached entries. */
+  private final Map<K, Node<K, V>> map = new ConcurrentHashMap<>();
+
+  /** Entries in the order they are scanned for eviction. May contain entries that have been removed or replaced. */
+  private final Queue<Node<K, V>> order = new ConcurrentLinkedQueue<>();
+
+  /** Number of entries in {@link #order}. */
+  private final AtomicInteger orderSize = new AtomicInteger();
+
+  /** Serializes eviction scans. */
+  private final ReentrantLock evictionLock = new ReentrantLock();
+
+  /** Number of entries evicted because the cache was full. */
+  private final LongAdder evictionCount = new LongAdder();
+
+  /** Total weight of the cached entries. */
+  private final AtomicLong weight = new AtomicLong();
+
+  /** Maximum number of entries. */
+  private final int maxSize;
+
+  /** Maximum total weight of the cached entries. */
+  private final long maxWeight;
+
+  /** Computes the weight of a value. */
+  private final ToLongFunction<? super V> weigher;
+
+
+  /**
+   * Creates a new concurrent LRU cache.
+   *
+   * @param  size  maximum number of entries
+   */
+  public ConcurrentLruCache(final int size)
+  {
+    this(size, Long.MAX_VALUE, v -> 1);
+  }
+
+
+  /**
+   * Creates a new concurrent LRU cache bounded by both the number of entries and their total weight.
+   *
+   * @param  size  maximum number of entries
+   * @param  max  maximum total weight of the cached entries
+   * @param  function  that computes the weight of a value, must always return the same weight for a value
+   */
+  public ConcurrentLruCache(final int size, final long max, final ToLongFunction<? super V> function)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Size must be greater than zero");
+    }
+    if (max < 1) {
+      throw new IllegalArgumentException("Max weight must be greater than zero");
+    }
+    maxSize = size;
+    maxWeight = max;
+    weigher = function;
+  }
+
+
+  /**
+   * Returns the maximum number of entries.
+   *
+   * @return  maximum size
+   */
+  public int getMaxSize()
+  {
+    return maxSize;
+  }
+
+
+  /**
+   * Returns the maximum total weight of the cached entries.
+   *
+   * @return  maximum weight
+   */
+  public long getMaxWeight()
+  {
+    return maxWeight;
+  }
+
+
+  /**
+   * Returns the value for the supplied key and marks it as recently used.
+   *
+   * @param  key  to lookup
+   *
+   * @return  cached value or null
+   */
+  public V get(final K key)
+  {
+    final Node<K, V> node = map.get(key);
+    if (node == null) {
+      return null;
+    }
+    node.accessed = true;
+    return node.value;
+  }
+
+
+  /**
+   * Caches the supplied value, replacing any existing value for the key.
+   *
+   * @param  key  to cache
+   * @param  value  to cache
+   */
+  public void put(final K key, final V value)
+  {
+    final Node<K, V> node = new Node<>(key, value, weigher.applyAsLong(value));
+    weight.addAndGet(node.weight);
+    removed(map.put(key, node));
+    added(node);
+  }
+
+
+  /**
+   * Caches the supplied value if no value is cached for the key.
+   *
+   * @param  key  to cache
+   * @param  value  to cache
+   *
+   * @return  existing value, which is marked as recently used, or null if the supplied value was cached
+   */
+  public V putIfAbsent(final K key, final V value)
+  {
+    final Node<K, V> node = new Node<>(key, value, weigher.applyAsLong(value));
+    final Node<K, V> existing = map.putIfAbsent(key, node);
+    if (existing != null) {
+      existing.accessed = true;
+      return existing.value;
+    }
+    weight.addAndGet(node.weight);
+    added(node);
+    return null;
+  }
+
+
+  /**
+   * Removes the value for the supplied key.
+   *
+   * @param  key  to remove
+   *
+   * @return  removed value or null
+   */
+  public V remove(final K key)
+  {
+    final Node<K, V> node = map.remove(key);
+    removed(node);
+    return node != null ? node.value : null;
+  }
+
+
+  /**
+   * Removes the value for the supplied key if it is the supplied value. Values are compared by identity.
+   *
+   * @param  key  to remove
+   * @param  value  to remove
+   *
+   * @return  whether the value was removed
+   */
+  public boolean remove(final K key, final V value)
+  {
+    final Node<K, V> node = map.get(key);
+    return node != null && node.value == value && removeNode(node);
+  }
+
+
+  /**
+   * Removes every value that matches the supplied predicate.
+   *
+   * @param  predicate  that selects the values to remove
+   */
+  public void removeIf(final Predicate<? super V> predicate)
+  {
+    for (Node<K, V> node : map.values()) {
+      if (predicate.test(node.value)) {
+        removeNode(node);
+      }
+    }
+  }
+
+
+  /**
+   * Returns the number of cached entries.
+   *
+   * @return  number of cached entries
+   */
+  public int size()
+  {
+    return map.size();
+  }
+
+
+  /**
+   * Returns the total weight of the cached entries.
+   *
+   * @return  weight
+   */
+  public long getWeight()
+  {
+    return weight.get();
+  }
+
+
+  /**
+   * Returns the number of entries evicted because the cache was full.
+   *
+   * @return  eviction count
+   */
+  public long getEvictionCount()
+  {
+    return evictionCount.sum();
+  }
+
+
+  /** Removes all cached entries. Removed entries are discarded from the eviction order by later eviction scans. */
+  public void clear()
+  {
+    removeIf(v -> true);
+  }
+
+
+  /**
+   * Removes the supplied entry if it is still cached.
+   *
+   * @param  node  to remove
+   *
+   * @return  whether the entry was removed
+   */
+  private boolean removeNode(final Node<K, V> node)
+  {
+    final boolean removed = map.remove(node.key, node);
+    if (removed) {
+      removed(node);
+    }
+    return removed;
+  }
+
+
+  /**
+   * Records that the supplied entry is no longer cached.
+   *
+   * @param  node  that was removed or replaced, may be null
+   */
+  private void removed(final Node<K, V> node)
+  {
+    if (node != null) {
+      weight.addAndGet(-node.weight);
+    }
+  }
+
+
+  /**
+   * Returns whether the cache holds more entries or more weight than it may.
+   *
+   * @return  whether the cache is over either bound
+   */
+  private boolean isFull()
+  {
+    return map.size() > maxSize || weight.get() > maxWeight;
+  }
+
+
+  /**
+   * Records the supplied entry for eviction and evicts entries if the cache is over its maximum size. Entries that have
+   * been removed or replaced are also discarded from the eviction order once they outnumber the cached entries.
+   *
+   * @param  node  that was inserted
+   */
+  private void added(final Node<K, V> node)
+  {
+    order.offer(node);
+    orderSize.incrementAndGet();
+    if (isFull() || orderSize.get() > maxSize * 2) {
+      evict();
+    }
+  }
+
+
+  /**
+   * Scans the eviction order until the cache is within its bounds. Entries that have been used since the scan last
+   * passed them are given another pass.
+   */
+  private void evict()
+  {
+    evictionLock.lock();
+    try {
+      while (isFull() || orderSize.get() > maxSize * 2) {
+        final Node<K, V> node = order.poll();
+        if (node == null) {
+          break;
+        }
+        orderSize.decrementAndGet();
+        if (map.get(node.key) == node) {
+          final boolean full = isFull();
+          if (full && !node.accessed) {
+            if (removeNode(node)) {
+              evictionCount.increment();
+            }
+          } else {
+            if (full) {
+              node.accessed = false;
+            }
+            order.offer(node);
+            orderSize.incrementAndGet();
+          }
+        }
+      }
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return getClass().getName() + "@" + hashCode() + "::" +
+      "maxSize=" + maxSize + ", " +
+      "size=" + map.size() + ", " +
+      "maxWeight=" + maxWeight + ", " +
+      "weight=" + weight.get() + ", " +
+      "evictionCount=" + getEvictionCount();
+  }
+
+
+  /**
+   * Cached entry.
+   *
+   * @param  <K>  type of key
+   * @param  <V>  type of value
+   */
+  private static final class Node<K, V>
+  {
+
+    /** Key of this entry. */
+    private final K key;
+
+    /** Value of this entry. */
+    private final V value;
+
+    /** Weight of this entry. */
+    private final long weight;
+
+    /** Whether this entry has been used since the eviction scan last passed it. */
+    private volatile boolean accessed;
+
+
+    /**
+     * Creates a new node.
+     *
+     * @param  k  key
+     * @param  v  value
+     * @param  w  weight
+     */
+    Node(final K k, final V v, final long w)
+    {
+      key = k;
+      value = v;
+      weight = w;
+    }
+  }
+}
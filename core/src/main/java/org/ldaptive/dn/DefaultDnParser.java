@@ -88,6 +88,31 @@ public final class DefaultDnParser implements DnParser
   }
 
 
+  /**
+   * Returns the index of the comma that separates the first RDN of the supplied DN from the RDNs of its parent. The DN
+   * is read with the same rules as {@link #parse(String)}, but none of the names or values are decoded.
+   *
+   * @param  dn  to read
+   *
+   * @return  index of the separator or -1 if the DN does not have a parent
+   */
+  static int indexOfParent(final String dn)
+  {
+    int pos = 0;
+    while (pos < dn.length()) {
+      pos = readToChar(dn, new char[] {'='}, pos)[0] + 1;
+      final int[] endAttrValuePos = readToChar(dn, new char[] {'+', ','}, pos);
+      if (endAttrValuePos[1] == ',') {
+        return endAttrValuePos[0];
+      } else if (endAttrValuePos[1] == -1) {
+        break;
+      }
+      pos = endAttrValuePos[0] + 1;
+    }
+    return -1;
+  }
+
+
   /**
    * Decodes the supplied hexadecimal value.
    *
@@ -0,0 +1,101 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.dn;
+
+import org.ldaptive.concurrent.ConcurrentLruCache;
+
+/**
+ * Normalizes DNs with {@link DefaultRDnNormalizer} and caches the normalized form of each parent DN. Search results
+ * typically contain many entries under the same few parents, so each parent is parsed once and only the first RDN of
+ * most DNs needs to be parsed. Once the cache holds the maximum number of parents, parents that have not been used
+ * recently are evicted. Instances are thread safe.
+ *
+ * @author  Middleware Services
+ */
+public final class ParentDnCache
+{
+
+  /** Normalized parent DNs keyed by parent DN. */
+  private final ConcurrentLruCache<String, String> parents;
+
+
+  /**
+   * Creates a new parent DN cache.
+   *
+   * @param  size  maximum number of parent DNs to cache
+   */
+  public ParentDnCache(final int size)
+  {
+    parents = new ConcurrentLruCache<>(size);
+  }
+
+
+  /**
+   * Returns the normalized form of the supplied DN. The result is equal to {@code new Dn(dn).format()}.
+   *
+   * @param  dn  to normalize
+   *
+   * @return  normalized DN
+   *
+   * @throws  IllegalArgumentException  if the DN cannot be parsed
+   */
+  public String normalize(final String dn)
+  {
+    final int index = DefaultDnParser.indexOfParent(dn);
+    if (index > 0) {
+      final String rdn = new Dn(dn.substring(0, index)).format();
+      final String parent = normalizeParent(dn.substring(index + 1));
+      if (!rdn.isEmpty() && !parent.isEmpty()) {
+        return rdn.concat(",").concat(parent);
+      }
+    }
+    return new Dn(dn).format();
+  }
+
+
+  /**
+   * Returns the normalized form of the supplied parent DN from the cache, normalizing and caching it if necessary.
+   *
+   * @param  dn  parent DN to normalize
+   *
+   * @return  normalized parent DN
+   */
+  private String normalizeParent(final String dn)
+  {
+    String normalized = parents.get(dn);
+    if (normalized == null) {
+      normalized = new Dn(dn).format();
+      final String existing = parents.putIfAbsent(dn, normalized);
+      if (existing != null) {
+        normalized = existing;
+      }
+    }
+    return normalized;
+  }
+
+
+  /**
+   * Returns the number of cached parent DNs.
+   *
+   * @return  cache size
+   */
+  public int size()
+  {
+    return parents.size();
+  }
+
+
+  /** Removes all cached parent DNs. */
+  public void clear()
+  {
+    parents.clear();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "parents=" + parents + "]";
+  }
+}
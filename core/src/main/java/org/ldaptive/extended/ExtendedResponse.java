@@ -5,9 +5,9 @@ import java.util.Arrays;
 import org.ldaptive.AbstractResult;
 import org.ldaptive.LdapUtils;
 import org.ldaptive.asn1.AbstractParseHandler;
+import org.ldaptive.asn1.ContextDERTag;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
 import org.ldaptive.asn1.OctetStringType;
 
 /**
@@ -31,23 +31,17 @@ public class ExtendedResponse extends AbstractResult
   /** hash code seed. */
   private static final int HASH_CODE_SEED = 10259;
 
-  /** DER path to result code. */
-  private static final DERPath RESULT_CODE_PATH = new DERPath("/SEQ/APP(24)/ENUM[0]");
+  /** Tag number of the response name. */
+  private static final int NAME_TAG_NO = 10;
 
-  /** DER path to matched DN. */
-  private static final DERPath MATCHED_DN_PATH = new DERPath("/SEQ/APP(24)/OCTSTR[1]");
+  /** Tag number of the response value. */
+  private static final int VALUE_TAG_NO = 11;
 
-  /** DER path to diagnostic message. */
-  private static final DERPath DIAGNOSTIC_MESSAGE_PATH = new DERPath("/SEQ/APP(24)/OCTSTR[2]");
+  /** Tag byte for the response name. */
+  private static final int NAME_TAG = new ContextDERTag(NAME_TAG_NO, false).getTagByte();
 
-  /** DER path to referral. */
-  private static final DERPath REFERRAL_PATH = new DERPath("/SEQ/APP(24)/CTX(3)/OCTSTR[0]");
-
-  /** DER path to name. */
-  private static final DERPath NAME_PATH = new DERPath("/SEQ/APP(24)/CTX(10)");
-
-  /** DER path to value. */
-  private static final DERPath VALUE_PATH = new DERPath("/SEQ/APP(24)/CTX(11)");
+  /** Tag byte for the response value. */
+  private static final int VALUE_TAG = new ContextDERTag(VALUE_TAG_NO, false).getTagByte();
 
   /** Response name. */
   private String responseName;
@@ -69,16 +63,7 @@ public class ExtendedResponse extends AbstractResult
    */
   public ExtendedResponse(final DERBuffer buffer)
   {
-    final DERParser parser = new DERParser();
-    parser.registerHandler(MessageIDHandler.PATH, new MessageIDHandler(this));
-    parser.registerHandler(RESULT_CODE_PATH, new ResultCodeHandler(this));
-    parser.registerHandler(MATCHED_DN_PATH, new MatchedDNHandler(this));
-    parser.registerHandler(DIAGNOSTIC_MESSAGE_PATH, new DiagnosticMessageHandler(this));
-    parser.registerHandler(REFERRAL_PATH, new ReferralHandler(this));
-    parser.registerHandler(NAME_PATH, new ResponseNameHandler(this));
-    parser.registerHandler(VALUE_PATH, new ResponseValueHandler(this));
-    parser.registerHandler(ControlsHandler.PATH, new ControlsHandler(this));
-    parser.parse(buffer);
+    decodeMessage(buffer, this::decodeResult);
   }
 
 
@@ -106,6 +91,17 @@ public class ExtendedResponse extends AbstractResult
   }
 
 
+  @Override
+  protected void decodeResponseElement(final int tag, final DERBuffer buffer)
+  {
+    if (tag == NAME_TAG) {
+      setResponseName(OctetStringType.decode(buffer));
+    } else if (tag == VALUE_TAG) {
+      setResponseValue(buffer.getRemainingBytes());
+    }
+  }
+
+
   @Override
   public boolean equals(final Object o)
   {
@@ -147,7 +143,12 @@ public class ExtendedResponse extends AbstractResult
   }
 
 
-  /** Parse handler implementation for the response name. */
+  /**
+   * Parse handler implementation for the response name.
+   *
+   * @deprecated  extended responses are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class ResponseNameHandler extends AbstractParseHandler<ExtendedResponse>
   {
 
@@ -171,7 +172,12 @@ public class ExtendedResponse extends AbstractResult
   }
 
 
-  /** Parse handler implementation for the response value. */
+  /**
+   * Parse handler implementation for the response value.
+   *
+   * @deprecated  extended responses are decoded without a {@link DERParser}, this handler is no longer used
+   */
+  @Deprecated
   protected static class ResponseValueHandler extends AbstractParseHandler<ExtendedResponse>
   {
 
@@ -0,0 +1,493 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.filter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.ldaptive.LdapUtils;
+import org.ldaptive.concurrent.ConcurrentLruCache;
+
+/**
+ * Filter template whose structure has been parsed once so that filters can be produced for any parameters without
+ * formatting and parsing a filter string. Parameters are written in the template as <code>{name}</code> and may only
+ * appear in assertion values. Since parameters are escaped per RFC 4515 they can never change the structure of the
+ * filter, so producing a filter only requires substituting the raw bytes of each parameter into the assertion values.
+ * Templates that cannot be compiled, such as those with a parameter in an attribute description, report {@link
+ * #isCompiled()} as false and {@link #apply(Map)} returns null.
+ *
+ * <p>{@link #compile(String)} caches compiled templates in a least recently used cache. The cache size can be set
+ * using the system property {@link #CACHE_SIZE_PROPERTY}, a size of zero disables caching.</p>
+ *
+ * @author  Middleware Services
+ */
+public final class CompiledFilterTemplate
+{
+
+  /** Compiled filter template cache size system property. */
+  public static final String CACHE_SIZE_PROPERTY = "org.ldaptive.filter.templateCacheSize";
+
+  /** Maximum number of cached templates. */
+  private static final int CACHE_SIZE = Integer.parseInt(System.getProperty(CACHE_SIZE_PROPERTY, "256"));
+
+  /** Maximum number of distinct parameters in a template, limited by the one byte marker index. */
+  private static final int MAX_PARAMETERS = 256;
+
+  /** Escaped NUL that precedes the escaped index of a parameter in a marked filter. */
+  private static final String MARKER = "\\00";
+
+  /** Compiled templates keyed by filter template, null if caching is disabled. */
+  private static final ConcurrentLruCache<String, CompiledFilterTemplate> CACHE =
+    CACHE_SIZE > 0 ? new ConcurrentLruCache<>(CACHE_SIZE) : null;
+
+  /** Filter template. */
+  private final String template;
+
+  /** Names of the parameters in the order they first appear in the template. */
+  private final String[] parameterNames;
+
+  /** Compiled filter, null if the template could not be compiled. */
+  private final Node root;
+
+  /** Number of parameter markers found while compiling. */
+  private int markerCount;
+
+
+  /**
+   * Creates a new compiled filter template.
+   *
+   * @param  filter  template to compile
+   */
+  public CompiledFilterTemplate(final String filter)
+  {
+    template = filter;
+    final List<String> names = new ArrayList<>();
+    final StringBuilder marked = new StringBuilder(filter.length());
+    int occurrences = 0;
+    int i = 0;
+    while (i < filter.length()) {
+      final int start = filter.indexOf('{', i);
+      final int end = start >= 0 ? filter.indexOf('}', start) : -1;
+      if (end < 0) {
+        marked.append(filter, i, filter.length());
+        break;
+      }
+      final String name = filter.substring(start + 1, end);
+      if (name.isEmpty() || name.indexOf('{') >= 0) {
+        marked.append(filter, i, start + 1);
+        i = start + 1;
+        continue;
+      }
+      int index = names.indexOf(name);
+      if (index < 0) {
+        index = names.size();
+        names.add(name);
+      }
+      marked.append(filter, i, start).append(MARKER).append('\\').append(LdapUtils.hexEncode((byte) index));
+      occurrences++;
+      i = end + 1;
+    }
+    parameterNames = names.toArray(new String[0]);
+    root = names.size() <= MAX_PARAMETERS && !filter.contains(MARKER) ?
+      compileFilter(marked.toString(), occurrences) : null;
+  }
+
+
+  /**
+   * Returns the compiled template for the supplied filter from the cache, compiling and caching it if necessary.
+   *
+   * @param  filter  template to compile
+   *
+   * @return  compiled filter template
+   */
+  public static CompiledFilterTemplate compile(final String filter)
+  {
+    CompiledFilterTemplate compiled = CACHE != null ? CACHE.get(filter) : null;
+    if (compiled == null) {
+      compiled = new CompiledFilterTemplate(filter);
+      if (CACHE != null) {
+        CACHE.put(filter, compiled);
+      }
+    }
+    return compiled;
+  }
+
+
+  /**
+   * Returns the filter template.
+   *
+   * @return  filter template
+   */
+  public String getTemplate()
+  {
+    return template;
+  }
+
+
+  /**
+   * Returns the names of the parameters in this template.
+   *
+   * @return  parameter names
+   */
+  public String[] getParameterNames()
+  {
+    return parameterNames.clone();
+  }
+
+
+  /**
+   * Returns whether this template could be compiled.
+   *
+   * @return  whether {@link #apply(Map)} can produce filters
+   */
+  public boolean isCompiled()
+  {
+    return root != null;
+  }
+
+
+  /**
+   * Returns a new filter with the supplied parameters substituted into this template. The filter is equal to parsing
+   * the formatted template. Strings and other objects are substituted as UTF-8 and byte arrays as is.
+   *
+   * @param  parameters  filter parameters keyed by name
+   *
+   * @return  filter or null if this template could not be compiled or a parameter is missing or empty
+   */
+  public Filter apply(final Map<String, ?> parameters)
+  {
+    Filter filter = null;
+    if (root != null) {
+      final byte[][] values = encodeParameters(parameters);
+      if (values != null) {
+        filter = root.apply(values);
+      }
+    }
+    return filter;
+  }
+
+
+  /**
+   * Returns the bytes of each parameter of this template.
+   *
+   * @param  parameters  filter parameters keyed by name
+   *
+   * @return  parameter values indexed by parameter or null if a parameter is missing or empty
+   */
+  private byte[][] encodeParameters(final Map<String, ?> parameters)
+  {
+    final byte[][] values = new byte[parameterNames.length][];
+    for (int i = 0; i < parameterNames.length; i++) {
+      final Object value = parameters.get(parameterNames[i]);
+      if (value == null) {
+        return null;
+      } else if (value instanceof byte[]) {
+        values[i] = (byte[]) value;
+      } else {
+        values[i] = LdapUtils.utf8Encode(value.toString(), false);
+      }
+      // an empty value can change the filter type, e.g. (cn={0}*) is a presence filter
+      if (values[i].length == 0) {
+        return null;
+      }
+    }
+    return values;
+  }
+
+
+  /**
+   * Parses the supplied marked filter and compiles each component.
+   *
+   * @param  filter  with parameters replaced by markers
+   * @param  occurrences  number of markers in the filter
+   *
+   * @return  compiled filter or null if the filter could not be compiled
+   */
+  private Node compileFilter(final String filter, final int occurrences)
+  {
+    try {
+      final Node node = compileNode(FilterParser.parse(filter));
+      // a marker outside of an assertion value cannot be substituted
+      return markerCount == occurrences ? node : null;
+    } catch (FilterParseException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+
+  /**
+   * Compiles the supplied filter component.
+   *
+   * @param  filter  to compile
+   *
+   * @return  compiled filter
+   *
+   * @throws  IllegalArgumentException  if the filter type is not supported
+   */
+  private Node compileNode(final Filter filter)
+  {
+    final Node node;
+    if (filter instanceof AndFilter) {
+      final Node[] nodes = compileNodes(((AndFilter) filter).getComponents());
+      node = values -> new AndFilter(applyNodes(nodes, values));
+    } else if (filter instanceof OrFilter) {
+      final Node[] nodes = compileNodes(((OrFilter) filter).getComponents());
+      node = values -> new OrFilter(applyNodes(nodes, values));
+    } else if (filter instanceof NotFilter) {
+      final Node component = compileNode(((NotFilter) filter).getComponent());
+      node = values -> new NotFilter(component.apply(values));
+    } else if (filter instanceof PresenceFilter) {
+      node = values -> filter;
+    } else if (filter instanceof AbstractAttributeValueAssertionFilter) {
+      node = compileAssertion((AbstractAttributeValueAssertionFilter) filter);
+    } else if (filter instanceof SubstringFilter) {
+      node = compileSubstring((SubstringFilter) filter);
+    } else if (filter instanceof ExtensibleFilter) {
+      node = compileExtensible((ExtensibleFilter) filter);
+    } else {
+      throw new IllegalArgumentException("Unsupported filter type " + filter);
+    }
+    return node;
+  }
+
+
+  /**
+   * Compiles the supplied attribute value assertion filter.
+   *
+   * @param  filter  to compile
+   *
+   * @return  compiled filter
+   *
+   * @throws  IllegalArgumentException  if the filter type is not supported
+   */
+  private Node compileAssertion(final AbstractAttributeValueAssertionFilter filter)
+  {
+    final String name = filter.getAttributeDesc();
+    final Value value = compileValue(filter.getAssertionValue());
+    final Node node;
+    if (value == null) {
+      node = values -> filter;
+    } else if (filter instanceof EqualityFilter) {
+      node = values -> new EqualityFilter(name, value.apply(values));
+    } else if (filter instanceof GreaterOrEqualFilter) {
+      node = values -> new GreaterOrEqualFilter(name, value.apply(values));
+    } else if (filter instanceof LessOrEqualFilter) {
+      node = values -> new LessOrEqualFilter(name, value.apply(values));
+    } else if (filter instanceof ApproximateFilter) {
+      node = values -> new ApproximateFilter(name, value.apply(values));
+    } else {
+      throw new IllegalArgumentException("Unsupported filter type " + filter);
+    }
+    return node;
+  }
+
+
+  /**
+   * Compiles the supplied substring filter.
+   *
+   * @param  filter  to compile
+   *
+   * @return  compiled filter
+   */
+  private Node compileSubstring(final SubstringFilter filter)
+  {
+    final Value initial = compileValue(filter.getSubInitial());
+    final Value fin = compileValue(filter.getSubFinal());
+    final byte[][] any = filter.getSubAny();
+    final Value[] anyValues = any != null ? new Value[any.length] : null;
+    boolean literal = initial == null && fin == null;
+    for (int i = 0; anyValues != null && i < anyValues.length; i++) {
+      anyValues[i] = compileValue(any[i]);
+      literal &= anyValues[i] == null;
+    }
+    if (literal) {
+      return values -> filter;
+    }
+    return values -> {
+      byte[][] anyBytes = null;
+      if (anyValues != null) {
+        anyBytes = new byte[anyValues.length][];
+        for (int i = 0; i < anyValues.length; i++) {
+          anyBytes[i] = anyValues[i] != null ? anyValues[i].apply(values) : any[i];
+        }
+      }
+      return new SubstringFilter(
+        filter.getAttributeDesc(),
+        initial != null ? initial.apply(values) : filter.getSubInitial(),
+        fin != null ? fin.apply(values) : filter.getSubFinal(),
+        anyBytes);
+    };
+  }
+
+
+  /**
+   * Compiles the supplied extensible filter.
+   *
+   * @param  filter  to compile
+   *
+   * @return  compiled filter
+   */
+  private Node compileExtensible(final ExtensibleFilter filter)
+  {
+    final Value value = compileValue(filter.getAssertionValue());
+    if (value == null) {
+      return values -> filter;
+    }
+    return values -> new ExtensibleFilter(
+      filter.getMatchingRuleID(),
+      filter.getAttributeDesc(),
+      value.apply(values),
+      filter.getDnAttributes());
+  }
+
+
+  /**
+   * Compiles the supplied filter components.
+   *
+   * @param  filters  to compile
+   *
+   * @return  compiled filters
+   */
+  private Node[] compileNodes(final List<Filter> filters)
+  {
+    final Node[] nodes = new Node[filters.size()];
+    for (int i = 0; i < nodes.length; i++) {
+      nodes[i] = compileNode(filters.get(i));
+    }
+    return nodes;
+  }
+
+
+  /**
+   * Applies the supplied parameter values to each node.
+   *
+   * @param  nodes  to apply
+   * @param  values  parameter values
+   *
+   * @return  filters
+   */
+  private static Filter[] applyNodes(final Node[] nodes, final byte[][] values)
+  {
+    final Filter[] filters = new Filter[nodes.length];
+    for (int i = 0; i < nodes.length; i++) {
+      filters[i] = nodes[i].apply(values);
+    }
+    return filters;
+  }
+
+
+  /**
+   * Splits the supplied assertion value at each parameter marker. A marker is a NUL byte followed by the parameter
+   * index.
+   *
+   * @param  bytes  assertion value
+   *
+   * @return  compiled value or null if the value does not contain any parameters
+   *
+   * @throws  IllegalArgumentException  if the value contains an invalid marker
+   */
+  private Value compileValue(final byte[] bytes)
+  {
+    if (bytes == null) {
+      return null;
+    }
+    final List<byte[]> literals = new ArrayList<>();
+    final List<Integer> indexes = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      if (bytes[i] == 0) {
+        if (i + 1 == bytes.length || Byte.toUnsignedInt(bytes[i + 1]) >= parameterNames.length) {
+          throw new IllegalArgumentException("Invalid parameter marker");
+        }
+        literals.add(Arrays.copyOfRange(bytes, start, i));
+        indexes.add(Byte.toUnsignedInt(bytes[++i]));
+        start = i + 1;
+      }
+    }
+    if (indexes.isEmpty()) {
+      return null;
+    }
+    literals.add(Arrays.copyOfRange(bytes, start, bytes.length));
+    markerCount += indexes.size();
+    return new Value(literals.toArray(new byte[0][]), indexes.stream().mapToInt(Integer::intValue).toArray());
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "template=" + template + ", " +
+      "parameterNames=" + Arrays.toString(parameterNames) + ", " +
+      "compiled=" + isCompiled() + "]";
+  }
+
+
+  /** Produces a filter component from parameter values. */
+  @FunctionalInterface
+  private interface Node
+  {
+
+
+    /**
+     * Returns the filter component for the supplied parameter values.
+     *
+     * @param  values  parameter values indexed by parameter
+     *
+     * @return  filter
+     */
+    Filter apply(byte[][] values);
+  }
+
+
+  /** Assertion value composed of literal bytes and parameters. */
+  private static final class Value
+  {
+
+    /** Literal bytes before, between and after each parameter. */
+    private final byte[][] literals;
+
+    /** Index of each parameter. */
+    private final int[] indexes;
+
+
+    /**
+     * Creates a new value.
+     *
+     * @param  bytes  literal bytes, one more than the number of parameters
+     * @param  params  parameter indexes
+     */
+    Value(final byte[][] bytes, final int[] params)
+    {
+      literals = bytes;
+      indexes = params;
+    }
+
+
+    /**
+     * Returns the assertion value for the supplied parameter values.
+     *
+     * @param  values  parameter values indexed by parameter
+     *
+     * @return  assertion value
+     */
+    byte[] apply(final byte[][] values)
+    {
+      int length = literals[indexes.length].length;
+      for (int i = 0; i < indexes.length; i++) {
+        length += literals[i].length + values[indexes[i]].length;
+      }
+      final byte[] bytes = new byte[length];
+      int pos = 0;
+      for (int i = 0; i < indexes.length; i++) {
+        System.arraycopy(literals[i], 0, bytes, pos, literals[i].length);
+        pos += literals[i].length;
+        System.arraycopy(values[indexes[i]], 0, bytes, pos, values[indexes[i]].length);
+        pos += values[indexes[i]].length;
+      }
+      System.arraycopy(literals[indexes.length], 0, bytes, pos, literals[indexes.length].length);
+      return bytes;
+    }
+  }
+}
@@ -59,6 +59,17 @@ public class NotFilter implements FilterSet
   }
 
 
+  /**
+   * Returns the component of this filter.
+   *
+   * @return  filter component or null if it has not been set
+   */
+  public Filter getComponent()
+  {
+    return filterComponent;
+  }
+
+
   @Override
   public DEREncoder getEncoder()
   {
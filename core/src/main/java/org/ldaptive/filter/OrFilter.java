@@ -3,6 +3,7 @@ package org.ldaptive.filter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import org.ldaptive.LdapUtils;
 import org.ldaptive.asn1.ConstructedDEREncoder;
@@ -60,6 +61,17 @@ public class OrFilter implements FilterSet
   }
 
 
+  /**
+   * Returns the components of this filter.
+   *
+   * @return  unmodifiable list of filter components
+   */
+  public List<Filter> getComponents()
+  {
+    return Collections.unmodifiableList(filterComponents);
+  }
+
+
   @Override
   public DEREncoder getEncoder()
   {
@@ -0,0 +1,198 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.handler;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.MessageFunctional;
+import org.ldaptive.transport.TransportConnection;
+
+/**
+ * Entry handler that hands entries to a consumer through a queue. Entries are never returned by this handler, so they
+ * are not retained in the search response. This handler never blocks the thread that processes inbound messages. When
+ * the queue reaches its capacity reads are suspended on the connection, see {@link TransportConnection#suspendReads()},
+ * and resumed once the consumer has drained the queue to half its capacity. Messages that have already been read when
+ * reads are suspended are still queued, so the capacity may be exceeded by a small number of entries. Reads are
+ * suspended for the whole connection, responses to other operations on a shared connection are delayed until the
+ * consumer drains the queue.
+ *
+ * @author  Middleware Services
+ */
+public class SearchEntryQueue extends MessageFunctional.Function<SearchRequest, SearchResponse, LdapEntry, LdapEntry>
+  implements LdapEntryHandler
+{
+
+  /** Default number of entries to buffer. */
+  public static final int DEFAULT_CAPACITY = 1000;
+
+  /** Marker placed on the queue when no more entries will be received. */
+  private static final LdapEntry END = new LdapEntry();
+
+  /** Buffered entries. */
+  private final BlockingQueue<LdapEntry> queue = new LinkedBlockingQueue<>();
+
+  /** Number of entries at which reads are suspended. */
+  private final int capacity;
+
+  /** Connection the search executes on. */
+  private TransportConnection transport;
+
+  /** Whether this queue has suspended reads on the connection. Guarded by this object's monitor when modified. */
+  private volatile boolean readsSuspended;
+
+  /** Whether the consumer has closed this queue. */
+  private volatile boolean closed;
+
+  /** Whether the end of the entries has been taken by the consumer. */
+  private boolean done;
+
+
+  /**
+   * Creates a new search entry queue with {@link #DEFAULT_CAPACITY}.
+   */
+  public SearchEntryQueue()
+  {
+    this(DEFAULT_CAPACITY);
+  }
+
+
+  /**
+   * Creates a new search entry queue.
+   *
+   * @param  size  number of entries to buffer before reads are suspended
+   */
+  public SearchEntryQueue(final int size)
+  {
+    if (size < 1) {
+      throw new IllegalArgumentException("Capacity must be greater than zero");
+    }
+    capacity = size;
+  }
+
+
+  @Override
+  public void setConnection(final TransportConnection conn)
+  {
+    super.setConnection(conn);
+    transport = conn;
+  }
+
+
+  /**
+   * Places the supplied entry on the queue. Suspends reads on the connection if the queue has reached its capacity.
+   *
+   * @param  entry  to queue
+   *
+   * @return  null, entries are never retained in the search response
+   */
+  @Override
+  public LdapEntry apply(final LdapEntry entry)
+  {
+    if (entry != null && !closed) {
+      queue.offer(entry);
+      if (!readsSuspended && queue.size() >= capacity) {
+        suspendReads();
+      }
+    }
+    return null;
+  }
+
+
+  /**
+   * Indicates that no more entries will be received. Should be invoked when the search operation completes.
+   */
+  public void complete()
+  {
+    queue.offer(END);
+    resumeReads();
+  }
+
+
+  /**
+   * Returns the next entry, blocking until one is available. Resumes reads on the connection once the queue has been
+   * drained to half its capacity.
+   *
+   * @return  next entry or null if all entries have been taken or this queue is closed
+   *
+   * @throws  InterruptedException  if the calling thread is interrupted while waiting
+   */
+  public LdapEntry take()
+    throws InterruptedException
+  {
+    if (done || closed) {
+      return null;
+    }
+    final LdapEntry entry = queue.take();
+    if (readsSuspended && queue.size() <= capacity / 2) {
+      resumeReads();
+    }
+    if (entry == END) {
+      done = true;
+      return null;
+    }
+    return entry;
+  }
+
+
+  /**
+   * Returns whether all entries have been taken.
+   *
+   * @return  whether the end of the entries has been reached
+   */
+  public boolean isDone()
+  {
+    return done;
+  }
+
+
+  /**
+   * Closes this queue. Any buffered entries are discarded, entries received after this method is invoked are dropped
+   * and reads are resumed on the connection.
+   */
+  public void close()
+  {
+    closed = true;
+    queue.clear();
+    resumeReads();
+  }
+
+
+  /**
+   * Suspends reads on the connection if they have not already been suspended by this queue and the queue is at
+   * capacity. The decision and the call to the connection happen under one lock so that they cannot be reordered with
+   * a concurrent {@link #resumeReads()}.
+   */
+  private synchronized void suspendReads()
+  {
+    if (!readsSuspended && !closed && transport != null && queue.size() >= capacity) {
+      readsSuspended = true;
+      transport.suspendReads();
+    }
+  }
+
+
+  /**
+   * Resumes reads on the connection if this queue suspended them.
+   */
+  private synchronized void resumeReads()
+  {
+    if (readsSuspended) {
+      readsSuspended = false;
+      transport.resumeReads();
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return getClass().getName() + "@" + hashCode() + "::" +
+      "size=" + queue.size() + ", " +
+      "capacity=" + capacity + ", " +
+      "readsSuspended=" + readsSuspended + ", " +
+      "closed=" + closed + ", " +
+      "done=" + done;
+  }
+}
@@ -0,0 +1,58 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a completed bind operation. Binds are frequent in authentication workloads, so this event
+ * is disabled unless it is enabled in the recording settings.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.Bind")
+@Label("LDAP Bind")
+@Category({"LDAP", "Operation"})
+@Description("Bind request and its response")
+@Enabled(false)
+public class BindEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Simple name of the bind request class. */
+  @Label("Bind Type")
+  public String bindType;
+
+  /** Result code of the bind. */
+  @Label("Result Code")
+  public String resultCode;
+
+  /** Time between sending the request and completing the bind. */
+  @Label("Response Time")
+  @Timespan
+  public long responseTime;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a bind event if it is enabled.
+   *
+   * @param  type  simple name of the bind request class
+   * @param  code  result code or null
+   * @param  nanos  response time in nanoseconds
+   */
+  public static void emit(final String type, final String code, final long nanos)
+  {
+    final BindEvent event = new BindEvent();
+    if (event.isEnabled()) {
+      event.bindType = type;
+      event.resultCode = code;
+      event.responseTime = nanos;
+      event.commit();
+    }
+  }
+}
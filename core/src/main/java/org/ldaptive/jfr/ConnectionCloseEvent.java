@@ -0,0 +1,57 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.ldaptive.LdapURL;
+
+/**
+ * Flight recorder event for closing a connection. The close time is the time spent abandoning outstanding requests
+ * and initiating the close.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.ConnectionClose")
+@Label("LDAP Connection Close")
+@Category({"LDAP", "Connection"})
+@Description("Connection closed by the client")
+public class ConnectionCloseEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** LDAP URL of the connection. */
+  @Label("URL")
+  public String url;
+
+  /** Time spent abandoning outstanding requests and initiating the close. */
+  @Label("Close Time")
+  @Timespan
+  public long closeTime;
+
+  /** Number of outstanding requests that were abandoned. */
+  @Label("Abandoned Requests")
+  public int abandonedRequests;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a connection close event if it is enabled.
+   *
+   * @param  ldapUrl  of the connection or null
+   * @param  abandoned  number of outstanding requests that were abandoned
+   * @param  nanos  close time in nanoseconds
+   */
+  public static void emit(final LdapURL ldapUrl, final int abandoned, final long nanos)
+  {
+    final ConnectionCloseEvent event = new ConnectionCloseEvent();
+    if (event.isEnabled()) {
+      event.url = ldapUrl != null ? ldapUrl.getHostnameWithSchemeAndPort() : null;
+      event.abandonedRequests = abandoned;
+      event.closeTime = nanos;
+      event.commit();
+    }
+  }
+}
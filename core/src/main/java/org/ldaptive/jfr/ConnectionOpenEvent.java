@@ -0,0 +1,80 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.ldaptive.ConnectionStrategy;
+import org.ldaptive.LdapURL;
+
+/**
+ * Flight recorder event for an attempt to open a connection to a single LDAP URL produced by the connection strategy.
+ * The connect time includes any TLS handshake and connection initializers.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.ConnectionOpen")
+@Label("LDAP Connection Open")
+@Category({"LDAP", "Connection"})
+@Description("Attempt to open a connection to an LDAP URL")
+public class ConnectionOpenEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** LDAP URL the connection attempted to open. */
+  @Label("URL")
+  public String url;
+
+  /** Simple name of the connection strategy class. */
+  @Label("Strategy")
+  public String strategy;
+
+  /** Number of attempts recorded by the retry metadata. */
+  @Label("Attempt")
+  public int attempt;
+
+  /** Time spent connecting. */
+  @Label("Connect Time")
+  @Timespan
+  public long connectTime;
+
+  /** Whether the connection was opened. */
+  @Label("Success")
+  public boolean success;
+
+  /** Message of the exception that caused the attempt to fail. */
+  @Label("Failure")
+  public String failure;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a connection open event if it is enabled.
+   *
+   * @param  ldapUrl  the connection attempted to open
+   * @param  connectionStrategy  that produced the LDAP URL
+   * @param  attempts  recorded by the retry metadata
+   * @param  nanos  connect time in nanoseconds
+   * @param  e  exception that caused the attempt to fail or null
+   */
+  public static void emit(
+    final LdapURL ldapUrl,
+    final ConnectionStrategy connectionStrategy,
+    final int attempts,
+    final long nanos,
+    final Exception e)
+  {
+    final ConnectionOpenEvent event = new ConnectionOpenEvent();
+    if (event.isEnabled()) {
+      event.url = ldapUrl.getHostnameWithSchemeAndPort();
+      event.strategy = connectionStrategy.getClass().getSimpleName();
+      event.attempt = attempts;
+      event.connectTime = nanos;
+      event.success = e == null;
+      event.failure = e != null ? e.getMessage() : null;
+      event.commit();
+    }
+  }
+}
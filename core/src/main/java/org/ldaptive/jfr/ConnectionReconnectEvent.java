@@ -0,0 +1,80 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import org.ldaptive.ConnectionStrategy;
+import org.ldaptive.LdapURL;
+
+/**
+ * Flight recorder event for an attempt to reopen a connection that was unexpectedly closed. Each attempt iterates over
+ * the URLs produced by the connection strategy, see {@link ConnectionOpenEvent}.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.ConnectionReconnect")
+@Label("LDAP Connection Reconnect")
+@Category({"LDAP", "Connection"})
+@Description("Attempt to reopen a connection")
+public class ConnectionReconnectEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** LDAP URL the connection reopened to or null if the attempt failed. */
+  @Label("URL")
+  public String url;
+
+  /** Simple name of the connection strategy class. */
+  @Label("Strategy")
+  public String strategy;
+
+  /** Number of attempts recorded by the retry metadata. */
+  @Label("Attempt")
+  public int attempt;
+
+  /** Time spent in the attempt. */
+  @Label("Reconnect Time")
+  @Timespan
+  public long reconnectTime;
+
+  /** Whether the connection was reopened. */
+  @Label("Success")
+  public boolean success;
+
+  /** Message of the exception that caused the attempt to fail. */
+  @Label("Failure")
+  public String failure;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a connection reconnect event if it is enabled.
+   *
+   * @param  ldapUrl  the connection reopened to or null if the attempt failed
+   * @param  connectionStrategy  used to reopen the connection
+   * @param  attempts  recorded by the retry metadata
+   * @param  nanos  time spent in the attempt in nanoseconds
+   * @param  e  exception that caused the attempt to fail or null
+   */
+  public static void emit(
+    final LdapURL ldapUrl,
+    final ConnectionStrategy connectionStrategy,
+    final int attempts,
+    final long nanos,
+    final Exception e)
+  {
+    final ConnectionReconnectEvent event = new ConnectionReconnectEvent();
+    if (event.isEnabled()) {
+      event.url = ldapUrl != null ? ldapUrl.getHostnameWithSchemeAndPort() : null;
+      event.strategy = connectionStrategy.getClass().getSimpleName();
+      event.attempt = attempts;
+      event.reconnectTime = nanos;
+      event.success = e == null;
+      event.failure = e != null ? e.getMessage() : null;
+      event.commit();
+    }
+  }
+}
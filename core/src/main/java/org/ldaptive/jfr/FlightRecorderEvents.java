@@ -0,0 +1,169 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import org.ldaptive.ConnectionStrategy;
+import org.ldaptive.LdapURL;
+
+/**
+ * Emits the flight recorder events in this package. The {@code jdk.jfr} package is an optional import of this bundle
+ * and the flight recorder module may be missing from the runtime, so whether it is available is checked once and
+ * every method does nothing if it is not. Code outside this package must emit events through this class rather than
+ * reference the event classes directly.
+ *
+ * @author  Middleware Services
+ */
+public final class FlightRecorderEvents
+{
+
+  /** Whether the flight recorder module is available. */
+  private static final boolean AVAILABLE;
+
+  static {
+    boolean available;
+    try {
+      Class.forName("jdk.jfr.Event", false, FlightRecorderEvents.class.getClassLoader());
+      available = true;
+    } catch (ClassNotFoundException | LinkageError e) {
+      available = false;
+    }
+    AVAILABLE = available;
+  }
+
+
+  /** Default constructor. */
+  private FlightRecorderEvents() {}
+
+
+  /**
+   * Returns whether the flight recorder module is available.
+   *
+   * @return  whether events can be emitted
+   */
+  public static boolean isAvailable()
+  {
+    return AVAILABLE;
+  }
+
+
+  /**
+   * Emits a {@link ConnectionOpenEvent}.
+   *
+   * @param  ldapUrl  the connection attempted to open
+   * @param  connectionStrategy  that produced the LDAP URL
+   * @param  attempts  recorded by the retry metadata
+   * @param  nanos  connect time in nanoseconds
+   * @param  e  exception that caused the attempt to fail or null
+   */
+  public static void connectionOpen(
+    final LdapURL ldapUrl,
+    final ConnectionStrategy connectionStrategy,
+    final int attempts,
+    final long nanos,
+    final Exception e)
+  {
+    if (AVAILABLE) {
+      ConnectionOpenEvent.emit(ldapUrl, connectionStrategy, attempts, nanos, e);
+    }
+  }
+
+
+  /**
+   * Emits a {@link ConnectionReconnectEvent}.
+   *
+   * @param  ldapUrl  the connection reopened to or null if the attempt failed
+   * @param  connectionStrategy  used to reopen the connection
+   * @param  attempts  recorded by the retry metadata
+   * @param  nanos  time spent in the attempt in nanoseconds
+   * @param  e  exception that caused the attempt to fail or null
+   */
+  public static void connectionReconnect(
+    final LdapURL ldapUrl,
+    final ConnectionStrategy connectionStrategy,
+    final int attempts,
+    final long nanos,
+    final Exception e)
+  {
+    if (AVAILABLE) {
+      ConnectionReconnectEvent.emit(ldapUrl, connectionStrategy, attempts, nanos, e);
+    }
+  }
+
+
+  /**
+   * Emits a {@link ConnectionCloseEvent}.
+   *
+   * @param  ldapUrl  of the connection or null
+   * @param  abandoned  number of outstanding requests that were abandoned
+   * @param  nanos  close time in nanoseconds
+   */
+  public static void connectionClose(final LdapURL ldapUrl, final int abandoned, final long nanos)
+  {
+    if (AVAILABLE) {
+      ConnectionCloseEvent.emit(ldapUrl, abandoned, nanos);
+    }
+  }
+
+
+  /**
+   * Emits a {@link BindEvent}.
+   *
+   * @param  type  simple name of the bind request class
+   * @param  code  name of the result code or null
+   * @param  nanos  response time in nanoseconds
+   */
+  public static void bind(final String type, final String code, final long nanos)
+  {
+    if (AVAILABLE) {
+      BindEvent.emit(type, code, nanos);
+    }
+  }
+
+
+  /**
+   * Emits a {@link PoolCheckOutEvent}.
+   *
+   * @param  name  of the pool
+   * @param  nanos  wait time in nanoseconds
+   * @param  e  exception that caused the check out to fail or null
+   */
+  public static void poolCheckOut(final String name, final long nanos, final Exception e)
+  {
+    if (AVAILABLE) {
+      PoolCheckOutEvent.emit(name, nanos, e);
+    }
+  }
+
+
+  /**
+   * Emits a {@link PoolCheckInEvent}.
+   *
+   * @param  name  of the pool
+   * @param  nanos  time the connection was held in nanoseconds
+   */
+  public static void poolCheckIn(final String name, final long nanos)
+  {
+    if (AVAILABLE) {
+      PoolCheckInEvent.emit(name, nanos);
+    }
+  }
+
+
+  /**
+   * Emits a {@link PoolValidationFailureEvent}.
+   *
+   * @param  name  of the pool
+   * @param  when  phase in which validation failed
+   * @param  validatorType  simple name of the validator class
+   * @param  nanos  validation time in nanoseconds
+   */
+  public static void poolValidationFailure(
+    final String name,
+    final String when,
+    final String validatorType,
+    final long nanos)
+  {
+    if (AVAILABLE) {
+      PoolValidationFailureEvent.emit(name, when, validatorType, nanos);
+    }
+  }
+}
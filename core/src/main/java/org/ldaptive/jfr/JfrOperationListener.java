@@ -0,0 +1,43 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import org.ldaptive.ResultCode;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.OperationListener;
+
+/**
+ * Operation listener that commits an {@link OperationEvent} to the flight recorder for every completed operation.
+ * Nothing is recorded unless a recording with the {@code org.ldaptive.Operation} event enabled is running. The
+ * {@code jdk.jfr} package is an optional import of this bundle, this listener and the events in this package can only
+ * be used where the flight recorder module is available.
+ *
+ * @author  Middleware Services
+ */
+public class JfrOperationListener implements OperationListener
+{
+
+
+  @Override
+  public void complete(final DefaultOperationHandle<?, ?> handle, final ResultCode resultCode)
+  {
+    final OperationEvent event = new OperationEvent();
+    if (event.isEnabled()) {
+      event.operation = handle.getRequest().getClass().getSimpleName();
+      event.messageID = handle.getMessageID() != null ? handle.getMessageID() : -1;
+      event.resultCode = resultCode != null ? resultCode.name() : null;
+      event.entryCount = handle.getEntryCount();
+      event.requestLength = handle.getRequestLength();
+      event.responseLength = handle.getResponseLength();
+      event.firstResponseTime = handle.getFirstResponseNanos();
+      event.completeTime = handle.getCompleteNanos();
+      event.commit();
+    }
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" + getClass().getName() + "@" + hashCode() + "]";
+  }
+}
@@ -0,0 +1,61 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a completed LDAP operation. The event is committed when the operation completes, its
+ * latencies are reported as fields measured from the time the request was sent.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.Operation")
+@Label("LDAP Operation")
+@Category({"LDAP", "Operation"})
+@Description("LDAP request and its responses")
+public class OperationEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Simple name of the request class. */
+  @Label("Operation")
+  public String operation;
+
+  /** Protocol message ID. */
+  @Label("Message ID")
+  public int messageID;
+
+  /** Result code of the operation. */
+  @Label("Result Code")
+  public String resultCode;
+
+  /** Number of search result entries received. */
+  @Label("Entries")
+  public int entryCount;
+
+  /** Number of bytes in the encoded request. */
+  @Label("Request Size")
+  @DataAmount
+  public long requestLength;
+
+  /** Number of bytes in the encoded responses. */
+  @Label("Response Size")
+  @DataAmount
+  public long responseLength;
+
+  /** Time between sending the request and receiving the first response. */
+  @Label("First Response Time")
+  @Timespan
+  public long firstResponseTime;
+
+  /** Time between sending the request and completing the operation. */
+  @Label("Complete Time")
+  @Timespan
+  public long completeTime;
+  // CheckStyle:VisibilityModifier ON
+}
@@ -0,0 +1,52 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a connection pool check in. Check ins are frequent, so this event is disabled unless it is
+ * enabled in the recording settings.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.PoolCheckIn")
+@Label("LDAP Pool Check In")
+@Category({"LDAP", "Pool"})
+@Description("Connection checked in to a pool")
+@Enabled(false)
+public class PoolCheckInEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Name of the pool. */
+  @Label("Pool")
+  public String pool;
+
+  /** Time the connection was checked out. */
+  @Label("Held Time")
+  @Timespan
+  public long heldTime;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a check in event if it is enabled.
+   *
+   * @param  name  of the pool
+   * @param  nanos  held time in nanoseconds
+   */
+  public static void emit(final String name, final long nanos)
+  {
+    final PoolCheckInEvent event = new PoolCheckInEvent();
+    if (event.isEnabled()) {
+      event.pool = name;
+      event.heldTime = nanos;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,58 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a connection pool check out. Check outs are frequent, so this event is disabled unless it
+ * is enabled in the recording settings.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.PoolCheckOut")
+@Label("LDAP Pool Check Out")
+@Category({"LDAP", "Pool"})
+@Description("Connection checked out of a pool or a failed check out")
+@Enabled(false)
+public class PoolCheckOutEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Name of the pool. */
+  @Label("Pool")
+  public String pool;
+
+  /** Time spent waiting for a connection. */
+  @Label("Wait Time")
+  @Timespan
+  public long waitTime;
+
+  /** Simple name of the exception that caused the check out to fail or null if it succeeded. */
+  @Label("Failure")
+  public String failure;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a check out event if it is enabled.
+   *
+   * @param  name  of the pool
+   * @param  nanos  wait time in nanoseconds
+   * @param  e  exception that caused the check out to fail or null
+   */
+  public static void emit(final String name, final long nanos, final Exception e)
+  {
+    final PoolCheckOutEvent event = new PoolCheckOutEvent();
+    if (event.isEnabled()) {
+      event.pool = name;
+      event.waitTime = nanos;
+      event.failure = e != null ? e.getClass().getSimpleName() : null;
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for a pooled connection that failed validation.
+ *
+ * @author  Middleware Services
+ */
+@Name("org.ldaptive.PoolValidationFailure")
+@Label("LDAP Pool Validation Failure")
+@Category({"LDAP", "Pool"})
+@Description("Pooled connection failed validation")
+public class PoolValidationFailureEvent extends jdk.jfr.Event
+{
+
+  // CheckStyle:VisibilityModifier OFF
+  /** Name of the pool. */
+  @Label("Pool")
+  public String pool;
+
+  /** When the validation occurred, one of check out, check in or periodic. */
+  @Label("Phase")
+  public String phase;
+
+  /** Simple name of the validator class. */
+  @Label("Validator")
+  public String validator;
+
+  /** Time spent validating. */
+  @Label("Validation Time")
+  @Timespan
+  public long validationTime;
+  // CheckStyle:VisibilityModifier ON
+
+
+  /**
+   * Commits a validation failure event if it is enabled.
+   *
+   * @param  name  of the pool
+   * @param  when  validation occurred
+   * @param  validatorType  simple name of the validator class
+   * @param  nanos  validation time in nanoseconds
+   */
+  public static void emit(final String name, final String when, final String validatorType, final long nanos)
+  {
+    final PoolValidationFailureEvent event = new PoolValidationFailureEvent();
+    if (event.isEnabled()) {
+      event.pool = name;
+      event.phase = when;
+      event.validator = validatorType;
+      event.validationTime = nanos;
+      event.commit();
+    }
+  }
+}
@@ -4,28 +4,27 @@ package org.ldaptive.pool;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.function.Supplier;
 import org.ldaptive.Connection;
 import org.ldaptive.ConnectionValidator;
 import org.ldaptive.DefaultConnectionFactory;
 import org.ldaptive.LdapUtils;
 import org.ldaptive.SearchConnectionValidator;
 import org.ldaptive.concurrent.CallableWorker;
+import org.ldaptive.jfr.FlightRecorderEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -37,6 +36,13 @@ import org.slf4j.LoggerFactory;
  * Connections that are actively in use exist in the active queue. This implementation uses FIFO operations for each
  * queue.
  *
+ * <p>Pools are maintained by a scheduler thread shared by every pool in the JVM, which hands each maintenance run to a
+ * shared, unbounded pool of daemon worker threads. Runs of the same pool never overlap, so each pool uses at most one
+ * worker thread at a time. Each maintenance run retires connections that have exceeded {@link
+ * #getMaxConnectionLifetime()}, prunes and validates the pool when their periods have elapsed and grows the pool ahead
+ * of demand if {@link #getPrewarm()} is true. Pruning and validation hold the pool lock only to snapshot, reserve and
+ * remove individual connections, so check outs proceed while the prune strategy and validator run.</p>
+ *
  * @author  Middleware Services
  */
 public abstract class AbstractConnectionPool implements ConnectionPool
@@ -48,6 +54,9 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   /** Default max pool size, value is {@value}. */
   public static final int DEFAULT_MAX_POOL_SIZE = 10;
 
+  /** Default maintenance period when connection lifetime or pre-warming is enabled. Value is 30 seconds. */
+  public static final Duration DEFAULT_MAINTENANCE_PERIOD = Duration.ofSeconds(30);
+
   /** ID used for pool name. */
   private static final AtomicInteger POOL_ID = new AtomicInteger();
 
@@ -108,8 +117,41 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   /** Type of queue. LIFO or FIFO. */
   private QueueType queueType = QueueType.LIFO;
 
-  /** Executor for scheduling pool tasks. */
-  private ScheduledExecutorService poolExecutor;
+  /** Maximum amount of time a connection may participate in this pool. */
+  private Duration maxConnectionLifetime;
+
+  /** Maximum amount of time subtracted from the lifetime of each connection. */
+  private Duration connectionLifetimeJitter = Duration.ZERO;
+
+  /** Whether to grow the pool ahead of demand based on the recent check out rate. */
+  private boolean prewarm;
+
+  /** Period of the maintenance task when connection lifetime or pre-warming is enabled. */
+  private Duration maintenancePeriod = DEFAULT_MAINTENANCE_PERIOD;
+
+  /** Receives measurements from this pool. */
+  private PoolMetrics poolMetrics = PoolMetrics.NOOP;
+
+  /** Maintenance task scheduled for this pool. */
+  private MaintenanceScheduler.Task maintenanceTask;
+
+  /** Number of connections checked out of this pool. */
+  private final LongAdder checkOutCount = new LongAdder();
+
+  /** Number of connections checked in to this pool with a known check out time. */
+  private final LongAdder checkInCount = new LongAdder();
+
+  /** Total time in nanoseconds that checked in connections were checked out. */
+  private final LongAdder checkOutTime = new LongAdder();
+
+  /** Demand sampled by the maintenance task. */
+  private final DemandSample demand = new DemandSample();
+
+  /** Time of the last prune in nanoseconds. */
+  private long lastPruneTime;
+
+  /** Time of the last validation in nanoseconds. */
+  private long lastValidateTime;
 
   /** Whether {@link #initialize()} has been successfully invoked. */
   private boolean initialized;
@@ -403,6 +445,153 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   }
 
 
+  /**
+   * Returns the maximum amount of time a connection may participate in this pool.
+   *
+   * @return  max connection lifetime or null if connections are never retired
+   */
+  public Duration getMaxConnectionLifetime()
+  {
+    return maxConnectionLifetime;
+  }
+
+
+  /**
+   * Sets the maximum amount of time a connection may participate in this pool. Available connections that exceed their
+   * lifetime are closed and replaced by the maintenance task, active connections are closed when they are checked in.
+   * Retiring connections allows a pool behind a load balancer to rebalance across its servers.
+   *
+   * @param  time  max connection lifetime or null to never retire connections
+   */
+  public void setMaxConnectionLifetime(final Duration time)
+  {
+    if (time != null && (time.isNegative() || time.isZero())) {
+      throw new IllegalArgumentException("Max connection lifetime must be greater than zero for pool " + getName());
+    }
+    logger.trace("setting maxConnectionLifetime: {}", time);
+    maxConnectionLifetime = time;
+  }
+
+
+  /**
+   * Returns the maximum amount of time subtracted from the lifetime of each connection.
+   *
+   * @return  connection lifetime jitter
+   */
+  public Duration getConnectionLifetimeJitter()
+  {
+    return connectionLifetimeJitter;
+  }
+
+
+  /**
+   * Sets the maximum amount of time subtracted from the lifetime of each connection. Each connection is assigned a
+   * random amount of jitter when it is created so that connections created together are not retired together.
+   *
+   * @param  time  connection lifetime jitter
+   */
+  public void setConnectionLifetimeJitter(final Duration time)
+  {
+    if (time == null || time.isNegative()) {
+      throw new IllegalArgumentException("Connection lifetime jitter cannot be null or negative for pool " + getName());
+    }
+    logger.trace("setting connectionLifetimeJitter: {}", time);
+    connectionLifetimeJitter = time;
+  }
+
+
+  /**
+   * Returns whether this pool grows ahead of demand.
+   *
+   * @return  whether pre-warming is enabled
+   */
+  public boolean getPrewarm()
+  {
+    return prewarm;
+  }
+
+
+  /**
+   * Sets whether this pool grows ahead of demand. When enabled the maintenance task estimates the number of connections
+   * in use from the recent check out rate and the average time connections are checked out, and grows the pool to one
+   * more than that estimate, up to {@link #getMaxPoolSize()}.
+   *
+   * @param  b  whether pre-warming is enabled
+   */
+  public void setPrewarm(final boolean b)
+  {
+    logger.trace("setting prewarm: {}", b);
+    prewarm = b;
+  }
+
+
+  /**
+   * Returns the period of the maintenance task when connection lifetime or pre-warming is enabled. Default value is
+   * {@link #DEFAULT_MAINTENANCE_PERIOD}.
+   *
+   * @return  maintenance period
+   */
+  public Duration getMaintenancePeriod()
+  {
+    return maintenancePeriod;
+  }
+
+
+  /**
+   * Sets the period of the maintenance task when connection lifetime or pre-warming is enabled. Otherwise, the
+   * maintenance task executes at the prune period or the validate period, whichever is shorter.
+   *
+   * @param  period  maintenance period
+   */
+  public void setMaintenancePeriod(final Duration period)
+  {
+    if (period == null || period.isNegative() || period.isZero()) {
+      throw new IllegalArgumentException("Maintenance period must be greater than zero for pool " + getName());
+    }
+    logger.trace("setting maintenancePeriod: {}", period);
+    maintenancePeriod = period;
+  }
+
+
+  /**
+   * Returns the metrics that receive measurements from this pool.
+   *
+   * @return  pool metrics
+   */
+  @Override
+  public PoolMetrics getPoolMetrics()
+  {
+    return poolMetrics;
+  }
+
+
+  /**
+   * Sets the metrics that receive measurements from this pool. Default value is {@link PoolMetrics#NOOP}, see {@link
+   * DefaultPoolMetrics}.
+   *
+   * @param  metrics  pool metrics
+   */
+  public void setPoolMetrics(final PoolMetrics metrics)
+  {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Pool metrics cannot be null for pool " + getName());
+    }
+    logger.trace("setting poolMetrics: {}", metrics);
+    poolMetrics = metrics;
+  }
+
+
+  /**
+   * Returns the number of connections checked out of this pool since it was created.
+   *
+   * @return  check out count
+   */
+  public long getCheckOutCount()
+  {
+    return checkOutCount.sum();
+  }
+
+
   /**
    * Returns the type of queue used for this connection pool.
    *
@@ -508,7 +697,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
     } catch (IllegalStateException e) {
       growException = e;
     }
-    if (available.isEmpty() && minPoolSize > 0) {
+    if (availableCount() == 0 && minPoolSize > 0) {
       if (failFastInitialize) {
         closeAllConnections();
         throw new IllegalStateException(
@@ -520,45 +709,28 @@ public abstract class AbstractConnectionPool implements ConnectionPool
     }
     logger.debug("Initialized available queue {} for {}", available, this);
 
-    final String threadPoolName = name != null ? name + "-" + getClass().getSimpleName() : getClass().getSimpleName();
-    poolExecutor = Executors.newSingleThreadScheduledExecutor(
-      r -> {
-        final Thread t = new Thread(r, "ldaptive-" + threadPoolName + "@" + hashCode());
-        t.setDaemon(true);
-        return t;
-      });
-
-    poolExecutor.scheduleAtFixedRate(
+    Duration period = pruneStrategy.getPrunePeriod();
+    if (validatePeriodically && validator.getValidatePeriod().compareTo(period) < 0) {
+      period = validator.getValidatePeriod();
+    }
+    if ((maxConnectionLifetime != null || prewarm) && maintenancePeriod.compareTo(period) < 0) {
+      period = maintenancePeriod;
+    }
+    lastPruneTime = System.nanoTime();
+    lastValidateTime = lastPruneTime;
+    demand.reset(lastPruneTime);
+    maintenanceTask = MaintenanceScheduler.schedule(
       () -> {
-        logger.debug("Begin prune task for {}", AbstractConnectionPool.this);
+        logger.debug("Begin maintenance task for {}", AbstractConnectionPool.this);
         try {
-          prune();
+          maintain();
         } catch (Exception e) {
-          logger.error("Prune task failed for {}", AbstractConnectionPool.this);
+          logger.error("Maintenance task failed for {}", AbstractConnectionPool.this, e);
         }
-        logger.debug("End prune task for {}", AbstractConnectionPool.this);
+        logger.debug("End maintenance task for {}", AbstractConnectionPool.this);
       },
-      pruneStrategy.getPrunePeriod().toMillis(),
-      pruneStrategy.getPrunePeriod().toMillis(),
-      TimeUnit.MILLISECONDS);
-    logger.debug("Prune pool task scheduled for {}", this);
-
-    if (validatePeriodically) {
-      poolExecutor.scheduleAtFixedRate(
-        () -> {
-          logger.debug("Begin validate task for {}", AbstractConnectionPool.this);
-          try {
-            validate();
-          } catch (Exception e) {
-            logger.error("Validation task failed for {}", AbstractConnectionPool.this);
-          }
-          logger.debug("End validate task for {}", AbstractConnectionPool.this);
-        },
-        validator.getValidatePeriod().toMillis(),
-        validator.getValidatePeriod().toMillis(),
-        TimeUnit.MILLISECONDS);
-      logger.debug("Validate pool task scheduled for {}", this);
-    }
+      period);
+    logger.debug("Maintenance task scheduled every {} for {}", period, this);
 
     initialized = true;
     logger.info("Pool initialized for {}", this);
@@ -614,7 +786,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   public synchronized void close()
   {
     throwIfNotInitialized();
-    logger.debug("Closing {} of size {}", this, available.size() + active.size());
+    logger.debug("Closing {} of size {}", this, availableCount() + activeCount());
     poolLock.lock();
     try {
       closeAllConnections();
@@ -622,7 +794,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
       poolLock.unlock();
     }
 
-    poolExecutor.shutdown();
+    maintenanceTask.cancel();
     logger.info("Pool {} closed", this);
     initialized = false;
   }
@@ -631,7 +803,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   /**
    * Closes all connections in the pool.
    */
-  private synchronized void closeAllConnections()
+  protected synchronized void closeAllConnections()
   {
     poolLock.lock();
     try {
@@ -705,6 +877,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
    */
   protected PooledConnectionProxy createConnection(final boolean throwOnFailure)
   {
+    final long start = System.nanoTime();
     Connection c = connectionFactory.getConnection();
     if (connectOnCreate) {
       try {
@@ -713,19 +886,55 @@ public abstract class AbstractConnectionPool implements ConnectionPool
         logger.error("Unable to open connection for {}}", this, e);
         c.close();
         c = null;
+        poolMetrics.recordCreate(System.nanoTime() - start, false);
         if (throwOnFailure) {
           throw new IllegalStateException("Unable to open connection for pool " + getName(), e);
         }
       }
     }
     if (c != null) {
-      return new DefaultPooledConnectionProxy(c);
+      poolMetrics.recordCreate(System.nanoTime() - start, true);
+      return createPooledConnectionProxy(c);
     } else {
       return null;
     }
   }
 
 
+  /**
+   * Validates the supplied connection with the validator of this pool and records the time spent.
+   *
+   * @param  conn  connection to validate
+   * @param  phase  when the validation occurs, reported with failures
+   *
+   * @return  whether the connection passed validation
+   */
+  private boolean validateConnection(final Connection conn, final String phase)
+  {
+    final long start = System.nanoTime();
+    final boolean valid = validator.apply(conn);
+    final long nanos = System.nanoTime() - start;
+    poolMetrics.recordValidation(nanos, valid);
+    if (!valid) {
+      FlightRecorderEvents.poolValidationFailure(getName(), phase, validator.getClass().getSimpleName(), nanos);
+    }
+    return valid;
+  }
+
+
+  /**
+   * Creates the pooled connection proxy that tracks the supplied connection in this pool.
+   *
+   * @param  c  connection to participate in this pool
+   *
+   * @return  pooled connection proxy
+   */
+  protected PooledConnectionProxy createPooledConnectionProxy(final Connection c)
+  {
+    return new DefaultPooledConnectionProxy(c);
+  }
+
+
   /**
    * Asynchronously creates new connections and adds them to the available queue if the connection can be successfully
    * passivated and validated. See {@link #passivateAndValidateConnection(PooledConnectionProxy)}. This method can make
@@ -931,6 +1140,36 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   }
 
 
+  /**
+   * Records a successful check out.
+   *
+   * @param  start  time the check out began in nanoseconds
+   */
+  protected void recordCheckOut(final long start)
+  {
+    final long nanos = System.nanoTime() - start;
+    poolMetrics.recordCheckOut(nanos);
+    FlightRecorderEvents.poolCheckOut(getName(), nanos, null);
+  }
+
+
+  /**
+   * Records a failed check out if the supplied exception indicates the pool could not provide a connection.
+   *
+   * @param  start  time the check out began in nanoseconds
+   * @param  e  exception thrown by the check out
+   */
+  protected void recordCheckOutFailure(final long start, final PoolException e)
+  {
+    FlightRecorderEvents.poolCheckOut(getName(), System.nanoTime() - start, e);
+    if (e instanceof BlockingTimeoutException) {
+      poolMetrics.recordBlockingTimeout();
+    } else if (e instanceof PoolExhaustedException) {
+      poolMetrics.recordExhausted();
+    }
+  }
+
+
   /**
    * Attempts to activate and validate a connection. Performed before a connection is returned from {@link
    * #getConnection()}. Validation only occurs if {@link #validateOnCheckOut} is true. If a connection fails either
@@ -943,12 +1182,13 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   protected void activateAndValidateConnection(final PooledConnectionProxy pc)
     throws PoolException
   {
+    checkOutCount.increment();
     if (!activator.apply(pc.getConnection())) {
       logger.warn("Failed activation on {} with {} for {}", pc.getConnection(), activator, this);
       removeAvailableAndActiveConnection(pc);
       throw new ActivationException("Activation of connection failed for pool " + getName());
     }
-    if (validateOnCheckOut && !validator.apply(pc.getConnection())) {
+    if (validateOnCheckOut && !validateConnection(pc.getConnection(), "check out")) {
       logger.warn("Failed check out validation on {} with {} for {}", pc.getConnection(), validator, this);
       removeAvailableAndActiveConnection(pc);
       throw new ValidationException("Validation of connection failed for pool " + getName());
@@ -959,7 +1199,7 @@ public abstract class AbstractConnectionPool implements ConnectionPool
   /**
    * Attempts to passivate and validate a connection. Performed when a connection is given to {@link
    * #putConnection(Connection)} and when a new connection enters the pool. Validation only occurs if {@link
-   * #validateOnCheckIn} is true.
+   * #validateOnCheckIn} is true. Connections that have exceeded {@link #getMaxConnectionLifetime()} fail validation.
    *
    * @param  pc  connection
    *
@@ -967,15 +1207,27 @@ public abstract class AbstractConnectionPool implements ConnectionPool
    */
   protected boolean passivateAndValidateConnection(final PooledConnectionProxy pc)
   {
+    final Instant checkedOut = pc.getPooledConnectionStatistics().getLastActiveStat();
+    if (checkedOut != null) {
+      final long heldTime = Math.max(0, Duration.between(checkedOut, Instant.now()).toNanos());
+      checkInCount.increment();
+      checkOutTime.add(heldTime);
+      poolMetrics.recordCheckIn(heldTime);
+      FlightRecorderEvents.poolCheckIn(getName(), heldTime);
+    }
     if (!pc.getConnection().isOpen()) {
       logger.warn("Failed validation on {} for {}, not open", pc.getConnection(), this);
       return false;
     }
+    if (isExpired(pc)) {
+      logger.debug("Retiring {} for {}, max connection lifetime exceeded", pc.getConnection(), this);
+      return false;
+    }
 
     boolean valid = false;
     if (passivator.apply(pc.getConnection())) {
       if (validateOnCheckIn) {
-        if (validator.apply(pc.getConnection())) {
+        if (validateConnection(pc.getConnection(), "check in")) {
           logger.trace("connection {} passed initialize validation", pc);
           valid = true;
         } else {
@@ -992,125 +1244,291 @@ public abstract class AbstractConnectionPool implements ConnectionPool
 
 
   /**
-   * Attempts to reduce the size of the pool back to its configured minimum.
+   * Performs a single maintenance run. Retires expired connections, prunes and validates the pool if their periods have
+   * elapsed and then grows the pool to its minimum size or, if {@link #getPrewarm()} is true, ahead of demand.
    *
    * @throws  IllegalStateException  if this pool has not been initialized
    */
-  public void prune()
+  protected void maintain()
   {
     throwIfNotInitialized();
-    logger.trace("waiting for pool lock to prune {} for {}", poolLock.getQueueLength(), this);
+    final long now = System.nanoTime();
+    if (maxConnectionLifetime != null) {
+      retireExpiredConnections();
+    }
+    if (now - lastPruneTime >= pruneStrategy.getPrunePeriod().toNanos()) {
+      lastPruneTime = now;
+      prune();
+    }
+    if (validatePeriodically && now - lastValidateTime >= validator.getValidatePeriod().toNanos()) {
+      lastValidateTime = now;
+      validate();
+    }
+    int size = minPoolSize;
+    if (prewarm) {
+      final double estimate = demand.update(now);
+      if (estimate > 0) {
+        size = Math.max(size, Math.min(maxPoolSize, (int) Math.ceil(estimate) + 1));
+      }
+      logger.debug("Estimated demand of {} connections, warming to {} for {}", estimate, size, this);
+    }
+    grow(size, false);
+  }
+
+
+  /**
+   * Returns whether the supplied connection has exceeded {@link #getMaxConnectionLifetime()}, less the jitter assigned
+   * to the connection.
+   *
+   * @param  pc  connection
+   *
+   * @return  whether the connection should be retired
+   */
+  protected boolean isExpired(final PooledConnectionProxy pc)
+  {
+    if (maxConnectionLifetime == null) {
+      return false;
+    }
+    long lifetime = maxConnectionLifetime.toMillis();
+    if (pc instanceof DefaultPooledConnectionProxy) {
+      lifetime -= ((DefaultPooledConnectionProxy) pc).lifetimeJitter;
+    }
+    return System.currentTimeMillis() - pc.getCreatedTime() >= lifetime;
+  }
+
+
+  /**
+   * Closes available connections that have exceeded {@link #getMaxConnectionLifetime()}. Connections are removed
+   * regardless of the minimum pool size, the maintenance task replaces them.
+   */
+  protected void retireExpiredConnections()
+  {
+    int numConnRetired = 0;
+    for (PooledConnectionProxy pc : snapshotAvailableConnections()) {
+      if (isExpired(pc) && removeIfAvailable(pc)) {
+        logger.debug("Retired {} for {}, max connection lifetime exceeded", pc.getConnection(), this);
+        numConnRetired++;
+      }
+    }
+    if (numConnRetired > 0) {
+      logger.info("Retired {} connections for {}", numConnRetired, this);
+    }
+  }
+
+
+  /**
+   * Records the result of an asynchronous validation.
+   *
+   * @param  start  time the validation of the connection was dispatched in nanoseconds
+   * @param  result  of the validation, null if the validator timed out
+   */
+  protected void recordValidation(final long start, final Boolean result)
+  {
+    final long nanos = System.nanoTime() - start;
+    final boolean valid = result != null && result;
+    poolMetrics.recordValidation(nanos, valid);
+    if (!valid) {
+      FlightRecorderEvents.poolValidationFailure(getName(), "periodic", validator.getClass().getSimpleName(), nanos);
+    }
+  }
+
+
+  /**
+   * Returns a copy of the available queue. The copy may be iterated without holding the pool lock.
+   *
+   * @return  available connections
+   */
+  private List<PooledConnectionProxy> snapshotAvailableConnections()
+  {
     poolLock.lock();
     try {
-      if (!available.isEmpty()) {
-        final int currentPoolSize = active.size() + available.size();
-        if (currentPoolSize > minPoolSize) {
-          logger.debug("Pruning available pool of size {} for {}", available.size(), this);
-
-          final int numConnAboveMin = currentPoolSize - minPoolSize;
-          final int numConnToPrune = available.size() < numConnAboveMin ? available.size() : numConnAboveMin;
-          final List<Callable<PooledConnectionProxy>> callables = new ArrayList<>(numConnToPrune);
-          for (PooledConnectionProxy pc : available) {
-            logger.trace("pruning {} for {}", pc, this);
-            callables.add(() -> {
-              if (pruneStrategy.apply(pc)) {
-                logger.trace("prune approved on {} with {} for {}", pc, pruneStrategy, AbstractConnectionPool.this);
-                return pc;
-              }
-              logger.trace("prune denied on {} with {} for {}", pc, pruneStrategy, AbstractConnectionPool.this);
-              return null;
-            });
-          }
+      final List<PooledConnectionProxy> list = new ArrayList<>(available.size());
+      for (PooledConnectionProxy pc : available) {
+        list.add(pc);
+      }
+      return list;
+    } finally {
+      poolLock.unlock();
+    }
+  }
 
-          final AtomicInteger numConnPruned = new AtomicInteger();
-          final CallableWorker<PooledConnectionProxy> callableWorker = new CallableWorker<>(getClass().getSimpleName());
-          try {
-            final List<ExecutionException> exceptions = callableWorker.execute(
-              callables,
-              pc -> {
-                if (pc != null) {
-                  if (numConnPruned.get() < numConnToPrune) {
-                    logger.trace("prune removing {} from {}", pc, this);
-                    available.remove(pc);
-                    pc.getConnection().close();
-                    logger.trace("prune removed {} from {}", pc, this);
-                    numConnPruned.getAndIncrement();
-                  } else {
-                    logger.trace("prune ignored {} from {}", pc, this);
-                  }
-                }
-              });
-            for (ExecutionException e : exceptions) {
-              logger.warn("Error pruning connection for {}", this, e.getCause() != null ? e.getCause() : e);
-            }
-          } finally {
-            callableWorker.shutdown();
-          }
-          if (numConnToPrune == available.size()) {
-            logger.debug("Prune strategy did not remove any connections for {}", this);
-          } else {
-            logger.info("Available pool size pruned to {} for {}", available.size(), this);
-          }
-        } else {
-          logger.debug("Pool size is {}, no connections pruned for {}", currentPoolSize, this);
-        }
-      } else {
-        logger.debug("No available connections, no connections pruned for {}", this);
+
+  /**
+   * Moves the supplied connection from the available queue to the active queue so that it cannot be checked out. A
+   * reserved connection continues to count toward the pool size and must be released with {@link
+   * #releaseReservedConnection(PooledConnectionProxy, boolean)}.
+   *
+   * @param  pc  connection to reserve
+   *
+   * @return  whether the connection was reserved, false if it is no longer available
+   */
+  private boolean reserveAvailableConnection(final PooledConnectionProxy pc)
+  {
+    poolLock.lock();
+    try {
+      if (!available.remove(pc)) {
+        return false;
+      }
+      active.add(pc);
+      return true;
+    } finally {
+      poolLock.unlock();
+    }
+  }
+
+
+  /**
+   * Releases a connection reserved by {@link #reserveAvailableConnection(PooledConnectionProxy)}. The connection is
+   * returned to the available queue or removed from the pool and closed. Does nothing if the pool was closed in the
+   * meantime.
+   *
+   * @param  pc  reserved connection
+   * @param  valid  whether to return the connection to the available queue
+   */
+  private void releaseReservedConnection(final PooledConnectionProxy pc, final boolean valid)
+  {
+    poolLock.lock();
+    try {
+      if (!active.remove(pc)) {
+        logger.trace("{} is no longer reserved in {}", pc, this);
+        return;
+      }
+      if (valid) {
+        available.add(pc);
+        poolNotEmpty.signal();
       }
     } finally {
       poolLock.unlock();
     }
+    if (!valid) {
+      pc.getConnection().close();
+    }
   }
 
 
   /**
-   * Attempts to validate all connections in the pool.
+   * Removes the supplied connection from the available queue and closes it. Connections that have been checked out
+   * since they were evaluated are not removed.
+   *
+   * @param  pc  connection to remove
+   *
+   * @return  whether the connection was removed
+   */
+  private boolean removeIfAvailable(final PooledConnectionProxy pc)
+  {
+    poolLock.lock();
+    try {
+      if (!available.remove(pc)) {
+        logger.trace("{} is no longer available in {}", pc, this);
+        return false;
+      }
+    } finally {
+      poolLock.unlock();
+    }
+    pc.getConnection().close();
+    return true;
+  }
+
+
+  /**
+   * Attempts to reduce the size of the pool back to its configured minimum. The prune strategy is evaluated against a
+   * snapshot of the available connections without holding the pool lock.
    *
    * @throws  IllegalStateException  if this pool has not been initialized
    */
-  public void validate()
+  public void prune()
   {
     throwIfNotInitialized();
+    final int numConnToPrune;
     poolLock.lock();
     try {
-      if (!available.isEmpty()) {
-        logger.debug("Validate available pool of size {} for {}", available.size(), this);
+      final int currentPoolSize = active.size() + available.size();
+      if (available.isEmpty()) {
+        logger.debug("No available connections, no connections pruned for {}", this);
+        return;
+      } else if (currentPoolSize <= minPoolSize) {
+        logger.debug("Pool size is {}, no connections pruned for {}", currentPoolSize, this);
+        return;
+      }
+      logger.debug("Pruning available pool of size {} for {}", available.size(), this);
+      numConnToPrune = Math.min(available.size(), currentPoolSize - minPoolSize);
+    } finally {
+      poolLock.unlock();
+    }
 
-        final List<PooledConnectionProxy> remove = new ArrayList<>();
-        final Map<PooledConnectionProxy, Supplier<Boolean>> results = new HashMap<>(available.size());
-        for (PooledConnectionProxy pc : available) {
-          logger.trace("validating {} for {}", pc, this);
-          results.put(pc, validator.applyAsync(pc.getConnection()));
+    int numConnPruned = 0;
+    for (PooledConnectionProxy pc : snapshotAvailableConnections()) {
+      if (numConnPruned == numConnToPrune) {
+        break;
+      }
+      logger.trace("pruning {} for {}", pc, this);
+      boolean prune = false;
+      try {
+        prune = pruneStrategy.apply(pc);
+      } catch (Exception e) {
+        logger.warn("Error pruning connection for {}", this, e);
+      }
+      if (prune) {
+        logger.trace("prune approved on {} with {} for {}", pc, pruneStrategy, this);
+        if (removeIfAvailable(pc)) {
+          logger.trace("prune removed {} from {}", pc, this);
+          numConnPruned++;
         }
-        for (Map.Entry<PooledConnectionProxy, Supplier<Boolean>> entry : results.entrySet()) {
+      } else {
+        logger.trace("prune denied on {} with {} for {}", pc, pruneStrategy, this);
+      }
+    }
+    if (numConnPruned == 0) {
+      logger.debug("Prune strategy did not remove any connections for {}", this);
+    } else {
+      logger.info("Available pool size pruned to {} for {}", availableCount(), this);
+    }
+  }
+
+
+  /**
+   * Attempts to validate all available connections in the pool. Connections are validated one at a time without
+   * holding the pool lock. Each connection is reserved only while it is validated so that it cannot be checked out,
+   * every other connection remains available during the validation. Connections that are checked out before they are
+   * reached are not validated.
+   *
+   * @throws  IllegalStateException  if this pool has not been initialized
+   */
+  public void validate()
+  {
+    throwIfNotInitialized();
+    final List<PooledConnectionProxy> snapshot = snapshotAvailableConnections();
+    if (!snapshot.isEmpty()) {
+      logger.debug("Validate available pool of size {} for {}", snapshot.size(), this);
+      for (PooledConnectionProxy pc : snapshot) {
+        if (reserveAvailableConnection(pc)) {
+          logger.trace("validating {} for {}", pc, this);
+          final long start = System.nanoTime();
           // blocks until a result is received
-          final Boolean validateResult = entry.getValue().get();
+          final Boolean validateResult = validator.applyAsync(pc.getConnection()).get();
+          recordValidation(start, validateResult);
           if (validateResult != null && validateResult) {
-            logger.trace("passed validation on {} with {} for {}", entry.getKey(), validator, this);
+            logger.trace("passed validation on {} with {} for {}", pc, validator, this);
+            releaseReservedConnection(pc, true);
           } else {
             logger.warn(
               "Failed validation on {} with {} for {}, {}",
-              entry.getKey().getConnection(),
+              pc.getConnection(),
               validator,
               this,
               validateResult == null ? "validator timeout exceeded" : "validator returned false");
-            remove.add(entry.getKey());
+            releaseReservedConnection(pc, false);
+            logger.trace("validate removed {} from {}", pc, this);
           }
+        } else {
+          logger.trace("{} is no longer available in {}, not validated", pc, this);
         }
-        for (PooledConnectionProxy pc : remove) {
-          logger.trace("validate removing {} from {}", pc, this);
-          available.remove(pc);
-          pc.getConnection().close();
-          logger.trace("validate removed {} from {}", pc, this);
-        }
-      } else {
-        logger.debug("No available connections, no validation performed for {}", this);
       }
-      grow(minPoolSize, false);
-      logger.debug("Pool size after validation is {} for {}", available.size() + active.size(), this);
-    } finally {
-      poolLock.unlock();
+    } else {
+      logger.debug("No available connections, no validation performed for {}", this);
     }
+    grow(minPoolSize, false);
+    logger.debug("Pool size after validation is {} for {}", availableCount() + activeCount(), this);
   }
 
 
@@ -1156,7 +1574,8 @@ public abstract class AbstractConnectionPool implements ConnectionPool
 
 
   /**
-   * Creates a connection proxy using the supplied pool connection.
+   * Creates a connection proxy using the supplied pool connection. The returned connection delegates directly to the
+   * underlying connection, see {@link PooledConnection}.
    *
    * @param  pc  pool connection to create proxy with
    *
@@ -1164,12 +1583,13 @@ public abstract class AbstractConnectionPool implements ConnectionPool
    */
   protected Connection createConnectionProxy(final PooledConnectionProxy pc)
   {
-    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class[] {Connection.class}, pc);
+    return new PooledConnection(this, pc);
   }
 
 
   /**
-   * Retrieves the invocation handler from the supplied connection proxy.
+   * Retrieves the pooled connection proxy from the supplied connection. Connections created with {@link
+   * java.lang.reflect.Proxy} are also supported, in which case the invocation handler is returned.
    *
    * @param  proxy  connection proxy
    *
@@ -1177,6 +1597,9 @@ public abstract class AbstractConnectionPool implements ConnectionPool
    */
   protected PooledConnectionProxy retrieveConnectionProxy(final Connection proxy)
   {
+    if (proxy instanceof PooledConnection) {
+      return ((PooledConnection) proxy).getPooledConnectionProxy();
+    }
     return (PooledConnectionProxy) Proxy.getInvocationHandler(proxy);
   }
 
@@ -1198,12 +1621,87 @@ public abstract class AbstractConnectionPool implements ConnectionPool
       "connectOnCreate=" + connectOnCreate + ", " +
       "connectionFactory=" + connectionFactory + ", " +
       "failFastInitialize=" + failFastInitialize + ", " +
+      "maxConnectionLifetime=" + maxConnectionLifetime + ", " +
+      "connectionLifetimeJitter=" + connectionLifetimeJitter + ", " +
+      "prewarm=" + prewarm + ", " +
+      "poolMetrics=" + poolMetrics + ", " +
       "initialized=" + initialized + ", " +
       "availableCount=" + availableCount() + ", " +
       "activeCount=" + activeCount();
   }
 
 
+  /**
+   * Estimates the number of connections in use between maintenance runs. By Little's law the average number of
+   * connections in use is the check out rate multiplied by the average time a connection is checked out. The estimate
+   * is smoothed across runs and is never less than the number of active connections.
+   */
+  private final class DemandSample
+  {
+
+    /** Weight of the newest sample. */
+    private static final double SMOOTHING_FACTOR = 0.5;
+
+    /** Time of the last sample in nanoseconds. */
+    private long time;
+
+    /** Check out count at the last sample. */
+    private long checkOuts;
+
+    /** Check in count at the last sample. */
+    private long checkIns;
+
+    /** Total check out time at the last sample. */
+    private long checkOutNanos;
+
+    /** Smoothed estimate. */
+    private double estimate;
+
+
+    /**
+     * Discards any previous samples.
+     *
+     * @param  now  current time in nanoseconds
+     */
+    void reset(final long now)
+    {
+      time = now;
+      checkOuts = checkOutCount.sum();
+      checkIns = checkInCount.sum();
+      checkOutNanos = checkOutTime.sum();
+      estimate = 0;
+    }
+
+
+    /**
+     * Samples the check out rate since the last sample and returns the updated estimate.
+     *
+     * @param  now  current time in nanoseconds
+     *
+     * @return  estimated number of connections in use
+     */
+    double update(final long now)
+    {
+      final long elapsed = now - time;
+      final long newCheckOuts = checkOutCount.sum();
+      final long newCheckIns = checkInCount.sum();
+      final long newCheckOutNanos = checkOutTime.sum();
+      double sample = activeCount();
+      if (elapsed > 0 && newCheckIns > checkIns) {
+        final double rate = (double) (newCheckOuts - checkOuts) / elapsed;
+        final double holdTime = (double) (newCheckOutNanos - checkOutNanos) / (newCheckIns - checkIns);
+        sample = Math.max(sample, rate * holdTime);
+      }
+      time = now;
+      checkOuts = newCheckOuts;
+      checkIns = newCheckIns;
+      checkOutNanos = newCheckOutNanos;
+      estimate = SMOOTHING_FACTOR * sample + (1 - SMOOTHING_FACTOR) * estimate;
+      return estimate;
+    }
+  }
+
+
   /**
    * Contains a connection that is participating in this pool. Used to track how long a connection has been in use and
    * override certain method invocations.
@@ -1220,6 +1718,10 @@ public abstract class AbstractConnectionPool implements ConnectionPool
     /** Time this connection was created. */
     private final long createdTime = System.currentTimeMillis();
 
+    /** Milliseconds subtracted from the max connection lifetime of this connection. */
+    private final long lifetimeJitter = connectionLifetimeJitter.isZero() ?
+      0 : ThreadLocalRandom.current().nextLong(connectionLifetimeJitter.toMillis() + 1);
+
     /** Statistics for this connection. */
     private final PooledConnectionStatistics statistics = new PooledConnectionStatistics(
       pruneStrategy.getStatisticsSize());
@@ -4,6 +4,7 @@ package org.ldaptive.pool;
 import java.time.Duration;
 import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.ldaptive.Connection;
 import org.ldaptive.DefaultConnectionFactory;
 
@@ -23,6 +24,9 @@ public class BlockingConnectionPool extends AbstractConnectionPool
   /** Duration to wait for an available connection. */
   private Duration blockWaitTime = Duration.ofMinutes(1);
 
+  /** Number of threads blocked waiting for a connection to be returned. */
+  private final AtomicInteger waiters = new AtomicInteger();
+
 
   /** Creates a new blocking pool. */
   public BlockingConnectionPool() {}
@@ -70,6 +74,32 @@ public class BlockingConnectionPool extends AbstractConnectionPool
   {
     throwIfNotInitialized();
 
+    final long start = System.nanoTime();
+    final PooledConnectionProxy pc;
+    try {
+      pc = retrieveConnection();
+    } catch (PoolException e) {
+      recordCheckOutFailure(start, e);
+      throw e;
+    }
+    activateAndValidateConnection(pc);
+    recordCheckOut(start);
+    return createConnectionProxy(pc);
+  }
+
+
+  /**
+   * Retrieves a connection from the available queue, creates a new connection if the pool can grow, or blocks until a
+   * connection is returned.
+   *
+   * @return  connection that has been placed in the active queue
+   *
+   * @throws  PoolException  if this method fails
+   * @throws  BlockingTimeoutException  if this pool is configured with a block time and it occurs
+   */
+  protected PooledConnectionProxy retrieveConnection()
+    throws PoolException
+  {
     PooledConnectionProxy pc = null;
     boolean create = false;
     logger.trace("waiting on pool lock for check out {}", poolLock.getQueueLength());
@@ -147,14 +177,11 @@ public class BlockingConnectionPool extends AbstractConnectionPool
       }
     }
 
-    if (pc != null) {
-      activateAndValidateConnection(pc);
-    } else {
+    if (pc == null) {
       logger.error("Could not service check out request");
       throw new PoolExhaustedException("Pool is empty and connection creation failed");
     }
-
-    return createConnectionProxy(pc);
+    return pc;
   }
 
 
@@ -195,6 +222,7 @@ public class BlockingConnectionPool extends AbstractConnectionPool
   {
     PooledConnectionProxy pc = null;
     logger.trace("waiting on pool lock for block available {}", poolLock.getQueueLength());
+    waiters.incrementAndGet();
     poolLock.lock();
     try {
       while (pc == null) {
@@ -221,11 +249,19 @@ public class BlockingConnectionPool extends AbstractConnectionPool
       throw new PoolException("Interrupted while waiting for an available connection", e);
     } finally {
       poolLock.unlock();
+      waiters.decrementAndGet();
     }
     return pc;
   }
 
 
+  @Override
+  public int waiterCount()
+  {
+    return waiters.get();
+  }
+
+
   @Override
   public void putConnection(final Connection c)
   {
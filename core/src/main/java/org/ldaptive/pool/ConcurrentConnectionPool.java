@@ -0,0 +1,773 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.Connection;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.concurrent.CallableWorker;
+
+/**
+ * Implements a pool of connections that does not acquire a pool wide lock on check out or check in. Every connection
+ * carries its own atomic state and all connections are stored in a list that is shared by all threads. A check out
+ * first attempts to reuse a connection that was previously checked in by the same thread, then scans the shared list,
+ * then grows the pool if it is below its maximum size. When the pool is exhausted, threads wait on a hand off queue and
+ * connections that are checked in are offered to the waiting threads. The length of time the pool will block is
+ * determined by {@link #getBlockWaitTime()}. Since check outs prefer connections with thread affinity, the queue type
+ * of this pool is not used. Pruning and validation reserve each available connection in turn, so they never prevent
+ * other connections from being checked out. See {@link AbstractConnectionPool}.
+ *
+ * @author  Middleware Services
+ */
+public class ConcurrentConnectionPool extends AbstractConnectionPool
+{
+
+  /** Number of connections to remember for each thread. */
+  private static final int THREAD_AFFINITY_SIZE = 8;
+
+  /** Maximum time to wait on the hand off queue before the pool is scanned again. */
+  private static final long WAIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+  /** Connection is available for check out. */
+  private static final int STATE_AVAILABLE = 0;
+
+  /** Connection is checked out. */
+  private static final int STATE_ACTIVE = 1;
+
+  /** Connection is being created, pruned or validated. */
+  private static final int STATE_RESERVED = 2;
+
+  /** Connection is no longer in the pool. */
+  private static final int STATE_REMOVED = 3;
+
+  /** All connections participating in this pool. */
+  private final List<ConcurrentPooledConnectionProxy> connections = new CopyOnWriteArrayList<>();
+
+  /**
+   * Connections most recently checked in by each thread. Entries are weakly referenced so that threads which used this
+   * pool do not keep its connections reachable after it is closed.
+   */
+  private final ThreadLocal<List<WeakReference<ConcurrentPooledConnectionProxy>>> threadConnections =
+    ThreadLocal.withInitial(() -> new ArrayList<>(THREAD_AFFINITY_SIZE));
+
+  /**
+   * Connections checked in while threads are waiting. A connection in this queue may already have been claimed by a
+   * thread scanning the pool, waiting threads must claim it before using it.
+   */
+  private final BlockingQueue<ConcurrentPooledConnectionProxy> handoffQueue = new LinkedBlockingQueue<>();
+
+  /** Number of threads waiting for a connection. */
+  private final AtomicInteger waiters = new AtomicInteger();
+
+  /** Number of connections in this pool, including connections that are being created. */
+  private final AtomicInteger poolSize = new AtomicInteger();
+
+  /** Duration to wait for an available connection. */
+  private Duration blockWaitTime = Duration.ofMinutes(1);
+
+
+  /** Creates a new concurrent pool. */
+  public ConcurrentConnectionPool() {}
+
+
+  /**
+   * Creates a new concurrent pool.
+   *
+   * @param  cf  connection factory
+   */
+  public ConcurrentConnectionPool(final DefaultConnectionFactory cf)
+  {
+    setDefaultConnectionFactory(cf);
+  }
+
+
+  /**
+   * Returns the block wait time. Default time is 1 minute.
+   *
+   * @return  time to wait for available connections
+   */
+  public Duration getBlockWaitTime()
+  {
+    return blockWaitTime;
+  }
+
+
+  /**
+   * Sets the block wait time. Default time is 1 minute.
+   *
+   * @param  time  to wait for available connections
+   */
+  public void setBlockWaitTime(final Duration time)
+  {
+    if (time == null || time.isNegative()) {
+      throw new IllegalArgumentException("Block wait time cannot be null or negative");
+    }
+    blockWaitTime = time;
+  }
+
+
+  @Override
+  public Connection getConnection()
+    throws PoolException
+  {
+    throwIfNotInitialized();
+
+    final long start = System.nanoTime();
+    final ConcurrentPooledConnectionProxy pc;
+    try {
+      pc = retrieveAvailableConnection();
+    } catch (PoolException e) {
+      recordCheckOutFailure(start, e);
+      throw e;
+    }
+    pc.getPooledConnectionStatistics().addActiveStat();
+    activateAndValidateConnection(pc);
+    recordCheckOut(start);
+    return createConnectionProxy(pc);
+  }
+
+
+  /**
+   * Retrieves a connection from this pool. Connections previously checked in by the current thread are attempted
+   * first, then any available connection in the pool. If no connection is available the pool is grown, otherwise this
+   * method blocks until a connection is handed off by another thread.
+   *
+   * @return  connection that has been marked active
+   *
+   * @throws  PoolException  if this method fails
+   * @throws  BlockingTimeoutException  if this pool is configured with a block time and it occurs
+   */
+  protected ConcurrentPooledConnectionProxy retrieveAvailableConnection()
+    throws PoolException
+  {
+    final List<WeakReference<ConcurrentPooledConnectionProxy>> threadList = threadConnections.get();
+    for (int i = threadList.size() - 1; i >= 0; i--) {
+      final ConcurrentPooledConnectionProxy pc = threadList.remove(i).get();
+      if (pc != null && pc.compareAndSetState(STATE_AVAILABLE, STATE_ACTIVE)) {
+        logger.trace("retrieved thread connection: {}", pc);
+        return pc;
+      }
+    }
+    return waitForAvailableConnection();
+  }
+
+
+  /**
+   * Claims any available connection in the pool. If no connection is available the pool is grown, otherwise this
+   * method blocks until a connection is checked in by another thread.
+   *
+   * @return  connection that has been marked active
+   *
+   * @throws  PoolException  if this method fails
+   * @throws  BlockingTimeoutException  if this pool is configured with a block time and it occurs
+   */
+  private ConcurrentPooledConnectionProxy waitForAvailableConnection()
+    throws PoolException
+  {
+    final boolean blockForever = Duration.ZERO.equals(blockWaitTime);
+    final long deadline = System.nanoTime() + blockWaitTime.toNanos();
+    boolean createFailed = false;
+    // register as a waiter before scanning so that connections returned during the scan are handed off
+    waiters.incrementAndGet();
+    try {
+      while (true) {
+        ConcurrentPooledConnectionProxy pc = claimAvailableConnection();
+        if (pc == null && !createFailed && poolSize.get() < getMaxPoolSize()) {
+          logger.trace("pool can grow, attempt to create active connection in pool of size {}", poolSize.get());
+          // a thread creating a connection cannot accept a hand off
+          waiters.decrementAndGet();
+          try {
+            pc = (ConcurrentPooledConnectionProxy) createActiveConnection(false);
+          } finally {
+            waiters.incrementAndGet();
+          }
+          if (pc == null) {
+            if (poolSize.get() == 0) {
+              logger.error("Could not service check out request");
+              throw new PoolExhaustedException("Pool is empty and connection creation failed");
+            }
+            logger.debug("Create failed, block until connection is available");
+            createFailed = true;
+          } else {
+            logger.trace("created new active connection: {}", pc);
+          }
+        }
+        if (pc != null) {
+          return pc;
+        }
+
+        final long remaining = blockForever ? WAIT_INTERVAL_NANOS : deadline - System.nanoTime();
+        if (remaining <= 0) {
+          logger.debug("Block time of {} exceeded, throwing exception", blockWaitTime);
+          throw new BlockingTimeoutException(
+            "Block time of " + blockWaitTime + " exceeded waiting for connection on pool " + getName() +
+              " with max size of " + getMaxPoolSize());
+        }
+        logger.trace("pool is full, block until connection is available");
+        pc = handoffQueue.poll(Math.min(remaining, WAIT_INTERVAL_NANOS), TimeUnit.NANOSECONDS);
+        if (pc != null && pc.compareAndSetState(STATE_AVAILABLE, STATE_ACTIVE)) {
+          logger.trace("received connection from hand off: {}", pc);
+          return pc;
+        }
+      }
+    } catch (InterruptedException e) {
+      logger.error("Waiting for available connection interrupted", e);
+      throw new PoolException("Interrupted while waiting for an available connection", e);
+    } finally {
+      waiters.decrementAndGet();
+    }
+  }
+
+
+  /**
+   * Scans the pool for an available connection and marks it active.
+   *
+   * @return  connection that has been marked active or null if no connection is available
+   */
+  private ConcurrentPooledConnectionProxy claimAvailableConnection()
+  {
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (pc.compareAndSetState(STATE_AVAILABLE, STATE_ACTIVE)) {
+        logger.trace("retrieved available connection: {}", pc);
+        return pc;
+      }
+    }
+    return null;
+  }
+
+
+  @Override
+  public void putConnection(final Connection c)
+  {
+    throwIfNotInitialized();
+
+    final PooledConnectionProxy proxy = retrieveConnectionProxy(c);
+    if (!(proxy instanceof ConcurrentPooledConnectionProxy)) {
+      logger.warn("attempt to return unknown connection: {}", proxy);
+      return;
+    }
+    final ConcurrentPooledConnectionProxy pc = (ConcurrentPooledConnectionProxy) proxy;
+    if (!pc.isState(STATE_ACTIVE)) {
+      if (pc.isState(STATE_AVAILABLE)) {
+        logger.warn("returned available connection: {}", pc);
+      } else {
+        logger.warn("attempt to return unknown connection: {}", pc);
+      }
+      return;
+    }
+    if (!passivateAndValidateConnection(pc)) {
+      removeConnection(pc);
+      return;
+    }
+    pc.getPooledConnectionStatistics().addAvailableStat();
+    if (makeAvailable(pc, STATE_ACTIVE)) {
+      logger.trace("returned active connection: {}", pc);
+      final List<WeakReference<ConcurrentPooledConnectionProxy>> threadList = threadConnections.get();
+      if (threadList.size() < THREAD_AFFINITY_SIZE) {
+        threadList.add(new WeakReference<>(pc));
+      }
+    }
+  }
+
+
+  /**
+   * Transitions the supplied connection to the available state and offers it to any waiting threads. The connection is
+   * claimed by whichever thread marks it active first, either a waiting thread or a thread scanning the pool.
+   *
+   * @param  pc  connection to make available
+   * @param  expectedState  that the connection must be in
+   *
+   * @return  whether the connection was made available and not offered to a waiting thread
+   */
+  private boolean makeAvailable(final ConcurrentPooledConnectionProxy pc, final int expectedState)
+  {
+    if (!pc.compareAndSetState(expectedState, STATE_AVAILABLE)) {
+      logger.warn("connection {} changed state while being made available in {}", pc, this);
+      return false;
+    }
+    // the state is published before waiters is read, a thread that registers as a waiter later scans the pool
+    // offers are bounded by the number of waiters, entries claimed by scanning threads no longer count toward the
+    // bound so that a waiter is not left polling the queue while this connection is available
+    if (waiters.get() > 0 && handoffQueue.removeIf(c -> !c.isState(STATE_AVAILABLE))) {
+      logger.trace("discarded claimed hand off connections for {}", this);
+    }
+    if (waiters.get() > handoffQueue.size()) {
+      handoffQueue.offer(pc);
+      return false;
+    }
+    return true;
+  }
+
+
+  /**
+   * Reserves a slot in this pool and creates a new connection for it.
+   *
+   * @param  throwOnFailure  whether to throw illegal state exception
+   *
+   * @return  reserved pooled connection or null if the pool is full or the connection could not be created
+   *
+   * @throws  IllegalStateException  if throwOnFailure is true and {@link #createConnection(boolean)} throws
+   */
+  private ConcurrentPooledConnectionProxy createPooledConnection(final boolean throwOnFailure)
+  {
+    int size;
+    do {
+      size = poolSize.get();
+      if (size >= getMaxPoolSize()) {
+        logger.trace("pool at maximum size, create not allowed");
+        return null;
+      }
+    } while (!poolSize.compareAndSet(size, size + 1));
+
+    ConcurrentPooledConnectionProxy pc = null;
+    try {
+      pc = (ConcurrentPooledConnectionProxy) createConnection(throwOnFailure);
+    } finally {
+      if (pc == null) {
+        poolSize.decrementAndGet();
+      }
+    }
+    return pc;
+  }
+
+
+  @Override
+  protected PooledConnectionProxy createPooledConnectionProxy(final Connection c)
+  {
+    return new ConcurrentPooledConnectionProxy(c);
+  }
+
+
+  @Override
+  protected void grow(final int size, final boolean throwOnFailure)
+  {
+    final int currentPoolSize = poolSize.get();
+    logger.debug("Checking connection pool size >= {} for {}", size, this);
+
+    final int numConnsToAdd = size - currentPoolSize;
+    if (numConnsToAdd > 0) {
+      createAvailableConnections(numConnsToAdd, throwOnFailure);
+    } else {
+      logger.debug(
+        "Current pool size {} exceeds requested size {}, grow not performed for {}", currentPoolSize, size, this);
+    }
+    logger.debug("Pool size after grow is {} for {}", poolSize.get(), this);
+  }
+
+
+  @Override
+  protected void createAvailableConnections(final int count, final boolean throwOnFailure)
+  {
+    final CallableWorker<ConcurrentPooledConnectionProxy> callableWorker = new CallableWorker<>(
+      getClass().getSimpleName());
+    try {
+      final AtomicInteger createdCount = new AtomicInteger();
+      final List<ExecutionException> exceptions = callableWorker.execute(
+        () -> {
+          ConcurrentPooledConnectionProxy pc = null;
+          int i = 0;
+          // make two attempts on each thread to open a connection
+          while (pc == null && i < 2) {
+            try {
+              pc = createPooledConnection(true);
+              if (pc != null && getConnectOnCreate()) {
+                if (!passivateAndValidateConnection(pc)) {
+                  poolSize.decrementAndGet();
+                  pc.getConnection().close();
+                  pc = null;
+                }
+              }
+            } catch (IllegalStateException e) {
+              if (i == 1) {
+                throw e;
+              }
+              pc = null;
+            }
+            i++;
+          }
+          return pc;
+        },
+        count,
+        pc -> {
+          if (pc != null) {
+            addAvailableConnection(pc);
+            createdCount.incrementAndGet();
+          }
+        });
+      if (createdCount.get() < count && throwOnFailure) {
+        if (!exceptions.isEmpty()) {
+          final ExecutionException e = exceptions.get(0);
+          if (e.getCause() instanceof IllegalStateException) {
+            throw (IllegalStateException) e.getCause();
+          } else {
+            throw new IllegalStateException(e.getCause() == null ? e : e.getCause());
+          }
+        } else {
+          throw new IllegalStateException("Could not create the requested number of connections");
+        }
+      }
+    } finally {
+      callableWorker.shutdown();
+    }
+  }
+
+
+  @Override
+  protected PooledConnectionProxy createAvailableConnection(final boolean throwOnFailure)
+  {
+    final ConcurrentPooledConnectionProxy pc = createPooledConnection(throwOnFailure);
+    if (pc != null) {
+      addAvailableConnection(pc);
+    } else {
+      logger.warn("Unable to create available connection for {}", this);
+    }
+    return pc;
+  }
+
+
+  /**
+   * Adds a newly created connection to this pool in the available state.
+   *
+   * @param  pc  reserved connection
+   */
+  private void addAvailableConnection(final ConcurrentPooledConnectionProxy pc)
+  {
+    pc.getPooledConnectionStatistics().addAvailableStat();
+    connections.add(pc);
+    makeAvailable(pc, STATE_RESERVED);
+    logger.info("Added available connection {} for {}", pc.getConnection(), this);
+  }
+
+
+  @Override
+  protected PooledConnectionProxy createActiveConnection(final boolean throwOnFailure)
+  {
+    final ConcurrentPooledConnectionProxy pc = createPooledConnection(throwOnFailure);
+    if (pc != null) {
+      pc.compareAndSetState(STATE_RESERVED, STATE_ACTIVE);
+      connections.add(pc);
+      logger.info("Added active connection {} for {}", pc.getConnection(), this);
+    } else {
+      logger.warn("Unable to create active connection for {}", this);
+    }
+    return pc;
+  }
+
+
+  @Override
+  protected void removeAvailableConnection(final PooledConnectionProxy pc)
+  {
+    removeConnection(pc);
+  }
+
+
+  @Override
+  protected void removeActiveConnection(final PooledConnectionProxy pc)
+  {
+    removeConnection(pc);
+  }
+
+
+  @Override
+  protected void removeAvailableAndActiveConnection(final PooledConnectionProxy pc)
+  {
+    removeConnection(pc);
+  }
+
+
+  /**
+   * Removes the supplied connection from this pool and closes it.
+   *
+   * @param  pc  connection to remove
+   */
+  private void removeConnection(final PooledConnectionProxy pc)
+  {
+    if (pc instanceof ConcurrentPooledConnectionProxy &&
+        ((ConcurrentPooledConnectionProxy) pc).getAndSetState(STATE_REMOVED) != STATE_REMOVED)
+    {
+      connections.remove(pc);
+      poolSize.decrementAndGet();
+      pc.getConnection().close();
+      logger.info("Removed {} from {}", pc.getConnection(), this);
+    } else {
+      logger.warn("Attempt to remove unknown connection {} from {}", pc.getConnection(), this);
+    }
+  }
+
+
+  @Override
+  protected synchronized void closeAllConnections()
+  {
+    threadConnections.remove();
+    handoffQueue.clear();
+    final List<Callable<ConcurrentPooledConnectionProxy>> removeConns = new ArrayList<>(connections.size());
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (pc.getAndSetState(STATE_REMOVED) != STATE_REMOVED) {
+        connections.remove(pc);
+        poolSize.decrementAndGet();
+        removeConns.add(() -> {
+          pc.getConnection().close();
+          return pc;
+        });
+      }
+    }
+
+    if (!removeConns.isEmpty()) {
+      final CallableWorker<ConcurrentPooledConnectionProxy> callableWorker = new CallableWorker<>(
+        getClass().getSimpleName());
+      try {
+        final List<ExecutionException> exceptions = callableWorker.execute(
+          removeConns,
+          pc -> logger.trace("removed {} from {}", pc, ConcurrentConnectionPool.this));
+        for (ExecutionException e : exceptions) {
+          logger.warn("Error closing connection for {}", this, e.getCause() != null ? e.getCause() : e);
+        }
+      } finally {
+        callableWorker.shutdown();
+      }
+    }
+  }
+
+
+  /**
+   * Closes available connections that have exceeded {@link #getMaxConnectionLifetime()}. Each expired connection is
+   * reserved before it is removed, other connections may be checked out while connections are retired.
+   */
+  @Override
+  protected void retireExpiredConnections()
+  {
+    int numConnRetired = 0;
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (pc.isState(STATE_AVAILABLE) && isExpired(pc) && pc.compareAndSetState(STATE_AVAILABLE, STATE_RESERVED)) {
+        logger.debug("Retired {} for {}, max connection lifetime exceeded", pc.getConnection(), this);
+        removeConnection(pc);
+        numConnRetired++;
+      }
+    }
+    if (numConnRetired > 0) {
+      logger.info("Retired {} connections for {}", numConnRetired, this);
+    }
+  }
+
+
+  /**
+   * Attempts to reduce the size of the pool back to its configured minimum. Each available connection is reserved
+   * while the prune strategy is evaluated, other connections may be checked out during the prune.
+   *
+   * @throws  IllegalStateException  if this pool has not been initialized
+   */
+  @Override
+  public void prune()
+  {
+    throwIfNotInitialized();
+    if (poolSize.get() <= getMinPoolSize()) {
+      logger.debug("Pool size is {}, no connections pruned for {}", poolSize.get(), this);
+      return;
+    }
+    logger.debug("Pruning available pool of size {} for {}", availableCount(), this);
+
+    int numConnPruned = 0;
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (poolSize.get() <= getMinPoolSize()) {
+        break;
+      }
+      if (pc.compareAndSetState(STATE_AVAILABLE, STATE_RESERVED)) {
+        logger.trace("pruning {} for {}", pc, this);
+        boolean prune = false;
+        try {
+          prune = getPruneStrategy().apply(pc);
+        } catch (Exception e) {
+          logger.warn("Error pruning connection for {}", this, e);
+        }
+        if (prune) {
+          logger.trace("prune approved on {} with {} for {}", pc, getPruneStrategy(), this);
+          removeConnection(pc);
+          numConnPruned++;
+        } else {
+          logger.trace("prune denied on {} with {} for {}", pc, getPruneStrategy(), this);
+          makeAvailable(pc, STATE_RESERVED);
+        }
+      }
+    }
+    if (numConnPruned == 0) {
+      logger.debug("Prune strategy did not remove any connections for {}", this);
+    } else {
+      logger.info("Available pool size pruned to {} for {}", availableCount(), this);
+    }
+  }
+
+
+  /**
+   * Attempts to validate all available connections in the pool. Each available connection is reserved while it is
+   * validated, other connections may be checked out during the validation.
+   *
+   * @throws  IllegalStateException  if this pool has not been initialized
+   */
+  @Override
+  public void validate()
+  {
+    throwIfNotInitialized();
+    int count = 0;
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (pc.compareAndSetState(STATE_AVAILABLE, STATE_RESERVED)) {
+        logger.trace("validating {} for {}", pc, this);
+        count++;
+        final long start = System.nanoTime();
+        // blocks until a result is received
+        final Boolean validateResult = getValidator().applyAsync(pc.getConnection()).get();
+        recordValidation(start, validateResult);
+        if (validateResult != null && validateResult) {
+          logger.trace("passed validation on {} with {} for {}", pc, getValidator(), this);
+          makeAvailable(pc, STATE_RESERVED);
+        } else {
+          logger.warn(
+            "Failed validation on {} with {} for {}, {}",
+            pc.getConnection(),
+            getValidator(),
+            this,
+            validateResult == null ? "validator timeout exceeded" : "validator returned false");
+          removeConnection(pc);
+        }
+      }
+    }
+    if (count > 0) {
+      logger.debug("Validated {} available connections for {}", count, this);
+    } else {
+      logger.debug("No available connections, no validation performed for {}", this);
+    }
+    grow(getMinPoolSize(), false);
+    logger.debug("Pool size after validation is {} for {}", poolSize.get(), this);
+  }
+
+
+  @Override
+  public int availableCount()
+  {
+    return countState(STATE_AVAILABLE);
+  }
+
+
+  @Override
+  public int waiterCount()
+  {
+    return waiters.get();
+  }
+
+
+  @Override
+  public int activeCount()
+  {
+    return countState(STATE_ACTIVE);
+  }
+
+
+  /**
+   * Returns the number of connections in the supplied state.
+   *
+   * @param  state  of the connection
+   *
+   * @return  number of connections
+   */
+  private int countState(final int state)
+  {
+    int count = 0;
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      if (pc.isState(state)) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+
+  @Override
+  public Set<PooledConnectionStatistics> getPooledConnectionStatistics()
+  {
+    throwIfNotInitialized();
+
+    final Set<PooledConnectionStatistics> stats = new HashSet<>();
+    for (ConcurrentPooledConnectionProxy pc : connections) {
+      stats.add(pc.getPooledConnectionStatistics());
+    }
+    return Collections.unmodifiableSet(stats);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return super.toString() + ", " + "blockWaitTime=" + blockWaitTime;
+  }
+
+
+  /** Pooled connection that tracks its state in this pool. */
+  protected class ConcurrentPooledConnectionProxy extends DefaultPooledConnectionProxy
+  {
+
+    /** State of this connection in the pool. */
+    private final AtomicInteger state = new AtomicInteger(STATE_RESERVED);
+
+
+    /**
+     * Creates a new concurrent pooled connection.
+     *
+     * @param  c  connection to participate in this pool
+     */
+    public ConcurrentPooledConnectionProxy(final Connection c)
+    {
+      super(c);
+    }
+
+
+    /**
+     * Atomically sets the state of this connection if the current state is the expected state.
+     *
+     * @param  expect  current state
+     * @param  update  new state
+     *
+     * @return  whether the state was updated
+     */
+    boolean compareAndSetState(final int expect, final int update)
+    {
+      return state.compareAndSet(expect, update);
+    }
+
+
+    /**
+     * Atomically sets the state of this connection.
+     *
+     * @param  update  new state
+     *
+     * @return  previous state
+     */
+    int getAndSetState(final int update)
+    {
+      return state.getAndSet(update);
+    }
+
+
+    /**
+     * Returns whether this connection is in the supplied state.
+     *
+     * @param  s  state to compare
+     *
+     * @return  whether this connection is in the supplied state
+     */
+    boolean isState(final int s)
+    {
+      return state.get() == s;
+    }
+  }
+}
@@ -77,6 +77,29 @@ public interface ConnectionPool
   int activeCount();
 
 
+  /**
+   * Returns the number of threads waiting for a connection. This implementation returns zero.
+   *
+   * @return  count
+   */
+  default int waiterCount()
+  {
+    return 0;
+  }
+
+
+  /**
+   * Returns the metrics that receive measurements from this pool. This implementation returns {@link
+   * PoolMetrics#NOOP}.
+   *
+   * @return  pool metrics
+   */
+  default PoolMetrics getPoolMetrics()
+  {
+    return PoolMetrics.NOOP;
+  }
+
+
   /**
    * Returns the statistics for each connection in the pool.
    *
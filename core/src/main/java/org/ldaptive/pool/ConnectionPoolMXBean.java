@@ -0,0 +1,252 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+/**
+ * Management interface for a connection pool. Durations are reported in microseconds. See {@link
+ * ConnectionPoolMonitor}.
+ *
+ * @author  Middleware Services
+ */
+public interface ConnectionPoolMXBean
+{
+
+
+  /**
+   * Returns the name of the pool.
+   *
+   * @return  pool name
+   */
+  String getName();
+
+
+  /**
+   * Returns the number of connections available for use.
+   *
+   * @return  available count
+   */
+  int getAvailableCount();
+
+
+  /**
+   * Returns the number of connections in use.
+   *
+   * @return  active count
+   */
+  int getActiveCount();
+
+
+  /**
+   * Returns the number of threads waiting for a connection.
+   *
+   * @return  waiter count
+   */
+  int getWaiterCount();
+
+
+  /**
+   * Returns the number of connections checked out of the pool.
+   *
+   * @return  check out count
+   */
+  long getCheckOutCount();
+
+
+  /**
+   * Returns the number of check outs that failed because the pool was exhausted.
+   *
+   * @return  exhausted count
+   */
+  long getExhaustedCount();
+
+
+  /**
+   * Returns the number of check outs that exceeded the block wait time.
+   *
+   * @return  blocking timeout count
+   */
+  long getBlockingTimeoutCount();
+
+
+  /**
+   * Returns the number of connections that could not be created.
+   *
+   * @return  create failure count
+   */
+  long getCreateFailureCount();
+
+
+  /**
+   * Returns the number of connections that failed validation.
+   *
+   * @return  validation failure count
+   */
+  long getValidationFailureCount();
+
+
+  /**
+   * Returns a summary of the time spent waiting to check out a connection.
+   *
+   * @return  check out time summary
+   */
+  LatencySummary getCheckOutTime();
+
+
+  /**
+   * Returns a summary of the time connections were checked out.
+   *
+   * @return  held time summary
+   */
+  LatencySummary getHeldTime();
+
+
+  /**
+   * Returns a summary of the time spent creating connections.
+   *
+   * @return  create time summary
+   */
+  LatencySummary getCreateTime();
+
+
+  /**
+   * Returns a summary of the time spent validating connections.
+   *
+   * @return  validation time summary
+   */
+  LatencySummary getValidationTime();
+
+
+  /** Discards all recorded measurements. */
+  void resetMetrics();
+
+
+  /** Summary of a {@link LatencyHistogram} in microseconds. */
+  final class LatencySummary
+  {
+
+    /** Nanoseconds per microsecond. */
+    private static final long NANOS_PER_MICRO = 1000;
+
+    /** Percentile reported as the median. */
+    private static final double MEDIAN = 50;
+
+    /** Percentile reported as the 90th percentile. */
+    private static final double PERCENTILE_90 = 90;
+
+    /** Percentile reported as the 99th percentile. */
+    private static final double PERCENTILE_99 = 99;
+
+    /** Number of recorded values. */
+    private final long count;
+
+    /** Mean value. */
+    private final long mean;
+
+    /** 50th percentile. */
+    private final long p50;
+
+    /** 90th percentile. */
+    private final long p90;
+
+    /** 99th percentile. */
+    private final long p99;
+
+    /** Largest value. */
+    private final long max;
+
+
+    /**
+     * Creates a new latency summary.
+     *
+     * @param  histogram  to summarize
+     */
+    public LatencySummary(final LatencyHistogram histogram)
+    {
+      count = histogram.getCount();
+      mean = histogram.getMean() / NANOS_PER_MICRO;
+      p50 = histogram.getValueAtPercentile(MEDIAN) / NANOS_PER_MICRO;
+      p90 = histogram.getValueAtPercentile(PERCENTILE_90) / NANOS_PER_MICRO;
+      p99 = histogram.getValueAtPercentile(PERCENTILE_99) / NANOS_PER_MICRO;
+      max = histogram.getMax() / NANOS_PER_MICRO;
+    }
+
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return  count
+     */
+    public long getCount()
+    {
+      return count;
+    }
+
+
+    /**
+     * Returns the mean value.
+     *
+     * @return  mean in microseconds
+     */
+    public long getMean()
+    {
+      return mean;
+    }
+
+
+    /**
+     * Returns the 50th percentile.
+     *
+     * @return  median in microseconds
+     */
+    public long getP50()
+    {
+      return p50;
+    }
+
+
+    /**
+     * Returns the 90th percentile.
+     *
+     * @return  90th percentile in microseconds
+     */
+    public long getP90()
+    {
+      return p90;
+    }
+
+
+    /**
+     * Returns the 99th percentile.
+     *
+     * @return  99th percentile in microseconds
+     */
+    public long getP99()
+    {
+      return p99;
+    }
+
+
+    /**
+     * Returns the largest value.
+     *
+     * @return  max in microseconds
+     */
+    public long getMax()
+    {
+      return max;
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return "[" +
+        getClass().getName() + "@" + hashCode() + "::" +
+        "count=" + count + ", " +
+        "mean=" + mean + ", " +
+        "p50=" + p50 + ", " +
+        "p90=" + p90 + ", " +
+        "p99=" + p99 + ", " +
+        "max=" + max + "]";
+    }
+  }
+}
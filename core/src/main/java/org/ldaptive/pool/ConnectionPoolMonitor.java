@@ -0,0 +1,210 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the gauges of a connection pool and the measurements of its {@link DefaultPoolMetrics} over JMX. The pool
+ * must be configured with a {@link DefaultPoolMetrics} before the monitor is created. The monitor is registered under
+ * the name {@code org.ldaptive:type=ConnectionPool,name=<pool name>}.
+ *
+ * @author  Middleware Services
+ */
+public class ConnectionPoolMonitor implements ConnectionPoolMXBean
+{
+
+  /** Domain of the object name. */
+  private static final String DOMAIN = "org.ldaptive";
+
+  /** Logger for this class. */
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Pool to monitor. */
+  private final AbstractConnectionPool pool;
+
+  /** Metrics of the pool. */
+  private final DefaultPoolMetrics metrics;
+
+  /** Name this monitor is registered under. */
+  private ObjectName objectName;
+
+
+  /**
+   * Creates a new connection pool monitor.
+   *
+   * @param  cp  connection pool to monitor
+   *
+   * @throws  IllegalArgumentException  if the pool is not configured with {@link DefaultPoolMetrics}
+   */
+  public ConnectionPoolMonitor(final AbstractConnectionPool cp)
+  {
+    if (!(cp.getPoolMetrics() instanceof DefaultPoolMetrics)) {
+      throw new IllegalArgumentException("Pool " + cp.getName() + " must be configured with DefaultPoolMetrics");
+    }
+    pool = cp;
+    metrics = (DefaultPoolMetrics) cp.getPoolMetrics();
+  }
+
+
+  /**
+   * Registers this monitor with the platform MBean server.
+   *
+   * @throws  IllegalStateException  if registration fails
+   */
+  public synchronized void register()
+  {
+    if (objectName != null) {
+      throw new IllegalStateException("Monitor for pool " + pool.getName() + " is already registered");
+    }
+    try {
+      final ObjectName name = new ObjectName(
+        DOMAIN + ":type=ConnectionPool,name=" + ObjectName.quote(pool.getName()));
+      ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+      objectName = name;
+      logger.debug("Registered {} as {}", this, name);
+    } catch (JMException e) {
+      throw new IllegalStateException("Could not register monitor for pool " + pool.getName(), e);
+    }
+  }
+
+
+  /** Unregisters this monitor from the platform MBean server. No-op if this monitor is not registered. */
+  public synchronized void unregister()
+  {
+    if (objectName != null) {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+        if (server.isRegistered(objectName)) {
+          server.unregisterMBean(objectName);
+        }
+      } catch (JMException e) {
+        logger.warn("Could not unregister {}", objectName, e);
+      }
+      objectName = null;
+    }
+  }
+
+
+  /**
+   * Returns the name this monitor is registered under.
+   *
+   * @return  object name or null if this monitor is not registered
+   */
+  public synchronized ObjectName getObjectName()
+  {
+    return objectName;
+  }
+
+
+  @Override
+  public String getName()
+  {
+    return pool.getName();
+  }
+
+
+  @Override
+  public int getAvailableCount()
+  {
+    return pool.availableCount();
+  }
+
+
+  @Override
+  public int getActiveCount()
+  {
+    return pool.activeCount();
+  }
+
+
+  @Override
+  public int getWaiterCount()
+  {
+    return pool.waiterCount();
+  }
+
+
+  @Override
+  public long getCheckOutCount()
+  {
+    return pool.getCheckOutCount();
+  }
+
+
+  @Override
+  public long getExhaustedCount()
+  {
+    return metrics.getExhaustedCount();
+  }
+
+
+  @Override
+  public long getBlockingTimeoutCount()
+  {
+    return metrics.getBlockingTimeoutCount();
+  }
+
+
+  @Override
+  public long getCreateFailureCount()
+  {
+    return metrics.getCreateFailureCount();
+  }
+
+
+  @Override
+  public long getValidationFailureCount()
+  {
+    return metrics.getValidationFailureCount();
+  }
+
+
+  @Override
+  public LatencySummary getCheckOutTime()
+  {
+    return new LatencySummary(metrics.getCheckOutTime());
+  }
+
+
+  @Override
+  public LatencySummary getHeldTime()
+  {
+    return new LatencySummary(metrics.getHeldTime());
+  }
+
+
+  @Override
+  public LatencySummary getCreateTime()
+  {
+    return new LatencySummary(metrics.getCreateTime());
+  }
+
+
+  @Override
+  public LatencySummary getValidationTime()
+  {
+    return new LatencySummary(metrics.getValidationTime());
+  }
+
+
+  @Override
+  public void resetMetrics()
+  {
+    metrics.reset();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "pool=" + pool.getName() + ", " +
+      "objectName=" + objectName + "]";
+  }
+}
@@ -0,0 +1,204 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records pool measurements in {@link LatencyHistogram latency histograms} and counters. Instances are cheap enough to
+ * remain enabled in production, see {@link ConnectionPoolMonitor} to publish them over JMX.
+ *
+ * @author  Middleware Services
+ */
+public class DefaultPoolMetrics implements PoolMetrics
+{
+
+  /** Time spent waiting to check out a connection. */
+  private final LatencyHistogram checkOutTime = new LatencyHistogram();
+
+  /** Time connections were checked out. */
+  private final LatencyHistogram heldTime = new LatencyHistogram();
+
+  /** Time spent creating connections. */
+  private final LatencyHistogram createTime = new LatencyHistogram();
+
+  /** Time spent validating connections. */
+  private final LatencyHistogram validationTime = new LatencyHistogram();
+
+  /** Number of connections that could not be created. */
+  private final LongAdder createFailures = new LongAdder();
+
+  /** Number of connections that failed validation. */
+  private final LongAdder validationFailures = new LongAdder();
+
+  /** Number of check outs that failed because the pool was exhausted. */
+  private final LongAdder exhaustedCount = new LongAdder();
+
+  /** Number of check outs that exceeded the block wait time. */
+  private final LongAdder blockingTimeoutCount = new LongAdder();
+
+
+  @Override
+  public void recordCheckOut(final long waitNanos)
+  {
+    checkOutTime.record(waitNanos);
+  }
+
+
+  @Override
+  public void recordCheckIn(final long heldNanos)
+  {
+    heldTime.record(heldNanos);
+  }
+
+
+  @Override
+  public void recordCreate(final long nanos, final boolean success)
+  {
+    createTime.record(nanos);
+    if (!success) {
+      createFailures.increment();
+    }
+  }
+
+
+  @Override
+  public void recordValidation(final long nanos, final boolean success)
+  {
+    validationTime.record(nanos);
+    if (!success) {
+      validationFailures.increment();
+    }
+  }
+
+
+  @Override
+  public void recordExhausted()
+  {
+    exhaustedCount.increment();
+  }
+
+
+  @Override
+  public void recordBlockingTimeout()
+  {
+    blockingTimeoutCount.increment();
+  }
+
+
+  /**
+   * Returns the histogram of time spent waiting to check out a connection.
+   *
+   * @return  check out time histogram
+   */
+  public LatencyHistogram getCheckOutTime()
+  {
+    return checkOutTime;
+  }
+
+
+  /**
+   * Returns the histogram of time connections were checked out.
+   *
+   * @return  held time histogram
+   */
+  public LatencyHistogram getHeldTime()
+  {
+    return heldTime;
+  }
+
+
+  /**
+   * Returns the histogram of time spent creating connections.
+   *
+   * @return  create time histogram
+   */
+  public LatencyHistogram getCreateTime()
+  {
+    return createTime;
+  }
+
+
+  /**
+   * Returns the histogram of time spent validating connections.
+   *
+   * @return  validation time histogram
+   */
+  public LatencyHistogram getValidationTime()
+  {
+    return validationTime;
+  }
+
+
+  /**
+   * Returns the number of connections that could not be created.
+   *
+   * @return  create failure count
+   */
+  public long getCreateFailureCount()
+  {
+    return createFailures.sum();
+  }
+
+
+  /**
+   * Returns the number of connections that failed validation.
+   *
+   * @return  validation failure count
+   */
+  public long getValidationFailureCount()
+  {
+    return validationFailures.sum();
+  }
+
+
+  /**
+   * Returns the number of check outs that failed because the pool was exhausted.
+   *
+   * @return  exhausted count
+   */
+  public long getExhaustedCount()
+  {
+    return exhaustedCount.sum();
+  }
+
+
+  /**
+   * Returns the number of check outs that exceeded the block wait time.
+   *
+   * @return  blocking timeout count
+   */
+  public long getBlockingTimeoutCount()
+  {
+    return blockingTimeoutCount.sum();
+  }
+
+
+  /** Discards all recorded measurements. */
+  public void reset()
+  {
+    checkOutTime.reset();
+    heldTime.reset();
+    createTime.reset();
+    validationTime.reset();
+    createFailures.reset();
+    validationFailures.reset();
+    exhaustedCount.reset();
+    blockingTimeoutCount.reset();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "checkOutTime=" + checkOutTime + ", " +
+      "heldTime=" + heldTime + ", " +
+      "createTime=" + createTime + ", " +
+      "validationTime=" + validationTime + ", " +
+      "createFailureCount=" + getCreateFailureCount() + ", " +
+      "validationFailureCount=" + getValidationFailureCount() + ", " +
+      "exhaustedCount=" + getExhaustedCount() + ", " +
+      "blockingTimeoutCount=" + getBlockingTimeoutCount() + "]";
+  }
+}
@@ -0,0 +1,189 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock free histogram of durations in nanoseconds. Values are counted in log-linear buckets in the manner of an HDR
+ * histogram: each power of two is divided into {@value #SUB_BUCKET_COUNT} linear sub-buckets, which bounds the relative
+ * error of any reported percentile to 1/{@value #SUB_BUCKET_COUNT}. Recording a value costs a few atomic increments and
+ * does not allocate. Values read while other threads record are not an atomic snapshot, but every recorded value is
+ * eventually reflected.
+ *
+ * @author  Middleware Services
+ */
+public final class LatencyHistogram
+{
+
+  /** Number of bits used to index sub-buckets. */
+  private static final int SUB_BUCKET_BITS = 4;
+
+  /** Number of linear sub-buckets in each power of two. */
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  /** Total number of buckets, covering every positive long. */
+  private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  /** Largest percentile. */
+  private static final double MAX_PERCENTILE = 100;
+
+  /** Recorded counts indexed by bucket. */
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+  /** Number of recorded values. */
+  private final LongAdder count = new LongAdder();
+
+  /** Sum of recorded values. */
+  private final LongAdder sum = new LongAdder();
+
+  /** Largest recorded value. */
+  private final AtomicLong max = new AtomicLong();
+
+
+  /**
+   * Records the supplied duration. Negative values are recorded as zero.
+   *
+   * @param  nanos  duration in nanoseconds
+   */
+  public void record(final long nanos)
+  {
+    final long value = Math.max(0, nanos);
+    counts.incrementAndGet(bucketIndex(value));
+    count.increment();
+    sum.add(value);
+    if (value > max.get()) {
+      max.accumulateAndGet(value, Math::max);
+    }
+  }
+
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return  count
+   */
+  public long getCount()
+  {
+    return count.sum();
+  }
+
+
+  /**
+   * Returns the mean of the recorded values.
+   *
+   * @return  mean in nanoseconds or zero if no values have been recorded
+   */
+  public long getMean()
+  {
+    final long n = count.sum();
+    return n == 0 ? 0 : sum.sum() / n;
+  }
+
+
+  /**
+   * Returns the largest recorded value.
+   *
+   * @return  max in nanoseconds
+   */
+  public long getMax()
+  {
+    return max.get();
+  }
+
+
+  /**
+   * Returns the value below which the supplied percentage of recorded values fall. The returned value is the upper
+   * bound of the bucket containing the percentile, but never greater than {@link #getMax()}.
+   *
+   * @param  percentile  between 0 and 100
+   *
+   * @return  value in nanoseconds or zero if no values have been recorded
+   */
+  public long getValueAtPercentile(final double percentile)
+  {
+    if (percentile < 0 || percentile > MAX_PERCENTILE) {
+      throw new IllegalArgumentException("Percentile must be between 0 and 100");
+    }
+    long total = 0;
+    final long[] snapshot = new long[BUCKET_COUNT];
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      snapshot[i] = counts.get(i);
+      total += snapshot[i];
+    }
+    if (total == 0) {
+      return 0;
+    }
+    final long target = Math.max(1, (long) Math.ceil(percentile / MAX_PERCENTILE * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(bucketUpperBound(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+
+  /** Discards all recorded values. Values recorded concurrently with this method may be partially discarded. */
+  public void reset()
+  {
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      counts.set(i, 0);
+    }
+    count.reset();
+    sum.reset();
+    max.set(0);
+  }
+
+
+  /**
+   * Returns the index of the bucket that counts the supplied value.
+   *
+   * @param  value  non-negative value
+   *
+   * @return  bucket index
+   */
+  static int bucketIndex(final long value)
+  {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+    return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+
+  /**
+   * Returns the largest value counted by the supplied bucket.
+   *
+   * @param  index  bucket index
+   *
+   * @return  upper bound of the bucket
+   */
+  static long bucketUpperBound(final int index)
+  {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    final int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+    final long subBucket = index % SUB_BUCKET_COUNT;
+    final long width = 1L << (exponent - SUB_BUCKET_BITS);
+    final long lowerBound = (1L << exponent) + subBucket * width;
+    return lowerBound + width - 1;
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "count=" + getCount() + ", " +
+      "mean=" + getMean() + ", " +
+      "max=" + getMax() + "]";
+  }
+}
@@ -0,0 +1,157 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedules the maintenance tasks of every connection pool in the JVM. A single daemon thread keeps time and hands each
+ * due task to a shared pool of daemon worker threads, so a slow task only delays the pool that owns it. Each task is
+ * executed with a fixed delay: the next execution is scheduled when the previous one completes, so executions of the
+ * same task never overlap and at most one worker thread is used per pool. Tasks should be cancelled when their pool is
+ * closed.
+ *
+ * @author  Middleware Services
+ */
+final class MaintenanceScheduler
+{
+
+  /** Default constructor. */
+  private MaintenanceScheduler() {}
+
+
+  /**
+   * Schedules the supplied task to execute periodically.
+   *
+   * @param  task  to execute
+   * @param  period  between the end of one execution and the start of the next
+   *
+   * @return  scheduled task used to cancel execution
+   */
+  static Task schedule(final Runnable task, final Duration period)
+  {
+    final Task t = new Task(task, period.toMillis());
+    t.scheduleNext();
+    return t;
+  }
+
+
+  /** Periodic task that executes on a worker thread. */
+  static final class Task
+  {
+
+    /** Task to execute. */
+    private final Runnable runnable;
+
+    /** Delay in milliseconds between executions. */
+    private final long delay;
+
+    /** Next scheduled execution. */
+    private volatile ScheduledFuture<?> next;
+
+    /** Whether this task has been cancelled. */
+    private volatile boolean cancelled;
+
+
+    /**
+     * Creates a new task.
+     *
+     * @param  r  to execute
+     * @param  d  delay in milliseconds between executions
+     */
+    Task(final Runnable r, final long d)
+    {
+      runnable = r;
+      delay = d;
+    }
+
+
+    /** Cancels this task. An execution that is in progress is allowed to complete. */
+    void cancel()
+    {
+      cancelled = true;
+      final ScheduledFuture<?> f = next;
+      if (f != null) {
+        f.cancel(false);
+      }
+    }
+
+
+    /** Schedules the next execution of this task unless it has been cancelled. */
+    private void scheduleNext()
+    {
+      if (!cancelled) {
+        next = ExecutorHolder.SCHEDULER.schedule(this::dispatch, delay, TimeUnit.MILLISECONDS);
+        // cancel may have missed the future that was just scheduled
+        if (cancelled) {
+          next.cancel(false);
+        }
+      }
+    }
+
+
+    /** Hands this task to a worker thread. Invoked on the scheduler thread. */
+    private void dispatch()
+    {
+      if (!cancelled) {
+        try {
+          ExecutorHolder.WORKERS.execute(this::execute);
+        } catch (RejectedExecutionException e) {
+          scheduleNext();
+        }
+      }
+    }
+
+
+    /** Executes this task and schedules the next execution. Invoked on a worker thread. */
+    private void execute()
+    {
+      try {
+        if (!cancelled) {
+          runnable.run();
+        }
+      } finally {
+        scheduleNext();
+      }
+    }
+  }
+
+
+  /** Lazily creates the executors on first use. */
+  private static final class ExecutorHolder
+  {
+
+    /** Executor that keeps time for all pools. */
+    private static final ScheduledThreadPoolExecutor SCHEDULER;
+
+    /** Executor that runs maintenance for all pools. */
+    private static final ExecutorService WORKERS;
+
+    static {
+      SCHEDULER = new ScheduledThreadPoolExecutor(
+        1,
+        r -> {
+          final Thread t = new Thread(r, "ldaptive-pool-maintenance");
+          t.setDaemon(true);
+          return t;
+        });
+      // release the tasks of closed pools immediately
+      SCHEDULER.setRemoveOnCancelPolicy(true);
+      WORKERS = Executors.newCachedThreadPool(
+        r -> {
+          final Thread t = new Thread(r, "ldaptive-pool-maintenance-worker");
+          t.setDaemon(true);
+          return t;
+        });
+    }
+
+
+    /** Default constructor. */
+    private ExecutorHolder() {}
+  }
+}
@@ -0,0 +1,59 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+/**
+ * Receives measurements from a connection pool. Methods are invoked synchronously by the threads that check out, check
+ * in, create and validate connections, implementations must be thread safe and should not block. Every method has an
+ * empty default implementation so that implementations may record only the measurements they need. See {@link
+ * DefaultPoolMetrics}.
+ *
+ * @author  Middleware Services
+ */
+public interface PoolMetrics
+{
+
+  /** Metrics implementation that discards all measurements. */
+  PoolMetrics NOOP = new PoolMetrics() {};
+
+
+  /**
+   * Invoked when a connection is checked out of the pool.
+   *
+   * @param  waitNanos  time spent waiting for the connection, including creation, activation and validation
+   */
+  default void recordCheckOut(final long waitNanos) {}
+
+
+  /**
+   * Invoked when a connection is checked in to the pool.
+   *
+   * @param  heldNanos  time the connection was checked out
+   */
+  default void recordCheckIn(final long heldNanos) {}
+
+
+  /**
+   * Invoked when the pool attempts to create a connection.
+   *
+   * @param  nanos  time spent creating and opening the connection
+   * @param  success  whether the connection was created
+   */
+  default void recordCreate(final long nanos, final boolean success) {}
+
+
+  /**
+   * Invoked when the pool validates a connection.
+   *
+   * @param  nanos  time spent validating the connection
+   * @param  success  whether the connection passed validation
+   */
+  default void recordValidation(final long nanos, final boolean success) {}
+
+
+  /** Invoked when a check out fails with {@link PoolExhaustedException}. */
+  default void recordExhausted() {}
+
+
+  /** Invoked when a check out fails with {@link BlockingTimeoutException}. */
+  default void recordBlockingTimeout() {}
+}
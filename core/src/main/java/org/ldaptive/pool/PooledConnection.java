@@ -0,0 +1,232 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import org.ldaptive.AbandonRequest;
+import org.ldaptive.AddRequest;
+import org.ldaptive.AddResponse;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
+import org.ldaptive.CompareOperationHandle;
+import org.ldaptive.CompareRequest;
+import org.ldaptive.Connection;
+import org.ldaptive.DeleteRequest;
+import org.ldaptive.DeleteResponse;
+import org.ldaptive.LdapException;
+import org.ldaptive.LdapURL;
+import org.ldaptive.LdapUtils;
+import org.ldaptive.ModifyDnRequest;
+import org.ldaptive.ModifyDnResponse;
+import org.ldaptive.ModifyRequest;
+import org.ldaptive.ModifyResponse;
+import org.ldaptive.OperationHandle;
+import org.ldaptive.SearchOperationHandle;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.control.RequestControl;
+import org.ldaptive.extended.ExtendedOperationHandle;
+import org.ldaptive.extended.ExtendedRequest;
+import org.ldaptive.sasl.DefaultSaslClientRequest;
+import org.ldaptive.sasl.SaslClientRequest;
+
+/**
+ * Connection that is handed out by a connection pool. All operations are delegated directly to the underlying
+ * connection, {@link #open()} only opens the underlying connection if it has been closed and {@link
+ * #close(RequestControl...)} returns this connection to the pool. Pooled connections are equal if their underlying
+ * connections are equal. Replaces the use of {@link java.lang.reflect.Proxy} so that pooled connection invocations do
+ * not incur reflective dispatch.
+ *
+ * @author  Middleware Services
+ */
+public final class PooledConnection implements Connection
+{
+
+  /** Pool that this connection belongs to. */
+  private final AbstractConnectionPool connectionPool;
+
+  /** Pooled connection proxy that tracks this connection. */
+  private final PooledConnectionProxy connectionProxy;
+
+  /** Underlying connection. */
+  private final Connection connection;
+
+
+  /**
+   * Creates a new pooled connection.
+   *
+   * @param  pool  that this connection belongs to
+   * @param  pc  pooled connection proxy that tracks this connection
+   */
+  PooledConnection(final AbstractConnectionPool pool, final PooledConnectionProxy pc)
+  {
+    connectionPool = pool;
+    connectionProxy = pc;
+    connection = pc.getConnection();
+  }
+
+
+  /**
+   * Returns the pooled connection proxy that tracks this connection.
+   *
+   * @return  pooled connection proxy
+   */
+  PooledConnectionProxy getPooledConnectionProxy()
+  {
+    return connectionProxy;
+  }
+
+
+  @Override
+  public void operation(final AbandonRequest request)
+  {
+    connection.operation(request);
+  }
+
+
+  @Override
+  public OperationHandle<AddRequest, AddResponse> operation(final AddRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public OperationHandle<BindRequest, BindResponse> operation(final BindRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public CompareOperationHandle operation(final CompareRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public OperationHandle<DeleteRequest, DeleteResponse> operation(final DeleteRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public ExtendedOperationHandle operation(final ExtendedRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public OperationHandle<ModifyRequest, ModifyResponse> operation(final ModifyRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public OperationHandle<ModifyDnRequest, ModifyDnResponse> operation(final ModifyDnRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public SearchOperationHandle operation(final SearchRequest request)
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public BindResponse operation(final SaslClientRequest request)
+    throws LdapException
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public BindResponse operation(final DefaultSaslClientRequest request)
+    throws LdapException
+  {
+    return connection.operation(request);
+  }
+
+
+  @Override
+  public LdapURL getLdapURL()
+  {
+    return connection.getLdapURL();
+  }
+
+
+  @Override
+  public boolean isOpen()
+  {
+    return connection.isOpen();
+  }
+
+
+  /**
+   * Opens the underlying connection if it has been closed.
+   *
+   * @throws  LdapException  if an error occurs opening the connection
+   */
+  @Override
+  public void open()
+    throws LdapException
+  {
+    if (!connection.isOpen()) {
+      connection.open();
+    }
+  }
+
+
+  @Override
+  public void close()
+  {
+    connectionPool.putConnection(this);
+  }
+
+
+  /**
+   * Returns this connection to the pool. Controls are ignored since the underlying connection is not closed.
+   *
+   * @param  controls  ignored
+   */
+  @Override
+  public void close(final RequestControl... controls)
+  {
+    connectionPool.putConnection(this);
+  }
+
+
+  @Override
+  public boolean equals(final Object o)
+  {
+    if (o == this) {
+      return true;
+    }
+    if (o instanceof PooledConnection) {
+      final PooledConnection v = (PooledConnection) o;
+      return LdapUtils.areEqual(connection, v.connection);
+    }
+    return false;
+  }
+
+
+  @Override
+  public int hashCode()
+  {
+    return connection.hashCode();
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return getClass().getName() + "@" + hashCode() + "::" +
+      "connectionPool=" + connectionPool.getName() + ", " +
+      "connection=" + connection;
+  }
+}
@@ -93,15 +93,14 @@ public final class AuthenticatorPropertySource extends AbstractPropertySource<Au
     initializeObject(INVOKER);
 
     // initialize a SearchDnResolver by default
-    DnResolver dnResolver = object.getDnResolver();
+    final DnResolver dnResolver = object.getDnResolver();
     if (dnResolver == null) {
-      dnResolver = new SearchDnResolver();
       final SearchDnResolverPropertySource dnPropSource = new SearchDnResolverPropertySource(
-        (SearchDnResolver) dnResolver,
+        new SearchDnResolver(),
         propertiesDomain,
         properties);
       dnPropSource.initialize();
-      object.setDnResolver(dnResolver);
+      object.setDnResolver(dnPropSource.getDnResolver());
     } else {
       if (dnResolver instanceof SearchDnResolver) {
         final SearchDnResolverPropertySource dnPropSource = new SearchDnResolverPropertySource(
@@ -109,6 +108,7 @@ public final class AuthenticatorPropertySource extends AbstractPropertySource<Au
           propertiesDomain,
           properties);
         dnPropSource.initialize();
+        object.setDnResolver(dnPropSource.getDnResolver());
       } else {
         final SimplePropertySource<DnResolver> sPropSource = new SimplePropertySource<>(
           dnResolver,
@@ -7,6 +7,7 @@ import org.ldaptive.ConnectionStrategy;
 import org.ldaptive.DnsSrvConnectionStrategy;
 import org.ldaptive.RandomConnectionStrategy;
 import org.ldaptive.RoundRobinConnectionStrategy;
+import org.ldaptive.transport.OperationListener;
 
 /**
  * Handles properties for {@link org.ldaptive.ConnectionConfig}.
@@ -47,6 +48,8 @@ public class ConnectionConfigPropertyInvoker extends AbstractPropertyInvoker
         } else {
           newValue = createTypeFromPropertyValue(ConnectionStrategy.class, value);
         }
+      } else if (OperationListener.class.isAssignableFrom(type)) {
+        newValue = createTypeFromPropertyValue(OperationListener.class, value);
       } else {
         newValue = convertSimpleType(type, value);
       }
@@ -2,12 +2,18 @@
 package org.ldaptive.props;
 
 import java.io.Reader;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Properties;
 import java.util.Set;
+import org.ldaptive.auth.CachingDnResolver;
+import org.ldaptive.auth.DnResolver;
 import org.ldaptive.auth.SearchDnResolver;
 
 /**
- * Reads properties specific to {@link SearchDnResolver} and returns an initialized object of that type.
+ * Reads properties specific to {@link SearchDnResolver} and returns an initialized object of that type. If any of the
+ * {@link CachingDnResolver} cache properties are set, {@link #getDnResolver()} returns a caching DN resolver that
+ * decorates the search dn resolver.
  *
  * @author  Middleware Services
  */
@@ -19,6 +25,18 @@ public final class SearchDnResolverPropertySource
   private static final SearchOperationFactoryPropertyInvoker INVOKER =
     new SearchOperationFactoryPropertyInvoker(SearchDnResolver.class);
 
+  /** Invoker for caching dn resolver. */
+  private static final SimplePropertyInvoker CACHE_INVOKER = new SimplePropertyInvoker(CachingDnResolver.class);
+
+  /** Caching dn resolver properties. */
+  private static final Set<String> CACHE_PROPERTIES = Set.of(
+    "cacheSize",
+    "cacheTimeToLive",
+    "cacheNegativeTimeToLive");
+
+  /** Caching dn resolver, null if no cache properties are set. */
+  private CachingDnResolver cachingDnResolver;
+
 
   /**
    * Creates a new search dn resolver property source using the default properties file.
@@ -88,6 +106,27 @@ public final class SearchDnResolverPropertySource
   {
     initializeObject(INVOKER);
     super.initialize();
+    for (String name : CACHE_PROPERTIES) {
+      final String value = properties.getProperty(propertiesDomain.value() + name);
+      if (value != null) {
+        if (cachingDnResolver == null) {
+          cachingDnResolver = new CachingDnResolver(object);
+        }
+        CACHE_INVOKER.setProperty(cachingDnResolver, name, value);
+      }
+    }
+  }
+
+
+  /**
+   * Returns the dn resolver configured by this property source. This is a {@link CachingDnResolver} decorating the
+   * search dn resolver if any cache properties are set, otherwise the search dn resolver.
+   *
+   * @return  dn resolver
+   */
+  public DnResolver getDnResolver()
+  {
+    return cachingDnResolver != null ? cachingDnResolver : object;
   }
 
 
@@ -98,6 +137,8 @@ public final class SearchDnResolverPropertySource
    */
   public static Set<String> getProperties()
   {
-    return INVOKER.getProperties();
+    final Set<String> names = new HashSet<>(INVOKER.getProperties());
+    names.addAll(CACHE_PROPERTIES);
+    return Collections.unmodifiableSet(names);
   }
 }
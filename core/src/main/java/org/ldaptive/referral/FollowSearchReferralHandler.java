@@ -90,6 +90,7 @@ public class FollowSearchReferralHandler extends AbstractFollowReferralHandler<S
         .returnAttributes(getRequest().getReturnAttributes())
         .aliases(getRequest().getDerefAliases())
         .binaryAttributes(getRequest().getBinaryAttributes())
+        .lazyAttributes(getRequest().isLazyAttributes())
         .build();
     } catch (FilterParseException e) {
       throw new IllegalStateException("Could not parse filter in the LDAP URL '" + url.getFilter() + "'", e);
@@ -92,6 +92,7 @@ public class FollowSearchResultReferenceHandler extends AbstractFollowReferralHa
         .returnAttributes(getRequest().getReturnAttributes())
         .aliases(getRequest().getDerefAliases())
         .binaryAttributes(getRequest().getBinaryAttributes())
+        .lazyAttributes(getRequest().isLazyAttributes())
         .build();
     } catch (FilterParseException e) {
       throw new IllegalStateException("Could not parse filter in the LDAP URL '" + url.getFilter() + "'", e);
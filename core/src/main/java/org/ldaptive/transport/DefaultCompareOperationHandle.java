@@ -146,6 +146,7 @@ public class DefaultCompareOperationHandle
    */
   public void compare(final CompareResponse response)
   {
+    responded();
     if (onCompare != null) {
       for (CompareValueHandler func : onCompare) {
         try {
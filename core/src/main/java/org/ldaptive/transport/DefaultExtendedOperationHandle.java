@@ -148,6 +148,7 @@ public class DefaultExtendedOperationHandle
    */
   public void extended(final ExtendedResponse response)
   {
+    responded();
     if (onExtended != null) {
       for (ExtendedValueHandler func : onExtended) {
         try {
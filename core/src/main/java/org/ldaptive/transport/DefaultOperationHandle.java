@@ -28,6 +28,7 @@ import org.ldaptive.handler.ResponseControlHandler;
 import org.ldaptive.handler.ResultHandler;
 import org.ldaptive.handler.ResultPredicate;
 import org.ldaptive.handler.UnsolicitedNotificationHandler;
+import org.ldaptive.jfr.FlightRecorderEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -102,6 +103,27 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
   /** Exception encountered attempting to process the request. */
   private LdapException exception;
 
+  /** Listener to notify as this operation progresses, null if no measurements should be taken. */
+  private final OperationListener listener;
+
+  /** Value of {@link System#nanoTime()} when the request was sent, zero if no listener is configured. */
+  private long sentNanos;
+
+  /** Nanoseconds between sending the request and receiving the first response message. */
+  private long firstResponseNanos;
+
+  /** Nanoseconds between sending the request and completing this handle. */
+  private long completeNanos;
+
+  /** Number of bytes in the encoded request. */
+  private int requestLength;
+
+  /** Number of bytes in the encoded response messages. Written by the thread that decodes responses. */
+  private volatile long responseLength;
+
+  /** Number of search result entries received. */
+  private int entryCount;
+
 
   /**
    * Creates a new operation handle.
@@ -121,6 +143,7 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
     request = req;
     connection = conn;
     responseTimeout = timeout;
+    listener = conn.connectionConfig.getOperationListener();
   }
 
 
@@ -426,6 +449,75 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
   }
 
 
+  /**
+   * Returns the duration to wait for a response.
+   *
+   * @return  response timeout
+   */
+  public Duration getResponseTimeout()
+  {
+    return responseTimeout;
+  }
+
+
+  /**
+   * Returns the number of bytes in the encoded request. Only available if the transport reports it.
+   *
+   * @return  request length or zero
+   */
+  public int getRequestLength()
+  {
+    return requestLength;
+  }
+
+
+  /**
+   * Returns the number of bytes in the encoded response messages received so far. Only available if an operation
+   * listener is configured and the transport reports it.
+   *
+   * @return  response length or zero
+   */
+  public long getResponseLength()
+  {
+    return responseLength;
+  }
+
+
+  /**
+   * Returns the number of search result entries received so far.
+   *
+   * @return  entry count
+   */
+  public int getEntryCount()
+  {
+    return entryCount;
+  }
+
+
+  /**
+   * Returns the nanoseconds between sending the request and receiving the first response message. Only available if an
+   * operation listener is configured.
+   *
+   * @return  first response nanoseconds or zero if no response has been received
+   */
+  public long getFirstResponseNanos()
+  {
+    return firstResponseNanos;
+  }
+
+
+  /**
+   * Returns the nanoseconds between sending the request and completing this handle. Only available if an operation
+   * listener is configured.
+   *
+   * @return  complete nanoseconds or zero if this handle has not completed or the request was never sent
+   */
+  public long getCompleteNanos()
+  {
+    return completeNanos;
+  }
+
+
   /**
    * Sets the message ID.
    *
@@ -443,6 +535,38 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
   public void sent()
   {
     sentTime = Instant.now();
+    if (listener != null) {
+      sentNanos = System.nanoTime();
+      try {
+        listener.sent(this);
+      } catch (Exception e) {
+        logger.warn("Operation listener {} in handle {} threw an exception", listener, this, e);
+      }
+    }
+  }
+
+
+  /**
+   * Sets the sent time to now and records the length of the encoded request.
+   *
+   * @param  length  of the encoded request in bytes
+   */
+  public void sent(final int length)
+  {
+    requestLength = length;
+    sent();
+  }
+
+
+  /**
+   * Records the length of an encoded response message for this handle. Invoked by transports before the decoded message
+   * is delivered to this handle.
+   *
+   * @param  length  of the encoded response message in bytes
+   */
+  public void received(final int length)
+  {
+    responseLength += length;
   }
 
 
@@ -456,6 +580,7 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
     if (r == null) {
       throw new IllegalArgumentException("Result cannot be null for handle " + this);
     }
+    responded();
     if (onResult != null) {
       for (ResultHandler func : onResult) {
         try {
@@ -516,6 +641,7 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
    */
   public void intermediate(final IntermediateResponse r)
   {
+    responded();
     if (onIntermediate != null) {
       for (Consumer<IntermediateResponse> func : onIntermediate) {
         try {
@@ -571,6 +697,39 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
   }
 
 
+  /**
+   * Notifies the operation listener when the first response message for this handle is received. Invoked for every
+   * response message correlated to this handle.
+   */
+  protected void responded()
+  {
+    if (listener != null && firstResponseNanos == 0) {
+      firstResponseNanos = Math.max(1, System.nanoTime() - sentNanos);
+      try {
+        listener.firstResponse(this);
+      } catch (Exception e) {
+        logger.warn("Operation listener {} in handle {} threw an exception", listener, this, e);
+      }
+    }
+  }
+
+
+  /**
+   * Counts a search result entry for this handle and notifies the operation listener.
+   */
+  protected void entryReceived()
+  {
+    entryCount++;
+    if (listener != null) {
+      try {
+        listener.entry(this);
+      } catch (Exception e) {
+        logger.warn("Operation listener {} in handle {} threw an exception", listener, this, e);
+      }
+    }
+  }
+
+
   /**
    * Indicates that a protocol message was consumed by a supplied consumer.
    */
@@ -595,6 +754,21 @@ public class DefaultOperationHandle<Q extends Request, S extends Result> impleme
         responseDone.countDown();
       } finally {
         receivedTime = Instant.now();
+        final ResultCode resultCode = exception != null ? exception.getResultCode() : result.getResultCode();
+        if (request instanceof BindRequest) {
+          FlightRecorderEvents.bind(
+            request.getClass().getSimpleName(),
+            resultCode != null ? resultCode.name() : null,
+            sentTime != null ? Duration.between(sentTime, receivedTime).toNanos() : 0);
+        }
+        if (listener != null) {
+          completeNanos = sentNanos != 0 ? System.nanoTime() - sentNanos : 0;
+          try {
+            listener.complete(this, resultCode);
+          } catch (Exception e) {
+            logger.warn("Operation listener {} in handle {} threw an exception", listener, this, e);
+          }
+        }
         if (onComplete != null) {
           try {
             onComplete.execute();
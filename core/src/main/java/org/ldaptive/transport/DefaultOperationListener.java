@@ -0,0 +1,262 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.ldaptive.Request;
+import org.ldaptive.ResultCode;
+import org.ldaptive.pool.LatencyHistogram;
+
+/**
+ * Operation listener that aggregates measurements for each type of request. Completed operations are counted by result
+ * code and their first response and completion times are recorded in {@link LatencyHistogram latency histograms}.
+ * Recording does not lock or allocate once a request type has been seen, so instances are cheap enough to remain
+ * enabled in production.
+ *
+ * @author  Middleware Services
+ */
+public class DefaultOperationListener implements OperationListener
+{
+
+  /** Statistics for each type of request. */
+  private final Map<Class<? extends Request>, OperationStatistics> statistics = new ConcurrentHashMap<>();
+
+
+  @Override
+  public void complete(final DefaultOperationHandle<?, ?> handle, final ResultCode resultCode)
+  {
+    final Class<? extends Request> type = handle.getRequest().getClass();
+    OperationStatistics stats = statistics.get(type);
+    if (stats == null) {
+      stats = statistics.computeIfAbsent(type, k -> new OperationStatistics());
+    }
+    stats.record(handle, resultCode);
+  }
+
+
+  /**
+   * Returns the statistics for the supplied request type.
+   *
+   * @param  type  of request
+   *
+   * @return  operation statistics or null if no operation of that type has completed
+   */
+  public OperationStatistics getStatistics(final Class<? extends Request> type)
+  {
+    return statistics.get(type);
+  }
+
+
+  /**
+   * Returns the statistics for every request type that has completed an operation.
+   *
+   * @return  unmodifiable map of request type to operation statistics
+   */
+  public Map<Class<? extends Request>, OperationStatistics> getStatistics()
+  {
+    return Collections.unmodifiableMap(new HashMap<>(statistics));
+  }
+
+
+  /** Discards all recorded measurements. */
+  public void reset()
+  {
+    statistics.values().forEach(OperationStatistics::reset);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return "[" +
+      getClass().getName() + "@" + hashCode() + "::" +
+      "statistics=" + statistics + "]";
+  }
+
+
+  /** Measurements for a single type of request. */
+  public static final class OperationStatistics
+  {
+
+    /** Result codes indexed by ordinal. */
+    private static final ResultCode[] RESULT_CODES = ResultCode.values();
+
+    /** Number of completed operations indexed by result code ordinal, the last index counts unknown codes. */
+    private final AtomicLongArray resultCounts = new AtomicLongArray(RESULT_CODES.length + 1);
+
+    /** Number of completed operations. */
+    private final LongAdder count = new LongAdder();
+
+    /** Number of search result entries received. */
+    private final LongAdder entryCount = new LongAdder();
+
+    /** Number of bytes in encoded requests. */
+    private final LongAdder requestBytes = new LongAdder();
+
+    /** Number of bytes in encoded responses. */
+    private final LongAdder responseBytes = new LongAdder();
+
+    /** Time between sending a request and receiving its first response. */
+    private final LatencyHistogram firstResponseTime = new LatencyHistogram();
+
+    /** Time between sending a request and completing the operation. */
+    private final LatencyHistogram completeTime = new LatencyHistogram();
+
+
+    /** Default constructor. */
+    OperationStatistics() {}
+
+
+    /**
+     * Records the measurements of the supplied completed handle.
+     *
+     * @param  handle  that completed
+     * @param  resultCode  of the operation, may be null
+     */
+    void record(final DefaultOperationHandle<?, ?> handle, final ResultCode resultCode)
+    {
+      resultCounts.incrementAndGet(resultCode != null ? resultCode.ordinal() : RESULT_CODES.length);
+      count.increment();
+      entryCount.add(handle.getEntryCount());
+      requestBytes.add(handle.getRequestLength());
+      responseBytes.add(handle.getResponseLength());
+      if (handle.getFirstResponseNanos() > 0) {
+        firstResponseTime.record(handle.getFirstResponseNanos());
+      }
+      if (handle.getCompleteNanos() > 0) {
+        completeTime.record(handle.getCompleteNanos());
+      }
+    }
+
+
+    /**
+     * Returns the number of completed operations.
+     *
+     * @return  operation count
+     */
+    public long getCount()
+    {
+      return count.sum();
+    }
+
+
+    /**
+     * Returns the number of completed operations with the supplied result code.
+     *
+     * @param  code  result code
+     *
+     * @return  operation count
+     */
+    public long getCount(final ResultCode code)
+    {
+      return resultCounts.get(code.ordinal());
+    }
+
+
+    /**
+     * Returns the number of completed operations for each result code that has occurred.
+     *
+     * @return  map of result code to operation count
+     */
+    public Map<ResultCode, Long> getResultCodeCounts()
+    {
+      final Map<ResultCode, Long> counts = new HashMap<>();
+      for (ResultCode code : RESULT_CODES) {
+        final long c = resultCounts.get(code.ordinal());
+        if (c > 0) {
+          counts.put(code, c);
+        }
+      }
+      return counts;
+    }
+
+
+    /**
+     * Returns the number of search result entries received.
+     *
+     * @return  entry count
+     */
+    public long getEntryCount()
+    {
+      return entryCount.sum();
+    }
+
+
+    /**
+     * Returns the number of bytes in encoded requests.
+     *
+     * @return  request bytes
+     */
+    public long getRequestBytes()
+    {
+      return requestBytes.sum();
+    }
+
+
+    /**
+     * Returns the number of bytes in encoded responses.
+     *
+     * @return  response bytes
+     */
+    public long getResponseBytes()
+    {
+      return responseBytes.sum();
+    }
+
+
+    /**
+     * Returns the histogram of time between sending a request and receiving its first response.
+     *
+     * @return  first response time histogram
+     */
+    public LatencyHistogram getFirstResponseTime()
+    {
+      return firstResponseTime;
+    }
+
+
+    /**
+     * Returns the histogram of time between sending a request and completing the operation.
+     *
+     * @return  complete time histogram
+     */
+    public LatencyHistogram getCompleteTime()
+    {
+      return completeTime;
+    }
+
+
+    /** Discards all recorded measurements. */
+    void reset()
+    {
+      for (int i = 0; i < resultCounts.length(); i++) {
+        resultCounts.set(i, 0);
+      }
+      count.reset();
+      entryCount.reset();
+      requestBytes.reset();
+      responseBytes.reset();
+      firstResponseTime.reset();
+      completeTime.reset();
+    }
+
+
+    @Override
+    public String toString()
+    {
+      return "[" +
+        getClass().getName() + "@" + hashCode() + "::" +
+        "count=" + getCount() + ", " +
+        "resultCodeCounts=" + getResultCodeCounts() + ", " +
+        "entryCount=" + getEntryCount() + ", " +
+        "requestBytes=" + getRequestBytes() + ", " +
+        "responseBytes=" + getResponseBytes() + ", " +
+        "firstResponseTime=" + firstResponseTime + ", " +
+        "completeTime=" + completeTime + "]";
+    }
+  }
+}
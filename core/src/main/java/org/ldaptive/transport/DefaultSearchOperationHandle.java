@@ -214,6 +214,8 @@ public class DefaultSearchOperationHandle
    */
   public void entry(final LdapEntry r)
   {
+    responded();
+    entryReceived();
     LdapEntry e = r;
     if (onEntry != null) {
       for (LdapEntryHandler func : onEntry) {
@@ -238,6 +240,7 @@ public class DefaultSearchOperationHandle
    */
   public void reference(final SearchResultReference r)
   {
+    responded();
     if (onReference != null) {
       for (SearchReferenceHandler func : onReference) {
         try {
@@ -0,0 +1,53 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import org.ldaptive.ResultCode;
+
+/**
+ * Receives notifications as an operation progresses through a connection. Configured with {@link
+ * org.ldaptive.ConnectionConfig#setOperationListener(OperationListener)}. Methods are invoked synchronously by the
+ * transport threads that write requests and read responses, implementations must be thread safe and must not block.
+ * Measurements are read from the supplied handle, see {@link DefaultOperationHandle#getRequestLength()}, {@link
+ * DefaultOperationHandle#getResponseLength()}, {@link DefaultOperationHandle#getEntryCount()}, {@link
+ * DefaultOperationHandle#getFirstResponseNanos()} and {@link DefaultOperationHandle#getCompleteNanos()}. Every method
+ * has an empty default implementation so that implementations may observe only the events they need. When no listener
+ * is configured the transport does not take any measurements.
+ *
+ * @author  Middleware Services
+ */
+public interface OperationListener
+{
+
+
+  /**
+   * Invoked when the request for the supplied handle has been written to the connection.
+   *
+   * @param  handle  that was sent
+   */
+  default void sent(final DefaultOperationHandle<?, ?> handle) {}
+
+
+  /**
+   * Invoked when the first response message for the supplied handle has been received.
+   *
+   * @param  handle  that received a response
+   */
+  default void firstResponse(final DefaultOperationHandle<?, ?> handle) {}
+
+
+  /**
+   * Invoked when a search result entry for the supplied handle has been received.
+   *
+   * @param  handle  that received an entry
+   */
+  default void entry(final DefaultOperationHandle<?, ?> handle) {}
+
+
+  /**
+   * Invoked when the supplied handle completes, either because a result was received or because an exception occurred.
+   *
+   * @param  handle  that completed
+   * @param  resultCode  of the result or exception, may be null
+   */
+  default void complete(final DefaultOperationHandle<?, ?> handle, final ResultCode resultCode) {}
+}
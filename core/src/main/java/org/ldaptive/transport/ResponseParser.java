@@ -2,6 +2,7 @@
 package org.ldaptive.transport;
 
 import java.util.Optional;
+import java.util.function.IntPredicate;
 import org.ldaptive.AddResponse;
 import org.ldaptive.BindResponse;
 import org.ldaptive.CompareResponse;
@@ -12,122 +13,104 @@ import org.ldaptive.ModifyDnResponse;
 import org.ldaptive.ModifyResponse;
 import org.ldaptive.SearchResponse;
 import org.ldaptive.SearchResultReference;
+import org.ldaptive.asn1.ApplicationDERTag;
 import org.ldaptive.asn1.DERBuffer;
 import org.ldaptive.asn1.DERParser;
-import org.ldaptive.asn1.DERPath;
+import org.ldaptive.asn1.IntegerType;
+import org.ldaptive.asn1.UniversalDERTag;
 import org.ldaptive.extended.ExtendedResponse;
 import org.ldaptive.extended.IntermediateResponse;
 import org.ldaptive.extended.NoticeOfDisconnection;
 import org.ldaptive.extended.SyncInfoMessage;
 
 /**
- * Parses a buffer looking for an LDAP response message.
+ * Parses a buffer looking for an LDAP response message. The protocol operation is located by reading the application
+ * tag of the LDAP message envelope and the matching message type is created from a fixed table, so a single instance
+ * can be reused to parse any number of messages. Search result entries are lazily decoded for message IDs accepted by
+ * the configured predicate, see {@link LdapEntry#LdapEntry(DERBuffer, boolean)}. The predicate is tested once for the
+ * first entry of a search, not for every entry. Instances are not thread safe.
  *
  * @author  Middleware Services
  */
 public class ResponseParser
 {
 
-  /** Bind response DER path. */
-  private static final DERPath BIND_PATH = new DERPath("/SEQ/APP(1)");
+  /** Universal SEQUENCE tag byte of the LDAP message envelope. */
+  private static final int SEQUENCE_TAG = UniversalDERTag.SEQ.getTagByte();
 
-  /** Search entry DER path. */
-  private static final DERPath ENTRY_PATH = new DERPath("/SEQ/APP(4)");
+  /** Universal INTEGER tag byte of the message ID. */
+  private static final int MESSAGE_ID_TAG = UniversalDERTag.INT.getTagByte();
 
-  /** Search response DER path. */
-  private static final DERPath SEARCH_PATH = new DERPath("/SEQ/APP(5)");
+  /** Mask for an unsigned byte. */
+  private static final int BYTE_MASK = 0xFF;
 
-  /** Modify response DER path. */
-  private static final DERPath MODIFY_PATH = new DERPath("/SEQ/APP(7)");
+  /** Mask for the tag class bits. */
+  private static final int TAG_CLASS_MASK = 0xC0;
 
-  /** Add response DER path. */
-  private static final DERPath ADD_PATH = new DERPath("/SEQ/APP(9)");
+  /** Mask for the tag number bits. */
+  private static final int TAG_NUMBER_MASK = 0x1F;
 
-  /** Delete response DER path. */
-  private static final DERPath DELETE_PATH = new DERPath("/SEQ/APP(11)");
+  /** Bind response application tag number. */
+  private static final int BIND_TAG = 1;
 
-  /** Modify DN response DER path. */
-  private static final DERPath MODIFY_DN_PATH = new DERPath("/SEQ/APP(13)");
+  /** Search entry application tag number. */
+  private static final int ENTRY_TAG = 4;
 
-  /** Compare response DER path. */
-  private static final DERPath COMPARE_PATH = new DERPath("/SEQ/APP(15)");
+  /** Search response application tag number. */
+  private static final int SEARCH_TAG = 5;
 
-  /** Search reference result DER path. */
-  private static final DERPath SEARCH_REFERENCE_PATH = new DERPath("/SEQ/APP(19)");
+  /** Modify response application tag number. */
+  private static final int MODIFY_TAG = 7;
 
-  /** Extended response DER path. */
-  private static final DERPath EXTENDED_PATH = new DERPath("/SEQ/APP(24)");
+  /** Add response application tag number. */
+  private static final int ADD_TAG = 9;
 
-  /** Intermediate response DER path. */
-  private static final DERPath INTERMEDIATE_PATH = new DERPath("/SEQ/APP(25)");
+  /** Delete response application tag number. */
+  private static final int DELETE_TAG = 11;
 
-  /** Parser for decoding LDAP messages. */
+  /** Modify DN response application tag number. */
+  private static final int MODIFY_DN_TAG = 13;
+
+  /** Compare response application tag number. */
+  private static final int COMPARE_TAG = 15;
+
+  /** Search reference result application tag number. */
+  private static final int SEARCH_REFERENCE_TAG = 19;
+
+  /** Extended response application tag number. */
+  private static final int EXTENDED_TAG = 24;
+
+  /** Intermediate response application tag number. */
+  private static final int INTERMEDIATE_TAG = 25;
+
+  /** Parser used to read DER lengths. */
   private final DERParser parser = new DERParser();
 
-  /** Message produced from parsing a DER buffer. */
-  private Message message;
+  /** Tests whether entries for a message ID should be decoded lazily. */
+  private final IntPredicate lazyEntries;
+
+  /** Message ID of the last entry tested with {@link #lazyEntries}, -1 if none. */
+  private int lazyMessageID = -1;
+
+  /** Result of testing {@link #lazyMessageID} with {@link #lazyEntries}. */
+  private boolean lazyMessage;
+
+
+  /** Creates a new response parser that eagerly decodes all entries. */
+  public ResponseParser()
+  {
+    this(null);
+  }
 
 
   /**
    * Creates a new response parser.
+   *
+   * @param  predicate  to test whether entries for a message ID should be decoded lazily or null to decode eagerly
    */
-  public ResponseParser()
+  public ResponseParser(final IntPredicate predicate)
   {
-    parser.registerHandler(BIND_PATH, (p, e) -> {
-      e.clear();
-      message = new BindResponse(e);
-    });
-    parser.registerHandler(ENTRY_PATH, (p, e) -> {
-      e.clear();
-      message = new LdapEntry(e);
-    });
-    parser.registerHandler(SEARCH_PATH, (p, e) -> {
-      e.clear();
-      message = new SearchResponse(e);
-    });
-    parser.registerHandler(MODIFY_PATH, (p, e) -> {
-      e.clear();
-      message = new ModifyResponse(e);
-    });
-    parser.registerHandler(ADD_PATH, (p, e) -> {
-      e.clear();
-      message = new AddResponse(e);
-    });
-    parser.registerHandler(DELETE_PATH, (p, e) -> {
-      e.clear();
-      message = new DeleteResponse(e);
-    });
-    parser.registerHandler(MODIFY_DN_PATH, (p, e) -> {
-      e.clear();
-      message = new ModifyDnResponse(e);
-    });
-    parser.registerHandler(COMPARE_PATH, (p, e) -> {
-      e.clear();
-      message = new CompareResponse(e);
-    });
-    parser.registerHandler(SEARCH_REFERENCE_PATH, (p, e) -> {
-      e.clear();
-      message = new SearchResultReference(e);
-    });
-    parser.registerHandler(EXTENDED_PATH, (p, e) -> {
-      e.clear();
-      final ExtendedResponse extRes = new ExtendedResponse(e);
-      if (NoticeOfDisconnection.OID.equals(extRes.getResponseName())) {
-        message = new NoticeOfDisconnection();
-      } else {
-        message = extRes;
-      }
-    });
-    parser.registerHandler(INTERMEDIATE_PATH, (p, e) -> {
-      e.clear();
-      final IntermediateResponse intRes = new IntermediateResponse(e);
-      if (SyncInfoMessage.OID.equals(intRes.getResponseName())) {
-        e.clear();
-        message = new SyncInfoMessage(e);
-      } else {
-        message = intRes;
-      }
-    });
+    lazyEntries = predicate;
   }
 
 
@@ -140,7 +123,125 @@ public class ResponseParser
    */
   public Optional<Message> parse(final DERBuffer buffer)
   {
-    parser.parse(buffer);
-    return Optional.ofNullable(message);
+    if (!buffer.hasRemaining() || (buffer.get() & BYTE_MASK) != SEQUENCE_TAG) {
+      return Optional.empty();
+    }
+    final int end = parser.readLength(buffer) + buffer.position();
+    int messageID = -1;
+    while (buffer.position() < end) {
+      final int tag = buffer.get() & BYTE_MASK;
+      final int length = parser.readLength(buffer);
+      if ((tag & TAG_CLASS_MASK) == ApplicationDERTag.TAG_CLASS) {
+        final int tagNo = tag & TAG_NUMBER_MASK;
+        final boolean lazy = tagNo == ENTRY_TAG && isLazy(messageID);
+        if (tagNo == SEARCH_TAG && messageID == lazyMessageID) {
+          lazyMessageID = -1;
+        }
+        buffer.clear();
+        return Optional.ofNullable(createMessage(tagNo, buffer, lazy));
+      }
+      final int next = buffer.position() + length;
+      if (tag == MESSAGE_ID_TAG && lazyEntries != null) {
+        final int limit = buffer.limit();
+        buffer.limit(next);
+        messageID = IntegerType.decodeUnsignedPrimitive(buffer);
+        buffer.limit(limit);
+      }
+      buffer.position(next);
+    }
+    return Optional.empty();
+  }
+
+
+  /**
+   * Returns whether entries for the supplied message ID should be decoded lazily. The predicate is only tested when the
+   * message ID differs from the previous entry, the result is retained until the search result done is parsed.
+   *
+   * @param  messageID  of the entry
+   *
+   * @return  whether to lazily decode the entry
+   */
+  private boolean isLazy(final int messageID)
+  {
+    if (lazyEntries == null) {
+      return false;
+    }
+    if (messageID != lazyMessageID) {
+      lazyMessage = lazyEntries.test(messageID);
+      lazyMessageID = messageID;
+    }
+    return lazyMessage;
+  }
+
+
+  /**
+   * Creates the LDAP message for the supplied application tag number.
+   *
+   * @param  tagNo  application tag number of the protocol operation
+   * @param  buffer  containing the entire LDAP message
+   * @param  lazy  whether to lazily decode a search result entry
+   *
+   * @return  LDAP message or null if the tag number is not a known response
+   */
+  private static Message createMessage(final int tagNo, final DERBuffer buffer, final boolean lazy)
+  {
+    final Message message;
+    switch (tagNo) {
+
+    case BIND_TAG:
+      message = new BindResponse(buffer);
+      break;
+
+    case ENTRY_TAG:
+      message = new LdapEntry(buffer, lazy);
+      break;
+
+    case SEARCH_TAG:
+      message = new SearchResponse(buffer);
+      break;
+
+    case MODIFY_TAG:
+      message = new ModifyResponse(buffer);
+      break;
+
+    case ADD_TAG:
+      message = new AddResponse(buffer);
+      break;
+
+    case DELETE_TAG:
+      message = new DeleteResponse(buffer);
+      break;
+
+    case MODIFY_DN_TAG:
+      message = new ModifyDnResponse(buffer);
+      break;
+
+    case COMPARE_TAG:
+      message = new CompareResponse(buffer);
+      break;
+
+    case SEARCH_REFERENCE_TAG:
+      message = new SearchResultReference(buffer);
+      break;
+
+    case EXTENDED_TAG:
+      final ExtendedResponse extRes = new ExtendedResponse(buffer);
+      message = NoticeOfDisconnection.OID.equals(extRes.getResponseName()) ? new NoticeOfDisconnection() : extRes;
+      break;
+
+    case INTERMEDIATE_TAG:
+      final IntermediateResponse intRes = new IntermediateResponse(buffer);
+      if (SyncInfoMessage.OID.equals(intRes.getResponseName())) {
+        buffer.clear();
+        message = new SyncInfoMessage(buffer);
+      } else {
+        message = intRes;
+      }
+      break;
+
+    default:
+      message = null;
+    }
+    return message;
   }
 }
@@ -0,0 +1,86 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.ldaptive.LdapException;
+import org.ldaptive.OperationHandle;
+import org.ldaptive.ResultCode;
+
+/**
+ * Enforces the response timeout of operations whose result is delivered through a future rather than by {@link
+ * OperationHandle#await()}. Timeouts of every operation in the JVM are scheduled on a single daemon thread; the tasks
+ * only complete futures, so they never block that thread.
+ *
+ * @author  Middleware Services
+ */
+public final class ResponseTimeoutScheduler
+{
+
+
+  /** Default constructor. */
+  private ResponseTimeoutScheduler() {}
+
+
+  /**
+   * Completes the supplied future exceptionally with {@link ResultCode#LDAP_TIMEOUT} if it has not completed when the
+   * supplied timeout elapses, then invokes the supplied task. Nothing is scheduled if the timeout is null or zero. The
+   * scheduled timeout is cancelled when the future completes.
+   *
+   * @param  future  to complete when the timeout elapses
+   * @param  timeout  response timeout
+   * @param  handle  of the operation the future is waiting on
+   * @param  onTimeout  invoked after the future has been completed by the timeout, e.g. to close the connection
+   */
+  public static void schedule(
+    final CompletableFuture<?> future,
+    final Duration timeout,
+    final OperationHandle<?, ?> handle,
+    final Runnable onTimeout)
+  {
+    if (timeout == null || Duration.ZERO.equals(timeout) || future.isDone()) {
+      return;
+    }
+    final ScheduledFuture<?> task = ExecutorHolder.EXECUTOR.schedule(
+      () -> {
+        if (future.completeExceptionally(
+          new LdapException(
+            ResultCode.LDAP_TIMEOUT,
+            "No response received in " + timeout.toMillis() + "ms for handle " + handle)))
+        {
+          onTimeout.run();
+        }
+      },
+      timeout.toMillis(),
+      TimeUnit.MILLISECONDS);
+    future.whenComplete((r, e) -> task.cancel(false));
+  }
+
+
+  /** Lazily creates the executor on first use. */
+  private static final class ExecutorHolder
+  {
+
+    /** Executor shared by all operations. */
+    private static final ScheduledThreadPoolExecutor EXECUTOR;
+
+    static {
+      EXECUTOR = new ScheduledThreadPoolExecutor(
+        1,
+        r -> {
+          final Thread t = new Thread(r, "ldaptive-response-timeout");
+          t.setDaemon(true);
+          return t;
+        });
+      // release the timeouts of completed operations immediately
+      EXECUTOR.setRemoveOnCancelPolicy(true);
+    }
+
+
+    /** Default constructor. */
+    private ExecutorHolder() {}
+  }
+}
@@ -0,0 +1,395 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.LdapUtils;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchOperationHandle;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.handler.CompleteHandler;
+import org.ldaptive.handler.LdapEntryHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Publishes the entries of a search operation to a single {@link Flow.Subscriber}. The search request is sent when the
+ * subscriber first requests entries. Entries are delivered as demand allows; entries received without demand are
+ * buffered. When the buffer reaches its size the publisher suspends reads on the connection, see {@link
+ * TransportConnection#suspendReads()}, and resumes them once the subscriber has drained half the buffer. Reads are
+ * never suspended while demand is unbounded. The thread that processes inbound messages is never blocked, so messages
+ * for other operations on the same connection that have already been read continue to be processed. However reads are
+ * suspended for the whole connection, so no further responses are read for any other operation on the connection
+ * until the subscriber catches up. Connections that are shared by other operations, such as those of a {@link
+ * org.ldaptive.MultiplexedConnectionFactory}, should only be published with unbounded demand or a subscriber that
+ * keeps up with the search.
+ *
+ * <p>Entries are not retained in the search response. The subscriber is completed when the search completes
+ * successfully, or receives the {@link LdapException} produced by the search. Cancelling the subscription abandons the
+ * search.</p>
+ *
+ * @author  Middleware Services
+ */
+public class SearchEntryPublisher implements Flow.Publisher<LdapEntry>
+{
+
+  /** Default number of entries to buffer before reads are suspended. */
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+
+  /** Logger for this class. */
+  protected final Logger logger = LoggerFactory.getLogger(getClass());
+
+  /** Handle of the search producing entries. */
+  private final DefaultSearchOperationHandle handle;
+
+  /** Handle that sends the search request. */
+  private final SearchOperationHandle sender;
+
+  /** Number of entries to buffer before reads are suspended. */
+  private final int bufferSize;
+
+  /** Whether a subscriber has subscribed to this publisher. */
+  private final AtomicBoolean subscribed = new AtomicBoolean();
+
+
+  /**
+   * Creates a new search entry publisher with {@link #DEFAULT_BUFFER_SIZE}.
+   *
+   * @param  h  search operation handle that has not been sent
+   */
+  public SearchEntryPublisher(final DefaultSearchOperationHandle h)
+  {
+    this(h, DEFAULT_BUFFER_SIZE);
+  }
+
+
+  /**
+   * Creates a new search entry publisher.
+   *
+   * @param  h  search operation handle that has not been sent
+   * @param  size  number of entries to buffer before reads are suspended
+   */
+  public SearchEntryPublisher(final DefaultSearchOperationHandle h, final int size)
+  {
+    this(h, h, size);
+  }
+
+
+  /**
+   * Creates a new search entry publisher whose request is sent by a handle that wraps the handle producing entries,
+   * such as a handle that must acquire a permit before the request is sent. The wrapping handle must not replace the
+   * complete handler of the handle producing entries once it has been created.
+   *
+   * @param  s  handle that sends the search request
+   * @param  h  search operation handle that produces entries and has not been sent
+   * @param  size  number of entries to buffer before reads are suspended
+   */
+  public SearchEntryPublisher(final SearchOperationHandle s, final DefaultSearchOperationHandle h, final int size)
+  {
+    if (s == null || h == null) {
+      throw new IllegalArgumentException("Handle cannot be null");
+    }
+    if (s.getSentTime() != null || h.getSentTime() != null) {
+      throw new IllegalArgumentException("Handle has already been sent");
+    }
+    if (size < 1) {
+      throw new IllegalArgumentException("Buffer size must be greater than zero");
+    }
+    sender = s;
+    handle = h;
+    bufferSize = size;
+  }
+
+
+  @Override
+  public void subscribe(final Flow.Subscriber<? super LdapEntry> subscriber)
+  {
+    if (subscriber == null) {
+      throw new NullPointerException("Subscriber cannot be null");
+    }
+    if (!subscribed.compareAndSet(false, true)) {
+      subscriber.onSubscribe(
+        new Flow.Subscription() {
+          @Override
+          public void request(final long n) {}
+
+          @Override
+          public void cancel() {}
+        });
+      subscriber.onError(new IllegalStateException("Publisher only supports a single subscriber"));
+      return;
+    }
+    final EntrySubscription subscription = new EntrySubscription(subscriber);
+    handle.onEntry(
+      handle.getOnEntry() != null ?
+        LdapUtils.concatArrays(handle.getOnEntry(), new LdapEntryHandler[] {subscription}) :
+        new LdapEntryHandler[] {subscription});
+    final CompleteHandler onComplete = handle.getOnComplete();
+    handle.onComplete(() -> {
+      if (onComplete != null) {
+        try {
+          onComplete.execute();
+        } catch (Exception e) {
+          logger.warn("Complete handler {} in publisher {} threw an exception", onComplete, this, e);
+        }
+      }
+      subscription.complete();
+    });
+    subscriber.onSubscribe(subscription);
+  }
+
+
+  @Override
+  public String toString()
+  {
+    return getClass().getName() + "@" + hashCode() + "::" +
+      "handle=" + handle + ", " +
+      "bufferSize=" + bufferSize + ", " +
+      "subscribed=" + subscribed;
+  }
+
+
+  /**
+   * Subscription that receives entries from the search handle and delivers them to the subscriber according to its
+   * demand. Signals to the subscriber are serialized by a work in progress counter; whichever thread increments it from
+   * zero drains the buffer.
+   */
+  private final class EntrySubscription
+    extends MessageFunctional.Function<SearchRequest, SearchResponse, LdapEntry, LdapEntry>
+    implements LdapEntryHandler, Flow.Subscription
+  {
+
+    /** Subscriber to deliver entries to. */
+    private final Flow.Subscriber<? super LdapEntry> subscriber;
+
+    /** Entries received that have not been delivered. */
+    private final Queue<LdapEntry> buffer = new ConcurrentLinkedQueue<>();
+
+    /** Number of entries in the buffer. */
+    private final AtomicInteger buffered = new AtomicInteger();
+
+    /** Outstanding demand of the subscriber. */
+    private final AtomicLong requested = new AtomicLong();
+
+    /** Work in progress counter that serializes signals to the subscriber. */
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /** Whether the search request has been sent, or completed without being sent. */
+    private final AtomicBoolean sent = new AtomicBoolean();
+
+    /** Whether this subscription has suspended reads on the connection. */
+    private final AtomicBoolean readsSuspended = new AtomicBoolean();
+
+    /** Connection the search executes on. */
+    private TransportConnection transport;
+
+    /** Whether the subscription has been cancelled. */
+    private volatile boolean cancelled;
+
+    /** Whether the search has completed. */
+    private volatile boolean done;
+
+    /** Exception produced by the search. */
+    private volatile LdapException error;
+
+    /** Exception for a request that violates the reactive streams specification. */
+    private volatile IllegalArgumentException rejection;
+
+    /** Whether a terminal signal has been sent to the subscriber. Only accessed while draining. */
+    private boolean terminated;
+
+
+    /**
+     * Creates a new entry subscription.
+     *
+     * @param  s  subscriber to deliver entries to
+     */
+    EntrySubscription(final Flow.Subscriber<? super LdapEntry> s)
+    {
+      subscriber = s;
+    }
+
+
+    @Override
+    public void setConnection(final TransportConnection conn)
+    {
+      super.setConnection(conn);
+      transport = conn;
+    }
+
+
+    @Override
+    public LdapEntry apply(final LdapEntry entry)
+    {
+      if (entry == null || cancelled) {
+        return null;
+      }
+      // deliver directly when demand is unbounded and nothing is buffered
+      if (requested.get() == Long.MAX_VALUE && wip.compareAndSet(0, 1)) {
+        if (buffer.isEmpty()) {
+          subscriber.onNext(entry);
+        } else {
+          buffer.offer(entry);
+          buffered.incrementAndGet();
+        }
+        // drain anything buffered before or while this thread held the counter, the buffer is checked again before the
+        // counter is released
+        drainLoop();
+        return null;
+      }
+      buffer.offer(entry);
+      // suspend before draining so that a concurrent drain observes the suspension
+      if (buffered.incrementAndGet() >= bufferSize && readsSuspended.compareAndSet(false, true)) {
+        transport.suspendReads();
+      }
+      drain();
+      return null;
+    }
+
+
+    @Override
+    public void request(final long n)
+    {
+      if (n <= 0) {
+        rejection = new IllegalArgumentException("Requested entries must be greater than zero, was " + n);
+        cancel();
+        return;
+      }
+      requested.getAndUpdate(r -> r + n < 0 ? Long.MAX_VALUE : r + n);
+      if (!cancelled && sent.compareAndSet(false, true)) {
+        try {
+          sender.send();
+        } catch (Exception e) {
+          handle.exception(
+            e instanceof LdapException ? (LdapException) e : new LdapException(ResultCode.LOCAL_ERROR, e));
+        }
+      }
+      drain();
+    }
+
+
+    @Override
+    public void cancel()
+    {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      if (sent.compareAndSet(false, true)) {
+        handle.exception(new LdapException(ResultCode.USER_CANCELLED, "Subscription cancelled"));
+      } else if (handle.getReceivedTime() == null) {
+        handle.abandon();
+      }
+      drain();
+    }
+
+
+    /**
+     * Invoked when the search handle completes.
+     */
+    void complete()
+    {
+      try {
+        handle.await();
+      } catch (LdapException e) {
+        error = e;
+      }
+      done = true;
+      drain();
+    }
+
+
+    /**
+     * Drains the buffer if no other thread is currently draining.
+     */
+    private void drain()
+    {
+      if (wip.getAndIncrement() == 0) {
+        drainLoop();
+      }
+    }
+
+
+    /**
+     * Delivers buffered entries up to the outstanding demand. Resumes reads once the buffer falls to half its size and
+     * sends the terminal signal once the search is done and the buffer is empty. Loops until no other thread has
+     * requested a drain.
+     */
+    private void drainLoop()
+    {
+      int missed = 1;
+      do {
+        if (cancelled) {
+          discard();
+        } else {
+          final long r = requested.get();
+          long emitted = 0;
+          while (emitted != r && !cancelled) {
+            final LdapEntry entry = buffer.poll();
+            if (entry == null) {
+              break;
+            }
+            buffered.decrementAndGet();
+            subscriber.onNext(entry);
+            emitted++;
+          }
+          if (emitted != 0 && r != Long.MAX_VALUE) {
+            requested.addAndGet(-emitted);
+          }
+          if (cancelled) {
+            discard();
+          } else if (done && buffer.isEmpty()) {
+            resumeReads();
+            if (!terminated) {
+              terminated = true;
+              if (error != null) {
+                subscriber.onError(error);
+              } else {
+                subscriber.onComplete();
+              }
+            }
+          } else if (buffered.get() <= bufferSize / 2) {
+            resumeReads();
+          }
+        }
+        missed = wip.addAndGet(-missed);
+      } while (missed != 0);
+    }
+
+
+    /**
+     * Clears the buffer and resumes reads after the subscription is cancelled. Reports an invalid request to the
+     * subscriber.
+     */
+    private void discard()
+    {
+      buffer.clear();
+      buffered.set(0);
+      resumeReads();
+      if (!terminated) {
+        terminated = true;
+        if (rejection != null) {
+          subscriber.onError(rejection);
+        }
+      }
+    }
+
+
+    /**
+     * Resumes reads on the connection if this subscription suspended them.
+     */
+    private void resumeReads()
+    {
+      if (readsSuspended.compareAndSet(true, false)) {
+        transport.resumeReads();
+      }
+    }
+  }
+}
@@ -14,6 +14,7 @@ import org.ldaptive.LdapURL;
 import org.ldaptive.ResultCode;
 import org.ldaptive.RetryMetadata;
 import org.ldaptive.UnbindRequest;
+import org.ldaptive.jfr.FlightRecorderEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -124,12 +125,17 @@ public abstract class TransportConnection implements Connection
         }
         LdapException lastThrown = null;
         while (connectionConfig.getAutoReconnectCondition().test(metadata)) {
+          final long start = System.nanoTime();
           try {
             strategyOpen(metadata);
             lastThrown = null;
+            FlightRecorderEvents.connectionReconnect(
+              getLdapURL(), connectionStrategy, metadata.getAttempts(), System.nanoTime() - start, null);
             break;
           } catch (LdapException e) {
             lastThrown = e;
+            FlightRecorderEvents.connectionReconnect(
+              null, connectionStrategy, metadata.getAttempts(), System.nanoTime() - start, e);
             LOGGER.debug("Error reopening connection {} using strategy {}", this, connectionStrategy, e);
           }
         }
@@ -165,6 +171,7 @@ public abstract class TransportConnection implements Connection
     LdapException lastThrown = null;
     for (LdapURL url : connectionStrategy) {
       strategyProducedUrls = true;
+      final long start = System.nanoTime();
       try {
         LOGGER.trace(
           "attempting connection to {} for strategy {}", url.getHostnameWithSchemeAndPort(), connectionStrategy);
@@ -172,10 +179,14 @@ public abstract class TransportConnection implements Connection
         connectionStrategy.success(url);
         metadata.recordSuccess(Instant.now());
         lastThrown = null;
+        FlightRecorderEvents.connectionOpen(
+          url, connectionStrategy, metadata.getAttempts(), System.nanoTime() - start, null);
         break;
       } catch (ConnectException e) {
         connectionStrategy.failure(url);
         lastThrown = e;
+        FlightRecorderEvents.connectionOpen(
+          url, connectionStrategy, metadata.getAttempts(), System.nanoTime() - start, e);
         LOGGER.debug(
           "Error connecting to {} for strategy {}", url.getHostnameWithSchemeAndPort(), connectionStrategy, e);
       }
@@ -234,4 +245,19 @@ public abstract class TransportConnection implements Connection
    * @param  handle  that has completed
    */
   protected abstract void complete(DefaultOperationHandle handle);
+
+
+  /**
+   * Stops reading responses from the LDAP server until {@link #resumeReads()} is invoked. Suspensions are counted,
+   * reads resume once every suspension has been resumed. Responses that have already been read continue to be
+   * processed. Reads are suspended for the connection rather than a single operation, so responses to every other
+   * operation on this connection are delayed until reads resume. The default implementation does nothing.
+   */
+  public void suspendReads() {}
+
+
+  /**
+   * Reverses a previous invocation of {@link #suspendReads()}. The default implementation does nothing.
+   */
+  public void resumeReads() {}
 }
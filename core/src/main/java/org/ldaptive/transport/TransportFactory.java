@@ -8,6 +8,7 @@ import java.util.Map;
 import org.ldaptive.ConnectionFactory;
 import org.ldaptive.DefaultConnectionFactory;
 import org.ldaptive.LdapUtils;
+import org.ldaptive.MultiplexedConnectionFactory;
 import org.ldaptive.PooledConnectionFactory;
 import org.ldaptive.SingleConnectionFactory;
 import org.ldaptive.transport.netty.ConnectionFactoryTransport;
@@ -76,7 +77,8 @@ public final class TransportFactory
       }
     }
     final Transport transport;
-    if (PooledConnectionFactory.class.isAssignableFrom(clazz)) {
+    if (PooledConnectionFactory.class.isAssignableFrom(clazz) ||
+      MultiplexedConnectionFactory.class.isAssignableFrom(clazz)) {
       transport = new ConnectionFactoryTransport();
     } else if (SingleConnectionFactory.class.isAssignableFrom(clazz)) {
       transport = new ConnectionTransport.SingleThread();
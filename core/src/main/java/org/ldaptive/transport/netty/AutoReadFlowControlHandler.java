@@ -10,7 +10,8 @@ import org.slf4j.LoggerFactory;
 /**
  * Keeps a counter of messages that have been sent down the pipeline. That counter is decremented whenever a read is
  * requested. A read is only propagated to the channel when all messages have completed. This handler is intended to be
- * used with {@link NettyConnection.AutoReadEventHandler}.
+ * used with {@link NettyConnection.AutoReadEventHandler}. Reads may also be suspended, in which case a read that would
+ * be propagated is deferred until reads are resumed.
  *
  * @author  Middleware Services
  */
@@ -23,6 +24,12 @@ public class AutoReadFlowControlHandler extends ChannelDuplexHandler
   /** Number of messages in the pipeline. */
   private final AtomicInteger messageCount = new AtomicInteger();
 
+  /** Whether reads are suspended. Only accessed from the channel event loop. */
+  private boolean suspended;
+
+  /** Whether a read was deferred while reads were suspended. Only accessed from the channel event loop. */
+  private boolean readPending;
+
 
   @Override
   public void channelRead(final ChannelHandlerContext ctx, final Object msg)
@@ -43,7 +50,30 @@ public class AutoReadFlowControlHandler extends ChannelDuplexHandler
     // prevents outbound handlers from reading more data until all inbound messages have been read
     logger.trace("read with message count of {} on {}", messageCount, ctx);
     if (messageCount.updateAndGet(i -> i > 0 ? i - 1 : 0) == 0) {
-      logger.trace("invoking read with message count {} on {}", messageCount, ctx);
+      if (suspended) {
+        logger.trace("deferring read while suspended on {}", ctx);
+        readPending = true;
+      } else {
+        logger.trace("invoking read with message count {} on {}", messageCount, ctx);
+        ctx.read();
+      }
+    }
+  }
+
+
+  /**
+   * Suspends or resumes reads. Resuming invokes any read that was deferred while suspended. Must be invoked from the
+   * channel event loop.
+   *
+   * @param  ctx  channel handler context of this handler
+   * @param  b  whether reads should be suspended
+   */
+  public void setSuspended(final ChannelHandlerContext ctx, final boolean b)
+  {
+    logger.trace("setting suspended to {} with read pending {} on {}", b, readPending, ctx);
+    suspended = b;
+    if (!suspended && readPending) {
+      readPending = false;
       ctx.read();
     }
   }
@@ -3,9 +3,13 @@ package org.ldaptive.transport.netty;
 
 import org.ldaptive.LdapUtils;
 import org.ldaptive.Request;
+import org.ldaptive.asn1.DERBuffer;
+import org.ldaptive.asn1.DEREncoder;
 
 /**
- * Wrapper object that stores an encoded request with its message ID.
+ * Wrapper object that stores a request encoder with its message ID. The encoder is created once and its length
+ * computed so that the request can be written directly into a buffer of the correct size, see {@link
+ * #encode(DERBuffer)}.
  *
  * @author  Middleware Services
  */
@@ -15,8 +19,14 @@ public class EncodedRequest
   /** Protocol message ID. */
   private final int messageID;
 
-  /** Encoded request. */
-  private final byte[] encoded;
+  /** Request encoder. */
+  private final DEREncoder encoder;
+
+  /** Length of the encoded request. */
+  private final int length;
+
+  /** Encoded request, created on the first invocation of {@link #getEncoded()}. */
+  private volatile byte[] encoded;
 
 
   /**
@@ -28,7 +38,8 @@ public class EncodedRequest
   public EncodedRequest(final int id, final Request request)
   {
     messageID = id;
-    encoded = request.encode(messageID);
+    encoder = request.getEncoder(messageID);
+    length = encoder.encodedLength();
   }
 
 
@@ -44,13 +55,41 @@ public class EncodedRequest
 
 
   /**
-   * Returns the encoded request.
+   * Returns the length of the encoded request.
+   *
+   * @return  number of bytes in the encoded request
+   */
+  public int getLength()
+  {
+    return length;
+  }
+
+
+  /**
+   * Writes the encoded request to the supplied buffer at its current position.
+   *
+   * @param  buffer  to write to, must have at least {@link #getLength()} bytes remaining
+   */
+  public void encode(final DERBuffer buffer)
+  {
+    encoder.encode(buffer);
+  }
+
+
+  /**
+   * Returns the encoded request. The request is encoded into an array on the first invocation and the same array is
+   * returned thereafter, use {@link #encode(DERBuffer)} to avoid the copy.
    *
    * @return  encoded request.
    */
   public byte[] getEncoded()
   {
-    return encoded;
+    byte[] bytes = encoded;
+    if (bytes == null) {
+      bytes = encoder.encode();
+      encoded = bytes;
+    }
+    return bytes;
   }
 
 
@@ -59,6 +98,6 @@ public class EncodedRequest
   {
     return getClass().getName() + "@" + hashCode() + "::" +
       "messageID=" + messageID + ", " +
-      "encoded=" + String.valueOf(LdapUtils.hexEncode(encoded));
+      "encoded=" + String.valueOf(LdapUtils.hexEncode(getEncoded()));
   }
 }
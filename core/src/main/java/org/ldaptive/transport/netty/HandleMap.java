@@ -2,22 +2,29 @@
 package org.ldaptive.transport.netty;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
 import org.ldaptive.LdapException;
 import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
 import org.ldaptive.extended.UnsolicitedNotification;
 import org.ldaptive.transport.DefaultOperationHandle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Container for operation handles that are waiting on a response from the LDAP server.
+ * Container for operation handles that are waiting on a response from the LDAP server. Handles are stored in an open
+ * addressing table keyed by the primitive message ID, the home slot of an ID is its low order bits. Message IDs are
+ * allocated sequentially, so outstanding IDs rarely collide and a lookup is usually a single array read. Lookups do not
+ * lock or allocate, modifications lock and publish a new table when the current one must be resized. Each handle must
+ * be stored under its own message ID, see {@link DefaultOperationHandle#getMessageID()}, which is how a lookup
+ * confirms that a slot holds the requested ID. Any int is a valid message ID, so wraparound needs no special handling.
  *
  * @author  Middleware Services
  */
@@ -40,8 +47,29 @@ final class HandleMap
   private static final Duration THROTTLE_TIMEOUT = Duration.ofSeconds(
     Long.parseLong(System.getProperty(THROTTLE_TIMEOUT_PROPERTY, "60")));
 
-  /** Map of message IDs to their operation handle. */
-  private final Map<Integer, DefaultOperationHandle> pending = new ConcurrentHashMap<>();
+  /** Initial number of slots in the table. Must be a power of two. */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /** The table is doubled on rehash once handles occupy more than one in this many slots. */
+  private static final int GROWTH_RATIO = 4;
+
+  /** Marks a slot whose handle was removed. Lookups probe past it, insertions may reuse it. */
+  private static final Object REMOVED = new Object();
+
+  /** Slots of operation handles, probed linearly from the home slot of a message ID. */
+  private volatile AtomicReferenceArray<Object> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+
+  /** Number of handles in the table. */
+  private volatile int count;
+
+  /** Number of removed slots in the table. */
+  private int removedCount;
+
+  /** Number of handles for searches that decode entries lazily. */
+  private volatile int lazyCount;
+
+  /** Guards modifications to the table. */
+  private final ReentrantLock tableLock = new ReentrantLock();
 
   /** Only one notification can occur at a time. */
   private final AtomicBoolean notificationLock = new AtomicBoolean();
@@ -104,7 +132,24 @@ final class HandleMap
    */
   public DefaultOperationHandle get(final int id)
   {
-    return open ? pending.get(id) : null;
+    DefaultOperationHandle handle = null;
+    if (open) {
+      final AtomicReferenceArray<Object> t = table;
+      final int mask = t.length() - 1;
+      int index = id & mask;
+      for (int i = 0; i <= mask; i++) {
+        final Object o = t.get(index);
+        if (o == null) {
+          break;
+        }
+        if (o != REMOVED && isMessageID((DefaultOperationHandle) o, id)) {
+          handle = (DefaultOperationHandle) o;
+          break;
+        }
+        index = (index + 1) & mask;
+      }
+    }
+    return handle;
   }
 
 
@@ -118,7 +163,7 @@ final class HandleMap
   public DefaultOperationHandle remove(final int id)
   {
     if (open) {
-      final DefaultOperationHandle handle = pending.remove(id);
+      final DefaultOperationHandle handle = removeHandle(id);
       releaseThrottle(1);
       return handle;
     }
@@ -135,6 +180,7 @@ final class HandleMap
    * @return  null or existing operation handle for the id
    *
    * @throws  LdapException  if this queue is not open
+   * @throws  IllegalArgumentException  if the message ID of the handle is not the supplied id
    */
   public DefaultOperationHandle put(final int id, final DefaultOperationHandle handle)
     throws LdapException
@@ -142,8 +188,164 @@ final class HandleMap
     if (!open) {
       throw new LdapException(ResultCode.CONNECT_ERROR, "Connection is closed, could not store handle " + handle);
     }
+    if (!isMessageID(handle, id)) {
+      throw new IllegalArgumentException("Handle " + handle + " does not have message ID " + id);
+    }
     acquireThrottle();
-    return pending.putIfAbsent(id, handle);
+    tableLock.lock();
+    try {
+      AtomicReferenceArray<Object> t = table;
+      int mask = t.length() - 1;
+      int index = id & mask;
+      int insertIndex = -1;
+      for (int i = 0; i <= mask; i++) {
+        final Object o = t.get(index);
+        if (o == null) {
+          if (insertIndex == -1) {
+            insertIndex = index;
+          }
+          break;
+        }
+        if (o == REMOVED) {
+          if (insertIndex == -1) {
+            insertIndex = index;
+          }
+        } else if (isMessageID((DefaultOperationHandle) o, id)) {
+          return (DefaultOperationHandle) o;
+        }
+        index = (index + 1) & mask;
+      }
+      // keep at least half of the slots empty so that probes stay short
+      if (insertIndex == -1 || (count + removedCount + 1) * 2 > t.length()) {
+        t = rehash((count + 1) * GROWTH_RATIO > t.length() ? t.length() * 2 : t.length());
+        mask = t.length() - 1;
+        insertIndex = id & mask;
+        while (t.get(insertIndex) != null) {
+          insertIndex = (insertIndex + 1) & mask;
+        }
+      } else if (t.get(insertIndex) == REMOVED) {
+        removedCount--;
+      }
+      t.set(insertIndex, handle);
+      count++;
+      if (isLazySearch(handle)) {
+        lazyCount++;
+      }
+      return null;
+    } finally {
+      tableLock.unlock();
+    }
+  }
+
+
+  /**
+   * Removes the operation handle for the supplied message id from the table.
+   *
+   * @param  id  message id
+   *
+   * @return  operation handle or null
+   */
+  private DefaultOperationHandle removeHandle(final int id)
+  {
+    tableLock.lock();
+    try {
+      final AtomicReferenceArray<Object> t = table;
+      final int mask = t.length() - 1;
+      int index = id & mask;
+      for (int i = 0; i <= mask; i++) {
+        final Object o = t.get(index);
+        if (o == null) {
+          return null;
+        }
+        if (o != REMOVED && isMessageID((DefaultOperationHandle) o, id)) {
+          // no probe continues past an empty slot, so a slot followed by one can be emptied
+          if (t.get((index + 1) & mask) == null) {
+            t.set(index, null);
+          } else {
+            t.set(index, REMOVED);
+            removedCount++;
+          }
+          count--;
+          if (lazyCount > 0 && isLazySearch((DefaultOperationHandle) o)) {
+            lazyCount--;
+          }
+          return (DefaultOperationHandle) o;
+        }
+        index = (index + 1) & mask;
+      }
+      return null;
+    } finally {
+      tableLock.unlock();
+    }
+  }
+
+
+  /**
+   * Copies every handle into a new table and publishes it. Must be invoked while holding {@link #tableLock}.
+   *
+   * @param  capacity  of the new table, must be a power of two
+   *
+   * @return  new table
+   */
+  private AtomicReferenceArray<Object> rehash(final int capacity)
+  {
+    final AtomicReferenceArray<Object> t = table;
+    final AtomicReferenceArray<Object> newTable = new AtomicReferenceArray<>(capacity);
+    final int mask = capacity - 1;
+    for (int i = 0; i < t.length(); i++) {
+      final Object o = t.get(i);
+      if (o != null && o != REMOVED) {
+        int index = ((DefaultOperationHandle) o).getMessageID() & mask;
+        while (newTable.get(index) != null) {
+          index = (index + 1) & mask;
+        }
+        newTable.set(index, o);
+      }
+    }
+    removedCount = 0;
+    table = newTable;
+    return newTable;
+  }
+
+
+  /**
+   * Returns whether the supplied handle has the supplied message ID.
+   *
+   * @param  handle  to inspect
+   * @param  id  message id
+   *
+   * @return  whether the message ID of the handle is id
+   */
+  private static boolean isMessageID(final DefaultOperationHandle handle, final int id)
+  {
+    final Integer messageID = handle.getMessageID();
+    return messageID != null && messageID == id;
+  }
+
+
+  /**
+   * Returns whether the supplied handle is for a search that decodes entries lazily. See {@link
+   * SearchRequest#isLazyAttributes()}.
+   *
+   * @param  handle  to inspect
+   *
+   * @return  whether entries for the handle should be decoded lazily
+   */
+  static boolean isLazySearch(final DefaultOperationHandle handle)
+  {
+    return handle.getRequest() instanceof SearchRequest && ((SearchRequest) handle.getRequest()).isLazyAttributes();
+  }
+
+
+  /**
+   * Returns whether any handle in the queue is for a search that decodes entries lazily. Allows entries to be decoded
+   * without looking up their handle when no such search is outstanding.
+   *
+   * @return  whether a lazy search is outstanding
+   */
+  public boolean hasLazySearches()
+  {
+    return lazyCount > 0;
   }
 
 
@@ -154,7 +356,15 @@ final class HandleMap
    */
   public Collection<DefaultOperationHandle> handles()
   {
-    return pending.values();
+    final AtomicReferenceArray<Object> t = table;
+    final List<DefaultOperationHandle> handles = new ArrayList<>(count);
+    for (int i = 0; i < t.length(); i++) {
+      final Object o = t.get(i);
+      if (o != null && o != REMOVED) {
+        handles.add((DefaultOperationHandle) o);
+      }
+    }
+    return handles;
   }
 
 
@@ -165,7 +375,7 @@ final class HandleMap
    */
   public int size()
   {
-    return pending.size();
+    return count;
   }
 
 
@@ -174,8 +384,16 @@ final class HandleMap
    */
   public void clear()
   {
-    releaseThrottle(pending.size());
-    pending.clear();
+    tableLock.lock();
+    try {
+      releaseThrottle(count);
+      count = 0;
+      removedCount = 0;
+      lazyCount = 0;
+      table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    } finally {
+      tableLock.unlock();
+    }
   }
 
 
@@ -220,11 +438,8 @@ final class HandleMap
   {
     if (notificationLock.compareAndSet(false, true)) {
       try {
-        final Iterator<DefaultOperationHandle> i = pending.values().iterator();
-        while (i.hasNext()) {
-          final DefaultOperationHandle h = i.next();
-          if (h.getSentTime() != null && h.getReceivedTime() == null) {
-            i.remove();
+        for (DefaultOperationHandle h : handles()) {
+          if (h.getSentTime() != null && h.getReceivedTime() == null && removeHandle(h.getMessageID()) != null) {
             releaseThrottle(1);
             h.abandon();
           }
@@ -248,12 +463,11 @@ final class HandleMap
   {
     if (notificationLock.compareAndSet(false, true)) {
       try {
-        final Iterator<DefaultOperationHandle> i = pending.values().iterator();
-        while (i.hasNext()) {
-          final DefaultOperationHandle h = i.next();
-          i.remove();
-          releaseThrottle(1);
-          h.exception(e);
+        for (DefaultOperationHandle h : handles()) {
+          if (removeHandle(h.getMessageID()) != null) {
+            releaseThrottle(1);
+            h.exception(e);
+          }
         }
       } finally {
         notificationLock.set(false);
@@ -273,7 +487,7 @@ final class HandleMap
   {
     if (notificationLock.compareAndSet(false, true)) {
       try {
-        pending.values().forEach(h -> {
+        handles().forEach(h -> {
           if (h.getSentTime() != null && h.getReceivedTime() == null) {
             h.unsolicitedNotification(notification);
           }
@@ -293,6 +507,6 @@ final class HandleMap
     return getClass().getName() + "@" + hashCode() + "::" +
       "open=" + open + ", " +
       "throttle=" + throttle + ", " +
-      "handles=" + pending;
+      "handles=" + handles();
   }
 }
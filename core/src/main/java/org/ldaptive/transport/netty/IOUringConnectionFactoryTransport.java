@@ -0,0 +1,99 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.ThreadPerTaskExecutor;
+
+/**
+ * Creates netty connections using an {@link IOUringEventLoopGroup}. The event loop group is shutdown when the
+ * connection factory is closed. Requires the netty-incubator-transport-native-io_uring library, see {@link
+ * NettyUtils#isIoUringAvailable()}.
+ *
+ * @author  Middleware Services
+ */
+public class IOUringConnectionFactoryTransport extends NettyConnectionFactoryTransport
+{
+
+  /**
+   * Creates a new io_uring connection factory transport.
+   */
+  public IOUringConnectionFactoryTransport()
+  {
+    this(0);
+  }
+
+
+  /**
+   * Creates a new io_uring connection factory transport.
+   *
+   * @param  ioThreads  number of threads used for I/O in the event loop group
+   */
+  public IOUringConnectionFactoryTransport(final int ioThreads)
+  {
+    this(IOUringConnectionFactoryTransport.class.getSimpleName(), ioThreads);
+  }
+
+
+  /**
+   * Creates a new io_uring connection factory transport.
+   *
+   * @param  name  to assign the thread pool
+   * @param  ioThreads  number of threads used for I/O in the event loop group
+   */
+  public IOUringConnectionFactoryTransport(final String name, final int ioThreads)
+  {
+    super(IOUringSocketChannel.class, createEventLoopGroup(name, ioThreads), null);
+  }
+
+
+  /**
+   * Creates a new io_uring connection factory transport.
+   *
+   * @param  ioThreads  number of threads used for I/O in the event loop group
+   * @param  messageThreads  number of threads for LDAP message handling in the event loop group
+   */
+  public IOUringConnectionFactoryTransport(final int ioThreads, final int messageThreads)
+  {
+    this(IOUringConnectionFactoryTransport.class.getSimpleName(), ioThreads, messageThreads);
+  }
+
+
+  /**
+   * Creates a new io_uring connection factory transport.
+   *
+   * @param  name  to assign the thread pool
+   * @param  ioThreads  number of threads used for I/O in the event loop group
+   * @param  messageThreads  number of threads for LDAP message handling in the event loop group
+   */
+  public IOUringConnectionFactoryTransport(final String name, final int ioThreads, final int messageThreads)
+  {
+    super(
+      IOUringSocketChannel.class,
+      createEventLoopGroup(name + "-io", ioThreads),
+      createEventLoopGroup(name + "-messages", messageThreads));
+  }
+
+
+  /**
+   * Creates a new io_uring event loop group.
+   *
+   * @param  name  to assign the thread pool
+   * @param  numThreads  number of threads in the event loop group
+   *
+   * @return  io_uring event loop group
+   *
+   * @throws  IllegalStateException  if io_uring is not available
+   */
+  private static EventLoopGroup createEventLoopGroup(final String name, final int numThreads)
+  {
+    if (!NettyUtils.isIoUringAvailable()) {
+      throw new IllegalStateException("io_uring transport is not available");
+    }
+    return new IOUringEventLoopGroup(
+      numThreads,
+      new ThreadPerTaskExecutor(new DefaultThreadFactory(name, true, Thread.NORM_PRIORITY)));
+  }
+}
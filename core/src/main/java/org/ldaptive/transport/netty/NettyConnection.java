@@ -16,6 +16,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.net.ssl.HostnameVerifier;
@@ -80,6 +82,7 @@ import org.ldaptive.extended.ExtendedResponse;
 import org.ldaptive.extended.IntermediateResponse;
 import org.ldaptive.extended.StartTLSRequest;
 import org.ldaptive.extended.UnsolicitedNotification;
+import org.ldaptive.jfr.FlightRecorderEvents;
 import org.ldaptive.sasl.DefaultSaslClientRequest;
 import org.ldaptive.sasl.QualityOfProtection;
 import org.ldaptive.sasl.SaslClient;
@@ -139,6 +142,9 @@ public final class NettyConnection extends TransportConnection
   /** Message ID counter, incremented as requests are sent. */
   private final AtomicInteger messageID = new AtomicInteger(1);
 
+  /** Number of outstanding read suspensions. See {@link #suspendReads()}. */
+  private final AtomicInteger readSuspensions = new AtomicInteger();
+
   /** Block operations while a reconnect is occurring. */
   private final ReentrantReadWriteLock reconnectLock = new ReentrantReadWriteLock();
 
@@ -167,7 +173,9 @@ public final class NettyConnection extends TransportConnection
 
   /**
    * Creates a new connection. Netty supports various transport implementations including NIO, EPOLL, KQueue, etc. The
-   * class type and event loop group are tightly coupled in this regard.
+   * class type and event loop group are tightly coupled in this regard. Transport options are resolved by name with
+   * {@link NettyUtils#getChannelOption(String)}, so latency related options of the native transports, such as
+   * TCP_NODELAY, TCP_KEEPIDLE, TCP_QUICKACK and SO_BUSY_POLL, can be set on the connection config.
    *
    * @param  config  connection configuration
    * @param  type  type of channel
@@ -194,7 +202,7 @@ public final class NettyConnection extends TransportConnection
     channelOptions.put(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) config.getConnectTimeout().toMillis());
     if (config.getTransportOptions() != null && !config.getTransportOptions().isEmpty()) {
       for (Map.Entry<String, ?> e : config.getTransportOptions().entrySet()) {
-        final ChannelOption<?> option = ChannelOption.valueOf(e.getKey());
+        final ChannelOption<?> option = NettyUtils.getChannelOption(e.getKey());
         final Object value = e.getValue();
         if (value instanceof String) {
           channelOptions.put(option, convertChannelOption((String) value));
@@ -700,6 +708,41 @@ public final class NettyConnection extends TransportConnection
   }
 
 
+  /**
+   * Returns whether entries received for the supplied message ID should be decoded lazily. See {@link
+   * SearchRequest#isLazyAttributes()}. The handle is only looked up while a lazy search is outstanding, otherwise
+   * {@link InboundMessageHandler} performs the only lookup for each entry.
+   *
+   * @param  id  message ID
+   *
+   * @return  whether entries should be decoded lazily
+   */
+  private boolean isLazyEntry(final int id)
+  {
+    if (!pendingResponses.hasLazySearches()) {
+      return false;
+    }
+    final DefaultOperationHandle handle = pendingResponses.get(id);
+    return handle != null && HandleMap.isLazySearch(handle);
+  }
+
+
+  /**
+   * Records the length of a decoded response message on its operation handle. Only invoked if an operation listener is
+   * configured.
+   *
+   * @param  message  that was decoded
+   * @param  length  of the encoded message in bytes
+   */
+  private void received(final Message message, final int length)
+  {
+    final DefaultOperationHandle handle = pendingResponses.get(message.getMessageID());
+    if (handle != null) {
+      handle.received(length);
+    }
+  }
+
+
   @Override
   public void operation(final AbandonRequest request)
   {
@@ -859,7 +902,7 @@ public final class NettyConnection extends TransportConnection
                   ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE,
                   f -> {
                     if (f.isSuccess()) {
-                      handle.sent();
+                      handle.sent(encodedRequest.getLength());
                     }
                   });
                 if (LOGGER.isTraceEnabled() && channel.eventLoop() instanceof SingleThreadEventLoop) {
@@ -901,6 +944,49 @@ public final class NettyConnection extends TransportConnection
   }
 
 
+  @Override
+  public void suspendReads()
+  {
+    if (readSuspensions.getAndIncrement() == 0) {
+      applyReadSuspension();
+    }
+  }
+
+
+  @Override
+  public void resumeReads()
+  {
+    if (readSuspensions.updateAndGet(i -> i > 0 ? i - 1 : 0) == 0) {
+      applyReadSuspension();
+    }
+  }
+
+
+  /**
+   * Suspends or resumes reads on the channel according to the current number of read suspensions. If the channel is
+   * configured with auto read, auto read is toggled. Otherwise reads are deferred by the {@link
+   * AutoReadFlowControlHandler}. The change is applied on the channel event loop, so it is evaluated against the number
+   * of suspensions at that time.
+   */
+  private void applyReadSuspension()
+  {
+    final Channel ch = channel;
+    if (ch == null) {
+      return;
+    }
+    ch.eventLoop().execute(() -> {
+      final boolean suspend = readSuspensions.get() > 0;
+      final ChannelHandlerContext ctx = ch.pipeline().context(AutoReadFlowControlHandler.class);
+      if (ctx != null) {
+        ((AutoReadFlowControlHandler) ctx.handler()).setSuspended(ctx, suspend);
+      } else if (ch.config().isAutoRead() == suspend) {
+        LOGGER.debug("Setting auto read to {} for {}", !suspend, this);
+        ch.config().setAutoRead(!suspend);
+      }
+    });
+  }
+
+
   /**
    * Returns the value of the next message ID and increments the counter.
    *
@@ -959,6 +1045,8 @@ public final class NettyConnection extends TransportConnection
   {
     LOGGER.trace("closing connection {}", this);
     if (closeLock.tryLock()) {
+      final long start = System.nanoTime();
+      final int abandoned = pendingResponses.size();
       try {
         pendingResponses.close();
         if (connectionExecutor != null) {
@@ -986,6 +1074,7 @@ public final class NettyConnection extends TransportConnection
           notifyOperationHandlesOfClose();
         }
         LOGGER.info("Closed connection {}", this);
+        FlightRecorderEvents.connectionClose(ldapURL, abandoned, System.nanoTime() - start);
       } finally {
         pendingResponses.clear();
         connectionExecutor = null;
@@ -1363,7 +1452,11 @@ public final class NettyConnection extends TransportConnection
       // inbound handlers are processed top to bottom
       // outbound handlers are processed bottom to top
       ch.pipeline().addLast("frame_decoder", new MessageFrameDecoder());
-      ch.pipeline().addLast("response_decoder", new MessageDecoder());
+      ch.pipeline().addLast(
+        "response_decoder",
+        new MessageDecoder(
+          NettyConnection.this::isLazyEntry,
+          connectionConfig.getOperationListener() != null ? NettyConnection.this::received : null));
       if (!ch.config().isAutoRead()) {
         ch.pipeline().addLast("flow_control_handler", new AutoReadFlowControlHandler());
       }
@@ -1410,8 +1503,9 @@ public final class NettyConnection extends TransportConnection
 
 
   /**
-   * Encodes an LDAP request into its DER bytes. See {@link EncodedRequest#getEncoded()}. This class prefers direct
-   * byte buffers.
+   * Encodes an LDAP request into its DER bytes. See {@link EncodedRequest#encode(org.ldaptive.asn1.DERBuffer)}. The
+   * request is written directly into the outbound buffer without an intermediate array. This class prefers direct byte
+   * buffers.
    */
   @ChannelHandler.Sharable
   protected static class RequestEncoder extends MessageToByteEncoder<EncodedRequest>
@@ -1425,7 +1519,11 @@ public final class NettyConnection extends TransportConnection
     protected void encode(final ChannelHandlerContext ctx, final EncodedRequest msg, final ByteBuf out)
     {
       logger.trace("encoding message {} on {}", msg, ctx);
-      out.writeBytes(msg.getEncoded());
+      final int readerIndex = out.readerIndex();
+      final int writerIndex = out.writerIndex();
+      out.ensureWritable(msg.getLength());
+      msg.encode(new NettyDERBuffer(out, writerIndex, writerIndex + msg.getLength()));
+      out.readerIndex(readerIndex);
     }
 
 
@@ -1435,7 +1533,7 @@ public final class NettyConnection extends TransportConnection
       final EncodedRequest msg,
       final boolean preferDirect)
     {
-      final int msgSize = msg.getEncoded().length;
+      final int msgSize = msg.getLength();
       if (preferDirect) {
         return ctx.alloc().ioBuffer(msgSize);
       } else {
@@ -1452,15 +1550,55 @@ public final class NettyConnection extends TransportConnection
   protected static class MessageDecoder extends ByteToMessageDecoder
   {
 
+    /** Parser for response messages, reused for every message decoded on this channel. */
+    private final ResponseParser parser;
+
+    /** Consumer of the encoded length of each decoded message, may be null. */
+    private final ObjIntConsumer<Message> lengthConsumer;
+
+
+    /** Creates a new message decoder that eagerly decodes all entries. */
+    public MessageDecoder()
+    {
+      this(null);
+    }
+
+
+    /**
+     * Creates a new message decoder.
+     *
+     * @param  lazyEntries  to test whether entries for a message ID should be decoded lazily or null
+     */
+    public MessageDecoder(final IntPredicate lazyEntries)
+    {
+      this(lazyEntries, null);
+    }
+
+
+    /**
+     * Creates a new message decoder.
+     *
+     * @param  lazyEntries  to test whether entries for a message ID should be decoded lazily or null
+     * @param  consumer  to receive the encoded length of each decoded message or null
+     */
+    public MessageDecoder(final IntPredicate lazyEntries, final ObjIntConsumer<Message> consumer)
+    {
+      parser = new ResponseParser(lazyEntries);
+      lengthConsumer = consumer;
+    }
+
 
     @Override
     protected void decode(final ChannelHandlerContext ctx, final ByteBuf in, final List<Object> out)
       throws LdapException
     {
-      LOGGER.trace("received {} bytes on {}", in.readableBytes(), ctx);
-      final ResponseParser parser = new ResponseParser();
+      final int length = in.readableBytes();
+      LOGGER.trace("received {} bytes on {}", length, ctx);
       final Message message =  parser.parse(new NettyDERBuffer(in))
         .orElseThrow(() -> new LdapException(ResultCode.DECODING_ERROR, "No response found"));
+      if (lengthConsumer != null) {
+        lengthConsumer.accept(message, length);
+      }
       out.add(message);
       LOGGER.trace("decoded response message {} on {}", message, ctx);
       if (ctx != null) {
@@ -6,7 +6,7 @@ import org.ldaptive.asn1.DERBuffer;
 
 /**
  * {@link DERBuffer} that uses a {@link ByteBuf}. Since {@link ByteBuf} does not have the concept of limit the writer
- * index is used to track the limit.
+ * index is used to track the limit. Both get and put operations use the reader index as the position.
  *
  * @author  Middleware Services
  */
@@ -105,6 +105,26 @@ public class NettyDERBuffer implements DERBuffer
   }
 
 
+  @Override
+  public DERBuffer put(final byte b)
+  {
+    final int index = buffer.readerIndex();
+    buffer.setByte(index, b);
+    buffer.readerIndex(index + 1);
+    return this;
+  }
+
+
+  @Override
+  public DERBuffer put(final byte[] src)
+  {
+    final int index = buffer.readerIndex();
+    buffer.setBytes(index, src);
+    buffer.readerIndex(index + src.length);
+    return this;
+  }
+
+
   @Override
   public DERBuffer slice()
   {
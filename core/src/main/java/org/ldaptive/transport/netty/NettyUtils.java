@@ -4,6 +4,7 @@ package org.ldaptive.transport.netty;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
 import io.netty.channel.EventLoopGroup;
 import io.netty.channel.epoll.Epoll;
 import io.netty.channel.epoll.EpollEventLoopGroup;
@@ -13,6 +14,9 @@ import io.netty.channel.kqueue.KQueueEventLoopGroup;
 import io.netty.channel.kqueue.KQueueSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.ThreadPerTaskExecutor;
 import org.slf4j.Logger;
@@ -36,12 +40,36 @@ public final class NettyUtils
   private static final boolean USE_NIO = Boolean.parseBoolean(
     System.getProperty("org.ldaptive.transport.netty.useNio", "false"));
 
+  /** Whether to use io_uring when it is available. */
+  private static final boolean USE_IO_URING = Boolean.parseBoolean(
+    System.getProperty("org.ldaptive.transport.netty.useIoUring", "false"));
+
+  /** Channel option class of the native transports that is common to all of them. */
+  private static final String UNIX_CHANNEL_OPTION_CLASS = "io.netty.channel.unix.UnixChannelOption";
+
+  /**
+   * Channel option classes that register transport specific options when they are loaded. See {@link
+   * #getChannelOption(String)}.
+   */
+  private static final String[] CHANNEL_OPTION_CLASSES = {
+    UNIX_CHANNEL_OPTION_CLASS,
+    "io.netty.channel.epoll.EpollChannelOption",
+    "io.netty.channel.kqueue.KQueueChannelOption",
+    "io.netty.incubator.channel.uring.IOUringChannelOption",
+  };
+
+  /** Whether io_uring is available. */
+  private static final boolean IO_URING_AVAILABLE;
+
   /** Whether Epoll is available. */
   private static final boolean EPOLL_AVAILABLE;
 
   /** Whether KQueue is available. */
   private static final boolean KQUEUE_AVAILABLE;
 
+  /** Channel option class of the default transport, see {@link #getChannelOption(String)}. */
+  private static final String TRANSPORT_CHANNEL_OPTION_CLASS;
+
   /** Logger for this class. */
   private static final Logger LOGGER = LoggerFactory.getLogger(NettyUtils.class);
 
@@ -51,6 +79,17 @@ public final class NettyUtils
 
 
   static {
+    boolean ioUringAvailable;
+    try {
+      Class.forName("io.netty.incubator.channel.uring.IOUring");
+      ioUringAvailable = IOUring.isAvailable();
+    } catch (Exception e) {
+      LOGGER.debug("Error detecting io_uring: {}:{}", e.getClass(), e.getMessage());
+      ioUringAvailable = false;
+    }
+    IO_URING_AVAILABLE = ioUringAvailable;
+    LOGGER.debug("Detected io_uring transport: {}", IO_URING_AVAILABLE);
+
     boolean epollAvailable;
     try {
       Class.forName("io.netty.channel.epoll.Epoll");
@@ -73,30 +112,93 @@ public final class NettyUtils
     KQUEUE_AVAILABLE = kqueueAvailable;
     LOGGER.debug("Detected KQueue transport: {}", KQUEUE_AVAILABLE);
     LOGGER.debug("Overriding to use Nio transport: {}", USE_NIO);
+    LOGGER.debug("Overriding to use io_uring transport: {}", USE_IO_URING);
+
+    if (IO_URING_AVAILABLE && USE_IO_URING && !USE_NIO) {
+      TRANSPORT_CHANNEL_OPTION_CLASS = "io.netty.incubator.channel.uring.IOUringChannelOption";
+    } else if (EPOLL_AVAILABLE && !USE_NIO) {
+      TRANSPORT_CHANNEL_OPTION_CLASS = "io.netty.channel.epoll.EpollChannelOption";
+    } else if (KQUEUE_AVAILABLE && !USE_NIO) {
+      TRANSPORT_CHANNEL_OPTION_CLASS = "io.netty.channel.kqueue.KQueueChannelOption";
+    } else {
+      TRANSPORT_CHANNEL_OPTION_CLASS = UNIX_CHANNEL_OPTION_CLASS;
+    }
+
+    for (String className : CHANNEL_OPTION_CLASSES) {
+      try {
+        Class.forName(className);
+      } catch (Exception e) {
+        LOGGER.debug("Error loading channel options {}: {}:{}", className, e.getClass(), e.getMessage());
+      }
+    }
+  }
+
+
+  /**
+   * Returns whether the io_uring transport is available. See {@link IOUring#isAvailable()}.
+   *
+   * @return  whether io_uring is available
+   */
+  public static boolean isIoUringAvailable()
+  {
+    return IO_URING_AVAILABLE;
+  }
+
+
+  /**
+   * Returns the channel option with the supplied name. Options specific to the native transports, such as
+   * TCP_QUICKACK, TCP_KEEPIDLE and SO_BUSY_POLL, are registered by netty under a name qualified by their declaring
+   * class. Names that are not generic channel options are resolved against the options of the default transport, see
+   * {@link #getDefaultSocketChannelType()}, and then against the options common to all native transports.
+   *
+   * @param  name  of the channel option
+   *
+   * @return  channel option
+   */
+  public static ChannelOption<?> getChannelOption(final String name)
+  {
+    final String optionName;
+    if (ChannelOption.exists(name)) {
+      optionName = name;
+    } else if (ChannelOption.exists(TRANSPORT_CHANNEL_OPTION_CLASS + "#" + name)) {
+      optionName = TRANSPORT_CHANNEL_OPTION_CLASS + "#" + name;
+    } else if (ChannelOption.exists(UNIX_CHANNEL_OPTION_CLASS + "#" + name)) {
+      optionName = UNIX_CHANNEL_OPTION_CLASS + "#" + name;
+    } else {
+      LOGGER.debug("Channel option {} is not supported by any available transport", name);
+      optionName = name;
+    }
+    return ChannelOption.valueOf(optionName);
   }
 
 
   /**
    * Returns the default socket channel type for this platform. See {@link Epoll#isAvailable()} and {@link
-   * KQueue#isAvailable()}.
+   * KQueue#isAvailable()}. io_uring is preferred when it is available and the org.ldaptive.transport.netty.useIoUring
+   * property is set, see {@link IOUring#isAvailable()}.
    *
    * @return  socket channel type
    */
   public static Class<? extends Channel> getDefaultSocketChannelType()
   {
-    if (EPOLL_AVAILABLE && !USE_NIO) {
-      return EpollSocketChannel.class;
+    final Class<? extends Channel> type;
+    if (IO_URING_AVAILABLE && USE_IO_URING && !USE_NIO) {
+      type = IOUringSocketChannel.class;
+    } else if (EPOLL_AVAILABLE && !USE_NIO) {
+      type = EpollSocketChannel.class;
     } else if (KQUEUE_AVAILABLE && !USE_NIO) {
-      return KQueueSocketChannel.class;
+      type = KQueueSocketChannel.class;
     } else {
-      return NioSocketChannel.class;
+      type = NioSocketChannel.class;
     }
+    return type;
   }
 
 
   /**
    * Returns the default event loop group for this platform. See {@link Epoll#isAvailable()} and {@link
-   * KQueue#isAvailable()}. Set numThreads to zero to use the netty default.
+   * KQueue#isAvailable()}. io_uring is preferred when it is available and the org.ldaptive.transport.netty.useIoUring
+   * property is set, see {@link IOUring#isAvailable()}. Set numThreads to zero to use the netty default.
    *
    * @param  name  of the thread pool
    * @param  numThreads  number of threads in the thread pool
@@ -104,19 +206,19 @@ public final class NettyUtils
    */
   public static EventLoopGroup createDefaultEventLoopGroup(final String name, final int numThreads)
   {
-    if (EPOLL_AVAILABLE && !USE_NIO) {
-      return new EpollEventLoopGroup(
-        numThreads,
-        new ThreadPerTaskExecutor(new DefaultThreadFactory("ldaptive-" + name, true, Thread.NORM_PRIORITY)));
+    final ThreadPerTaskExecutor executor = new ThreadPerTaskExecutor(
+      new DefaultThreadFactory("ldaptive-" + name, true, Thread.NORM_PRIORITY));
+    final EventLoopGroup group;
+    if (IO_URING_AVAILABLE && USE_IO_URING && !USE_NIO) {
+      group = new IOUringEventLoopGroup(numThreads, executor);
+    } else if (EPOLL_AVAILABLE && !USE_NIO) {
+      group = new EpollEventLoopGroup(numThreads, executor);
     } else if (KQUEUE_AVAILABLE && !USE_NIO) {
-      return new KQueueEventLoopGroup(
-        numThreads,
-        new ThreadPerTaskExecutor(new DefaultThreadFactory("ldaptive-" + name, true, Thread.NORM_PRIORITY)));
+      group = new KQueueEventLoopGroup(numThreads, executor);
     } else {
-      return new NioEventLoopGroup(
-        numThreads,
-        new ThreadPerTaskExecutor(new DefaultThreadFactory("ldaptive-" + name, true, Thread.NORM_PRIORITY)));
+      group = new NioEventLoopGroup(numThreads, executor);
     }
+    return group;
   }
 
 
@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive;
 
+import org.ldaptive.asn1.DEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -61,4 +63,23 @@ public class AddRequestTest
   {
     Assert.assertEquals(request.encode(2), berValue);
   }
+
+
+  /**
+   * @param  request  to encode.
+   * @param  berValue  expected value.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(dataProvider = "request")
+  public void encodeBuffer(final AddRequest request, final byte[] berValue)
+    throws Exception
+  {
+    final DEREncoder encoder = request.getEncoder(2);
+    Assert.assertEquals(encoder.encodedLength(), berValue.length);
+    final DefaultDERBuffer buffer = new DefaultDERBuffer(berValue.length);
+    encoder.encode(buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(buffer.clear().getRemainingBytes(), berValue);
+  }
 }
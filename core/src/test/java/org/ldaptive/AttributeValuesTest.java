@@ -0,0 +1,125 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.ldaptive.asn1.DefaultDERBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link AttributeValues}.
+ *
+ * @author  Middleware Services
+ */
+public class AttributeValuesTest
+{
+
+
+  /**
+   * Tests values retain insertion order and discard duplicates.
+   */
+  @Test
+  public void addAndRemove()
+  {
+    final AttributeValues values = new AttributeValues();
+    Assert.assertTrue(values.isEmpty());
+    Assert.assertTrue(values.add(LdapUtils.utf8Encode("b")));
+    Assert.assertTrue(values.add(ByteBuffer.wrap(LdapUtils.utf8Encode("a"))));
+    Assert.assertTrue(values.add(new DefaultDERBuffer(LdapUtils.utf8Encode("c"))));
+    Assert.assertTrue(values.add(new byte[0]));
+    Assert.assertFalse(values.add(LdapUtils.utf8Encode("a")));
+    Assert.assertEquals(values.size(), 4);
+    Assert.assertEquals(values.getAllStrings(false), List.of("b", "a", "c", ""));
+    Assert.assertEquals(values.getString(1, true), LdapUtils.base64Encode("a"));
+    Assert.assertEquals(values.get(2), LdapUtils.utf8Encode("c"));
+
+    Assert.assertTrue(values.remove(LdapUtils.utf8Encode("a")));
+    Assert.assertFalse(values.remove(LdapUtils.utf8Encode("a")));
+    Assert.assertFalse(values.contains(LdapUtils.utf8Encode("a")));
+    Assert.assertFalse(values.contains(null));
+    Assert.assertEquals(values.getAllStrings(false), List.of("b", "c", ""));
+    Assert.assertTrue(values.add(LdapUtils.utf8Encode("a")));
+    Assert.assertEquals(values.getAllStrings(false), List.of("b", "c", "", "a"));
+
+    values.clear();
+    Assert.assertEquals(values.size(), 0);
+    Assert.assertEquals(values.getAllStrings(false), List.of());
+  }
+
+
+  /**
+   * Tests values above the index threshold.
+   */
+  @Test
+  public void manyValues()
+  {
+    final AttributeValues values = new AttributeValues();
+    final List<String> expected = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertTrue(values.add(LdapUtils.utf8Encode("uid=" + i)));
+      Assert.assertFalse(values.add(LdapUtils.utf8Encode("uid=" + i / 2)));
+      expected.add("uid=" + i);
+    }
+    Assert.assertEquals(values.size(), 1000);
+    Assert.assertEquals(values.getAllStrings(false), expected);
+    for (int i = 0; i < 1000; i += 2) {
+      Assert.assertTrue(values.remove(LdapUtils.utf8Encode("uid=" + i)));
+    }
+    Assert.assertEquals(values.size(), 500);
+    for (int i = 0; i < 1000; i++) {
+      Assert.assertEquals(values.contains(LdapUtils.utf8Encode("uid=" + i)), i % 2 == 1);
+    }
+    Assert.assertEquals(values.getString(0, false), "uid=1");
+    Assert.assertEquals(values.getString(499, false), "uid=999");
+  }
+
+
+  /**
+   * Tests storage shrinks after values are removed.
+   */
+  @Test
+  public void trim()
+  {
+    final AttributeValues values = new AttributeValues();
+    for (int i = 0; i < 1000; i++) {
+      values.add(LdapUtils.utf8Encode("uid=" + i));
+    }
+    final int capacity = values.capacity();
+    for (int i = 10; i < 1000; i++) {
+      Assert.assertTrue(values.remove(LdapUtils.utf8Encode("uid=" + i)));
+    }
+    Assert.assertTrue(values.capacity() < capacity / 10);
+    Assert.assertEquals(values.size(), 10);
+    for (int i = 0; i < 10; i++) {
+      Assert.assertEquals(values.getString(i, false), "uid=" + i);
+    }
+    for (int i = 0; i < 10; i++) {
+      values.remove(LdapUtils.utf8Encode("uid=" + i));
+    }
+    Assert.assertEquals(values.capacity(), 0);
+    Assert.assertTrue(values.add(LdapUtils.utf8Encode("uid=0")));
+    Assert.assertEquals(values.getAllStrings(false), List.of("uid=0"));
+  }
+
+
+  /**
+   * Tests equality ignores the order of values.
+   */
+  @Test
+  public void equality()
+  {
+    final AttributeValues v1 = new AttributeValues();
+    final AttributeValues v2 = new AttributeValues(16);
+    for (int i = 0; i < 20; i++) {
+      v1.add(LdapUtils.utf8Encode(String.valueOf(i)));
+      v2.add(LdapUtils.utf8Encode(String.valueOf(19 - i)));
+    }
+    Assert.assertEquals(v1, v2);
+    Assert.assertEquals(v1.hashCode(), v2.hashCode());
+    v2.remove(LdapUtils.utf8Encode("0"));
+    v2.add(LdapUtils.utf8Encode("20"));
+    Assert.assertNotEquals(v1, v2);
+  }
+}
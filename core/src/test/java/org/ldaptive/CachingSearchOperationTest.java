@@ -0,0 +1,198 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.handler.LdapEntryHandler;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CachingSearchOperation}.
+ *
+ * @author  Middleware Services
+ */
+public class CachingSearchOperationTest
+{
+
+  /** Number of searches received by the mock connections. */
+  private final AtomicInteger searchCount = new AtomicInteger();
+
+
+  /**
+   * Creates a new connection factory backed by mock connections that return one entry for each search, named by the
+   * base DN of the request.
+   *
+   * @param  latch  to wait on before responding, may be null
+   *
+   * @return  connection factory
+   */
+  private ConnectionFactory createFactory(final CountDownLatch latch)
+  {
+    searchCount.set(0);
+    return new DefaultConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org"),
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        conn.setSearchResponder(h -> {
+          searchCount.incrementAndGet();
+          if (latch != null) {
+            try {
+              latch.await();
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          final String dn = ((SearchRequest) h.getRequest()).getBaseDn();
+          h.entry(LdapEntry.builder().dn("uid=1," + dn).attributes(new LdapAttribute("uid", "1")).build());
+          h.result(SearchResponse.builder().resultCode(ResultCode.SUCCESS).build());
+        });
+        return conn;
+      });
+  }
+
+
+  /**
+   * Returns a new subtree search request for all entries below the supplied base DN.
+   *
+   * @param  baseDn  of the request
+   *
+   * @return  search request
+   */
+  private static SearchRequest request(final String baseDn)
+  {
+    return SearchRequest.builder().dn(baseDn).filter("(objectClass=*)").build();
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void hitAndMiss()
+    throws Exception
+  {
+    final CachingSearchOperation search = new CachingSearchOperation(createFactory(null));
+    final SearchResponse first = search.execute(request("ou=people,dc=ldaptive,dc=org"));
+    Assert.assertEquals(first.entrySize(), 1);
+    Assert.assertEquals(search.getMissCount(), 1);
+    Assert.assertEquals(search.getLoadCount(), 1);
+
+    final SearchResponse second = search.execute(request("ou=people,dc=ldaptive,dc=org"));
+    Assert.assertEquals(second, first);
+    Assert.assertNotSame(second.getEntry(), first.getEntry());
+    Assert.assertEquals(search.getHitCount(), 1);
+    Assert.assertEquals(searchCount.get(), 1);
+
+    // modifying a result does not modify the cache
+    second.getEntry().getAttribute("uid").addStringValues("2");
+    Assert.assertEquals(search.execute(request("ou=people,dc=ldaptive,dc=org")), first);
+
+    // a different filter is a different request
+    search.execute(SearchRequest.builder().dn("ou=people,dc=ldaptive,dc=org").filter("(uid=1)").build());
+    Assert.assertEquals(searchCount.get(), 2);
+    Assert.assertEquals(search.size(), 2);
+    Assert.assertEquals(search.weight(), 2);
+
+    // entry handlers bypass the cache
+    search.execute("ou=people,dc=ldaptive,dc=org", "(objectClass=*)", (String[]) null, (LdapEntryHandler) e -> e);
+    Assert.assertEquals(searchCount.get(), 3);
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void eviction()
+    throws Exception
+  {
+    final CachingSearchOperation search = new CachingSearchOperation(createFactory(null));
+    search.setCacheSize(2);
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    search.execute(request("ou=2,dc=ldaptive,dc=org"));
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    search.execute(request("ou=3,dc=ldaptive,dc=org"));
+    Assert.assertEquals(search.size(), 2);
+    Assert.assertEquals(search.getEvictionCount(), 1);
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    Assert.assertEquals(searchCount.get(), 3);
+
+    search.clear();
+    search.setCacheSize(10);
+    search.setCacheMaxWeight(1);
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    search.execute(request("ou=2,dc=ldaptive,dc=org"));
+    Assert.assertEquals(search.size(), 1);
+    Assert.assertEquals(search.weight(), 1);
+
+    search.setCacheTimeToLive(Duration.ofMillis(1));
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    Thread.sleep(10);
+    final int count = searchCount.get();
+    search.execute(request("ou=1,dc=ldaptive,dc=org"));
+    Assert.assertEquals(searchCount.get(), count + 1);
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void invalidate()
+    throws Exception
+  {
+    final CachingSearchOperation search = new CachingSearchOperation(createFactory(null));
+    final SearchRequest object = SearchRequest.objectScopeSearchRequest("uid=1,ou=people,dc=ldaptive,dc=org");
+    final SearchRequest subtree = request("ou=people,dc=ldaptive,dc=org");
+    final SearchRequest other = request("ou=groups,dc=ldaptive,dc=org");
+    search.execute(object);
+    search.execute(subtree);
+    search.execute(other);
+    Assert.assertEquals(search.size(), 3);
+
+    search.invalidate("UID=2,OU=People,dc=ldaptive,dc=org");
+    Assert.assertEquals(search.size(), 2);
+    search.invalidate(LdapEntry.builder().dn("uid=1, ou=people, dc=ldaptive, dc=org").build());
+    Assert.assertEquals(search.size(), 1);
+    search.invalidate(other);
+    Assert.assertEquals(search.size(), 0);
+
+    search.execute(object);
+    search.invalidate("not a dn");
+    Assert.assertEquals(search.size(), 0);
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void coalesce()
+    throws Exception
+  {
+    final CountDownLatch latch = new CountDownLatch(1);
+    final CachingSearchOperation search = new CachingSearchOperation(createFactory(latch));
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<SearchResponse>> results = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        results.add(executor.submit(() -> search.execute(request("dc=ldaptive,dc=org"))));
+      }
+      for (int i = 0; i < 500 && search.getCoalescedCount() < 3; i++) {
+        Thread.sleep(10);
+      }
+      latch.countDown();
+      for (Future<SearchResponse> f : results) {
+        Assert.assertEquals(f.get(5, TimeUnit.SECONDS).entrySize(), 1);
+      }
+      Assert.assertEquals(searchCount.get(), 1);
+      Assert.assertEquals(search.getLoadCount(), 1);
+      Assert.assertEquals(search.getCoalescedCount(), 3);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -78,6 +78,22 @@ public class EqualsTest
   }
 
 
+  /**
+   * Returns attribute values containing the supplied value. Values created by EqualsVerifier do not satisfy the
+   * invariants between the value bytes, offsets and size.
+   *
+   * @param  value  to add
+   *
+   * @return  attribute values
+   */
+  private static AttributeValues attributeValues(final String value)
+  {
+    final AttributeValues values = new AttributeValues();
+    values.add(LdapUtils.utf8Encode(value));
+    return values;
+  }
+
+
   @Test
   public void ldapAttribute()
   {
@@ -86,6 +102,7 @@ public class EqualsTest
         LdapAttribute.builder().name("uid").values("abrown").build(),
         LdapAttribute.builder().name("UID").values("abrown").build())
       .andUnequalExample(LdapAttribute.builder().name("id").values("abrown").build())
+      .withPrefabValues(AttributeValues.class, attributeValues("red"), attributeValues("blue"))
       .suppress(Warning.STRICT_INHERITANCE)
       .suppress(Warning.NONFINAL_FIELDS)
       .verify();
@@ -107,6 +124,12 @@ public class EqualsTest
         LdapEntry.builder()
           .dn("id=abrown,ou=people,dc=ldaptive,dc=org")
           .attributes(LdapAttribute.builder().name("id").values("abrown").build()).build())
+      .withPrefabValues(AttributeValues.class, attributeValues("red"), attributeValues("blue"))
+      .withPrefabValues(
+        LdapEntry.EncodedAttributes.class,
+        new LdapEntry.EncodedAttributes(new byte[0]),
+        new LdapEntry.EncodedAttributes(new byte[0]))
+      .withIgnoredFields("encodedAttributes")
       .suppress(Warning.STRICT_INHERITANCE)
       .suppress(Warning.NONFINAL_FIELDS)
       .verify();
@@ -168,6 +191,11 @@ public class EqualsTest
   public void responses(final Class<?> clazz)
   {
     EqualsVerifier.forClass(clazz)
+      .withPrefabValues(AttributeValues.class, attributeValues("red"), attributeValues("blue"))
+      .withPrefabValues(
+        LdapEntry.EncodedAttributes.class,
+        new LdapEntry.EncodedAttributes(new byte[0]),
+        new LdapEntry.EncodedAttributes(new byte[0]))
       .suppress(Warning.STRICT_INHERITANCE)
       .suppress(Warning.NONFINAL_FIELDS)
       .verify();
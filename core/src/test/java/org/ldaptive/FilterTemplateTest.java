@@ -1,6 +1,7 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive;
 
+import org.ldaptive.filter.FilterParser;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -99,4 +100,18 @@ public class FilterTemplateTest
   {
     Assert.assertEquals(filter.format(), encodedFilter);
   }
+
+
+  /**
+   * @param  encodedFilter  to compare against
+   * @param  filter  to convert
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "filter", dataProvider = "filters")
+  public void testToFilter(final String encodedFilter, final FilterTemplate filter)
+    throws Exception
+  {
+    Assert.assertEquals(filter.toFilter(), FilterParser.parse(encodedFilter));
+  }
 }
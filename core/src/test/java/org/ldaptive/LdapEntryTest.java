@@ -1,9 +1,16 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.ldaptive.asn1.DefaultDERBuffer;
+import org.ldaptive.dn.Dn;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -177,6 +184,126 @@ public class LdapEntryTest
   }
 
 
+  /**
+   * @param  berValue  encoded response.
+   * @param  response  expected decoded response.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(dataProvider = "response")
+  public void encodeLazy(final byte[] berValue, final LdapEntry response)
+    throws Exception
+  {
+    final LdapEntry le = new LdapEntry(new DefaultDERBuffer(berValue), true);
+    Assert.assertEquals(le.size(), response.size());
+    Assert.assertEquals(le.getAttributeNames(), new LdapEntry(new DefaultDERBuffer(berValue)).getAttributeNames());
+    Assert.assertEquals(le, response);
+    Assert.assertFalse(le.hasEncodedAttributes());
+  }
+
+
+  /**
+   * Tests attributes are only decoded when requested.
+   */
+  @Test
+  public void lazyAttributes()
+  {
+    final byte[] berValue = (byte[]) createData()[0][0];
+    final LdapEntry le = new LdapEntry(new DefaultDERBuffer(berValue), true);
+    Assert.assertEquals(le.getDn(), "dc=example,dc=com");
+    Assert.assertTrue(le.hasEncodedAttributes());
+    Assert.assertEquals(le.size(), 2);
+    Assert.assertEquals(le.getAttributeNames(), new String[] {"objectClass", "dc"});
+    le.configureBinaryAttributes("dc");
+    Assert.assertEquals(le.getAttribute("DC"), new LdapAttribute("dc", "example"));
+    Assert.assertTrue(le.getAttribute("dc").isBinary());
+    Assert.assertNull(le.getAttribute("cn"));
+    Assert.assertTrue(le.hasEncodedAttributes());
+
+    // copies share the encoded attributes but not the decoded attributes
+    le.getAttribute("dc").addStringValues("test");
+    final LdapEntry copy = LdapEntry.copy(le);
+    Assert.assertTrue(copy.hasEncodedAttributes());
+    Assert.assertEquals(copy, le);
+    copy.getAttribute("dc").removeStringValues("test");
+    Assert.assertEquals(le.getAttribute("dc").getStringValues().size(), 2);
+    Assert.assertEquals(copy.getAttribute("dc").getStringValues().size(), 1);
+    le.getAttribute("dc").removeStringValues("test");
+
+    // added attributes follow decoded attributes
+    le.addAttributes(new LdapAttribute("cn", "example"));
+    le.removeAttribute("objectClass");
+    Assert.assertEquals(le.size(), 2);
+    Assert.assertEquals(le.getAttribute().getName(), "dc");
+    final LdapAttribute[] attrs = le.getAttributes().toArray(LdapAttribute[]::new);
+    Assert.assertFalse(le.hasEncodedAttributes());
+    Assert.assertEquals(attrs.length, 2);
+    Assert.assertEquals(attrs[0].getName(), "dc");
+    Assert.assertEquals(attrs[1].getName(), "cn");
+  }
+
+
+  /**
+   * Tests concurrent readers of a lazily decoded entry.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test
+  public void lazyAttributesConcurrent()
+    throws Exception
+  {
+    final byte[] berValue = (byte[]) createData()[0][0];
+    final LdapEntry expected = new LdapEntry(new DefaultDERBuffer(berValue));
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 100; i++) {
+        final LdapEntry le = new LdapEntry(new DefaultDERBuffer(berValue), true);
+        final List<Future<LdapAttribute>> results = new ArrayList<>();
+        for (int j = 0; j < 4; j++) {
+          final boolean decodeAll = j % 2 == 0;
+          results.add(executor.submit(() -> {
+            if (decodeAll) {
+              Assert.assertEquals(le.hashCode(), expected.hashCode());
+            }
+            return le.getAttribute("dc");
+          }));
+        }
+        for (Future<LdapAttribute> f : results) {
+          Assert.assertEquals(f.get(5, TimeUnit.SECONDS), expected.getAttribute("dc"));
+        }
+        Assert.assertEquals(le, expected);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+
+  /**
+   * Tests the DN is parsed and normalized when requested.
+   */
+  @Test
+  public void lazyDn()
+  {
+    final LdapEntry le = new LdapEntry();
+    Assert.assertNull(le.getParsedDn());
+    Assert.assertNull(le.getNormalizedDn());
+    le.setDn("UID=1,OU=People,DC=ldaptive,DC=org");
+    Assert.assertEquals(le.getNormalizedDn(), "uid=1,ou=people,dc=ldaptive,dc=org");
+    Assert.assertEquals(le.getParsedDn(), new Dn("UID=1,OU=People,DC=ldaptive,DC=org"));
+    Assert.assertSame(le.getParsedDn(), le.getParsedDn());
+    le.setDn("uid=1,dc=ldaptive,dc=org,");
+    Assert.assertEquals(le.getDn(), "uid=1,dc=ldaptive,dc=org,");
+    Assert.assertNull(le.getParsedDn());
+    Assert.assertNull(le.getNormalizedDn());
+    le.setDn(null);
+    Assert.assertNull(le.getNormalizedDn());
+    Assert.assertEquals(
+      LdapEntry.builder().dn("UID=1,DC=ldaptive,DC=org").build(),
+      LdapEntry.builder().dn("uid=1,dc=ldaptive,dc=org").build());
+  }
+
+
   /**
    * Tests ordered ldap attribute values.
    */
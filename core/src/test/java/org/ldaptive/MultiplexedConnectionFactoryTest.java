@@ -0,0 +1,277 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.ldaptive.transport.DefaultSearchOperationHandle;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link MultiplexedConnectionFactory}.
+ *
+ * @author  Middleware Services
+ */
+public class MultiplexedConnectionFactoryTest
+{
+
+  /** Connections created by the factory under test. */
+  private final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+
+  /** Handles written to each connection that have not been completed. */
+  private final List<List<DefaultSearchOperationHandle>> pending = new CopyOnWriteArrayList<>();
+
+
+  /**
+   * Creates a new factory backed by mock connections that hold search handles until they are completed.
+   *
+   * @param  count  number of connections
+   * @param  max  maximum pending requests per connection
+   *
+   * @return  initialized connection factory
+   *
+   * @throws  Exception  if the factory cannot be initialized
+   */
+  private MultiplexedConnectionFactory createFactory(final int count, final int max)
+    throws Exception
+  {
+    connections.clear();
+    pending.clear();
+    final MultiplexedConnectionFactory factory = new MultiplexedConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org"),
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        final List<DefaultSearchOperationHandle> handles = new CopyOnWriteArrayList<>();
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        conn.setSearchResponder(handles::add);
+        connections.add(conn);
+        pending.add(handles);
+        return conn;
+      });
+    factory.setConnectionCount(count);
+    factory.setMaxPendingRequests(max);
+    factory.setBlockWaitTime(Duration.ofMillis(100));
+    factory.initialize();
+    return factory;
+  }
+
+
+  /**
+   * Completes every pending handle on the connection at the supplied index.
+   *
+   * @param  index  of the connection
+   */
+  private void complete(final int index)
+  {
+    final List<DefaultSearchOperationHandle> handles = new ArrayList<>(pending.get(index));
+    pending.get(index).clear();
+    handles.forEach(h -> h.result(SearchResponse.builder().resultCode(ResultCode.SUCCESS).build()));
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void leastOutstanding()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(4, 16);
+    try {
+      Assert.assertEquals(connections.size(), 4);
+      final Connection conn = factory.getConnection();
+      Assert.assertSame(factory.getConnection(), conn);
+      Assert.assertTrue(conn.isOpen());
+      for (int i = 0; i < 8; i++) {
+        conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      }
+      Assert.assertEquals(factory.getPendingRequestCount(), 8);
+      for (List<DefaultSearchOperationHandle> handles : pending) {
+        Assert.assertEquals(handles.size(), 2);
+      }
+
+      complete(0);
+      Assert.assertEquals(factory.getPendingRequestCount(), 6);
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      Assert.assertEquals(pending.get(0).size(), 2);
+      for (int i = 0; i < 4; i++) {
+        complete(i);
+      }
+      Assert.assertEquals(factory.getPendingRequestCount(), 0);
+    } finally {
+      factory.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void maxPendingRequests()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(1, 2);
+    try {
+      final Connection conn = factory.getConnection();
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      final AtomicBoolean completed = new AtomicBoolean();
+      try {
+        conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"))
+          .onComplete(() -> completed.set(true))
+          .execute();
+        Assert.fail("Should have thrown LdapException");
+      } catch (LdapException e) {
+        Assert.assertEquals(e.getResultCode(), ResultCode.LOCAL_ERROR);
+      }
+      Assert.assertTrue(completed.get());
+      Assert.assertEquals(factory.getPendingRequestCount(), 2);
+
+      complete(0);
+      Assert.assertEquals(factory.getPendingRequestCount(), 0);
+      completed.set(false);
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"))
+        .onComplete(() -> completed.set(true))
+        .send();
+      Assert.assertEquals(factory.getPendingRequestCount(), 1);
+      complete(0);
+      Assert.assertTrue(completed.get());
+      Assert.assertEquals(factory.getPendingRequestCount(), 0);
+    } finally {
+      factory.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void onCompleteAfterSend()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(1, 16);
+    try {
+      final Connection conn = factory.getConnection();
+      final AtomicBoolean completed = new AtomicBoolean();
+      final SearchOperationHandle handle = conn.operation(
+        SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      handle.onComplete(() -> completed.set(true));
+      Assert.assertEquals(factory.getPendingRequestCount(), 1);
+      complete(0);
+      Assert.assertTrue(completed.get());
+      Assert.assertEquals(factory.getPendingRequestCount(), 0);
+    } finally {
+      factory.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void publish()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(1, 16);
+    try {
+      final List<LdapEntry> entries = new CopyOnWriteArrayList<>();
+      final AtomicBoolean completed = new AtomicBoolean();
+      new SearchOperation(factory)
+        .publish(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"))
+        .subscribe(
+          new Flow.Subscriber<>() {
+            @Override
+            public void onSubscribe(final Flow.Subscription subscription)
+            {
+              subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(final LdapEntry item)
+            {
+              entries.add(item);
+            }
+
+            @Override
+            public void onError(final Throwable throwable)
+            {
+              Assert.fail("Publish failed", throwable);
+            }
+
+            @Override
+            public void onComplete()
+            {
+              completed.set(true);
+            }
+          });
+      // the request is sent through the multiplexed handle, which acquires a permit
+      Assert.assertEquals(factory.getPendingRequestCount(), 1);
+      Assert.assertEquals(pending.get(0).size(), 1);
+      pending.get(0).get(0).entry(LdapEntry.builder().dn("uid=1,dc=ldaptive,dc=org").build());
+      complete(0);
+      Assert.assertTrue(completed.get());
+      Assert.assertEquals(entries.size(), 1);
+      Assert.assertEquals(entries.get(0).getDn(), "uid=1,dc=ldaptive,dc=org");
+      Assert.assertEquals(factory.getPendingRequestCount(), 0);
+    } finally {
+      factory.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void replaceClosedConnection()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(2, 16);
+    final Connection conn = factory.getConnection();
+    try {
+      connections.get(0).close();
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      // the closed connection is replaced in the background
+      for (int i = 0; i < 100 && (connections.size() < 3 || !connections.get(2).isOpen()); i++) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(connections.size(), 3);
+      for (int i = 0; i < 3; i++) {
+        conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).send();
+      }
+      Assert.assertFalse(connections.get(0).isOpen());
+      Assert.assertEquals(pending.get(0).size(), 0);
+      Assert.assertEquals(pending.get(1).size(), 2);
+      Assert.assertEquals(pending.get(2).size(), 2);
+    } finally {
+      factory.close();
+    }
+    Assert.assertFalse(conn.isOpen());
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void unsupportedOperations()
+    throws Exception
+  {
+    final MultiplexedConnectionFactory factory = createFactory(1, 16);
+    try {
+      final Connection conn = factory.getConnection();
+      try {
+        conn.operation(SimpleBindRequest.builder().dn("uid=1,dc=ldaptive,dc=org").password("secret").build());
+        Assert.fail("Should have thrown UnsupportedOperationException");
+      } catch (UnsupportedOperationException e) {
+        Assert.assertNotNull(e.getMessage());
+      }
+      try {
+        conn.operation(new AbandonRequest(1));
+        Assert.fail("Should have thrown UnsupportedOperationException");
+      } catch (UnsupportedOperationException e) {
+        Assert.assertNotNull(e.getMessage());
+      }
+    } finally {
+      factory.close();
+    }
+  }
+}
@@ -13,7 +13,9 @@ import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.util.concurrent.DefaultThreadFactory;
 import io.netty.util.concurrent.ThreadPerTaskExecutor;
 import org.ldaptive.concurrent.SearchOperationWorker;
+import org.ldaptive.pool.BlockingTimeoutException;
 import org.ldaptive.pool.IdlePruneStrategy;
+import org.ldaptive.transport.mock.MockConnection;
 import org.ldaptive.transport.netty.NettyConnectionFactoryTransport;
 import org.ldaptive.transport.netty.SimpleNettyServer;
 import org.testng.Assert;
@@ -522,4 +524,61 @@ public class PooledConnectionFactoryTest
       server.stop();
     }
   }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "conn-pool")
+  public void concurrentPool()
+    throws Exception
+  {
+    final AtomicInteger opened = new AtomicInteger();
+    final PooledConnectionFactory factory = PooledConnectionFactory.builder(
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> opened.incrementAndGet() > 0);
+        conn.setTestPredicate(url -> true);
+        conn.setSearchResponder(h -> {
+          h.entry(LdapEntry.builder().dn("uid=1,dc=ldaptive,dc=org").build());
+          h.result(SearchResponse.builder().resultCode(ResultCode.SUCCESS).build());
+        });
+        return conn;
+      })
+      .config(new ConnectionConfig("ldap://directory.ldaptive.org"))
+      .concurrentPool(true)
+      .min(1)
+      .max(2)
+      .blockWaitTime(Duration.ofMillis(200))
+      .build();
+    factory.initialize();
+    try {
+      Assert.assertTrue(factory.isInitialized());
+      Assert.assertEquals(factory.availableCount(), 1);
+      final SearchResponse response = new SearchOperation(factory).execute(
+        SearchRequest.objectScopeSearchRequest("uid=1,dc=ldaptive,dc=org"));
+      Assert.assertEquals(response.getEntry().getDn(), "uid=1,dc=ldaptive,dc=org");
+      Assert.assertEquals(factory.availableCount(), 1);
+      Assert.assertEquals(factory.activeCount(), 0);
+      Assert.assertEquals(factory.getCheckOutCount(), 1);
+      Assert.assertEquals(opened.get(), 1);
+
+      final Connection c1 = factory.getConnection();
+      final Connection c2 = factory.getConnection();
+      Assert.assertEquals(factory.activeCount(), 2);
+      try {
+        factory.getConnection();
+        Assert.fail("Should have thrown BlockingTimeoutException");
+      } catch (Exception e) {
+        Assert.assertEquals(e.getClass(), BlockingTimeoutException.class);
+      }
+      c1.close();
+      c2.close();
+      Assert.assertEquals(factory.availableCount(), 2);
+      Assert.assertEquals(factory.getPooledConnectionStatistics().size(), 2);
+    } finally {
+      factory.close();
+    }
+    Assert.assertFalse(factory.isInitialized());
+  }
 }
@@ -0,0 +1,92 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import org.ldaptive.asn1.DEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link PreparedSearchRequest}.
+ *
+ * @author  Middleware Services
+ */
+public class PreparedSearchRequestTest
+{
+
+  /** Message IDs that cover each length of the encoded integer. */
+  private static final int[] MESSAGE_IDS = {
+    1, 2, 127, 128, 255, 256, 32767, 32768, 8388607, 8388608, Integer.MAX_VALUE,
+  };
+
+
+  /**
+   * @param  request  search request to prepare.
+   * @param  berValue  expected value.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(dataProvider = "request", dataProviderClass = SearchRequestTest.class)
+  public void encode(final SearchRequest request, final byte[] berValue)
+    throws Exception
+  {
+    final PreparedSearchRequest prepared = new PreparedSearchRequest(request);
+    Assert.assertEquals(prepared, request);
+    Assert.assertEquals(prepared.encode(2), berValue);
+    for (int id : MESSAGE_IDS) {
+      Assert.assertEquals(prepared.encode(id), request.encode(id));
+      final DEREncoder encoder = prepared.getEncoder(id);
+      Assert.assertEquals(encoder.encodedLength(), request.encode(id).length);
+      final DefaultDERBuffer buffer = new DefaultDERBuffer(encoder.encodedLength());
+      encoder.encode(buffer);
+      Assert.assertFalse(buffer.hasRemaining());
+      Assert.assertEquals(buffer.clear().getRemainingBytes(), request.encode(id));
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test
+  public void encodeLongForm()
+    throws Exception
+  {
+    final SearchRequest request = SearchRequest.builder()
+      .dn("ou=people,dc=ldaptive,dc=org")
+      .filter("(&(objectClass=inetOrgPerson)(|(uid=dfisher)(mail=dfisher@ldaptive.org)(cn=Daniel*)))")
+      .returnAttributes("uid", "mail", "cn", "sn", "givenName", "displayName", "telephoneNumber", "memberOf")
+      .build();
+    final PreparedSearchRequest prepared = new PreparedSearchRequest(request);
+    Assert.assertTrue(request.encode(1).length > 127);
+    for (int id : MESSAGE_IDS) {
+      Assert.assertEquals(prepared.encode(id), request.encode(id));
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test
+  public void immutable()
+    throws Exception
+  {
+    final SearchRequest request = SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org");
+    final PreparedSearchRequest prepared = new PreparedSearchRequest(request);
+    try {
+      prepared.setBaseDn("dc=example,dc=org");
+      Assert.fail("Should have thrown UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      Assert.assertNotNull(e.getMessage());
+    }
+    try {
+      prepared.setFilter("(uid=1)");
+      Assert.fail("Should have thrown UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      Assert.assertNotNull(e.getMessage());
+    }
+    request.setBaseDn("dc=example,dc=org");
+    Assert.assertEquals(prepared.getBaseDn(), "dc=ldaptive,dc=org");
+
+    final SearchRequest copy = SearchRequest.copy(prepared);
+    copy.setBaseDn("dc=example,dc=org");
+    Assert.assertEquals(copy.encode(1), request.encode(1));
+  }
+}
@@ -0,0 +1,162 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.ldaptive.transport.DefaultSearchOperationHandle;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link SearchOperation#stream(SearchRequest, int)}.
+ *
+ * @author  Middleware Services
+ */
+public class SearchOperationStreamTest
+{
+
+
+  /**
+   * Creates a connection factory whose connections respond to searches with the supplied consumer.
+   *
+   * @param  responder  to produce search responses
+   *
+   * @return  connection factory
+   */
+  private static DefaultConnectionFactory createConnectionFactory(
+    final BiConsumer<MockConnection, DefaultSearchOperationHandle> responder)
+  {
+    return new DefaultConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org"),
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        conn.setSearchResponder(handle -> responder.accept(conn, handle));
+        return conn;
+      });
+  }
+
+
+  /**
+   * Creates a responder that produces the supplied number of entries on a separate thread which, like a socket read,
+   * pauses while reads are suspended.
+   *
+   * @param  count  number of entries
+   * @param  produced  incremented as each entry is produced
+   * @param  code  result code of the search response
+   *
+   * @return  search responder
+   */
+  private static BiConsumer<MockConnection, DefaultSearchOperationHandle> createResponder(
+    final int count, final AtomicInteger produced, final ResultCode code)
+  {
+    return (conn, handle) -> new Thread(() -> {
+      for (int i = 0; i < count && handle.getReceivedTime() == null; i++) {
+        while (conn.isReadSuspended() && handle.getReceivedTime() == null) {
+          Thread.onSpinWait();
+        }
+        handle.entry(LdapEntry.builder().dn("uid=" + i + ",dc=ldaptive,dc=org").build());
+        produced.incrementAndGet();
+      }
+      if (handle.getReceivedTime() == null) {
+        handle.result(SearchResponse.builder().resultCode(code).build());
+      }
+    }).start();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "search")
+  public void stream()
+    throws Exception
+  {
+    final AtomicInteger produced = new AtomicInteger();
+    final SearchOperation search = new SearchOperation(
+      createConnectionFactory(createResponder(100, produced, ResultCode.SUCCESS)));
+    try (Stream<LdapEntry> entries = search.stream(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"), 4)) {
+      final List<String> dns = entries.map(LdapEntry::getDn).collect(Collectors.toList());
+      Assert.assertEquals(dns.size(), 100);
+      Assert.assertEquals(dns.get(0), "uid=0,dc=ldaptive,dc=org");
+      Assert.assertEquals(dns.get(99), "uid=99,dc=ldaptive,dc=org");
+    }
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "search")
+  public void bounded()
+    throws Exception
+  {
+    final AtomicInteger produced = new AtomicInteger();
+    final CountDownLatch complete = new CountDownLatch(1);
+    final SearchOperation search = new SearchOperation(
+      createConnectionFactory(createResponder(100, produced, ResultCode.SUCCESS)));
+    final Stream<LdapEntry> entries = search.stream(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"), 4)
+      .onClose(complete::countDown);
+    final LdapEntry first = entries.iterator().next();
+    Assert.assertEquals(first.getDn(), "uid=0,dc=ldaptive,dc=org");
+    // reads are suspended once the buffer is full
+    Thread.sleep(200);
+    Assert.assertTrue(produced.get() <= 6, "Produced " + produced.get() + " entries");
+    // closing the stream abandons the search and releases the producer
+    entries.close();
+    Assert.assertTrue(complete.await(1, TimeUnit.SECONDS));
+    Thread.sleep(200);
+    Assert.assertTrue(produced.get() < 100, "Produced " + produced.get() + " entries");
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "search")
+  public void failure()
+    throws Exception
+  {
+    final SearchOperation search = new SearchOperation(
+      createConnectionFactory(createResponder(2, new AtomicInteger(), ResultCode.BUSY)));
+    search.setThrowCondition(result -> result.getResultCode() != ResultCode.SUCCESS);
+    try (Stream<LdapEntry> entries = search.stream(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"))) {
+      entries.count();
+      Assert.fail("Should have thrown IllegalStateException");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(e.getCause().getClass(), LdapException.class);
+    }
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "search")
+  public void sendFailure()
+    throws Exception
+  {
+    final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+    final SearchOperation search = new SearchOperation(
+      createConnectionFactory((conn, handle) -> {
+        connections.add(conn);
+        throw new IllegalStateException("Write failed");
+      }));
+    try {
+      search.stream(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"));
+      Assert.fail("Should have thrown IllegalStateException");
+    } catch (IllegalStateException e) {
+      Assert.assertEquals(e.getMessage(), "Write failed");
+    }
+    Assert.assertEquals(connections.size(), 1);
+    Assert.assertFalse(connections.get(0).isOpen());
+  }
+}
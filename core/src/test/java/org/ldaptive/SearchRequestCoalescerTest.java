@@ -0,0 +1,215 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.handler.LdapEntryHandler;
+import org.ldaptive.handler.ResultPredicate;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link SearchRequestCoalescer}.
+ *
+ * @author  Middleware Services
+ */
+public class SearchRequestCoalescerTest
+{
+
+  /** Number of searches received by the mock connections. */
+  private final AtomicInteger searchCount = new AtomicInteger();
+
+  /** Released to complete the searches received by the mock connections. */
+  private CountDownLatch latch;
+
+
+  /**
+   * Creates a new connection factory backed by mock connections that wait on {@link #latch} before returning one
+   * entry for each search.
+   *
+   * @param  code  result code of each search
+   *
+   * @return  connection factory
+   */
+  private ConnectionFactory createFactory(final ResultCode code)
+  {
+    searchCount.set(0);
+    latch = new CountDownLatch(1);
+    return new DefaultConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org"),
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        conn.setSearchResponder(h -> {
+          searchCount.incrementAndGet();
+          try {
+            latch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+          h.entry(LdapEntry.builder().dn("uid=1,dc=ldaptive,dc=org").attributes(new LdapAttribute("uid", "1")).build());
+          h.result(SearchResponse.builder().resultCode(code).build());
+        });
+        return conn;
+      });
+  }
+
+
+  /**
+   * Executes the supplied operations concurrently, releases the searches once every execution has started and returns
+   * the results.
+   *
+   * @param  coalescer  shared by the operations
+   * @param  coalesced  number of executions expected to be coalesced
+   * @param  operations  to execute
+   *
+   * @return  futures of each execution
+   *
+   * @throws  Exception  if an execution does not start
+   */
+  private List<Future<SearchResponse>> executeAll(
+    final SearchRequestCoalescer coalescer,
+    final int coalesced,
+    final SearchOperation... operations)
+    throws Exception
+  {
+    final ExecutorService executor = Executors.newFixedThreadPool(operations.length);
+    try {
+      final List<Future<SearchResponse>> results = new ArrayList<>();
+      for (SearchOperation op : operations) {
+        results.add(executor.submit(() -> op.execute(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"))));
+      }
+      for (int i = 0; i < 500 && (coalescer.getRequestCount() < operations.length ||
+        searchCount.get() < operations.length - coalesced); i++) {
+        Thread.sleep(10);
+      }
+      Assert.assertEquals(coalescer.getInFlightCount(), operations.length - coalesced);
+      latch.countDown();
+      for (Future<SearchResponse> f : results) {
+        try {
+          f.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+          continue;
+        }
+      }
+      Assert.assertEquals(coalescer.getInFlightCount(), 0);
+      Assert.assertEquals(coalescer.getCoalescedCount(), coalesced);
+      Assert.assertEquals(searchCount.get(), operations.length - coalesced);
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void coalesce()
+    throws Exception
+  {
+    final ConnectionFactory factory = createFactory(ResultCode.SUCCESS);
+    final SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+    final LdapEntryHandler handler = e -> {
+      e.getAttribute("uid").addStringValues("2");
+      return e;
+    };
+    final SearchOperation[] operations = new SearchOperation[4];
+    for (int i = 0; i < operations.length; i++) {
+      operations[i] = SearchOperation.builder().factory(factory).coalescer(coalescer).onEntry(handler).build();
+    }
+    final List<Future<SearchResponse>> results = executeAll(coalescer, 3, operations);
+    final List<LdapEntry> entries = new ArrayList<>();
+    for (Future<SearchResponse> f : results) {
+      final LdapEntry entry = f.get().getEntry();
+      Assert.assertEquals(entry.getAttribute("uid").getStringValues().size(), 2);
+      entries.forEach(e -> Assert.assertNotSame(e, entry));
+      entries.add(entry);
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void differentHandlers()
+    throws Exception
+  {
+    final ConnectionFactory factory = createFactory(ResultCode.SUCCESS);
+    final SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+    executeAll(
+      coalescer,
+      0,
+      SearchOperation.builder().factory(factory).coalescer(coalescer).build(),
+      SearchOperation.builder().factory(factory).coalescer(coalescer).onEntry(e -> e).build());
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void differentThrowCondition()
+    throws Exception
+  {
+    final ConnectionFactory factory = createFactory(ResultCode.SUCCESS);
+    final SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+    executeAll(
+      coalescer,
+      0,
+      SearchOperation.builder().factory(factory).coalescer(coalescer).build(),
+      SearchOperation.builder().factory(factory).coalescer(coalescer).throwIf(ResultPredicate.NOT_SUCCESS).build());
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void notCopiedWithoutWaiters()
+    throws Exception
+  {
+    final ConnectionFactory factory = createFactory(ResultCode.SUCCESS);
+    final SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+    final LdapEntry[] handled = new LdapEntry[1];
+    final SearchOperation op = SearchOperation.builder()
+      .factory(factory)
+      .coalescer(coalescer)
+      .onEntry(e -> {
+        handled[0] = e;
+        return e;
+      })
+      .build();
+    final SearchResponse response = executeAll(coalescer, 0, op).get(0).get();
+    Assert.assertSame(response.getEntry(), handled[0]);
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void exception()
+    throws Exception
+  {
+    final ConnectionFactory factory = createFactory(ResultCode.BUSY);
+    final SearchRequestCoalescer coalescer = new SearchRequestCoalescer();
+    final SearchOperation[] operations = new SearchOperation[3];
+    for (int i = 0; i < operations.length; i++) {
+      operations[i] = SearchOperation.builder()
+        .factory(factory)
+        .coalescer(coalescer)
+        .throwIf(ResultPredicate.NOT_SUCCESS)
+        .build();
+    }
+    for (Future<SearchResponse> f : executeAll(coalescer, 2, operations)) {
+      try {
+        f.get();
+        Assert.fail("Should have thrown LdapException");
+      } catch (Exception e) {
+        Assert.assertEquals(e.getCause().getClass(), LdapException.class);
+        Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.BUSY);
+      }
+    }
+  }
+}
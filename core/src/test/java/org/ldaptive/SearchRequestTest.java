@@ -2,6 +2,8 @@
 package org.ldaptive;
 
 import java.time.Duration;
+import org.ldaptive.asn1.DEREncoder;
+import org.ldaptive.asn1.DefaultDERBuffer;
 import org.ldaptive.control.ProxyAuthorizationControl;
 import org.ldaptive.filter.AndFilter;
 import org.ldaptive.filter.EqualityFilter;
@@ -136,4 +138,23 @@ public class SearchRequestTest
   {
     Assert.assertEquals(request.encode(2), berValue);
   }
+
+
+  /**
+   * @param  request  to encode.
+   * @param  berValue  expected value.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(dataProvider = "request")
+  public void encodeBuffer(final SearchRequest request, final byte[] berValue)
+    throws Exception
+  {
+    final DEREncoder encoder = request.getEncoder(2);
+    Assert.assertEquals(encoder.encodedLength(), berValue.length);
+    final DefaultDERBuffer buffer = new DefaultDERBuffer(berValue.length);
+    encoder.encode(buffer);
+    Assert.assertFalse(buffer.hasRemaining());
+    Assert.assertEquals(buffer.clear().getRemainingBytes(), berValue);
+  }
 }
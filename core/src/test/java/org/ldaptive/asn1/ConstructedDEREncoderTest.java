@@ -0,0 +1,79 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.asn1;
+
+import java.util.Arrays;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ConstructedDEREncoder}.
+ *
+ * @author  Middleware Services
+ */
+public class ConstructedDEREncoderTest
+{
+
+
+  /**
+   * Encoder test data.
+   *
+   * @return  encoder test data
+   */
+  @DataProvider(name = "encoders")
+  public Object[][] createData()
+  {
+    final byte[] longValue = new byte[200];
+    Arrays.fill(longValue, (byte) 0x61);
+    final byte[] longEncoded = new byte[1 + 5 + 1 + 5 + 200];
+    longEncoded[0] = 0x30;
+    longEncoded[1] = (byte) 0x84;
+    longEncoded[5] = (byte) 0xCE;
+    longEncoded[6] = 0x04;
+    longEncoded[7] = (byte) 0x84;
+    longEncoded[11] = (byte) 0xC8;
+    System.arraycopy(longValue, 0, longEncoded, 12, 200);
+    return
+      new Object[][] {
+        new Object[] {
+          new ConstructedDEREncoder(
+            UniversalDERTag.SEQ,
+            new IntegerType(2),
+            new ConstructedDEREncoder(
+              new ContextDERTag(0, true),
+              new OctetStringType("a"),
+              new BooleanType(true),
+              new NullType(UniversalDERTag.NULL)),
+            () -> new byte[] {0x04, 0x01, 0x62}),
+          new byte[] {
+            0x30, 0x10, 0x02, 0x01, 0x02, (byte) 0xA0, 0x08, 0x04, 0x01, 0x61, 0x01, 0x01, (byte) 0xFF, 0x05, 0x00,
+            0x04, 0x01, 0x62, },
+        },
+        new Object[] {
+          new ConstructedDEREncoder(UniversalDERTag.SEQ, new OctetStringType(longValue)),
+          longEncoded,
+        },
+      };
+  }
+
+
+  /**
+   * @param  encoder  to test.
+   * @param  berValue  expected value.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "asn1", dataProvider = "encoders")
+  public void encode(final ConstructedDEREncoder encoder, final byte[] berValue)
+    throws Exception
+  {
+    Assert.assertEquals(encoder.encodedLength(), berValue.length);
+    Assert.assertEquals(encoder.encode(), berValue);
+
+    final DefaultDERBuffer buffer = new DefaultDERBuffer(berValue.length + 2);
+    buffer.position(1);
+    encoder.encode(buffer);
+    Assert.assertEquals(buffer.position(), berValue.length + 1);
+    Assert.assertEquals(Arrays.copyOfRange(buffer.clear().getRemainingBytes(), 1, berValue.length + 1), berValue);
+  }
+}
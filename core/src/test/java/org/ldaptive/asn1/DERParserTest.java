@@ -0,0 +1,86 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.asn1;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link DERParser}.
+ *
+ * @author  Middleware Services
+ */
+public class DERParserTest
+{
+
+  /** SEQ { INT 1, OCTSTR a, SEQ { OCTSTR b, OCTSTR c } }. */
+  private static final byte[] ENCODED = new byte[] {
+    0x30, 0x0E, 0x02, 0x01, 0x01, 0x04, 0x01, 0x61, 0x30, 0x06, 0x04, 0x01, 0x62, 0x04, 0x01, 0x63, };
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "asn1")
+  public void parse()
+    throws Exception
+  {
+    final List<String> any = new ArrayList<>();
+    final List<String> indexed = new ArrayList<>();
+    final List<String> nested = new ArrayList<>();
+    final List<String> nestedIndexed = new ArrayList<>();
+    final int[] messageID = new int[1];
+    final DERParser parser = new DERParser();
+    parser.registerHandler(new DERPath("/SEQ/INT[0]"), (p, e) -> messageID[0] = IntegerType.decodeUnsignedPrimitive(e));
+    parser.registerHandler(new DERPath("/SEQ/OCTSTR"), (p, e) -> any.add(OctetStringType.decode(e)));
+    parser.registerHandler(new DERPath("/SEQ/OCTSTR[1]"), (p, e) -> indexed.add(OctetStringType.decode(e)));
+    parser.registerHandler(new DERPath("/SEQ/SEQ/OCTSTR"), (p, e) -> nested.add(OctetStringType.decode(e)));
+    parser.registerHandler(
+      new DERPath("/SEQ[0]/SEQ[2]/OCTSTR[1]"), (p, e) -> nestedIndexed.add(OctetStringType.decode(e)));
+    parser.parse(new DefaultDERBuffer(ENCODED));
+
+    Assert.assertEquals(messageID[0], 1);
+    Assert.assertEquals(any, List.of("a"));
+    Assert.assertEquals(indexed, List.of("a"));
+    Assert.assertEquals(nested, List.of("b", "c"));
+    Assert.assertEquals(nestedIndexed, List.of("c"));
+
+    // parser is reusable
+    parser.parse(new DefaultDERBuffer(ENCODED));
+    Assert.assertEquals(nested, List.of("b", "c", "b", "c"));
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "asn1")
+  public void replaceHandler()
+    throws Exception
+  {
+    final List<String> values = new ArrayList<>();
+    final DERParser parser = new DERParser();
+    parser.registerHandler(new DERPath("/SEQ/OCTSTR[1]"), (p, e) -> values.add("first"));
+    parser.registerHandler(new DERPath("/SEQ/OCTSTR[1]"), (p, e) -> values.add(OctetStringType.decode(e)));
+    parser.parse(new DefaultDERBuffer(ENCODED));
+    Assert.assertEquals(values, List.of("a"));
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "asn1")
+  public void noMatch()
+    throws Exception
+  {
+    final List<String> values = new ArrayList<>();
+    final DERParser parser = new DERParser();
+    parser.registerHandler(new DERPath("/SEQ/SEQ[1]/OCTSTR"), (p, e) -> values.add(OctetStringType.decode(e)));
+    parser.registerHandler(new DERPath("/SET/OCTSTR"), (p, e) -> values.add(OctetStringType.decode(e)));
+    parser.registerHandler(new DERPath("/SEQ/APP(4)"), (p, e) -> values.add(OctetStringType.decode(e)));
+    parser.parse(new DefaultDERBuffer(ENCODED));
+    Assert.assertTrue(values.isEmpty());
+  }
+}
@@ -0,0 +1,187 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link AggregateDnResolver}.
+ *
+ * @author  Middleware Services
+ */
+public class AggregateDnResolverTest
+{
+
+
+  /**
+   * Creates a DN resolver whose asynchronous resolution is completed by the supplied future.
+   *
+   * @param  future  returned by {@link DnResolver#resolveAsync(User, Executor)}
+   *
+   * @return  DN resolver
+   */
+  private static DnResolver createResolver(final CompletableFuture<String> future)
+  {
+    return new DnResolver() {
+      @Override
+      public String resolve(final User user)
+        throws LdapException
+      {
+        throw new UnsupportedOperationException();
+      }
+
+
+      @Override
+      public CompletableFuture<String> resolveAsync(final User user, final Executor executor)
+      {
+        return future;
+      }
+    };
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void parallelUniqueMatch()
+    throws Exception
+  {
+    final CompletableFuture<String> dn1 = new CompletableFuture<>();
+    final CompletableFuture<String> dn2 = new CompletableFuture<>();
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", createResolver(dn1))
+      .resolver("two", createResolver(dn2))
+      .parallel(true)
+      .build();
+    final CompletableFuture<String> result = resolver.resolveAsync(new User("jdoe"), Runnable::run);
+    dn2.complete("uid=jdoe,dc=two,dc=org");
+    // uniqueness is not known until every resolver answers
+    Assert.assertFalse(result.isDone());
+    dn1.complete(null);
+    Assert.assertEquals(result.getNow(null), "two:uid=jdoe,dc=two,dc=org");
+    resolver.shutdown();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void parallelAllowMultipleDns()
+    throws Exception
+  {
+    final CompletableFuture<String> dn1 = new CompletableFuture<>();
+    final CompletableFuture<String> dn2 = new CompletableFuture<>();
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", createResolver(dn1))
+      .resolver("two", createResolver(dn2))
+      .allowMultipleDns(true)
+      .parallel(true)
+      .build();
+    final CompletableFuture<String> result = resolver.resolveAsync(new User("jdoe"), Runnable::run);
+    dn1.complete("uid=jdoe,dc=one,dc=org");
+    Assert.assertEquals(result.getNow(null), "one:uid=jdoe,dc=one,dc=org");
+    // the outstanding resolver is cancelled
+    Assert.assertTrue(dn2.isCancelled());
+    resolver.shutdown();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void parallelAmbiguous()
+    throws Exception
+  {
+    final CompletableFuture<String> dn1 = new CompletableFuture<>();
+    final CompletableFuture<String> dn2 = new CompletableFuture<>();
+    final CompletableFuture<String> dn3 = new CompletableFuture<>();
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", createResolver(dn1))
+      .resolver("two", createResolver(dn2))
+      .resolver("three", createResolver(dn3))
+      .parallel(true)
+      .build();
+    final CompletableFuture<String> result = resolver.resolveAsync(new User("jdoe"), Runnable::run);
+    dn1.complete("uid=jdoe,dc=one,dc=org");
+    dn3.complete("uid=jdoe,dc=three,dc=org");
+    Assert.assertTrue(result.isCompletedExceptionally());
+    Assert.assertTrue(dn2.isCancelled());
+    resolver.shutdown();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void parallelTimeout()
+    throws Exception
+  {
+    final CompletableFuture<String> dn1 = CompletableFuture.completedFuture("uid=jdoe,dc=one,dc=org");
+    final CompletableFuture<String> dn2 = new CompletableFuture<>();
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", createResolver(dn1))
+      .resolver("two", createResolver(dn2))
+      .parallel(true)
+      .resolverTimeout(Duration.ofMillis(100))
+      .build();
+    try {
+      resolver.resolve(new User("jdoe"));
+      Assert.fail("Should have thrown exception");
+    } catch (LdapException e) {
+      Assert.assertEquals(e.getResultCode(), ResultCode.LDAP_TIMEOUT);
+    }
+    Assert.assertTrue(dn2.isDone());
+    resolver.shutdown();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void parallelResolve()
+    throws Exception
+  {
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", new FormatDnResolver("uid=%s,dc=one,dc=org"))
+      .resolver("two", user -> null)
+      .parallel(true)
+      .build();
+    Assert.assertEquals(resolver.resolve(new User("jdoe")), "one:uid=jdoe,dc=one,dc=org");
+    resolver.shutdown();
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void resolveAsyncWaitsForEveryResolver()
+    throws Exception
+  {
+    final CompletableFuture<String> dn1 = new CompletableFuture<>();
+    final CompletableFuture<String> dn2 = new CompletableFuture<>();
+    final AggregateDnResolver resolver = AggregateDnResolver.builder()
+      .resolver("one", createResolver(dn1))
+      .resolver("two", createResolver(dn2))
+      .allowMultipleDns(true)
+      .build();
+    final CompletableFuture<String> result = resolver.resolveAsync(new User("jdoe"), Runnable::run);
+    dn1.complete("uid=jdoe,dc=one,dc=org");
+    // without parallel mode the outstanding resolver is not cancelled
+    Assert.assertFalse(result.isDone());
+    Assert.assertFalse(dn2.isCancelled());
+    dn2.completeExceptionally(new LdapException(ResultCode.SERVER_DOWN, "down"));
+    Assert.assertTrue(result.isCompletedExceptionally());
+    resolver.shutdown();
+  }
+}
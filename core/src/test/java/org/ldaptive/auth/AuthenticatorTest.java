@@ -1,9 +1,28 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.auth;
 
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
+import org.ldaptive.Connection;
 import org.ldaptive.ConnectionConfig;
+import org.ldaptive.Credential;
+import org.ldaptive.LdapAttribute;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
 import org.ldaptive.MockConnectionFactory;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.mock.MockConnection;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -78,4 +97,226 @@ public class AuthenticatorTest
           ((AggregateEntryResolver) auth.getEntryResolver()).getEntryResolvers()
               .values().iterator().next()).getConnectionFactory()).isOpen());
   }
+
+
+  /**
+   * Creates a connection factory that produces connections which answer searches with a single entry and binds with
+   * success if the password is 'secret'.
+   *
+   * @param  connections  to add each connection to
+   *
+   * @return  mock connection factory
+   */
+  private static MockConnectionFactory createConnectionFactory(final List<MockConnection> connections)
+  {
+    return new MockConnectionFactory(new ConnectionConfig("ldap://directory.ldaptive.org")) {
+      @Override
+      public Connection getConnection()
+        throws LdapException
+      {
+        final MockConnection conn = (MockConnection) super.getConnection();
+        conn.setOpenPredicate(url -> true);
+        conn.setSearchResponder(handle -> new Thread(() -> {
+          handle.entry(
+            LdapEntry.builder()
+              .dn("uid=jdoe,ou=people,dc=ldaptive,dc=org")
+              .attributes(new LdapAttribute("mail", "jdoe@ldaptive.org"))
+              .build());
+          handle.result(SearchResponse.builder().resultCode(ResultCode.SUCCESS).build());
+        }).start());
+        conn.setBindResponder(handle -> new Thread(() -> handle.result(
+          BindResponse.builder()
+            .resultCode(
+              handle.getRequest().toString().contains("dn=uid=jdoe,") ?
+                ResultCode.SUCCESS : ResultCode.INVALID_CREDENTIALS)
+            .build())).start());
+        connections.add(conn);
+        return conn;
+      }
+    };
+  }
+
+
+  /**
+   * Unit test for {@link Authenticator#authenticateAsync(AuthenticationRequest)}.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void authenticateAsync()
+    throws Exception
+  {
+    final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+    final SearchDnResolver dnResolver = new SearchDnResolver(createConnectionFactory(connections));
+    dnResolver.setBaseDn("ou=people,dc=ldaptive,dc=org");
+    dnResolver.setUserFilter("(uid={user})");
+    final List<AuthenticationResponse> handled = new CopyOnWriteArrayList<>();
+    final Authenticator auth = Authenticator.builder()
+      .dnResolver(dnResolver)
+      .authenticationHandler(new SimpleBindAuthenticationHandler(createConnectionFactory(connections)))
+      .entryResolver(new SearchEntryResolver())
+      .responseHandlers(handled::add)
+      .build();
+
+    final AuthenticationResponse response = auth.authenticateAsync(
+      new AuthenticationRequest("jdoe", new Credential("secret"), "mail")).get(5, TimeUnit.SECONDS);
+    Assert.assertTrue(response.isSuccess());
+    Assert.assertEquals(response.getResolvedDn(), "uid=jdoe,ou=people,dc=ldaptive,dc=org");
+    Assert.assertEquals(response.getLdapEntry().getAttribute("mail").getStringValue(), "jdoe@ldaptive.org");
+    Assert.assertEquals(handled, List.of(response));
+    Assert.assertEquals(connections.size(), 2);
+    Assert.assertTrue(connections.stream().noneMatch(MockConnection::isOpen));
+
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final AuthenticationResponse executorResponse = auth.authenticateAsync(
+        new AuthenticationRequest("jdoe", new Credential("secret")), executor).get(5, TimeUnit.SECONDS);
+      Assert.assertTrue(executorResponse.isSuccess());
+      Assert.assertEquals(executorResponse.getLdapEntry().getDn(), "uid=jdoe,ou=people,dc=ldaptive,dc=org");
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertTrue(connections.stream().noneMatch(MockConnection::isOpen));
+  }
+
+
+  /**
+   * Unit test for {@link Authenticator#authenticateAsync(AuthenticationRequest)} with invalid credentials.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void authenticateAsyncFailure()
+    throws Exception
+  {
+    final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+    final Authenticator auth = new Authenticator(
+      new FormatDnResolver("uid=%s,ou=people,dc=ldaptive,dc=org"),
+      new SimpleBindAuthenticationHandler(createConnectionFactory(connections)));
+
+    AuthenticationResponse response = auth.authenticateAsync(
+      new AuthenticationRequest("jsmith", new Credential("secret"))).get(5, TimeUnit.SECONDS);
+    Assert.assertFalse(response.isSuccess());
+    Assert.assertEquals(
+      response.getAuthenticationResultCode(), AuthenticationResultCode.AUTHENTICATION_HANDLER_FAILURE);
+    Assert.assertEquals(response.getResultCode(), ResultCode.INVALID_CREDENTIALS);
+
+    response = auth.authenticateAsync(
+      new AuthenticationRequest("jdoe", new Credential(""))).get(5, TimeUnit.SECONDS);
+    Assert.assertEquals(response.getAuthenticationResultCode(), AuthenticationResultCode.INVALID_CREDENTIAL);
+    Assert.assertEquals(connections.size(), 1);
+    Assert.assertTrue(connections.stream().noneMatch(MockConnection::isOpen));
+  }
+
+
+  /**
+   * Unit test for {@link Authenticator#authenticateAsync(AuthenticationRequest)} when the directory does not respond.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void authenticateAsyncTimeout()
+    throws Exception
+  {
+    final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+    final MockConnectionFactory factory = new MockConnectionFactory(
+      ConnectionConfig.builder().url("ldap://directory.ldaptive.org").responseTimeout(Duration.ofMillis(100)).build()) {
+      @Override
+      public Connection getConnection()
+        throws LdapException
+      {
+        final MockConnection conn = (MockConnection) super.getConnection();
+        conn.setOpenPredicate(url -> true);
+        conn.setSearchResponder(handle -> {});
+        conn.setBindResponder(handle -> {});
+        connections.add(conn);
+        return conn;
+      }
+    };
+
+    // bind times out
+    final Authenticator bindAuth = new Authenticator(
+      new FormatDnResolver("uid=%s,ou=people,dc=ldaptive,dc=org"),
+      new SimpleBindAuthenticationHandler(factory));
+    try {
+      bindAuth.authenticateAsync(new AuthenticationRequest("jdoe", new Credential("secret"))).get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have thrown exception");
+    } catch (ExecutionException e) {
+      Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.LDAP_TIMEOUT);
+    }
+    Assert.assertEquals(connections.size(), 1);
+    assertClosed(connections);
+
+    // search times out
+    final SearchDnResolver dnResolver = new SearchDnResolver(factory);
+    dnResolver.setBaseDn("ou=people,dc=ldaptive,dc=org");
+    dnResolver.setUserFilter("(uid={user})");
+    final Authenticator searchAuth = new Authenticator(dnResolver, new SimpleBindAuthenticationHandler(factory));
+    try {
+      searchAuth.authenticateAsync(
+        new AuthenticationRequest("jdoe", new Credential("secret"))).get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have thrown exception");
+    } catch (ExecutionException e) {
+      Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.LDAP_TIMEOUT);
+    }
+    Assert.assertEquals(connections.size(), 2);
+    assertClosed(connections);
+  }
+
+
+  /**
+   * Unit test for {@link SimpleBindAuthenticationHandler#authenticateAsync(AuthenticationCriteria,
+   * java.util.concurrent.Executor)} when the future is cancelled before the bind response is received.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void authenticateAsyncCancelled()
+    throws Exception
+  {
+    final List<MockConnection> connections = new CopyOnWriteArrayList<>();
+    final List<DefaultOperationHandle<BindRequest, BindResponse>> binds = new CopyOnWriteArrayList<>();
+    final MockConnectionFactory factory = new MockConnectionFactory(
+      new ConnectionConfig("ldap://directory.ldaptive.org")) {
+      @Override
+      public Connection getConnection()
+        throws LdapException
+      {
+        final MockConnection conn = (MockConnection) super.getConnection();
+        conn.setOpenPredicate(url -> true);
+        conn.setBindResponder(binds::add);
+        connections.add(conn);
+        return conn;
+      }
+    };
+    final CompletableFuture<AuthenticationHandlerResponse> future = new SimpleBindAuthenticationHandler(factory)
+      .authenticateAsync(
+        new AuthenticationCriteria(
+          "uid=jdoe,ou=people,dc=ldaptive,dc=org", new AuthenticationRequest("jdoe", new Credential("secret"))),
+        Runnable::run);
+    Assert.assertEquals(binds.size(), 1);
+    Assert.assertTrue(future.cancel(false));
+    Assert.assertTrue(connections.get(0).isOpen());
+    // the bound connection is not handed to anyone, so it is closed when the response arrives
+    binds.get(0).result(BindResponse.builder().resultCode(ResultCode.SUCCESS).build());
+    Assert.assertFalse(connections.get(0).isOpen());
+  }
+
+
+  /**
+   * Asserts that the supplied connections are closed. Connections are closed after a timed out future completes, so
+   * this waits briefly for them to close.
+   *
+   * @param  connections  to check
+   *
+   * @throws  Exception  if interrupted while waiting
+   */
+  private static void assertClosed(final List<MockConnection> connections)
+    throws Exception
+  {
+    for (int i = 0; i < 100 && connections.stream().anyMatch(MockConnection::isOpen); i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertTrue(connections.stream().noneMatch(MockConnection::isOpen));
+  }
 }
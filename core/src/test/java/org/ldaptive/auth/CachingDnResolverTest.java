@@ -0,0 +1,224 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CachingDnResolver}.
+ *
+ * @author  Middleware Services
+ */
+public class CachingDnResolverTest
+{
+
+
+  /**
+   * Creates a DN resolver that resolves every user except 'unknown' and counts its invocations.
+   *
+   * @param  count  incremented on every resolution
+   *
+   * @return  DN resolver
+   */
+  private static DnResolver createResolver(final AtomicInteger count)
+  {
+    return user -> {
+      count.incrementAndGet();
+      return "unknown".equals(user.getIdentifier()) ? null : "uid=" + user.getIdentifier() + ",dc=ldaptive,dc=org";
+    };
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void resolve()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CachingDnResolver resolver = new CachingDnResolver(createResolver(count));
+    Assert.assertEquals(resolver.resolve(new User("jdoe")), "uid=jdoe,dc=ldaptive,dc=org");
+    Assert.assertEquals(resolver.resolve(new User("jdoe")), "uid=jdoe,dc=ldaptive,dc=org");
+    Assert.assertEquals(count.get(), 1);
+    Assert.assertEquals(resolver.getHitCount(), 1);
+    Assert.assertEquals(resolver.getMissCount(), 1);
+
+    // context is part of the key
+    Assert.assertEquals(resolver.resolve(new User("jdoe", "ctx")), "uid=jdoe,dc=ldaptive,dc=org");
+    Assert.assertEquals(count.get(), 2);
+
+    // negative caching is disabled by default
+    Assert.assertNull(resolver.resolve(new User("unknown")));
+    Assert.assertNull(resolver.resolve(new User("unknown")));
+    Assert.assertEquals(count.get(), 4);
+    Assert.assertEquals(resolver.size(), 2);
+
+    resolver.invalidate(new User("jdoe"));
+    Assert.assertEquals(resolver.resolve(new User("jdoe")), "uid=jdoe,dc=ldaptive,dc=org");
+    Assert.assertEquals(count.get(), 5);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void negativeCache()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CachingDnResolver resolver = new CachingDnResolver(createResolver(count));
+    resolver.setCacheNegativeTimeToLive(Duration.ofMinutes(1));
+    Assert.assertNull(resolver.resolve(new User("unknown")));
+    Assert.assertNull(resolver.resolve(new User("unknown")));
+    Assert.assertEquals(count.get(), 1);
+    Assert.assertEquals(resolver.getHitCount(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void expiration()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CachingDnResolver resolver = new CachingDnResolver(createResolver(count), 10, Duration.ofMillis(50));
+    resolver.resolve(new User("jdoe"));
+    resolver.resolve(new User("jdoe"));
+    Assert.assertEquals(count.get(), 1);
+    Thread.sleep(100);
+    resolver.resolve(new User("jdoe"));
+    Assert.assertEquals(count.get(), 2);
+    Assert.assertEquals(resolver.getEvictionCount(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void eviction()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CachingDnResolver resolver = new CachingDnResolver(createResolver(count), 2, Duration.ofMinutes(1));
+    resolver.resolve(new User("user1"));
+    resolver.resolve(new User("user2"));
+    // access user1 so that user2 is least recently used
+    resolver.resolve(new User("user1"));
+    resolver.resolve(new User("user3"));
+    Assert.assertEquals(resolver.size(), 2);
+    Assert.assertEquals(resolver.getEvictionCount(), 1);
+    Assert.assertEquals(count.get(), 3);
+    resolver.resolve(new User("user1"));
+    Assert.assertEquals(count.get(), 3);
+    resolver.resolve(new User("user2"));
+    Assert.assertEquals(count.get(), 4);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void resolveAsync()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CachingDnResolver resolver = new CachingDnResolver(createResolver(count));
+    Assert.assertEquals(
+      resolver.resolveAsync(new User("jdoe"), ForkJoinPool.commonPool()).get(5, TimeUnit.SECONDS),
+      "uid=jdoe,dc=ldaptive,dc=org");
+    Assert.assertTrue(resolver.resolveAsync(new User("jdoe"), ForkJoinPool.commonPool()).isDone());
+    Assert.assertEquals(count.get(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void coalesce()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final CountDownLatch latch = new CountDownLatch(1);
+    final CachingDnResolver resolver = new CachingDnResolver(
+      user -> {
+        count.incrementAndGet();
+        try {
+          latch.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        if ("error".equals(user.getIdentifier())) {
+          throw new LdapException(ResultCode.BUSY, "Busy");
+        }
+        return "uid=" + user.getIdentifier() + ",dc=ldaptive,dc=org";
+      });
+    final List<CompletableFuture<String>> futures = new ArrayList<>();
+    final List<CompletableFuture<String>> errors = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      futures.add(resolver.resolveAsync(new User("jdoe"), ForkJoinPool.commonPool()));
+      errors.add(resolver.resolveAsync(new User("error"), ForkJoinPool.commonPool()));
+    }
+    latch.countDown();
+    for (CompletableFuture<String> f : futures) {
+      Assert.assertEquals(f.get(5, TimeUnit.SECONDS), "uid=jdoe,dc=ldaptive,dc=org");
+    }
+    for (CompletableFuture<String> f : errors) {
+      try {
+        f.get(5, TimeUnit.SECONDS);
+        Assert.fail("Should have thrown exception");
+      } catch (ExecutionException e) {
+        Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.BUSY);
+      }
+    }
+    Assert.assertEquals(count.get(), 2);
+    Assert.assertEquals(resolver.getMissCount(), 2);
+    Assert.assertEquals(resolver.getHitCount(), 6);
+    // exceptions are not cached
+    Assert.assertEquals(resolver.size(), 1);
+    try {
+      resolver.resolve(new User("error"));
+      Assert.fail("Should have thrown exception");
+    } catch (LdapException e) {
+      Assert.assertEquals(e.getResultCode(), ResultCode.BUSY);
+    }
+    Assert.assertEquals(count.get(), 3);
+  }
+
+
+  /**
+   * Unit test for {@link Authenticator.Builder#dnResolverCache(int, Duration)}.
+   */
+  @Test(groups = "auth")
+  public void builder()
+  {
+    final DnResolver dnResolver = new FormatDnResolver("uid=%s,dc=ldaptive,dc=org");
+    final Authenticator auth = Authenticator.builder()
+      .dnResolverCache(100, Duration.ofMinutes(5))
+      .dnResolver(dnResolver)
+      .build();
+    Assert.assertEquals(auth.getDnResolver().getClass(), CachingDnResolver.class);
+    final CachingDnResolver resolver = (CachingDnResolver) auth.getDnResolver();
+    Assert.assertSame(resolver.getDnResolver(), dnResolver);
+    Assert.assertEquals(resolver.getCacheSize(), 100);
+    Assert.assertEquals(resolver.getCacheTimeToLive(), Duration.ofMinutes(5));
+    Assert.assertEquals(resolver.getCacheNegativeTimeToLive(), Duration.ZERO);
+  }
+}
@@ -0,0 +1,280 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.auth;
+
+import java.time.Duration;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.BindRequest;
+import org.ldaptive.BindResponse;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.Credential;
+import org.ldaptive.LdapException;
+import org.ldaptive.MockConnectionFactory;
+import org.ldaptive.ResultCode;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link PipelinedBindAuthenticationHandler}.
+ *
+ * @author  Middleware Services
+ */
+public class PipelinedBindAuthenticationHandlerTest
+{
+
+
+  /**
+   * Creates criteria to authenticate the supplied user.
+   *
+   * @param  user  to authenticate
+   * @param  password  of the user
+   *
+   * @return  authentication criteria
+   */
+  private static AuthenticationCriteria createCriteria(final String user, final String password)
+  {
+    final String dn = "uid=" + user + ",ou=people,dc=ldaptive,dc=org";
+    return new AuthenticationCriteria(dn, new AuthenticationRequest(dn, new Credential(password)));
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void pipeline()
+    throws Exception
+  {
+    final List<MockConnection> connections = new ArrayList<>();
+    final Queue<Map.Entry<AtomicInteger, DefaultOperationHandle<BindRequest, BindResponse>>> outstanding =
+      new ConcurrentLinkedQueue<>();
+    final AtomicInteger maxOutstanding = new AtomicInteger();
+    final PipelinedBindAuthenticationHandler handler = new PipelinedBindAuthenticationHandler(
+      new MockConnectionFactory(new ConnectionConfig("ldap://directory.ldaptive.org")) {
+        @Override
+        public Connection getConnection()
+          throws LdapException
+        {
+          final MockConnection conn = (MockConnection) super.getConnection();
+          conn.setOpenPredicate(url -> true);
+          final AtomicInteger inFlight = new AtomicInteger();
+          conn.setBindResponder(h -> {
+            maxOutstanding.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            outstanding.add(new AbstractMap.SimpleEntry<>(inFlight, h));
+          });
+          connections.add(conn);
+          return conn;
+        }
+      },
+      2);
+    handler.initialize();
+    Assert.assertEquals(connections.size(), 2);
+    Assert.assertTrue(connections.stream().allMatch(MockConnection::isOpen));
+
+    final List<CompletableFuture<AuthenticationHandlerResponse>> futures = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      futures.add(handler.authenticateAsync(createCriteria((i % 2 == 0 ? "valid" : "invalid") + i, "secret")));
+    }
+    // one bind per connection is outstanding, the rest are queued
+    Assert.assertEquals(outstanding.size(), 2);
+    Assert.assertTrue(futures.stream().noneMatch(CompletableFuture::isDone));
+
+    // respond from another thread, as the transport would
+    final Thread responder = new Thread(() -> {
+      int count = 0;
+      while (count < 6) {
+        final Map.Entry<AtomicInteger, DefaultOperationHandle<BindRequest, BindResponse>> e = outstanding.poll();
+        if (e == null) {
+          Thread.onSpinWait();
+          continue;
+        }
+        e.getKey().decrementAndGet();
+        e.getValue().result(
+          BindResponse.builder()
+            .resultCode(
+              e.getValue().getRequest().toString().contains("dn=uid=valid") ?
+                ResultCode.SUCCESS : ResultCode.INVALID_CREDENTIALS)
+            .build());
+        count++;
+      }
+    });
+    responder.start();
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+    responder.join();
+
+    Assert.assertEquals(maxOutstanding.get(), 1);
+    for (int i = 0; i < 6; i++) {
+      final AuthenticationHandlerResponse response = futures.get(i).get();
+      Assert.assertEquals(
+        response.getAuthenticationResultCode(),
+        i % 2 == 0 ?
+          AuthenticationResultCode.AUTHENTICATION_HANDLER_SUCCESS :
+          AuthenticationResultCode.AUTHENTICATION_HANDLER_FAILURE);
+      Assert.assertNull(response.getConnection());
+    }
+
+    handler.close();
+    Assert.assertFalse(handler.isInitialized());
+    Assert.assertTrue(connections.stream().noneMatch(MockConnection::isOpen));
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void close()
+    throws Exception
+  {
+    final PipelinedBindAuthenticationHandler handler = new PipelinedBindAuthenticationHandler(
+      new MockConnectionFactory(new ConnectionConfig("ldap://directory.ldaptive.org")) {
+        @Override
+        public Connection getConnection()
+          throws LdapException
+        {
+          final MockConnection conn = (MockConnection) super.getConnection();
+          conn.setOpenPredicate(url -> true);
+          conn.setBindResponder(h -> {});
+          return conn;
+        }
+      },
+      1);
+    try {
+      handler.authenticate(createCriteria("user", "secret"));
+      Assert.fail("Should have thrown exception");
+    } catch (Exception e) {
+      Assert.assertEquals(e.getClass(), LdapException.class);
+    }
+    handler.initialize();
+    final CompletableFuture<AuthenticationHandlerResponse> sent =
+      handler.authenticateAsync(createCriteria("user1", "secret"));
+    final CompletableFuture<AuthenticationHandlerResponse> queued =
+      handler.authenticateAsync(createCriteria("user2", "secret"));
+    handler.close();
+    Assert.assertFalse(sent.isDone());
+    Assert.assertTrue(queued.isCompletedExceptionally());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void timeout()
+    throws Exception
+  {
+    final List<MockConnection> connections = new ArrayList<>();
+    final ConnectionConfig config = ConnectionConfig.builder()
+      .url("ldap://directory.ldaptive.org")
+      .responseTimeout(Duration.ofMillis(100))
+      .build();
+    final PipelinedBindAuthenticationHandler handler = new PipelinedBindAuthenticationHandler(
+      new MockConnectionFactory(config) {
+        @Override
+        public Connection getConnection()
+          throws LdapException
+        {
+          final MockConnection conn = (MockConnection) super.getConnection();
+          conn.setOpenPredicate(url -> true);
+          // the first connection never responds
+          if (!connections.isEmpty()) {
+            conn.setBindResponder(h -> h.result(BindResponse.builder().resultCode(ResultCode.SUCCESS).build()));
+          } else {
+            conn.setBindResponder(h -> {});
+          }
+          connections.add(conn);
+          return conn;
+        }
+      },
+      1);
+    handler.initialize();
+    final CompletableFuture<AuthenticationHandlerResponse> timedOut =
+      handler.authenticateAsync(createCriteria("user1", "secret"));
+    final CompletableFuture<AuthenticationHandlerResponse> queued =
+      handler.authenticateAsync(createCriteria("user2", "secret"));
+    try {
+      timedOut.get(5, TimeUnit.SECONDS);
+      Assert.fail("Should have thrown exception");
+    } catch (ExecutionException e) {
+      Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.LDAP_TIMEOUT);
+    }
+    // the queued bind is sent on a replacement connection rather than the connection with the outstanding bind
+    Assert.assertEquals(
+      queued.get(5, TimeUnit.SECONDS).getAuthenticationResultCode(),
+      AuthenticationResultCode.AUTHENTICATION_HANDLER_SUCCESS);
+    Assert.assertEquals(connections.size(), 2);
+    // the timed out connection is closed after the bind completes
+    for (int i = 0; i < 100 && connections.get(0).isOpen(); i++) {
+      Thread.sleep(10);
+    }
+    Assert.assertFalse(connections.get(0).isOpen());
+    Assert.assertTrue(connections.get(1).isOpen());
+
+    handler.close();
+    Assert.assertFalse(connections.get(1).isOpen());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "auth")
+  public void slowReplacement()
+    throws Exception
+  {
+    final AtomicInteger count = new AtomicInteger();
+    final ConnectionConfig config = ConnectionConfig.builder()
+      .url("ldap://directory.ldaptive.org")
+      .responseTimeout(Duration.ofMillis(100))
+      .build();
+    final PipelinedBindAuthenticationHandler handler = new PipelinedBindAuthenticationHandler(
+      new MockConnectionFactory(config) {
+        @Override
+        public Connection getConnection()
+          throws LdapException
+        {
+          // replacement connections are slow to open
+          if (count.getAndIncrement() >= 2) {
+            try {
+              Thread.sleep(1000);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+          final MockConnection conn = (MockConnection) super.getConnection();
+          conn.setOpenPredicate(url -> true);
+          conn.setBindResponder(h -> {});
+          return conn;
+        }
+      },
+      2);
+    handler.initialize();
+    final long start = System.nanoTime();
+    final CompletableFuture<AuthenticationHandlerResponse> first =
+      handler.authenticateAsync(createCriteria("user1", "secret"));
+    final CompletableFuture<AuthenticationHandlerResponse> second =
+      handler.authenticateAsync(createCriteria("user2", "secret"));
+    for (CompletableFuture<AuthenticationHandlerResponse> future : List.of(first, second)) {
+      try {
+        future.get(5, TimeUnit.SECONDS);
+        Assert.fail("Should have thrown exception");
+      } catch (ExecutionException e) {
+        Assert.assertEquals(((LdapException) e.getCause()).getResultCode(), ResultCode.LDAP_TIMEOUT);
+      }
+    }
+    // neither timeout waits for a replacement connection to open
+    Assert.assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 900);
+    handler.close();
+  }
+}
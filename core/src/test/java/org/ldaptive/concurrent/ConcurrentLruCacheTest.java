@@ -0,0 +1,123 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ConcurrentLruCache}.
+ *
+ * @author  Middleware Services
+ */
+public class ConcurrentLruCacheTest
+{
+
+
+  /** Unit test for eviction of entries that have not been used. */
+  @Test(groups = "concurrent")
+  public void eviction()
+  {
+    final ConcurrentLruCache<String, Integer> cache = new ConcurrentLruCache<>(2);
+    cache.put("one", 1);
+    cache.put("two", 2);
+    // use one so that two is evicted
+    Assert.assertEquals(cache.get("one"), Integer.valueOf(1));
+    cache.put("three", 3);
+    Assert.assertEquals(cache.size(), 2);
+    Assert.assertEquals(cache.getEvictionCount(), 1);
+    Assert.assertEquals(cache.get("one"), Integer.valueOf(1));
+    Assert.assertNull(cache.get("two"));
+    Assert.assertEquals(cache.get("three"), Integer.valueOf(3));
+
+    Assert.assertEquals(cache.putIfAbsent("three", 4), Integer.valueOf(3));
+    Assert.assertFalse(cache.remove("three", 4));
+    Assert.assertTrue(cache.remove("three", cache.get("three")));
+    Assert.assertEquals(cache.remove("one"), Integer.valueOf(1));
+    Assert.assertEquals(cache.size(), 0);
+    cache.put("four", 4);
+    cache.clear();
+    Assert.assertEquals(cache.size(), 0);
+  }
+
+
+  /** Unit test for eviction of entries once the cache is over its maximum weight. */
+  @Test(groups = "concurrent")
+  public void weight()
+  {
+    final ConcurrentLruCache<String, String> cache = new ConcurrentLruCache<>(10, 6, String::length);
+    cache.put("a", "aa");
+    cache.put("b", "bb");
+    Assert.assertEquals(cache.getWeight(), 4);
+    cache.put("b", "b");
+    Assert.assertEquals(cache.getWeight(), 3);
+    Assert.assertEquals(cache.get("a"), "aa");
+    cache.put("c", "cccc");
+    Assert.assertEquals(cache.getEvictionCount(), 1);
+    Assert.assertNull(cache.get("b"));
+    Assert.assertEquals(cache.getWeight(), 6);
+    cache.removeIf(v -> v.startsWith("c"));
+    Assert.assertEquals(cache.size(), 1);
+    Assert.assertEquals(cache.getWeight(), 2);
+    cache.clear();
+    Assert.assertEquals(cache.size(), 0);
+    Assert.assertEquals(cache.getWeight(), 0);
+  }
+
+
+  /** Unit test for replacing and removing more entries than the maximum size. */
+  @Test(groups = "concurrent")
+  public void churn()
+  {
+    final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(4);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i % 2, i);
+      cache.putIfAbsent(i, i);
+      cache.remove(i);
+    }
+    Assert.assertTrue(cache.size() <= 4);
+    Assert.assertEquals(cache.get(0), Integer.valueOf(998));
+    Assert.assertEquals(cache.get(1), Integer.valueOf(999));
+  }
+
+
+  /**
+   * Unit test for concurrent use of the cache.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "concurrent")
+  public void concurrent()
+    throws Exception
+  {
+    final ConcurrentLruCache<Integer, Integer> cache = new ConcurrentLruCache<>(100);
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        final int offset = t;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10000; i++) {
+            final int key = (i * 7 + offset) % 500;
+            final Integer value = cache.get(key);
+            if (value != null) {
+              Assert.assertEquals(value, Integer.valueOf(key));
+            } else {
+              cache.putIfAbsent(key, key);
+            }
+          }
+        }));
+      }
+      for (Future<?> f : futures) {
+        f.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+    Assert.assertTrue(cache.size() <= 100, "Size is " + cache.size());
+  }
+}
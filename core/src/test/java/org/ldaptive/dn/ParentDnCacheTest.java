@@ -0,0 +1,67 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.dn;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ParentDnCache}.
+ *
+ * @author  Middleware Services
+ */
+public class ParentDnCacheTest
+{
+
+
+  /**
+   * @param  parse  DN to normalize
+   * @param  match  parsed DN
+   * @param  normalized  string produced by the RDN test normalizer
+   */
+  @Test(dataProvider = "validDNs", dataProviderClass = DnTest.class)
+  public void normalize(final String parse, final Dn match, final String normalized)
+  {
+    final String formatted = match.format();
+    final ParentDnCache cache = new ParentDnCache(10);
+    Assert.assertEquals(cache.normalize(parse), formatted);
+    // second invocation reads the parent from the cache
+    Assert.assertEquals(cache.normalize(parse), formatted);
+  }
+
+
+  /**
+   * @param  parse  DN to normalize
+   */
+  @Test(dataProvider = "invalidDNs", dataProviderClass = DnTest.class)
+  public void normalizeInvalid(final String parse)
+  {
+    try {
+      new ParentDnCache(10).normalize(parse);
+      Assert.fail("Should have thrown IllegalArgumentException for " + parse);
+    } catch (Exception e) {
+      Assert.assertEquals(e.getClass(), IllegalArgumentException.class);
+    }
+  }
+
+
+  /** Test cache size. */
+  @Test
+  public void maxSize()
+  {
+    final ParentDnCache cache = new ParentDnCache(2);
+    Assert.assertEquals(cache.normalize("UID=1,OU=People,DC=ldaptive,DC=org"), "uid=1,ou=people,dc=ldaptive,dc=org");
+    Assert.assertEquals(cache.normalize("UID=2,OU=People,DC=ldaptive,DC=org"), "uid=2,ou=people,dc=ldaptive,dc=org");
+    Assert.assertEquals(cache.size(), 1);
+    Assert.assertEquals(cache.normalize("CN=1,OU=Groups,DC=ldaptive,DC=org"), "cn=1,ou=groups,dc=ldaptive,dc=org");
+    Assert.assertEquals(cache.size(), 2);
+    // least recently used parent is evicted
+    Assert.assertEquals(
+      cache.normalize("CN=a\\,b,OU=Roles,DC=ldaptive,DC=org"),
+      "cn=a\\,b,ou=roles,dc=ldaptive,dc=org");
+    Assert.assertEquals(cache.size(), 2);
+    Assert.assertEquals(cache.normalize("DC=org"), "dc=org");
+    Assert.assertEquals(cache.size(), 2);
+    cache.clear();
+    Assert.assertEquals(cache.size(), 0);
+  }
+}
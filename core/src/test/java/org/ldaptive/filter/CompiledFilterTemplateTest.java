@@ -0,0 +1,106 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.filter;
+
+import java.util.Map;
+import org.ldaptive.FilterTemplate;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link CompiledFilterTemplate}.
+ *
+ * @author  Middleware Services
+ */
+public class CompiledFilterTemplateTest
+{
+
+
+  /**
+   * Filter template test data.
+   *
+   * @return  filter templates
+   */
+  @DataProvider(name = "templates")
+  public Object[][] createTemplates()
+  {
+    return
+      new Object[][] {
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(uid=1)")
+            .build(),
+        },
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(&(givenName={0})(sn={1}))")
+            .parameters("Bill", "Wallace")
+            .build(),
+        },
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(|(uid={name})(mail={name}@ldaptive.org)(!(cn={name})))")
+            .parameter("name", "b*(ill)\\")
+            .build(),
+        },
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(&(objectClass=*)(cn={0}*)(sn=*{1}*x*)(mail=*{2}))")
+            .parameters("Bi*ll", "Wall", "ldaptive.org")
+            .build(),
+        },
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(&(age>={0})(age<={1})(sn~={2}))")
+            .parameters(18, 65, "Bìll")
+            .build(),
+        },
+        new Object[] {
+          FilterTemplate.builder()
+            .filter("(&(cn:caseExactMatch:={0})(:dn:2.4.6.8.10:={1})(objectGUID={2}))")
+            .parameters("Bill", "B🜁ll", new byte[] {0x00, 0x28, 0x7F, (byte) 0xFF})
+            .build(),
+        },
+      };
+  }
+
+
+  /**
+   * @param  template  to compile
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "filter", dataProvider = "templates")
+  public void apply(final FilterTemplate template)
+    throws Exception
+  {
+    final CompiledFilterTemplate compiled = new CompiledFilterTemplate(template.getFilter());
+    Assert.assertTrue(compiled.isCompiled());
+    Assert.assertEquals(compiled.apply(template.getParameters()), FilterParser.parse(template.format()));
+    Assert.assertSame(
+      CompiledFilterTemplate.compile(template.getFilter()),
+      CompiledFilterTemplate.compile(template.getFilter()));
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "filter")
+  public void notCompiled()
+    throws Exception
+  {
+    Assert.assertFalse(new CompiledFilterTemplate("({0}=Bill)").isCompiled());
+    Assert.assertFalse(new CompiledFilterTemplate("(cn:{0}:=Bill)").isCompiled());
+    Assert.assertFalse(new CompiledFilterTemplate("(&(cn={0})(uid=\\00))").isCompiled());
+    Assert.assertFalse(new CompiledFilterTemplate("(cn={0}").isCompiled());
+    Assert.assertNull(new CompiledFilterTemplate("({0}=Bill)").apply(Map.of("0", "cn")));
+
+    final CompiledFilterTemplate compiled = new CompiledFilterTemplate("(&(cn={0}*)(sn={1}))");
+    Assert.assertTrue(compiled.isCompiled());
+    Assert.assertEquals(compiled.getParameterNames(), new String[] {"0", "1"});
+    Assert.assertNull(compiled.apply(Map.of("0", "Bill")));
+    Assert.assertNull(compiled.apply(Map.of("0", "", "1", "Wallace")));
+    Assert.assertEquals(
+      compiled.apply(Map.of("0", "Bill", "1", "Wallace")),
+      new AndFilter(new SubstringFilter("cn", "Bill", null, (String[]) null), new EqualityFilter("sn", "Wallace")));
+  }
+}
@@ -0,0 +1,199 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.ldaptive.AbstractConnectionValidator;
+import org.ldaptive.BindResponse;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SimpleBindRequest;
+import org.ldaptive.pool.BlockingConnectionPool;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for the flight recorder events.
+ *
+ * @author  Middleware Services
+ */
+public class JfrEventTest
+{
+
+
+  /**
+   * Runs the supplied action while recording every ldaptive event and returns the recorded ldaptive events.
+   *
+   * @param  action  to record
+   *
+   * @return  recorded events
+   *
+   * @throws  Exception  if the recording fails
+   */
+  private static List<RecordedEvent> record(final ThrowingRunnable action)
+    throws Exception
+  {
+    final Path file = Files.createTempFile("ldaptive", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(BindEvent.class);
+      recording.enable(ConnectionOpenEvent.class);
+      recording.enable(ConnectionReconnectEvent.class);
+      recording.enable(ConnectionCloseEvent.class);
+      recording.enable(PoolCheckOutEvent.class);
+      recording.enable(PoolCheckInEvent.class);
+      recording.enable(PoolValidationFailureEvent.class);
+      recording.start();
+      action.run();
+      recording.stop();
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file).stream()
+        .filter(e -> e.getEventType().getName().startsWith("org.ldaptive."))
+        .collect(Collectors.toList());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+
+  /**
+   * Returns the events with the supplied name.
+   *
+   * @param  events  to filter
+   * @param  name  of the event type
+   *
+   * @return  matching events
+   */
+  private static List<RecordedEvent> filter(final List<RecordedEvent> events, final String name)
+  {
+    return events.stream().filter(e -> name.equals(e.getEventType().getName())).collect(Collectors.toList());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void connection()
+    throws Exception
+  {
+    final List<RecordedEvent> events = record(() -> {
+      final MockConnection conn = new MockConnection(new ConnectionConfig("ldap://directory.ldaptive.org"));
+      conn.setOpenPredicate(url -> true);
+      conn.setTestPredicate(url -> true);
+      conn.setBindResponder(h -> h.result(BindResponse.builder().resultCode(ResultCode.INVALID_CREDENTIALS).build()));
+      conn.open();
+      conn.operation(new SimpleBindRequest("uid=1,dc=ldaptive,dc=org", "secret")).execute();
+
+      final MockConnection failed = new MockConnection(
+        ConnectionConfig.builder().url("ldap://directory.ldaptive.org").autoReconnectCondition(m -> false).build());
+      failed.setOpenPredicate(url -> false);
+      failed.setTestPredicate(url -> true);
+      try {
+        failed.open();
+        Assert.fail("Should have thrown LdapException");
+      } catch (LdapException e) {
+        Assert.assertEquals(e.getResultCode(), ResultCode.CONNECT_ERROR);
+      }
+    });
+
+    Assert.assertTrue(FlightRecorderEvents.isAvailable());
+    final List<RecordedEvent> opens = filter(events, "org.ldaptive.ConnectionOpen");
+    Assert.assertEquals(opens.size(), 2);
+    Assert.assertTrue(opens.get(0).getBoolean("success"));
+    Assert.assertTrue(opens.get(0).getDuration("connectTime").toNanos() > 0);
+    Assert.assertEquals(opens.get(0).getString("url"), "ldap://directory.ldaptive.org:389");
+    Assert.assertEquals(opens.get(0).getString("strategy"), "ActivePassiveConnectionStrategy");
+    Assert.assertFalse(opens.get(1).getBoolean("success"));
+    Assert.assertNotNull(opens.get(1).getString("failure"));
+
+    final List<RecordedEvent> binds = filter(events, "org.ldaptive.Bind");
+    Assert.assertEquals(binds.size(), 1);
+    Assert.assertEquals(binds.get(0).getString("bindType"), "SimpleBindRequest");
+    Assert.assertEquals(binds.get(0).getString("resultCode"), "INVALID_CREDENTIALS");
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "conn-pool")
+  public void pool()
+    throws Exception
+  {
+    final BlockingConnectionPool pool = new BlockingConnectionPool(
+      new DefaultConnectionFactory(
+        new ConnectionConfig("ldap://directory.ldaptive.org"),
+        config -> {
+          final MockConnection conn = new MockConnection(config);
+          conn.setOpenPredicate(url -> true);
+          conn.setTestPredicate(url -> true);
+          return conn;
+        }));
+    pool.setName("jfr-pool");
+    pool.setMinPoolSize(1);
+    pool.setMaxPoolSize(1);
+    pool.setBlockWaitTime(Duration.ofMillis(50));
+    pool.initialize();
+    try {
+      final List<RecordedEvent> events = record(() -> {
+        final Connection c1 = pool.getConnection();
+        try {
+          pool.getConnection();
+          Assert.fail("Should have thrown BlockingTimeoutException");
+        } catch (Exception e) {
+          Assert.assertEquals(e.getClass().getSimpleName(), "BlockingTimeoutException");
+        }
+        pool.setValidator(
+          new AbstractConnectionValidator() {
+            @Override
+            public void applyAsync(final Connection conn, final Consumer<Boolean> function)
+            {
+              function.accept(false);
+            }
+          });
+        pool.setValidateOnCheckIn(true);
+        c1.close();
+      });
+
+      final List<RecordedEvent> checkOuts = filter(events, "org.ldaptive.PoolCheckOut");
+      Assert.assertEquals(checkOuts.size(), 2);
+      Assert.assertEquals(checkOuts.get(0).getString("pool"), "jfr-pool");
+      Assert.assertNull(checkOuts.get(0).getString("failure"));
+      Assert.assertEquals(checkOuts.get(1).getString("failure"), "BlockingTimeoutException");
+      Assert.assertTrue(checkOuts.get(1).getDuration("waitTime").toMillis() >= 50);
+
+      Assert.assertEquals(filter(events, "org.ldaptive.PoolCheckIn").size(), 1);
+      final List<RecordedEvent> failures = filter(events, "org.ldaptive.PoolValidationFailure");
+      Assert.assertEquals(failures.size(), 1);
+      Assert.assertEquals(failures.get(0).getString("phase"), "check in");
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** Runnable that may throw a checked exception. */
+  @FunctionalInterface
+  private interface ThrowingRunnable
+  {
+
+
+    /**
+     * Runs this action.
+     *
+     * @throws  Exception  if the action fails
+     */
+    void run() throws Exception;
+  }
+}
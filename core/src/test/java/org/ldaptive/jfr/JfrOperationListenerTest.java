@@ -0,0 +1,75 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.jfr;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link JfrOperationListener}.
+ *
+ * @author  Middleware Services
+ */
+public class JfrOperationListenerTest
+{
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void search()
+    throws Exception
+  {
+    final MockConnection conn = new MockConnection(
+      ConnectionConfig.builder()
+        .url("ldap://directory.ldaptive.org")
+        .operationListener(new JfrOperationListener())
+        .build());
+    conn.setOpenPredicate(url -> true);
+    conn.setTestPredicate(url -> true);
+    conn.setSearchResponder(handle -> {
+      handle.received(100);
+      handle.entry(LdapEntry.builder().dn("uid=1,dc=ldaptive,dc=org").build());
+      handle.received(10);
+      handle.result(SearchResponse.builder().resultCode(ResultCode.SUCCESS).build());
+    });
+    conn.open();
+
+    // not recorded
+    conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).execute();
+    final Path file = Files.createTempFile("ldaptive", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable(OperationEvent.class);
+      recording.start();
+      conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")).execute();
+      recording.stop();
+      recording.dump(file);
+      final List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+        .filter(e -> "org.ldaptive.Operation".equals(e.getEventType().getName()))
+        .collect(Collectors.toList());
+      Assert.assertEquals(events.size(), 1);
+      final RecordedEvent event = events.get(0);
+      Assert.assertEquals(event.getString("operation"), "SearchRequest");
+      Assert.assertEquals(event.getInt("messageID"), 1);
+      Assert.assertEquals(event.getString("resultCode"), "SUCCESS");
+      Assert.assertEquals(event.getInt("entryCount"), 1);
+      Assert.assertEquals(event.getLong("responseLength"), 110);
+      Assert.assertTrue(event.getDuration("completeTime").toNanos() > 0);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+}
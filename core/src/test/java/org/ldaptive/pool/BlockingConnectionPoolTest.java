@@ -0,0 +1,175 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.ldaptive.AbstractConnectionValidator;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link BlockingConnectionPool}.
+ *
+ * @author  Middleware Services
+ */
+public class BlockingConnectionPoolTest
+{
+
+
+  /**
+   * Creates a new pool backed by mock connections.
+   *
+   * @param  min  minimum pool size
+   * @param  max  maximum pool size
+   *
+   * @return  initialized connection pool
+   */
+  private static BlockingConnectionPool createPool(final int min, final int max)
+  {
+    final ConnectionConfig cc = new ConnectionConfig("ldap://directory.ldaptive.org");
+    final DefaultConnectionFactory cf = new DefaultConnectionFactory(
+      cc,
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        return conn;
+      });
+    final BlockingConnectionPool pool = new BlockingConnectionPool(cf);
+    pool.setMinPoolSize(min);
+    pool.setMaxPoolSize(max);
+    pool.setBlockWaitTime(Duration.ofMillis(200));
+    pool.initialize();
+    return pool;
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void prune()
+    throws Exception
+  {
+    final BlockingConnectionPool pool = createPool(1, 4);
+    pool.setPruneStrategy(new IdlePruneStrategy(Duration.ofMinutes(5), Duration.ZERO));
+    try {
+      final List<Connection> conns = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        conns.add(pool.getConnection());
+      }
+      conns.get(0).close();
+      conns.get(1).close();
+      // active connections count toward the minimum size
+      pool.prune();
+      Assert.assertEquals(pool.availableCount(), 0);
+      Assert.assertEquals(pool.activeCount(), 2);
+      conns.get(2).close();
+      conns.get(3).close();
+      pool.prune();
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void validate()
+    throws Exception
+  {
+    final BlockingConnectionPool pool = createPool(3, 3);
+    final List<Integer> availableDuringValidation = new ArrayList<>();
+    final AtomicInteger count = new AtomicInteger();
+    pool.setValidator(
+      new AbstractConnectionValidator() {
+        @Override
+        public void applyAsync(final Connection conn, final Consumer<Boolean> function)
+        {
+          availableDuringValidation.add(pool.availableCount());
+          // the first connection fails validation
+          function.accept(count.getAndIncrement() > 0);
+        }
+      });
+    try {
+      pool.validate();
+      // only the connection being validated is reserved, the invalid connection is removed when it fails
+      Assert.assertEquals(availableDuringValidation, List.of(2, 1, 1));
+      // the invalid connection is replaced
+      Assert.assertEquals(pool.availableCount(), 3);
+      Assert.assertEquals(pool.activeCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void maxConnectionLifetime()
+    throws Exception
+  {
+    final BlockingConnectionPool pool = createPool(2, 4);
+    pool.setMaxConnectionLifetime(Duration.ofMillis(100));
+    try {
+      Thread.sleep(150);
+      final Connection c1 = pool.getConnection();
+      Assert.assertEquals(pool.availableCount(), 1);
+      // the expired available connection is replaced
+      pool.maintain();
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 1);
+      // the expired active connection is retired on check in
+      c1.close();
+      Assert.assertFalse(c1.isOpen());
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 0);
+      pool.setMaxConnectionLifetime(null);
+      pool.maintain();
+      Assert.assertEquals(pool.availableCount(), 2);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void metrics()
+    throws Exception
+  {
+    final BlockingConnectionPool pool = createPool(1, 1);
+    final DefaultPoolMetrics metrics = new DefaultPoolMetrics();
+    pool.setPoolMetrics(metrics);
+    try {
+      final Connection c1 = pool.getConnection();
+      final CompletableFuture<Connection> waiter = CompletableFuture.supplyAsync(() -> {
+        try {
+          return pool.getConnection();
+        } catch (PoolException e) {
+          throw new IllegalStateException(e);
+        }
+      });
+      for (int i = 0; i < 50 && pool.waiterCount() == 0; i++) {
+        Thread.sleep(5);
+      }
+      Assert.assertEquals(pool.waiterCount(), 1);
+      c1.close();
+      waiter.get().close();
+      Assert.assertEquals(pool.waiterCount(), 0);
+      Assert.assertEquals(metrics.getCheckOutTime().getCount(), 2);
+      Assert.assertEquals(metrics.getHeldTime().getCount(), 2);
+      Assert.assertEquals(metrics.getBlockingTimeoutCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import javax.management.openmbean.CompositeData;
+import org.ldaptive.AbstractConnectionValidator;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link ConcurrentConnectionPool}.
+ *
+ * @author  Middleware Services
+ */
+public class ConcurrentConnectionPoolTest
+{
+
+
+  /**
+   * Creates a new pool backed by mock connections.
+   *
+   * @param  min  minimum pool size
+   * @param  max  maximum pool size
+   *
+   * @return  initialized connection pool
+   */
+  private static ConcurrentConnectionPool createPool(final int min, final int max)
+  {
+    final ConnectionConfig cc = new ConnectionConfig("ldap://directory.ldaptive.org");
+    final DefaultConnectionFactory cf = new DefaultConnectionFactory(
+      cc,
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        return conn;
+      });
+    final ConcurrentConnectionPool pool = new ConcurrentConnectionPool(cf);
+    pool.setMinPoolSize(min);
+    pool.setMaxPoolSize(max);
+    pool.setBlockWaitTime(Duration.ofMillis(200));
+    pool.initialize();
+    return pool;
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void checkOutCheckIn()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(2, 4);
+    try {
+      Assert.assertEquals(pool.availableCount(), 2);
+      Assert.assertEquals(pool.activeCount(), 0);
+
+      final Connection c1 = pool.getConnection();
+      Assert.assertTrue(c1.isOpen());
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 1);
+
+      final Connection c2 = pool.getConnection();
+      final Connection c3 = pool.getConnection();
+      Assert.assertEquals(pool.availableCount(), 0);
+      Assert.assertEquals(pool.activeCount(), 3);
+
+      c1.close();
+      c2.close();
+      c3.close();
+      Assert.assertEquals(pool.availableCount(), 3);
+      Assert.assertEquals(pool.activeCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void blockWaitTimeout()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(1, 2);
+    try {
+      final Connection c1 = pool.getConnection();
+      final Connection c2 = pool.getConnection();
+      try {
+        pool.getConnection();
+        Assert.fail("Should have thrown BlockingTimeoutException");
+      } catch (Exception e) {
+        Assert.assertEquals(e.getClass(), BlockingTimeoutException.class);
+      }
+      c1.close();
+      final Connection c3 = pool.getConnection();
+      Assert.assertNotNull(c3);
+      c2.close();
+      c3.close();
+      Assert.assertEquals(pool.availableCount(), 2);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void validate()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(3, 3);
+    final List<Integer> availableDuringValidation = new ArrayList<>();
+    final AtomicInteger count = new AtomicInteger();
+    pool.setValidator(
+      new AbstractConnectionValidator() {
+        @Override
+        public void applyAsync(final Connection conn, final Consumer<Boolean> function)
+        {
+          availableDuringValidation.add(pool.availableCount());
+          // the first connection fails validation
+          function.accept(count.getAndIncrement() > 0);
+        }
+      });
+    try {
+      pool.validate();
+      // only the connection being validated is reserved, the invalid connection is removed when it fails
+      Assert.assertEquals(availableDuringValidation, List.of(2, 1, 1));
+      // the invalid connection is replaced
+      Assert.assertEquals(pool.availableCount(), 3);
+      Assert.assertEquals(pool.activeCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void prune()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(1, 4);
+    pool.setPruneStrategy(new IdlePruneStrategy(Duration.ofMinutes(5), Duration.ZERO));
+    try {
+      final List<Connection> conns = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        conns.add(pool.getConnection());
+      }
+      for (Connection c : conns) {
+        c.close();
+      }
+      Assert.assertEquals(pool.availableCount(), 4);
+      pool.prune();
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 0);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void concurrentCheckOut()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(2, 5);
+    pool.setBlockWaitTime(Duration.ofSeconds(10));
+    final ExecutorService executor = Executors.newFixedThreadPool(10);
+    try {
+      final List<Callable<Boolean>> tasks = new ArrayList<>();
+      for (int i = 0; i < 200; i++) {
+        tasks.add(() -> {
+          final Connection c = pool.getConnection();
+          try {
+            return c.isOpen();
+          } finally {
+            c.close();
+          }
+        });
+      }
+      for (Future<Boolean> f : executor.invokeAll(tasks)) {
+        Assert.assertTrue(f.get());
+      }
+      Assert.assertEquals(pool.activeCount(), 0);
+      Assert.assertTrue(pool.availableCount() >= 2 && pool.availableCount() <= 5);
+    } finally {
+      executor.shutdown();
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void maxConnectionLifetime()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(2, 4);
+    pool.setMaxConnectionLifetime(Duration.ofMillis(100));
+    try {
+      Thread.sleep(150);
+      final Connection c1 = pool.getConnection();
+      Assert.assertEquals(pool.availableCount(), 1);
+      // the expired available connection is replaced
+      pool.maintain();
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 1);
+      Assert.assertEquals(pool.getPooledConnectionStatistics().size(), 2);
+      // the expired active connection is retired on check in
+      c1.close();
+      Assert.assertFalse(c1.isOpen());
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 0);
+      pool.setMaxConnectionLifetime(null);
+      pool.maintain();
+      Assert.assertEquals(pool.availableCount(), 2);
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void prewarm()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(1, 8);
+    pool.setPrewarm(true);
+    try {
+      final List<Connection> conns = new ArrayList<>();
+      for (int i = 0; i < 3; i++) {
+        conns.add(pool.getConnection());
+      }
+      Assert.assertEquals(pool.availableCount(), 0);
+      for (int i = 0; i < 4; i++) {
+        pool.maintain();
+      }
+      // demand of three connections warms the pool to four
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 3);
+      Assert.assertEquals(pool.getCheckOutCount(), 3);
+      for (Connection c : conns) {
+        c.close();
+      }
+    } finally {
+      pool.close();
+    }
+  }
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void metrics()
+    throws Exception
+  {
+    final ConcurrentConnectionPool pool = createPool(1, 2);
+    final DefaultPoolMetrics metrics = new DefaultPoolMetrics();
+    pool.setPoolMetrics(metrics);
+    final ConnectionPoolMonitor monitor = new ConnectionPoolMonitor(pool);
+    monitor.register();
+    try {
+      final Connection c1 = pool.getConnection();
+      final Connection c2 = pool.getConnection();
+      Assert.assertEquals(metrics.getCheckOutTime().getCount(), 2);
+      Assert.assertEquals(metrics.getCreateTime().getCount(), 1);
+      try {
+        pool.getConnection();
+        Assert.fail("Should have thrown BlockingTimeoutException");
+      } catch (BlockingTimeoutException e) {
+        Assert.assertEquals(metrics.getBlockingTimeoutCount(), 1);
+      }
+      Assert.assertEquals(pool.waiterCount(), 0);
+      Thread.sleep(10);
+      c1.close();
+      c2.close();
+      Assert.assertEquals(metrics.getHeldTime().getCount(), 2);
+      Assert.assertTrue(metrics.getHeldTime().getValueAtPercentile(50) >= Duration.ofMillis(10).toNanos());
+
+      Assert.assertEquals(
+        ManagementFactory.getPlatformMBeanServer().getAttribute(monitor.getObjectName(), "BlockingTimeoutCount"),
+        1L);
+      final CompositeData held = (CompositeData) ManagementFactory.getPlatformMBeanServer().getAttribute(
+        monitor.getObjectName(),
+        "HeldTime");
+      Assert.assertEquals(held.get("count"), 2L);
+      Assert.assertTrue((Long) held.get("p99") >= Duration.ofMillis(10).toNanos() / 1000);
+    } finally {
+      monitor.unregister();
+      pool.close();
+    }
+    Assert.assertNull(monitor.getObjectName());
+  }
+}
@@ -19,7 +19,18 @@ public class EqualsTest
   {
     EqualsVerifier.forClass(AbstractConnectionPool.DefaultPooledConnectionProxy.class)
       .suppress(Warning.STRICT_INHERITANCE)
-      .withIgnoredFields("createdTime", "statistics")
+      .withIgnoredFields("createdTime", "lifetimeJitter", "statistics")
+      .verify();
+  }
+
+
+  @Test
+  public void pooledConnection()
+  {
+    EqualsVerifier.forClass(PooledConnection.class)
+      .withPrefabValues(AbstractConnectionPool.class, new BlockingConnectionPool(), new BlockingConnectionPool())
+      .suppress(Warning.NULL_FIELDS)
+      .withIgnoredFields("connectionPool", "connectionProxy")
       .verify();
   }
 }
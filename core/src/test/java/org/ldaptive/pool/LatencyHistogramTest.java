@@ -0,0 +1,71 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link LatencyHistogram}.
+ *
+ * @author  Middleware Services
+ */
+public class LatencyHistogramTest
+{
+
+
+  /** Unit test for bucket boundaries. */
+  @Test(groups = "conn-pool")
+  public void buckets()
+  {
+    long previous = -1;
+    for (int i = 0; i < 960; i++) {
+      final long upper = LatencyHistogram.bucketUpperBound(i);
+      Assert.assertTrue(upper > previous);
+      Assert.assertEquals(LatencyHistogram.bucketIndex(previous + 1), i);
+      Assert.assertEquals(LatencyHistogram.bucketIndex(upper), i);
+      // relative error is bounded by the number of sub-buckets
+      Assert.assertTrue(upper - previous - 1 <= Math.max(1, (previous + 1) / 16));
+      previous = upper;
+    }
+    Assert.assertEquals(previous, Long.MAX_VALUE);
+  }
+
+
+  /** Unit test for percentiles. */
+  @Test(groups = "conn-pool")
+  public void percentiles()
+  {
+    final LatencyHistogram histogram = new LatencyHistogram();
+    Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+    Assert.assertEquals(histogram.getCount(), 1000);
+    Assert.assertEquals(histogram.getMax(), 1000000);
+    Assert.assertEquals(histogram.getMean(), 500500);
+    assertWithin(histogram.getValueAtPercentile(50), 500000);
+    assertWithin(histogram.getValueAtPercentile(99), 990000);
+    Assert.assertEquals(histogram.getValueAtPercentile(100), 1000000);
+
+    histogram.record(-1);
+    Assert.assertEquals(histogram.getCount(), 1001);
+    Assert.assertEquals(histogram.getValueAtPercentile(0), 0);
+
+    histogram.reset();
+    Assert.assertEquals(histogram.getCount(), 0);
+    Assert.assertEquals(histogram.getMax(), 0);
+    Assert.assertEquals(histogram.getValueAtPercentile(50), 0);
+  }
+
+
+  /**
+   * Asserts that the actual value is no less than the expected value and within the histogram precision.
+   *
+   * @param  actual  value
+   * @param  expected  value
+   */
+  private static void assertWithin(final long actual, final long expected)
+  {
+    Assert.assertTrue(actual >= expected && actual <= expected + expected / 16, actual + " != " + expected);
+  }
+}
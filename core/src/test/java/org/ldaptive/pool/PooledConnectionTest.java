@@ -0,0 +1,69 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.pool;
+
+import java.time.Duration;
+import org.ldaptive.Connection;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.DefaultConnectionFactory;
+import org.ldaptive.LdapURL;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link PooledConnection}.
+ *
+ * @author  Middleware Services
+ */
+public class PooledConnectionTest
+{
+
+
+  /** @throws  Exception  On test failure. */
+  @Test(groups = "conn-pool")
+  public void delegate()
+    throws Exception
+  {
+    final ConnectionConfig cc = new ConnectionConfig("ldap://directory.ldaptive.org");
+    final DefaultConnectionFactory cf = new DefaultConnectionFactory(
+      cc,
+      config -> {
+        final MockConnection conn = new MockConnection(config);
+        conn.setOpenPredicate(url -> true);
+        conn.setTestPredicate(url -> true);
+        return conn;
+      });
+    final BlockingConnectionPool pool = new BlockingConnectionPool(cf);
+    pool.setMinPoolSize(1);
+    pool.setMaxPoolSize(1);
+    pool.setBlockWaitTime(Duration.ofMillis(100));
+    pool.initialize();
+    try {
+      final Connection conn = pool.getConnection();
+      Assert.assertEquals(conn.getClass(), PooledConnection.class);
+      Assert.assertTrue(conn.isOpen());
+      Assert.assertEquals(conn.getLdapURL(), new LdapURL("ldap://directory.ldaptive.org"));
+
+      final PooledConnectionProxy pc = pool.retrieveConnectionProxy(conn);
+      Assert.assertSame(pc.getConnectionPool(), pool);
+      Assert.assertTrue(pool.active.contains(pc));
+
+      // underlying connection is only opened if it has been closed
+      conn.open();
+      Assert.assertTrue(pc.getConnection().isOpen());
+      pc.getConnection().close();
+      Assert.assertFalse(conn.isOpen());
+      conn.open();
+      Assert.assertTrue(conn.isOpen());
+
+      // close returns the connection to the pool without closing it
+      conn.close();
+      Assert.assertTrue(pc.getConnection().isOpen());
+      Assert.assertEquals(pool.availableCount(), 1);
+      Assert.assertEquals(pool.activeCount(), 0);
+      Assert.assertSame(pool.retrieveConnectionProxy(pool.getConnection()), pc);
+    } finally {
+      pool.close();
+    }
+  }
+}
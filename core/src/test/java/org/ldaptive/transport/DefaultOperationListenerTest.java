@@ -0,0 +1,116 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link DefaultOperationListener}.
+ *
+ * @author  Middleware Services
+ */
+public class DefaultOperationListenerTest
+{
+
+
+  /**
+   * Creates an open connection that responds to searches with the supplied number of entries.
+   *
+   * @param  listener  operation listener
+   * @param  count  number of entries
+   * @param  code  result code of the search response
+   *
+   * @return  mock connection
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  private static MockConnection createConnection(
+    final OperationListener listener,
+    final int count,
+    final ResultCode code)
+    throws LdapException
+  {
+    final MockConnection conn = new MockConnection(
+      ConnectionConfig.builder().url("ldap://directory.ldaptive.org").operationListener(listener).build());
+    conn.setOpenPredicate(url -> true);
+    conn.setTestPredicate(url -> true);
+    conn.setSearchResponder(handle -> {
+      for (int i = 0; i < count; i++) {
+        handle.received(100);
+        handle.entry(LdapEntry.builder().dn("uid=" + i + ",dc=ldaptive,dc=org").build());
+      }
+      handle.received(10);
+      handle.result(SearchResponse.builder().resultCode(code).build());
+    });
+    conn.open();
+    return conn;
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void search()
+    throws Exception
+  {
+    final DefaultOperationListener listener = new DefaultOperationListener();
+    final MockConnection conn = createConnection(listener, 5, ResultCode.SUCCESS);
+    final SearchRequest request = SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org");
+    conn.operation(request).execute();
+    conn.operation(request).execute();
+    final MockConnection failed = createConnection(listener, 0, ResultCode.NO_SUCH_OBJECT);
+    failed.operation(request).execute();
+
+    final DefaultOperationListener.OperationStatistics stats = listener.getStatistics(SearchRequest.class);
+    Assert.assertEquals(stats.getCount(), 3);
+    Assert.assertEquals(stats.getCount(ResultCode.SUCCESS), 2);
+    Assert.assertEquals(stats.getCount(ResultCode.NO_SUCH_OBJECT), 1);
+    Assert.assertEquals(stats.getResultCodeCounts().size(), 2);
+    Assert.assertEquals(stats.getEntryCount(), 10);
+    Assert.assertEquals(stats.getResponseBytes(), 1030);
+    Assert.assertEquals(stats.getFirstResponseTime().getCount(), 3);
+    Assert.assertEquals(stats.getCompleteTime().getCount(), 3);
+    Assert.assertTrue(stats.getFirstResponseTime().getMax() <= stats.getCompleteTime().getMax());
+    Assert.assertEquals(listener.getStatistics().size(), 1);
+
+    listener.reset();
+    Assert.assertEquals(stats.getCount(), 0);
+    Assert.assertEquals(stats.getEntryCount(), 0);
+    Assert.assertTrue(stats.getResultCodeCounts().isEmpty());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void handleMeasurements()
+    throws Exception
+  {
+    final MockConnection conn = createConnection(new OperationListener() {}, 3, ResultCode.SUCCESS);
+    final DefaultSearchOperationHandle handle = (DefaultSearchOperationHandle) conn.operation(
+      SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"));
+    handle.execute();
+    Assert.assertEquals(handle.getEntryCount(), 3);
+    Assert.assertEquals(handle.getResponseLength(), 310);
+    Assert.assertTrue(handle.getFirstResponseNanos() > 0);
+    Assert.assertTrue(handle.getCompleteNanos() >= handle.getFirstResponseNanos());
+
+    // no measurements without a listener
+    final MockConnection unmeasured = createConnection(null, 3, ResultCode.SUCCESS);
+    final DefaultSearchOperationHandle h = (DefaultSearchOperationHandle) unmeasured.operation(
+      SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"));
+    h.execute();
+    Assert.assertEquals(h.getEntryCount(), 3);
+    Assert.assertEquals(h.getFirstResponseNanos(), 0);
+    Assert.assertEquals(h.getCompleteNanos(), 0);
+  }
+}
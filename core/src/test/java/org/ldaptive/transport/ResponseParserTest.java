@@ -2,6 +2,8 @@
 package org.ldaptive.transport;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.ldaptive.LdapAttribute;
 import org.ldaptive.LdapEntry;
 import org.ldaptive.Message;
@@ -20,6 +22,9 @@ import org.testng.annotations.Test;
 public class ResponseParserTest
 {
 
+  /** Parser shared by all reuse tests. */
+  private final ResponseParser sharedParser = new ResponseParser();
+
 
   /**
    * Parser test data.
@@ -106,4 +111,55 @@ public class ResponseParserTest
     final ResponseParser parser = new ResponseParser();
     Assert.assertEquals(parser.parse(new DefaultDERBuffer(berValue)).get(), response);
   }
+
+
+  /**
+   * @param  berValue  to parse.
+   * @param  response  expected response.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport", dataProvider = "response")
+  public void parseReuse(final byte[] berValue, final Message response)
+    throws Exception
+  {
+    Assert.assertEquals(sharedParser.parse(new DefaultDERBuffer(berValue)).get(), response);
+    Assert.assertEquals(sharedParser.parse(new DefaultDERBuffer(berValue)).get(), response);
+  }
+
+
+  /**
+   * @param  berValue  to parse.
+   * @param  response  expected response.
+   *
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport", dataProvider = "response")
+  public void parseLazy(final byte[] berValue, final Message response)
+    throws Exception
+  {
+    final List<Integer> ids = new ArrayList<>();
+    final ResponseParser parser = new ResponseParser(id -> ids.add(id));
+    Assert.assertEquals(parser.parse(new DefaultDERBuffer(berValue)).get(), response);
+    if (response instanceof LdapEntry) {
+      Assert.assertEquals(ids, List.of(response.getMessageID()));
+    } else {
+      Assert.assertTrue(ids.isEmpty());
+    }
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void parseUnknown()
+    throws Exception
+  {
+    // abandon request is not a response
+    final byte[] abandon = new byte[] {0x30, 0x06, 0x02, 0x01, 0x02, 0x50, 0x01, 0x01};
+    Assert.assertFalse(sharedParser.parse(new DefaultDERBuffer(abandon)).isPresent());
+    Assert.assertFalse(sharedParser.parse(new DefaultDERBuffer(new byte[] {0x04, 0x00})).isPresent());
+    Assert.assertFalse(sharedParser.parse(new DefaultDERBuffer(new byte[0])).isPresent());
+  }
 }
@@ -0,0 +1,259 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.LdapEntry;
+import org.ldaptive.LdapException;
+import org.ldaptive.ResultCode;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.SearchResponse;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link SearchEntryPublisher}.
+ *
+ * @author  Middleware Services
+ */
+public class SearchEntryPublisherTest
+{
+
+
+  /**
+   * Creates an open connection that responds to searches with the supplied number of entries. Entries are produced on a
+   * separate thread which, like a socket read, pauses while reads are suspended.
+   *
+   * @param  count  number of entries
+   * @param  produced  incremented as each entry is produced
+   * @param  code  result code of the search response
+   *
+   * @return  mock connection
+   *
+   * @throws  LdapException  if the connection cannot be opened
+   */
+  private static MockConnection createConnection(final int count, final AtomicInteger produced, final ResultCode code)
+    throws LdapException
+  {
+    final MockConnection conn = new MockConnection(new ConnectionConfig("ldap://directory.ldaptive.org"));
+    conn.setOpenPredicate(url -> true);
+    conn.setTestPredicate(url -> true);
+    conn.setSearchResponder(handle -> new Thread(() -> {
+      for (int i = 0; i < count && handle.getReceivedTime() == null; i++) {
+        while (conn.isReadSuspended() && handle.getReceivedTime() == null) {
+          Thread.onSpinWait();
+        }
+        handle.entry(LdapEntry.builder().dn("uid=" + i + ",dc=ldaptive,dc=org").build());
+        produced.incrementAndGet();
+      }
+      if (handle.getReceivedTime() == null) {
+        handle.result(SearchResponse.builder().resultCode(code).build());
+      }
+    }).start());
+    conn.open();
+    return conn;
+  }
+
+
+  /**
+   * Creates a publisher for an object level search on the supplied connection.
+   *
+   * @param  conn  to search on
+   * @param  bufferSize  number of entries to buffer
+   *
+   * @return  search entry publisher
+   */
+  private static SearchEntryPublisher createPublisher(final MockConnection conn, final int bufferSize)
+  {
+    return new SearchEntryPublisher(
+      (DefaultSearchOperationHandle) conn.operation(SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org")),
+      bufferSize);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void unbounded()
+    throws Exception
+  {
+    final MockConnection conn = createConnection(100, new AtomicInteger(), ResultCode.SUCCESS);
+    final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    createPublisher(conn, 4).subscribe(subscriber);
+    Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+    Assert.assertNull(subscriber.error);
+    Assert.assertEquals(subscriber.entries.size(), 100);
+    Assert.assertEquals(subscriber.entries.get(0).getDn(), "uid=0,dc=ldaptive,dc=org");
+    Assert.assertEquals(subscriber.entries.get(99).getDn(), "uid=99,dc=ldaptive,dc=org");
+    Assert.assertFalse(conn.isReadSuspended());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void demand()
+    throws Exception
+  {
+    final AtomicInteger produced = new AtomicInteger();
+    final MockConnection conn = createConnection(100, produced, ResultCode.SUCCESS);
+    final TestSubscriber subscriber = new TestSubscriber(2);
+    createPublisher(conn, 4).subscribe(subscriber);
+    // reads are suspended once the buffer is full
+    Thread.sleep(200);
+    Assert.assertEquals(subscriber.entries.size(), 2);
+    Assert.assertTrue(conn.isReadSuspended());
+    Assert.assertTrue(produced.get() <= 7, "Produced " + produced.get() + " entries");
+    // requesting more entries resumes reads
+    subscriber.subscription.request(Long.MAX_VALUE);
+    Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+    Assert.assertNull(subscriber.error);
+    Assert.assertEquals(subscriber.entries.size(), 100);
+    Assert.assertFalse(conn.isReadSuspended());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void cancel()
+    throws Exception
+  {
+    final AtomicInteger produced = new AtomicInteger();
+    final MockConnection conn = createConnection(100, produced, ResultCode.SUCCESS);
+    final TestSubscriber subscriber = new TestSubscriber(1);
+    createPublisher(conn, 4).subscribe(subscriber);
+    Thread.sleep(200);
+    Assert.assertTrue(conn.isReadSuspended());
+    // cancelling abandons the search and resumes reads
+    subscriber.subscription.cancel();
+    Thread.sleep(200);
+    Assert.assertFalse(conn.isReadSuspended());
+    Assert.assertTrue(produced.get() < 100, "Produced " + produced.get() + " entries");
+    Assert.assertEquals(subscriber.entries.size(), 1);
+    Assert.assertEquals(subscriber.done.getCount(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void failure()
+    throws Exception
+  {
+    final MockConnection conn = createConnection(2, new AtomicInteger(), ResultCode.BUSY);
+    final DefaultSearchOperationHandle handle = (DefaultSearchOperationHandle) conn.operation(
+      SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"));
+    handle.throwIf(result -> result.getResultCode() != ResultCode.SUCCESS);
+    final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    new SearchEntryPublisher(handle).subscribe(subscriber);
+    Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(subscriber.entries.size(), 2);
+    Assert.assertEquals(subscriber.error.getClass(), LdapException.class);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void invalidRequest()
+    throws Exception
+  {
+    final MockConnection conn = createConnection(10, new AtomicInteger(), ResultCode.SUCCESS);
+    final TestSubscriber subscriber = new TestSubscriber(0);
+    createPublisher(conn, 4).subscribe(subscriber);
+    Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(subscriber.error.getClass(), IllegalArgumentException.class);
+    Assert.assertTrue(subscriber.entries.isEmpty());
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void singleSubscriber()
+    throws Exception
+  {
+    final MockConnection conn = createConnection(10, new AtomicInteger(), ResultCode.SUCCESS);
+    final SearchEntryPublisher publisher = createPublisher(conn, 4);
+    publisher.subscribe(new TestSubscriber(Long.MAX_VALUE));
+    final TestSubscriber subscriber = new TestSubscriber(Long.MAX_VALUE);
+    publisher.subscribe(subscriber);
+    Assert.assertTrue(subscriber.done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals(subscriber.error.getClass(), IllegalStateException.class);
+  }
+
+
+  /** Subscriber that records the signals it receives. */
+  private static class TestSubscriber implements Flow.Subscriber<LdapEntry>
+  {
+
+    /** Entries received. */
+    private final List<LdapEntry> entries = new CopyOnWriteArrayList<>();
+
+    /** Released when a terminal signal is received. */
+    private final CountDownLatch done = new CountDownLatch(1);
+
+    /** Number of entries to request on subscribe. */
+    private final long initialRequest;
+
+    /** Subscription received on subscribe. */
+    private volatile Flow.Subscription subscription;
+
+    /** Error received. */
+    private volatile Throwable error;
+
+
+    /**
+     * Creates a new test subscriber.
+     *
+     * @param  n  number of entries to request on subscribe
+     */
+    TestSubscriber(final long n)
+    {
+      initialRequest = n;
+    }
+
+
+    @Override
+    public void onSubscribe(final Flow.Subscription s)
+    {
+      subscription = s;
+      s.request(initialRequest);
+    }
+
+
+    @Override
+    public void onNext(final LdapEntry entry)
+    {
+      entries.add(entry);
+    }
+
+
+    @Override
+    public void onError(final Throwable t)
+    {
+      error = t;
+      done.countDown();
+    }
+
+
+    @Override
+    public void onComplete()
+    {
+      done.countDown();
+    }
+  }
+}
@@ -1,6 +1,8 @@
 /* See LICENSE for licensing and NOTICE for copyright. */
 package org.ldaptive.transport.mock;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import org.ldaptive.AbandonRequest;
 import org.ldaptive.AddRequest;
@@ -30,6 +32,7 @@ import org.ldaptive.extended.ExtendedRequest;
 import org.ldaptive.sasl.DefaultSaslClientRequest;
 import org.ldaptive.sasl.SaslClientRequest;
 import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.DefaultSearchOperationHandle;
 import org.ldaptive.transport.TransportConnection;
 
 /**
@@ -52,6 +55,15 @@ public final class MockConnection extends TransportConnection
   /** LDAP URL. */
   private LdapURL ldapURL;
 
+  /** Consumer that produces responses for search handles that are written to this connection. */
+  private Consumer<DefaultSearchOperationHandle> searchResponder;
+
+  /** Consumer that produces responses for bind handles that are written to this connection. */
+  private Consumer<DefaultOperationHandle<BindRequest, BindResponse>> bindResponder;
+
+  /** Number of outstanding read suspensions. */
+  private final AtomicInteger readSuspensions = new AtomicInteger();
+
 
   /**
    * Creates a new mock connection.
@@ -76,6 +88,32 @@ public final class MockConnection extends TransportConnection
   }
 
 
+  /**
+   * Sets the consumer that produces responses for search requests. The consumer is invoked with each search handle
+   * when it is written to this connection, after a message ID has been assigned and the handle has been marked as
+   * sent. Searches are unsupported if no consumer is set.
+   *
+   * @param  c  search responder
+   */
+  public void setSearchResponder(final Consumer<DefaultSearchOperationHandle> c)
+  {
+    searchResponder = c;
+  }
+
+
+  /**
+   * Sets the consumer that produces responses for bind requests. The consumer is invoked with each bind handle when it
+   * is written to this connection, after a message ID has been assigned and the handle has been marked as sent. Binds
+   * are unsupported if no consumer is set.
+   *
+   * @param  c  bind responder
+   */
+  public void setBindResponder(final Consumer<DefaultOperationHandle<BindRequest, BindResponse>> c)
+  {
+    bindResponder = c;
+  }
+
+
   @Override
   protected boolean test(final LdapURL url)
   {
@@ -112,7 +150,20 @@ public final class MockConnection extends TransportConnection
   @Override
   protected void write(final DefaultOperationHandle handle)
   {
-    throw new UnsupportedOperationException();
+    if (searchResponder != null && handle instanceof DefaultSearchOperationHandle) {
+      handle.messageID(1);
+      handle.sent();
+      searchResponder.accept((DefaultSearchOperationHandle) handle);
+    } else if (bindResponder != null && handle.getRequest() instanceof BindRequest) {
+      // bind handles are created by operation(BindRequest)
+      @SuppressWarnings("unchecked")
+      final DefaultOperationHandle<BindRequest, BindResponse> bindHandle = handle;
+      bindHandle.messageID(1);
+      bindHandle.sent();
+      bindResponder.accept(bindHandle);
+    } else {
+      throw new UnsupportedOperationException();
+    }
   }
 
 
@@ -123,7 +174,9 @@ public final class MockConnection extends TransportConnection
   @Override
   public void operation(final AbandonRequest request)
   {
-    throw new UnsupportedOperationException();
+    if (searchResponder == null) {
+      throw new UnsupportedOperationException();
+    }
   }
 
 
@@ -137,7 +190,10 @@ public final class MockConnection extends TransportConnection
   @Override
   public OperationHandle<BindRequest, BindResponse> operation(final BindRequest request)
   {
-    throw new UnsupportedOperationException();
+    if (bindResponder == null) {
+      throw new UnsupportedOperationException();
+    }
+    return new DefaultOperationHandle<>(request, this, connectionConfig.getResponseTimeout());
   }
 
 
@@ -179,7 +235,10 @@ public final class MockConnection extends TransportConnection
   @Override
   public SearchOperationHandle operation(final SearchRequest request)
   {
-    throw new UnsupportedOperationException();
+    if (searchResponder == null) {
+      throw new UnsupportedOperationException();
+    }
+    return new DefaultSearchOperationHandle(request, this, connectionConfig.getResponseTimeout());
   }
 
 
@@ -199,6 +258,31 @@ public final class MockConnection extends TransportConnection
   }
 
 
+  @Override
+  public void suspendReads()
+  {
+    readSuspensions.incrementAndGet();
+  }
+
+
+  @Override
+  public void resumeReads()
+  {
+    readSuspensions.decrementAndGet();
+  }
+
+
+  /**
+   * Returns whether reads are currently suspended.
+   *
+   * @return  whether reads are suspended
+   */
+  public boolean isReadSuspended()
+  {
+    return readSuspensions.get() > 0;
+  }
+
+
   @Override
   public boolean isOpen()
   {
@@ -0,0 +1,242 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.ldaptive.ConnectionConfig;
+import org.ldaptive.SearchRequest;
+import org.ldaptive.transport.DefaultOperationHandle;
+import org.ldaptive.transport.mock.MockConnection;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link HandleMap}.
+ *
+ * @author  Middleware Services
+ */
+public class HandleMapTest
+{
+
+  /** Connection for handles. */
+  private final MockConnection connection = new MockConnection(new ConnectionConfig("ldap://directory.ldaptive.org"));
+
+
+  /**
+   * Creates a new handle with the supplied message ID.
+   *
+   * @param  id  message ID
+   *
+   * @return  operation handle
+   */
+  private DefaultOperationHandle createHandle(final int id)
+  {
+    final DefaultOperationHandle handle = new DefaultOperationHandle<>(
+      SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org"), connection, Duration.ZERO);
+    handle.messageID(id);
+    return handle;
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void putGetRemove()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    final DefaultOperationHandle h1 = createHandle(1);
+    try {
+      map.put(1, h1);
+      Assert.fail("Should have thrown LdapException");
+    } catch (Exception e) {
+      Assert.assertEquals(e.getClass().getSimpleName(), "LdapException");
+    }
+    map.open();
+    Assert.assertNull(map.put(1, h1));
+    Assert.assertSame(map.put(1, createHandle(1)), h1);
+    Assert.assertSame(map.get(1), h1);
+    Assert.assertNull(map.get(2));
+    Assert.assertNull(map.get(65));
+    Assert.assertEquals(map.size(), 1);
+    try {
+      map.put(2, h1);
+      Assert.fail("Should have thrown IllegalArgumentException");
+    } catch (IllegalArgumentException e) {
+      Assert.assertEquals(map.size(), 1);
+    }
+    Assert.assertSame(map.remove(1), h1);
+    Assert.assertNull(map.remove(1));
+    Assert.assertNull(map.get(1));
+    Assert.assertEquals(map.size(), 0);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void collisionsAndGrowth()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    map.open();
+    // IDs that share a home slot
+    for (int i = 0; i < 10; i++) {
+      map.put(1 + i * 64, createHandle(1 + i * 64));
+    }
+    Assert.assertEquals(map.size(), 10);
+    map.remove(1 + 3 * 64);
+    for (int i = 0; i < 10; i++) {
+      if (i == 3) {
+        Assert.assertNull(map.get(1 + i * 64));
+      } else {
+        Assert.assertEquals(map.get(1 + i * 64).getMessageID().intValue(), 1 + i * 64);
+      }
+    }
+    map.clear();
+    Assert.assertEquals(map.size(), 0);
+
+    for (int i = 1; i <= 10000; i++) {
+      map.put(i, createHandle(i));
+    }
+    Assert.assertEquals(map.size(), 10000);
+    Assert.assertEquals(map.handles().size(), 10000);
+    for (int i = 1; i <= 10000; i += 2) {
+      Assert.assertNotNull(map.remove(i));
+    }
+    for (int i = 1; i <= 10000; i++) {
+      final DefaultOperationHandle h = map.get(i);
+      if (i % 2 == 1) {
+        Assert.assertNull(h);
+      } else {
+        Assert.assertEquals(h.getMessageID().intValue(), i);
+      }
+    }
+    Assert.assertEquals(map.size(), 5000);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void longLivedHandle()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    map.open();
+    final DefaultOperationHandle persistent = createHandle(1);
+    map.put(1, persistent);
+    // churn through many short lived requests while the first remains outstanding
+    for (int i = 2; i < 100000; i++) {
+      map.put(i, createHandle(i));
+      Assert.assertNotNull(map.get(i));
+      Assert.assertNotNull(map.remove(i));
+    }
+    Assert.assertSame(map.get(1), persistent);
+    Assert.assertEquals(map.size(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void wraparound()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    map.open();
+    final int[] ids = {Integer.MAX_VALUE - 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE, 1, 2, 3};
+    for (int id : ids) {
+      map.put(id, createHandle(id));
+    }
+    for (int id : ids) {
+      Assert.assertEquals(map.get(id).getMessageID().intValue(), id);
+    }
+    Assert.assertNotNull(map.remove(Integer.MAX_VALUE));
+    Assert.assertNull(map.get(Integer.MAX_VALUE));
+    Assert.assertNotNull(map.get(1));
+    Assert.assertEquals(map.size(), 5);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void concurrentAccess()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    map.open();
+    final DefaultOperationHandle persistent = createHandle(0);
+    map.put(0, persistent);
+    final AtomicBoolean done = new AtomicBoolean();
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<?>> writers = new ArrayList<>();
+      for (int t = 0; t < 3; t++) {
+        final int offset = t;
+        writers.add(executor.submit(() -> {
+          for (int i = 1 + offset; i < 300000; i += 3) {
+            final DefaultOperationHandle h = createHandle(i);
+            map.put(i, h);
+            Assert.assertSame(map.get(i), h);
+            Assert.assertSame(map.remove(i), h);
+          }
+          return null;
+        }));
+      }
+      final Future<?> reader = executor.submit(() -> {
+        while (!done.get()) {
+          Assert.assertSame(map.get(0), persistent);
+        }
+        return null;
+      });
+      for (Future<?> f : writers) {
+        f.get(60, TimeUnit.SECONDS);
+      }
+      done.set(true);
+      reader.get(60, TimeUnit.SECONDS);
+    } finally {
+      executor.shutdownNow();
+    }
+    Assert.assertEquals(map.size(), 1);
+  }
+
+
+  /**
+   * @throws  Exception  On test failure.
+   */
+  @Test(groups = "transport")
+  public void lazySearches()
+    throws Exception
+  {
+    final HandleMap map = new HandleMap();
+    map.open();
+    map.put(1, createHandle(1));
+    Assert.assertFalse(map.hasLazySearches());
+    final SearchRequest request = SearchRequest.objectScopeSearchRequest("dc=ldaptive,dc=org");
+    request.setLazyAttributes(true);
+    final DefaultOperationHandle lazy = new DefaultOperationHandle<>(request, connection, Duration.ZERO);
+    lazy.messageID(2);
+    map.put(2, lazy);
+    Assert.assertTrue(map.hasLazySearches());
+    map.remove(1);
+    Assert.assertTrue(map.hasLazySearches());
+    map.remove(2);
+    Assert.assertFalse(map.hasLazySearches());
+    map.put(2, lazy);
+    map.clear();
+    Assert.assertFalse(map.hasLazySearches());
+  }
+}
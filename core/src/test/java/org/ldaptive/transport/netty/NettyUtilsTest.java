@@ -0,0 +1,39 @@
+/* See LICENSE for licensing and NOTICE for copyright. */
+package org.ldaptive.transport.netty;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.unix.UnixChannelOption;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Unit test for {@link NettyUtils}.
+ *
+ * @author  Middleware Services
+ */
+public class NettyUtilsTest
+{
+
+
+  /** Unit test for {@link NettyUtils#getChannelOption(String)}. */
+  @Test(groups = "transport")
+  public void getChannelOption()
+  {
+    Assert.assertSame(NettyUtils.getChannelOption("SO_KEEPALIVE"), ChannelOption.SO_KEEPALIVE);
+    Assert.assertSame(NettyUtils.getChannelOption("CONNECT_TIMEOUT_MILLIS"), ChannelOption.CONNECT_TIMEOUT_MILLIS);
+
+    // native transport options are registered under a class qualified name
+    Assert.assertSame(NettyUtils.getChannelOption("SO_REUSEPORT"), UnixChannelOption.SO_REUSEPORT);
+    if (Epoll.isAvailable()) {
+      Assert.assertSame(NettyUtils.getChannelOption("TCP_KEEPIDLE"), EpollChannelOption.TCP_KEEPIDLE);
+      Assert.assertSame(NettyUtils.getChannelOption("TCP_QUICKACK"), EpollChannelOption.TCP_QUICKACK);
+    }
+
+    // unknown options are created on demand
+    final ChannelOption<?> unknown = NettyUtils.getChannelOption("LDAPTIVE_UNKNOWN_OPTION");
+    Assert.assertEquals(unknown.name(), "LDAPTIVE_UNKNOWN_OPTION");
+    Assert.assertSame(NettyUtils.getChannelOption("LDAPTIVE_UNKNOWN_OPTION"), unknown);
+  }
+}